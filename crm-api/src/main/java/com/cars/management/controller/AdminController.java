@@ -1,5 +1,7 @@
 package com.cars.management.controller;
 
+import com.cars.management.dto.request.BatchEndLeaseRequestDto;
+import com.cars.management.dto.request.BatchStartLeaseRequestDto;
 import com.cars.management.dto.request.CreateCustomerRequestDto;
 import com.cars.management.dto.request.CreateOwnerRequestDto;
 import com.cars.management.dto.request.CustomerDto;
@@ -7,29 +9,39 @@ import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.request.RegisterCarRequestDto;
 import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
 import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
+import com.cars.management.dto.response.BatchLeaseResponseDto;
 import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
 import com.cars.management.dto.response.CreateCustomerResponseDto;
 import com.cars.management.dto.response.CreateOwnerResponseDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
 import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.OwnerResponseDto;
 import com.cars.management.dto.response.RegisterCarResponseDto;
 import com.cars.management.dto.response.UpdateCustomerDetailsResponseDto;
 import com.cars.management.dto.response.UpdateOwnerDetailsResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.enums.CarStatus;
 import com.cars.management.enums.LeaseStatus;
+import com.cars.management.logging.LogMarkers;
 import com.cars.management.service.serviveports.commandports.CustomerCommandService;
 import com.cars.management.service.serviveports.commandports.OwnerCommandService;
 import com.cars.management.service.serviveports.queryports.CarQueryService;
 import com.cars.management.service.serviveports.queryports.CustomerQueryService;
+import com.cars.management.service.serviveports.queryports.DeletionJobQueryService;
 import com.cars.management.service.serviveports.queryports.LeaseQueryService;
 import com.cars.management.service.serviveports.queryports.OwnerQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -40,9 +52,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -59,8 +74,13 @@ public class AdminController {
     private CustomerQueryService customerQueryService;
     @Autowired
     private LeaseQueryService leaseQueryService;
+
+    @Autowired
+    private LeaseDetailsExport leaseDetailsExport;
     @Autowired
     private OwnerQueryService ownerQueryService;
+    @Autowired
+    private DeletionJobQueryService deletionJobQueryService;
 
     // Register car owner
     @Operation(summary = "Register car owner", description = "Register car owner")
@@ -74,9 +94,9 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/registerCarOwner")
     public ResponseEntity<CreateOwnerResponseDto> registerCarOwner(@RequestBody @Valid CreateOwnerRequestDto newOwnerDetails) {
-        log.info("Received new car owner registration request: {}", newOwnerDetails);
+        log.info(LogMarkers.SAMPLED, "Received new car owner registration request");
         CreateOwnerResponseDto responseDto = ownerCommandService.createOwner(newOwnerDetails);
-        log.info("Successfully registered new car owner with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("ownerId", responseDto.getId()).log("Successfully registered new car owner");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
@@ -84,16 +104,23 @@ public class AdminController {
     @Operation(summary = "Get car details by car ID", description = "Fetches car details for the given car ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Car details fetched successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Car not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/getCarDetailsByCarId")
-    public ResponseEntity<CarResponseDto> getCarStatusAndDetails(@RequestParam Integer carId) {
-        log.info("Received request to fetch car details for car ID: {}", carId);
-        CarResponseDto car = carQueryService.getCarStatusAndDetails(carId);
-        log.info("Successfully fetched car details for car ID: {}", carId);
-        return ResponseEntity.status(HttpStatus.OK).body(car);
+    public ResponseEntity<CarResponseDto> getCarStatusAndDetails(@RequestParam Integer carId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch car details for car ID: {}", carId);
+        Optional<String> version = carQueryService.getCarVersion(carId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Car details not modified for car ID: {}", carId);
+            return null;
+        }
+        VersionedResponseDto<CarResponseDto> car = ConditionalGet.current(version,
+                () -> carQueryService.getCarStatusAndDetails(carId), () -> carQueryService.evictCarStatusAndDetails(carId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched car details for car ID: {}", carId);
+        return ConditionalGet.ok(car);
     }
 
     // Get cars by status
@@ -106,9 +133,9 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/getCarByStatus")
     public ResponseEntity<List<CarResponseDto>> getCarsByStatus(@RequestParam CarStatus status) {
-        log.info("Received request to fetch cars with status: {}", status);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch cars with status: {}", status);
         List<CarResponseDto> cars = carQueryService.getCarsByStatus(status);
-        log.info("Successfully fetched {} cars with status: {}", cars.size(), status);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} cars with status: {}", cars.size(), status);
         return ResponseEntity.status(HttpStatus.OK).body(cars);
     }
 
@@ -122,25 +149,26 @@ public class AdminController {
     @PostMapping("/registerCustomer")  // Post request to register a new customer
     public ResponseEntity<CreateCustomerResponseDto> registerCustomer(
             @RequestBody @Valid CreateCustomerRequestDto createCustomerRequestDto) {
-        log.info("Received new car customer registration request: {}", createCustomerRequestDto);
+        log.info(LogMarkers.SAMPLED, "Received new car customer registration request");
         CreateCustomerResponseDto responseDto = customerCommandService.registerCustomer(createCustomerRequestDto);
-        log.info("Successfully registered new customer with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("customerId", responseDto.getId()).log("Successfully registered new customer");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
-    @Operation(summary = "Delete a customer by ID", description = "Deletes a customer from the system by their ID")
+    @Operation(summary = "Delete a customer by ID", description = "Hides the customer at once and queues a job that "
+            + "deletes their leases and the customer in chunks. Returns the job; poll /api/admin/getDeletionJob for its progress.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Customer successfully deleted"),
+            @ApiResponse(responseCode = "202", description = "Customer hidden and deletion job accepted"),
             @ApiResponse(responseCode = "404", description = "Customer not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/deleteCustomer")
-    public ResponseEntity<String> deleteCustomerById(
+    public ResponseEntity<DeletionJobResponseDto> deleteCustomerById(
             @RequestParam Integer customerId) {
-        log.info("Received request to delete customer with ID: {}", customerId);
-        customerCommandService.deleteCustomerById(customerId);
-        return new ResponseEntity<>("Customer deleted successfully with ID: " + customerId, HttpStatus.OK);
+        log.info(LogMarkers.SAMPLED, "Received request to delete customer with ID: {}", customerId);
+        DeletionJobResponseDto responseDto = customerCommandService.deleteCustomerById(customerId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(responseDto);
     }
 
     @Operation(summary = "Update customer details by ID", description = "Updates the details of an existing customer based on the provided customer ID.")
@@ -153,18 +181,18 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/update/updateCustomer")  // PUT request to update a customer by ID
     public ResponseEntity<UpdateCustomerDetailsResponseDto> updateCustomerById(@RequestBody UpdateCustomerDetailsRequestDto updateCustomerDetailsRequestDto) {
-        log.info("Update customer details started: {}", updateCustomerDetailsRequestDto);
+        log.atInfo().addKeyValue("customerId", updateCustomerDetailsRequestDto.getId()).log("Update customer details started");
         UpdateCustomerDetailsResponseDto responseDto = customerCommandService.updateCustomerById(updateCustomerDetailsRequestDto);
-        log.info("Successfully updated customer details with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("customerId", responseDto.getId()).log("Successfully updated customer details");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
     @Operation(summary = "Start a lease for a customer", description = "Starts a new lease for a customer with a given car if the customer is eligible and the car is available.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lease started successfully"),
+            @ApiResponse(responseCode = "201", description = "Lease started successfully"),
             @ApiResponse(responseCode = "400", description = "Bad Request - Invalid request parameters"),
-            @ApiResponse(responseCode = "404", description = "Customer or car not found or car is not available"),
-            @ApiResponse(responseCode = "409", description = "Conflict - Customer already has 2 active leases"),
+            @ApiResponse(responseCode = "404", description = "Customer or car not found"),
+            @ApiResponse(responseCode = "409", description = "Conflict - Car is not available, or the customer already has as many active leases as their tier allows"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
@@ -172,9 +200,9 @@ public class AdminController {
     public ResponseEntity<CustomerStartLeaseResponseDto> startLease(
             @RequestParam Integer customerId,
             @RequestParam Integer carId) {
-        log.info("Received request to start lease for customer ID: {} and car ID: {}", customerId, carId);
+        log.info(LogMarkers.SAMPLED, "Received request to start lease for customer ID: {} and car ID: {}", customerId, carId);
         CustomerStartLeaseResponseDto responseDto = customerCommandService.startLease(customerId, carId);
-        log.info("Successfully started lease for customer ID: {} and car ID: {}", customerId, carId);
+        log.info(LogMarkers.SAMPLED, "Successfully started lease for customer ID: {} and car ID: {}", customerId, carId);
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
@@ -192,14 +220,60 @@ public class AdminController {
     @PostMapping("/endLease")
     public ResponseEntity<LeaseDto> endLease(
             @RequestParam Integer leaseId) {
-        log.info("Received request to end lease for lease ID: {}", leaseId);
+        log.info(LogMarkers.SAMPLED, "Received request to end lease for lease ID: {}", leaseId);
         LeaseDto responseDto = customerCommandService.endLease(leaseId);
-        log.info("Successfully request to end lease for lease ID: {}", leaseId);
+        log.info(LogMarkers.SAMPLED, "Successfully request to end lease for lease ID: {}", leaseId);
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
+    @Operation(summary = "Start leases in a batch",
+            description = "Starts a lease for each (customerId, carId) pair in one transaction and reports a result code per item. " +
+                    "In ALL_OR_NOTHING mode a single failing item leaves every lease unstarted; in BEST_EFFORT mode the other items still start.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Every lease started"),
+            @ApiResponse(responseCode = "200", description = "BEST_EFFORT batch applied, some items failed"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Empty or oversized batch"),
+            @ApiResponse(responseCode = "409", description = "Conflict - ALL_OR_NOTHING batch rejected, nothing changed"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/startLeases")
+    public ResponseEntity<BatchLeaseResponseDto> startLeases(@RequestBody @Valid BatchStartLeaseRequestDto batchStartLeaseRequestDto) {
+        log.info(LogMarkers.SAMPLED, "Received request to start a batch of {} leases", batchStartLeaseRequestDto.getLeases().size());
+        BatchLeaseResponseDto responseDto = customerCommandService.startLeases(batchStartLeaseRequestDto);
+        log.info("Batch start finished: {} started, {} failed", responseDto.getSucceeded(), responseDto.getFailed());
+        return ResponseEntity.status(batchStatus(responseDto)).body(responseDto);
+    }
+
+    @Operation(summary = "End leases in a batch",
+            description = "Ends each lease in one transaction and reports a result code per item. " +
+                    "In ALL_OR_NOTHING mode a single failing item leaves every lease active; in BEST_EFFORT mode the other items still end.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Every lease ended"),
+            @ApiResponse(responseCode = "200", description = "BEST_EFFORT batch applied, some items failed"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Empty or oversized batch"),
+            @ApiResponse(responseCode = "409", description = "Conflict - ALL_OR_NOTHING batch rejected, nothing changed"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/endLeases")
+    public ResponseEntity<BatchLeaseResponseDto> endLeases(@RequestBody @Valid BatchEndLeaseRequestDto batchEndLeaseRequestDto) {
+        log.info(LogMarkers.SAMPLED, "Received request to end a batch of {} leases", batchEndLeaseRequestDto.getLeaseIds().size());
+        BatchLeaseResponseDto responseDto = customerCommandService.endLeases(batchEndLeaseRequestDto);
+        log.info("Batch end finished: {} ended, {} failed", responseDto.getSucceeded(), responseDto.getFailed());
+        return ResponseEntity.status(batchStatus(responseDto)).body(responseDto);
+    }
+
+    private static HttpStatus batchStatus(BatchLeaseResponseDto responseDto) {
+        if (!responseDto.isApplied()) {
+            return HttpStatus.CONFLICT;
+        }
+        return responseDto.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.OK;
+    }
+
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Customer fetched successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Customer not found"),
             @ApiResponse(responseCode = "400", description = "Bad Request - Invalid customer ID"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
@@ -207,11 +281,17 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/getCustomerById")
     public ResponseEntity<CustomerDto> getCustomerById(
-            @RequestParam Integer customerId) {
-        log.info("Received request to fetch customer with ID: {}", customerId);
-        CustomerDto customer = customerQueryService.getCustomerById(customerId);
-        log.info("Successfully fetched customer with ID: {}", customerId);
-        return ResponseEntity.status(HttpStatus.OK).body(customer);
+            @RequestParam Integer customerId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch customer with ID: {}", customerId);
+        Optional<String> version = customerQueryService.getCustomerVersion(customerId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Customer not modified with ID: {}", customerId);
+            return null;
+        }
+        VersionedResponseDto<CustomerDto> customer = ConditionalGet.current(version,
+                () -> customerQueryService.getCustomerById(customerId), () -> customerQueryService.evictCustomerById(customerId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched customer with ID: {}", customerId);
+        return ConditionalGet.ok(customer);
     }
 
     @Operation(summary = "Get lease history for a customer",
@@ -225,9 +305,9 @@ public class AdminController {
     @GetMapping("/getLeaseHistoryByCustomerId")
     public ResponseEntity<List<LeaseDto>> getLeaseHistoryByCustomerId(
             @RequestParam Integer customerId) {
-        log.info("Received request to fetch lease history for customer with ID: {}", customerId);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease history for customer with ID: {}", customerId);
         List<LeaseDto> leaseDtos = customerQueryService.getLeaseHistoryByCustomerId(customerId);
-        log.info("Successfully fetched lease history for customer with ID: {}. Total leases: {}", customerId, leaseDtos.size());
+        log.info(LogMarkers.SAMPLED, "Successfully fetched lease history for customer with ID: {}. Total leases: {}", customerId, leaseDtos.size());
         return ResponseEntity.status(HttpStatus.OK).body(leaseDtos);
     }
 
@@ -240,50 +320,78 @@ public class AdminController {
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/viewCarsForLease")
-    public ResponseEntity<List<CarResponseDto>> viewCarsForLease() {
-        log.info("Received request to fetch cars for lease with status: {}", CarStatus.IDLE);
-        List<CarResponseDto> cars = customerQueryService.viewCarsForLease(CarStatus.IDLE);
+    public ResponseEntity<List<CarResponseDto>> viewCarsForLease(
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) String variant) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch cars for lease with status: {}, model: {}, variant: {}", CarStatus.IDLE, model, variant);
+        List<CarResponseDto> cars = customerQueryService.viewCarsForLease(CarStatus.IDLE, model, variant);
         if (cars.isEmpty()) {
             log.warn("No cars found for lease with status: {}", CarStatus.IDLE);
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body(Collections.emptyList());
         }
-        log.info("Successfully fetched {} cars for lease with status: {}", cars.size(), CarStatus.IDLE);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} cars for lease with status: {}", cars.size(), CarStatus.IDLE);
         return ResponseEntity.status(HttpStatus.OK).body(cars);
     }
 
-    @Operation(summary = "Get all customers",
-            description = "Fetches all customers from the system.")
+    @Operation(summary = "Get customers page",
+            description = "Fetches one page of customers ordered by customer ID. Pass the returned nextCursor to fetch the following page. "
+                    + "Each customer lists their active and recent leases; archived leases are served by the lease history endpoint.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Owners fetched successfully"),
-            @ApiResponse(responseCode = "204", description = "No owners found"),
+            @ApiResponse(responseCode = "200", description = "Customers page fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    @GetMapping("/getAllCustomers")
-    public ResponseEntity<List<CustomerDto>> getAllCustomer() {
-        log.info("Received request to fetch all customers.");
-        List<CustomerDto> customers = customerQueryService.getAllCustomers();
-        if (customers.isEmpty()) {
-            log.warn("No customers found in the system.");
-            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(Collections.emptyList());
-        }
-        log.info("Successfully fetched {} customers.", customers.size());
-        return ResponseEntity.status(HttpStatus.OK).body(customers);
+    @GetMapping("/getAllCustomersPage")
+    public ResponseEntity<CursorPageResponseDto<CustomerDto>> getAllCustomersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch customers page. Cursor: {}, page size: {}", cursor, pageSize);
+        CursorPageResponseDto<CustomerDto> page = customerQueryService.getCustomersPage(cursor, pageSize);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} customers.", page.getItems().size());
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @Operation(summary = "Search customers",
+            description = "Finds customers whose name, email or phone number contains the query, best matches first. "
+                    + "Queries shorter than three characters match the start of a word.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching customers fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Blank or too long query, or invalid limit"),
+            @ApiResponse(responseCode = "503", description = "Search index still loading; retry after the Retry-After delay"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/searchCustomers")
+    public ResponseEntity<List<ContactSearchResultDto>> searchCustomers(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer limit) {
+        log.info(LogMarkers.SAMPLED, "Received request to search customers. Limit: {}", limit);
+        List<ContactSearchResultDto> matches = customerQueryService.searchCustomers(query, limit);
+        log.info(LogMarkers.SAMPLED, "Successfully found {} customers.", matches.size());
+        return ResponseEntity.status(HttpStatus.OK).body(matches);
     }
 
     @Operation(summary = "Get lease details by ID", description = "Fetches the details of a lease by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lease details fetched successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Lease not found with the given ID"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/getLeaseDetailsById")
-    public ResponseEntity<LeaseDto> getLeaseDetailsById(@RequestParam Integer leaseId) {
-        log.info("Received request to fetch lease details for lease ID: {}", leaseId);
-        LeaseDto lease = leaseQueryService.getLeaseDetailsById(leaseId);
-        log.info("Successfully fetched lease details for lease ID: {}", leaseId);
-        return ResponseEntity.status(HttpStatus.OK).body(lease);
+    public ResponseEntity<LeaseDto> getLeaseDetailsById(@RequestParam Integer leaseId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease details for lease ID: {}", leaseId);
+        Optional<String> version = leaseQueryService.getLeaseVersion(leaseId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Lease details not modified for lease ID: {}", leaseId);
+            return null;
+        }
+        VersionedResponseDto<LeaseDto> lease = ConditionalGet.current(version,
+                () -> leaseQueryService.getLeaseDetailsById(leaseId), () -> leaseQueryService.evictLeaseDetailsById(leaseId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched lease details for lease ID: {}", leaseId);
+        return ConditionalGet.ok(lease);
     }
 
     @Operation(summary = "Get lease details by status", description = "Fetches all leases by their status")
@@ -295,25 +403,41 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/getLeaseDetailsByStatus")
     public ResponseEntity<List<LeaseDto>> getLeaseDetailsByStatus(@RequestParam LeaseStatus status) {
-        log.info("Received request to fetch leases with status: {}", status);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch leases with status: {}", status);
         List<LeaseDto> leases = leaseQueryService.getLeaseDetailsByStatus(status);
-        log.info("Successfully fetched {} leases with status: {}", leases.size(), status);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} leases with status: {}", leases.size(), status);
         return ResponseEntity.status(HttpStatus.OK).body(leases);
     }
 
-    @Operation(summary = "Get all lease details", description = "Fetches all lease details from the system")
+    @Operation(summary = "Get lease details page",
+            description = "Fetches one page of lease details ordered by lease ID. Pass the returned nextCursor to fetch the following page.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lease details fetched successfully"),
-            @ApiResponse(responseCode = "404", description = "No lease details found"),
+            @ApiResponse(responseCode = "200", description = "Lease details page fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    @GetMapping("/getAllLeaseDetails")
-    public ResponseEntity<List<LeaseDto>> getAllLeaseDetails() {
-        log.info("Received request to fetch all lease details.");
-        List<LeaseDto> leases = leaseQueryService.getAllLeaseDetails();
-        log.info("Successfully fetched {} lease details.", leases.size());
-        return ResponseEntity.status(HttpStatus.OK).body(leases);
+    @GetMapping("/getAllLeaseDetailsPage")
+    public ResponseEntity<CursorPageResponseDto<LeaseDto>> getAllLeaseDetailsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease details page. Cursor: {}, page size: {}", cursor, pageSize);
+        CursorPageResponseDto<LeaseDto> page = leaseQueryService.getLeaseDetailsPage(cursor, pageSize);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} lease details.", page.getItems().size());
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @Operation(summary = "Export all lease details",
+            description = "Streams every lease as newline-delimited JSON, one lease per line, without loading the whole table in memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lease details streamed successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/exportLeaseDetails", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportLeaseDetails(HttpServletResponse response) {
+        log.info(LogMarkers.SAMPLED, "Received request to export all lease details.");
+        return leaseDetailsExport.writeTo(response);
     }
     @Operation(summary = "Register cars for an owner", description = "Registers a list of cars for the given owner by ID")
     @ApiResponses(value = {
@@ -326,24 +450,40 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/registerCars")
     public ResponseEntity<RegisterCarResponseDto> registerCars(@RequestBody RegisterCarRequestDto registerCarRequestDto) {
-        log.info("Received request to register cars for owner with ID: {}", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Received request to register cars for owner with ID: {}", registerCarRequestDto.getOwnerId());
         RegisterCarResponseDto responseDto = ownerCommandService.registerCar(registerCarRequestDto);
-        log.info("Successfully registered cars for owner with ID: {}", responseDto.getId());
+        log.info(LogMarkers.SAMPLED, "Successfully registered cars for owner with ID: {}", responseDto.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
-    @Operation(summary = "Delete an owner", description = "Deletes the owner based on the provided owner ID")
+    @Operation(summary = "Delete an owner", description = "Hides the owner at once and queues a job that deletes their "
+            + "leases, cars and the owner in chunks. Returns the job; poll /api/admin/getDeletionJob for its progress.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Owner successfully deleted"),
+            @ApiResponse(responseCode = "202", description = "Owner hidden and deletion job accepted"),
             @ApiResponse(responseCode = "404", description = "Owner not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/deleteOwner")
-    public ResponseEntity<String> deleteOwnerById(@RequestParam Integer ownerId) {
-        log.info("Received request to register cars for owner with ID: {}", ownerId);
-        ownerCommandService.deleteOwnerById(ownerId);
-        return new ResponseEntity<>("Owner deleted successfully with ID: " + ownerId, HttpStatus.OK);
+    public ResponseEntity<DeletionJobResponseDto> deleteOwnerById(@RequestParam Integer ownerId) {
+        log.info(LogMarkers.SAMPLED, "Received request to delete owner with ID: {}", ownerId);
+        DeletionJobResponseDto responseDto = ownerCommandService.deleteOwnerById(ownerId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(responseDto);
+    }
+
+    @Operation(summary = "Get a deletion job", description = "Fetches the status and progress of an owner or customer "
+            + "deletion accepted by deleteOwner or deleteCustomer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deletion job found"),
+            @ApiResponse(responseCode = "404", description = "Deletion job not found"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/getDeletionJob")
+    public ResponseEntity<DeletionJobResponseDto> getDeletionJob(@RequestParam Long jobId) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch deletion job with ID: {}", jobId);
+        DeletionJobResponseDto responseDto = deletionJobQueryService.getDeletionJobById(jobId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(responseDto);
     }
 
     @Operation(summary = "Update an owner by ID", description = "Updates the owner details such as name, email, and phone number by their ID")
@@ -359,45 +499,70 @@ public class AdminController {
     // change the cardetails as well
     public ResponseEntity<UpdateOwnerDetailsResponseDto> updateOwner(
             @RequestBody UpdateOwnerDetailsRequestDto updateOwnerDetailsRequestDto) { // Owner details passed in the request body
-        log.info("Update car owner details started: {}", updateOwnerDetailsRequestDto);
+        log.atInfo().addKeyValue("ownerId", updateOwnerDetailsRequestDto.getId()).log("Update car owner details started");
         UpdateOwnerDetailsResponseDto responseDto = ownerCommandService.updateOwnerById(updateOwnerDetailsRequestDto);
-        log.info("Successfully updated car owner details with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("ownerId", responseDto.getId()).log("Successfully updated car owner details");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
     @Operation(summary = "Get owner details by ID", description = "Fetches the owner details based on the provided owner ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Owner found"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Owner not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/getOwnerDetails")
     public ResponseEntity<OwnerResponseDto> getOwnerById(
-            @RequestParam Integer ownerId) {
-        log.info("Received request to fetch owner with ID: {}", ownerId);
-        OwnerResponseDto owner = ownerQueryService.getOwnerById(ownerId);
-        log.info("Successfully fetched owner with ID: {}", ownerId); // Log success
-        return ResponseEntity.status(HttpStatus.OK).body(owner);
+            @RequestParam Integer ownerId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch owner with ID: {}", ownerId);
+        Optional<String> version = ownerQueryService.getOwnerVersion(ownerId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Owner not modified with ID: {}", ownerId);
+            return null;
+        }
+        VersionedResponseDto<OwnerResponseDto> owner = ConditionalGet.current(version,
+                () -> ownerQueryService.getOwnerById(ownerId), () -> ownerQueryService.evictOwnerById(ownerId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched owner with ID: {}", ownerId); // Log success
+        return ConditionalGet.ok(owner);
     }
-    @Operation(summary = "Get all owners",
-            description = "Fetches all owners from the system.")
+    @Operation(summary = "Get owners page",
+            description = "Fetches one page of owners ordered by owner ID. Pass the returned nextCursor to fetch the following page.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Owners fetched successfully"),
-            @ApiResponse(responseCode = "204", description = "No owners found"),
+            @ApiResponse(responseCode = "200", description = "Owners page fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    @GetMapping("/getAllOwners")
-    public ResponseEntity<List<OwnerResponseDto>> getAllOwners() {
-        log.info("Received request to fetch all owners.");
-        List<OwnerResponseDto> owners = ownerQueryService.getAllOwners();
-        if (owners.isEmpty()) {
-            log.warn("No owners found in the system.");
-            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(Collections.emptyList());
-        }
-        log.info("Successfully fetched {} owners.", owners.size());
-        return ResponseEntity.status(HttpStatus.OK).body(owners);
+    @GetMapping("/getAllOwnersPage")
+    public ResponseEntity<CursorPageResponseDto<OwnerResponseDto>> getAllOwnersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch owners page. Cursor: {}, page size: {}", cursor, pageSize);
+        CursorPageResponseDto<OwnerResponseDto> page = ownerQueryService.getOwnersPage(cursor, pageSize);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} owners.", page.getItems().size());
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @Operation(summary = "Search owners",
+            description = "Finds owners whose name, email or phone number contains the query, best matches first. "
+                    + "Queries shorter than three characters match the start of a word.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching owners fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Blank or too long query, or invalid limit"),
+            @ApiResponse(responseCode = "503", description = "Search index still loading; retry after the Retry-After delay"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/searchOwners")
+    public ResponseEntity<List<ContactSearchResultDto>> searchOwners(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer limit) {
+        log.info(LogMarkers.SAMPLED, "Received request to search owners. Limit: {}", limit);
+        List<ContactSearchResultDto> matches = ownerQueryService.searchOwners(query, limit);
+        log.info(LogMarkers.SAMPLED, "Successfully found {} owners.", matches.size());
+        return ResponseEntity.status(HttpStatus.OK).body(matches);
     }
 
     @Operation(summary = "Get lease history for an owner",
@@ -411,9 +576,9 @@ public class AdminController {
     @GetMapping("/getLeaseHistoryByOwnerId")
     public ResponseEntity<List<LeaseDto>> getLeaseHistoryByOwnerId(
             @RequestParam Integer ownerId) {  // Owner ID passed as a query parameter
-        log.info("Received request to fetch lease history for owner with ID: {}", ownerId);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease history for owner with ID: {}", ownerId);
         List<LeaseDto> leaseDtos = ownerQueryService.getLeaseHistoryByOwnerId(ownerId);
-        log.info("Successfully fetched lease history for owner with ID: {}. Total leases: {}", ownerId, leaseDtos.size());
+        log.info(LogMarkers.SAMPLED, "Successfully fetched lease history for owner with ID: {}. Total leases: {}", ownerId, leaseDtos.size());
         return ResponseEntity.status(HttpStatus.OK).body(leaseDtos);
     }
 
@@ -428,7 +593,7 @@ public class AdminController {
     @DeleteMapping("/deleteCarByOwnerIdAndCarId")
     public ResponseEntity<String> deleteCarByOwnerIdAndCarId(
             @RequestParam Integer ownerId, @RequestParam Integer carId) {
-        log.info("Received request to delete car with ID: {} for owner with ID: {}", carId, ownerId);
+        log.info(LogMarkers.SAMPLED, "Received request to delete car with ID: {} for owner with ID: {}", carId, ownerId);
         ownerCommandService.deleteCarByOwnerIdAndCarId(ownerId, carId);
         return new ResponseEntity<>("Car successfully deleted for owner with ID: " + ownerId + " and car ID: " + carId, HttpStatus.OK);
     }
@@ -443,9 +608,9 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/updateCarDetails")
     public ResponseEntity<RegisterCarResponseDto> updateCarDetails(@RequestBody RegisterCarRequestDto registerCarRequestDto) {
-        log.info("Received request to update car details for owner with ID: {}", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Received request to update car details for owner with ID: {}", registerCarRequestDto.getOwnerId());
         RegisterCarResponseDto responseDto = ownerCommandService.updateCarDetails(registerCarRequestDto);
-        log.info("Successfully updated car details for owner with ID: {} ", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Successfully updated car details for owner with ID: {} ", registerCarRequestDto.getOwnerId());
         return new ResponseEntity<>(responseDto, HttpStatus.OK);
     }
 }
@@ -0,0 +1,57 @@
+package com.cars.management.controller;
+
+import com.cars.management.dto.request.TokenRequestDto;
+import com.cars.management.dto.response.TokenResponseDto;
+import com.cars.management.exception.ErrorException;
+import com.cars.management.security.AccessTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("api/auth")
+public class AuthController {
+    @Autowired
+    private AuthenticationManager authenticationManager;
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Operation(summary = "Issue an access token",
+            description = "Checks the username and password once and returns a short-lived signed token. Send it as "
+                    + "'Authorization: Bearer <token>' instead of HTTP Basic; it is verified without a password check.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Access token issued"),
+            @ApiResponse(responseCode = "400", description = "Bad Request"),
+            @ApiResponse(responseCode = "401", description = "Invalid username or password")
+    })
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponseDto> issueToken(@RequestBody @Valid TokenRequestDto tokenRequestDto) {
+        log.atInfo().addKeyValue("username", tokenRequestDto.getUsername()).log("Received access token request");
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(
+                    tokenRequestDto.getUsername(), tokenRequestDto.getPassword()));
+        } catch (AuthenticationException e) {
+            log.atWarn().addKeyValue("username", tokenRequestDto.getUsername()).log("Access token refused: {}", e.getMessage());
+            throw ErrorException.unauthorized("Invalid username or password");
+        }
+        TokenResponseDto responseDto = new TokenResponseDto(accessTokenService.issue(authentication), "Bearer",
+                accessTokenService.getTimeToLive().toSeconds());
+        log.atInfo().addKeyValue("username", authentication.getName()).log("Issued access token");
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(responseDto);
+    }
+}
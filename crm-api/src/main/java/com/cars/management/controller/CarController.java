@@ -1,7 +1,9 @@
 package com.cars.management.controller;
 
 import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.enums.CarStatus;
+import com.cars.management.logging.LogMarkers;
 import com.cars.management.service.serviveports.queryports.CarQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,8 +16,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -28,15 +32,22 @@ public class CarController {
             description = "Fetches car details for the given car ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Car details fetched successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Car not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping("/getCarDetailsByCarId")
-    public ResponseEntity<CarResponseDto> getCarStatusAndDetails(@RequestParam Integer carId) {
-        log.info("Received request to fetch car details for car ID: {}", carId);
-        CarResponseDto car = carQueryService.getCarStatusAndDetails(carId);
-        log.info("Successfully fetched car details for car ID: {}", carId);
-        return ResponseEntity.status(HttpStatus.OK).body(car);
+    public ResponseEntity<CarResponseDto> getCarStatusAndDetails(@RequestParam Integer carId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch car details for car ID: {}", carId);
+        Optional<String> version = carQueryService.getCarVersion(carId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Car details not modified for car ID: {}", carId);
+            return null;
+        }
+        VersionedResponseDto<CarResponseDto> car = ConditionalGet.current(version,
+                () -> carQueryService.getCarStatusAndDetails(carId), () -> carQueryService.evictCarStatusAndDetails(carId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched car details for car ID: {}", carId);
+        return ConditionalGet.ok(car);
     }
 
     @Operation(summary = "Get cars by status",
@@ -48,9 +59,9 @@ public class CarController {
     })
     @GetMapping("/getCarByStatus")
     public ResponseEntity<List<CarResponseDto>> getCarsByStatus(@RequestParam CarStatus status) {
-        log.info("Received request to fetch cars with status: {}", status);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch cars with status: {}", status);
         List<CarResponseDto> cars = carQueryService.getCarsByStatus(status);
-        log.info("Successfully fetched {} cars with status: {}", cars.size(), status);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} cars with status: {}", cars.size(), status);
         return ResponseEntity.status(HttpStatus.OK).body(cars);
 
     }
@@ -0,0 +1,57 @@
+package com.cars.management.controller;
+
+import com.cars.management.dto.response.VersionedResponseDto;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for the by-id endpoints. The strong ETag is the version signature of everything the endpoint
+ * renders, read by one aggregate query: a request whose {@code If-None-Match} still matches gets a 304 without the
+ * entity being loaded or mapped.
+ * <p>
+ * A full response carries the signature cached with its body, never the one just read, so an ETag always belongs
+ * to the body it was sent with. When the two differ the cached entry is older than the database: it is evicted and
+ * read again, and the next request revalidates against the current version.
+ */
+final class ConditionalGet {
+
+    // Clients may keep the response but must revalidate it; it is per user, so shared caches must not store it
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Writes the 304 and the ETag if {@code If-None-Match} matches {@code version}; the handler then returns null.
+     */
+    static boolean notModified(WebRequest webRequest, Optional<String> version) {
+        return version.isPresent() && webRequest.checkNotModified(version.get());
+    }
+
+    /**
+     * Reads the body through the read cache, and once more after {@code evict} if it was cached at another version
+     * than {@code version}; a missing entity is evicted and read again too, so it ends in a 404.
+     */
+    static <T> VersionedResponseDto<T> current(Optional<String> version, Supplier<VersionedResponseDto<T>> read,
+                                               Runnable evict) {
+        VersionedResponseDto<T> cached = read.get();
+        if (version.isPresent() && Objects.equals(version.get(), cached.getVersion())) {
+            return cached;
+        }
+        evict.run();
+        return read.get();
+    }
+
+    static <T> ResponseEntity<T> ok(VersionedResponseDto<T> response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (response.getVersion() != null) {
+            builder.eTag(response.getVersion());
+        }
+        return builder.body(response.getBody());
+    }
+}
@@ -6,9 +6,13 @@ import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
 import com.cars.management.dto.response.CarResponseDto;
 import com.cars.management.dto.response.CreateCustomerResponseDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
 import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.UpdateCustomerDetailsResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.enums.CarStatus;
+import com.cars.management.logging.LogMarkers;
 import com.cars.management.service.serviveports.commandports.CustomerCommandService;
 import com.cars.management.service.serviveports.queryports.CustomerQueryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,9 +31,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -50,24 +56,25 @@ public class CustomerController {
     @PostMapping("/registerCustomer")  // Post request to register a new customer
     public ResponseEntity<CreateCustomerResponseDto> registerCustomer(
             @RequestBody @Valid CreateCustomerRequestDto createCustomerRequestDto) {
-        log.info("Received new car customer registration request: {}", createCustomerRequestDto);
+        log.info(LogMarkers.SAMPLED, "Received new car customer registration request");
         CreateCustomerResponseDto responseDto = customerCommandService.registerCustomer(createCustomerRequestDto);
-        log.info("Successfully registered new customer with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("customerId", responseDto.getId()).log("Successfully registered new customer");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
-    @Operation(summary = "Delete a customer by ID", description = "Deletes a customer from the system by their ID")
+    @Operation(summary = "Delete a customer by ID", description = "Hides the customer at once and queues a job that "
+            + "deletes their leases and the customer in chunks. Returns the job; poll /api/admin/getDeletionJob for its progress.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Customer successfully deleted"),
+            @ApiResponse(responseCode = "202", description = "Customer hidden and deletion job accepted"),
             @ApiResponse(responseCode = "404", description = "Customer not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @DeleteMapping("/deleteCustomer")
-    public ResponseEntity<String> deleteCustomerById(
+    public ResponseEntity<DeletionJobResponseDto> deleteCustomerById(
             @RequestParam Integer customerId) {
-        log.info("Received request to delete customer with ID: {}", customerId);
-        customerCommandService.deleteCustomerById(customerId);
-        return new ResponseEntity<>("Customer deleted successfully with ID: " + customerId, HttpStatus.OK);
+        log.info(LogMarkers.SAMPLED, "Received request to delete customer with ID: {}", customerId);
+        DeletionJobResponseDto responseDto = customerCommandService.deleteCustomerById(customerId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(responseDto);
     }
 
     @Operation(summary = "Update customer details by ID", description = "Updates the details of an existing customer based on the provided customer ID.")
@@ -79,27 +86,27 @@ public class CustomerController {
     })
     @PutMapping("/update/updateCustomer")  // PUT request to update a customer by ID
     public ResponseEntity<UpdateCustomerDetailsResponseDto> updateCustomerById(@RequestBody UpdateCustomerDetailsRequestDto updateCustomerDetailsRequestDto) {
-        log.info("Update customer details started: {}", updateCustomerDetailsRequestDto);
+        log.atInfo().addKeyValue("customerId", updateCustomerDetailsRequestDto.getId()).log("Update customer details started");
         UpdateCustomerDetailsResponseDto responseDto = customerCommandService.updateCustomerById(updateCustomerDetailsRequestDto);
-        log.info("Successfully updated customer details with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("customerId", responseDto.getId()).log("Successfully updated customer details");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
     @Operation(summary = "Start a lease for a customer", description = "Starts a new lease for a customer with a given car if the customer is eligible and the car is available.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lease started successfully"),
+            @ApiResponse(responseCode = "201", description = "Lease started successfully"),
             @ApiResponse(responseCode = "400", description = "Bad Request - Invalid request parameters"),
-            @ApiResponse(responseCode = "404", description = "Customer or car not found or car is not available"),
-            @ApiResponse(responseCode = "409", description = "Conflict - Customer already has 2 active leases"),
+            @ApiResponse(responseCode = "404", description = "Customer or car not found"),
+            @ApiResponse(responseCode = "409", description = "Conflict - Car is not available, or the customer already has as many active leases as their tier allows"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PostMapping("/startLease")  // Post request to start a lease
     public ResponseEntity<CustomerStartLeaseResponseDto> startLease(
             @RequestParam Integer customerId,
             @RequestParam Integer carId) {
-        log.info("Received request to start lease for customer ID: {} and car ID: {}", customerId, carId);
+        log.info(LogMarkers.SAMPLED, "Received request to start lease for customer ID: {} and car ID: {}", customerId, carId);
         CustomerStartLeaseResponseDto responseDto = customerCommandService.startLease(customerId, carId);
-        log.info("Successfully started lease for customer ID: {} and car ID: {}", customerId, carId);
+        log.info(LogMarkers.SAMPLED, "Successfully started lease for customer ID: {} and car ID: {}", customerId, carId);
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
@@ -116,25 +123,32 @@ public class CustomerController {
     @PostMapping("/endLease")
     public ResponseEntity<LeaseDto> endLease(
             @RequestParam Integer leaseId) {
-        log.info("Received request to end lease for lease ID: {}", leaseId);
+        log.info(LogMarkers.SAMPLED, "Received request to end lease for lease ID: {}", leaseId);
         LeaseDto responseDto = customerCommandService.endLease(leaseId);
-        log.info("Successfully request to end lease for lease ID: {}", leaseId);
+        log.info(LogMarkers.SAMPLED, "Successfully request to end lease for lease ID: {}", leaseId);
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Customer fetched successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Customer not found"),
             @ApiResponse(responseCode = "400", description = "Bad Request - Invalid customer ID"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping("/getCustomerById")
     public ResponseEntity<CustomerDto> getCustomerById(
-            @RequestParam Integer customerId) {
-        log.info("Received request to fetch customer with ID: {}", customerId);
-        CustomerDto customer = customerQueryService.getCustomerById(customerId);
-        log.info("Successfully fetched customer with ID: {}", customerId);
-        return ResponseEntity.status(HttpStatus.OK).body(customer);
+            @RequestParam Integer customerId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch customer with ID: {}", customerId);
+        Optional<String> version = customerQueryService.getCustomerVersion(customerId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Customer not modified with ID: {}", customerId);
+            return null;
+        }
+        VersionedResponseDto<CustomerDto> customer = ConditionalGet.current(version,
+                () -> customerQueryService.getCustomerById(customerId), () -> customerQueryService.evictCustomerById(customerId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched customer with ID: {}", customerId);
+        return ConditionalGet.ok(customer);
     }
 
     @Operation(summary = "Get lease history for a customer",
@@ -147,48 +161,49 @@ public class CustomerController {
     @GetMapping("/getLeaseHistoryByCustomerId")
     public ResponseEntity<List<LeaseDto>> getLeaseHistoryByCustomerId(
             @RequestParam Integer customerId) {
-        log.info("Received request to fetch lease history for customer with ID: {}", customerId);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease history for customer with ID: {}", customerId);
         List<LeaseDto> leaseDtos = customerQueryService.getLeaseHistoryByCustomerId(customerId);
-        log.info("Successfully fetched lease history for customer with ID: {}. Total leases: {}", customerId, leaseDtos.size());
+        log.info(LogMarkers.SAMPLED, "Successfully fetched lease history for customer with ID: {}. Total leases: {}", customerId, leaseDtos.size());
         return ResponseEntity.status(HttpStatus.OK).body(leaseDtos);
     }
 
     @Operation(summary = "Get cars available for lease",
-            description = "Fetches a list of cars that are available for lease based on the lease status.")
+            description = "Fetches the cars that are available for lease, optionally filtered by model and variant. Served from the in-memory availability index, so lease history is not included.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cars fetched successfully"),
             @ApiResponse(responseCode = "204", description = "No cars found for the given lease status"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping("/viewCarsForLease")
-    public ResponseEntity<List<CarResponseDto>> viewCarsForLease() {
-        log.info("Received request to fetch cars for lease with status: {}", CarStatus.IDLE);
-        List<CarResponseDto> cars = customerQueryService.viewCarsForLease(CarStatus.IDLE);
+    public ResponseEntity<List<CarResponseDto>> viewCarsForLease(
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) String variant) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch cars for lease with status: {}, model: {}, variant: {}", CarStatus.IDLE, model, variant);
+        List<CarResponseDto> cars = customerQueryService.viewCarsForLease(CarStatus.IDLE, model, variant);
         if (cars.isEmpty()) {
             log.warn("No cars found for lease with status: {}", CarStatus.IDLE);
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body(Collections.emptyList());
         }
-        log.info("Successfully fetched {} cars for lease with status: {}", cars.size(), CarStatus.IDLE);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} cars for lease with status: {}", cars.size(), CarStatus.IDLE);
         return ResponseEntity.status(HttpStatus.OK).body(cars);
     }
 
-    @Operation(summary = "Get all customers",
-            description = "Fetches all customers from the system.")
+    @Operation(summary = "Get customers page",
+            description = "Fetches one page of customers ordered by customer ID. Pass the returned nextCursor to fetch the following page. "
+                    + "Each customer lists their active and recent leases; archived leases are served by the lease history endpoint.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Owners fetched successfully"),
-            @ApiResponse(responseCode = "204", description = "No owners found"),
+            @ApiResponse(responseCode = "200", description = "Customers page fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
-    @GetMapping("/getAllCustomers")
-    public ResponseEntity<List<CustomerDto>> getAllCustomer() {
-        log.info("Received request to fetch all customers.");
-        List<CustomerDto> customers = customerQueryService.getAllCustomers();
-        if (customers.isEmpty()) {
-            log.warn("No customers found in the system.");
-            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(Collections.emptyList());
-        }
-        log.info("Successfully fetched {} customers.", customers.size());
-        return ResponseEntity.status(HttpStatus.OK).body(customers);
+    @GetMapping("/getAllCustomersPage")
+    public ResponseEntity<CursorPageResponseDto<CustomerDto>> getAllCustomersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch customers page. Cursor: {}, page size: {}", cursor, pageSize);
+        CursorPageResponseDto<CustomerDto> page = customerQueryService.getCustomersPage(cursor, pageSize);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} customers.", page.getItems().size());
+        return ResponseEntity.status(HttpStatus.OK).body(page);
     }
 
 
@@ -1,21 +1,29 @@
 package com.cars.management.controller;
 
 import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.enums.LeaseStatus;
+import com.cars.management.logging.LogMarkers;
 import com.cars.management.service.serviveports.queryports.LeaseQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -24,18 +32,28 @@ public class LeaseController {
     @Autowired
     private LeaseQueryService leaseQueryService;
 
+    @Autowired
+    private LeaseDetailsExport leaseDetailsExport;
+
     @Operation(summary = "Get lease details by ID", description = "Fetches the details of a lease by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lease details fetched successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Lease not found with the given ID"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping("/getLeaseDetailsById")
-    public ResponseEntity<LeaseDto> getLeaseDetailsById(@RequestParam Integer leaseId) {
-        log.info("Received request to fetch lease details for lease ID: {}", leaseId);
-        LeaseDto lease = leaseQueryService.getLeaseDetailsById(leaseId);
-        log.info("Successfully fetched lease details for lease ID: {}", leaseId);
-        return ResponseEntity.status(HttpStatus.OK).body(lease);
+    public ResponseEntity<LeaseDto> getLeaseDetailsById(@RequestParam Integer leaseId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease details for lease ID: {}", leaseId);
+        Optional<String> version = leaseQueryService.getLeaseVersion(leaseId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Lease details not modified for lease ID: {}", leaseId);
+            return null;
+        }
+        VersionedResponseDto<LeaseDto> lease = ConditionalGet.current(version,
+                () -> leaseQueryService.getLeaseDetailsById(leaseId), () -> leaseQueryService.evictLeaseDetailsById(leaseId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched lease details for lease ID: {}", leaseId);
+        return ConditionalGet.ok(lease);
     }
 
     @Operation(summary = "Get lease details by status", description = "Fetches all leases by their status")
@@ -46,24 +64,39 @@ public class LeaseController {
     })
     @GetMapping("/getLeaseDetailsByStatus")
     public ResponseEntity<List<LeaseDto>> getLeaseDetailsByStatus(@RequestParam LeaseStatus status) {
-        log.info("Received request to fetch leases with status: {}", status);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch leases with status: {}", status);
         List<LeaseDto> leases = leaseQueryService.getLeaseDetailsByStatus(status);
-        log.info("Successfully fetched {} leases with status: {}", leases.size(), status);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} leases with status: {}", leases.size(), status);
         return ResponseEntity.status(HttpStatus.OK).body(leases);
     }
 
-    @Operation(summary = "Get all lease details", description = "Fetches all lease details from the system")
+    @Operation(summary = "Get lease details page",
+            description = "Fetches one page of lease details ordered by lease ID. Pass the returned nextCursor to fetch the following page.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lease details fetched successfully"),
-            @ApiResponse(responseCode = "404", description = "No lease details found"),
+            @ApiResponse(responseCode = "200", description = "Lease details page fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
-    @GetMapping("/getAllLeaseDetails")
-    public ResponseEntity<List<LeaseDto>> getAllLeaseDetails() {
-        log.info("Received request to fetch all lease details.");
-        List<LeaseDto> leases = leaseQueryService.getAllLeaseDetails();
-        log.info("Successfully fetched {} lease details.", leases.size());
-        return ResponseEntity.status(HttpStatus.OK).body(leases);
+    @GetMapping("/getAllLeaseDetailsPage")
+    public ResponseEntity<CursorPageResponseDto<LeaseDto>> getAllLeaseDetailsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease details page. Cursor: {}, page size: {}", cursor, pageSize);
+        CursorPageResponseDto<LeaseDto> page = leaseQueryService.getLeaseDetailsPage(cursor, pageSize);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} lease details.", page.getItems().size());
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @Operation(summary = "Export all lease details",
+            description = "Streams every lease as newline-delimited JSON, one lease per line, without loading the whole table in memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lease details streamed successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping(value = "/exportLeaseDetails", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportLeaseDetails(HttpServletResponse response) {
+        log.info(LogMarkers.SAMPLED, "Received request to export all lease details.");
+        return leaseDetailsExport.writeTo(response);
     }
 
 
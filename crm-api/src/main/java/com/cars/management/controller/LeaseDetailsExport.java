@@ -0,0 +1,51 @@
+package com.cars.management.controller;
+
+import com.cars.management.config.LeaseExportProperties;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.service.serviveports.queryports.LeaseQueryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams every lease as newline-delimited JSON for the user and admin export endpoints. The rows are written on
+ * an MVC async thread while the request thread is released, under {@code crm.lease-export.timeout} instead of the
+ * default async timeout; the handler returns the task and never a body.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class LeaseDetailsExport {
+
+    private final LeaseQueryService leaseQueryService;
+    private final ObjectMapper objectMapper;
+    private final LeaseExportProperties leaseExportProperties;
+
+    WebAsyncTask<Void> writeTo(HttpServletResponse response) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(leaseExportProperties.getTimeout().toMillis(), () -> {
+            OutputStream outputStream = response.getOutputStream();
+            long exported = leaseQueryService.exportLeaseDetails(leaseDto -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(leaseDto));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+            log.info(LogMarkers.SAMPLED, "Successfully exported {} lease details.", exported);
+            return null;
+        });
+    }
+}
@@ -5,9 +5,13 @@ import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.request.RegisterCarRequestDto;
 import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
 import com.cars.management.dto.response.CreateOwnerResponseDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.OwnerResponseDto;
 import com.cars.management.dto.response.RegisterCarResponseDto;
 import com.cars.management.dto.response.UpdateOwnerDetailsResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
+import com.cars.management.logging.LogMarkers;
 import com.cars.management.service.serviveports.commandports.OwnerCommandService;
 import com.cars.management.service.serviveports.queryports.OwnerQueryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,9 +30,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -49,9 +54,9 @@ public class OwnerController {
 //    {"name": "John Doe", "email": "john.doe@example.com", "phoneNumber": "+1234567890", "cars": [],"leases":[]}
     @PostMapping("/registerCarOwner")
     public ResponseEntity<CreateOwnerResponseDto> registerCarOwner(@RequestBody @Valid CreateOwnerRequestDto newOwnerDetails) {
-        log.info("Received new car owner registration request: {}", newOwnerDetails);
+        log.info(LogMarkers.SAMPLED, "Received new car owner registration request");
         CreateOwnerResponseDto responseDto = ownerCommandService.createOwner(newOwnerDetails);
-        log.info("Successfully registered new car owner with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("ownerId", responseDto.getId()).log("Successfully registered new car owner");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
@@ -65,23 +70,24 @@ public class OwnerController {
 //    [{"model": "Toyota Camry", "variant": "Hybrid"},{"model": "Honda Accord", "variant": "Sedan"}]
     @PostMapping("/registerCars")
     public ResponseEntity<RegisterCarResponseDto> registerCars(@RequestBody RegisterCarRequestDto registerCarRequestDto) {
-        log.info("Received request to register cars for owner with ID: {}", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Received request to register cars for owner with ID: {}", registerCarRequestDto.getOwnerId());
         RegisterCarResponseDto responseDto = ownerCommandService.registerCar(registerCarRequestDto);
-        log.info("Successfully registered cars for owner with ID: {}", responseDto.getId());
+        log.info(LogMarkers.SAMPLED, "Successfully registered cars for owner with ID: {}", responseDto.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
-    @Operation(summary = "Delete an owner", description = "Deletes the owner based on the provided owner ID")
+    @Operation(summary = "Delete an owner", description = "Hides the owner at once and queues a job that deletes their "
+            + "leases, cars and the owner in chunks. Returns the job; poll /api/admin/getDeletionJob for its progress.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Owner successfully deleted"),
+            @ApiResponse(responseCode = "202", description = "Owner hidden and deletion job accepted"),
             @ApiResponse(responseCode = "404", description = "Owner not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @DeleteMapping("/deleteOwner")
-    public ResponseEntity<String> deleteOwnerById(@RequestParam Integer ownerId) {
-        log.info("Received request to register cars for owner with ID: {}", ownerId);
-        ownerCommandService.deleteOwnerById(ownerId);
-        return new ResponseEntity<>("Owner deleted successfully with ID: " + ownerId, HttpStatus.OK);
+    public ResponseEntity<DeletionJobResponseDto> deleteOwnerById(@RequestParam Integer ownerId) {
+        log.info(LogMarkers.SAMPLED, "Received request to delete owner with ID: {}", ownerId);
+        DeletionJobResponseDto responseDto = ownerCommandService.deleteOwnerById(ownerId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(responseDto);
     }
 
     @Operation(summary = "Update an owner by ID", description = "Updates the owner details such as name, email, and phone number by their ID")
@@ -96,43 +102,48 @@ public class OwnerController {
     // change the cardetails as well
     public ResponseEntity<UpdateOwnerDetailsResponseDto> updateOwner(
             @RequestBody UpdateOwnerDetailsRequestDto updateOwnerDetailsRequestDto) { // Owner details passed in the request body
-        log.info("Update car owner details started: {}", updateOwnerDetailsRequestDto);
+        log.atInfo().addKeyValue("ownerId", updateOwnerDetailsRequestDto.getId()).log("Update car owner details started");
         UpdateOwnerDetailsResponseDto responseDto = ownerCommandService.updateOwnerById(updateOwnerDetailsRequestDto);
-        log.info("Successfully updated car owner details with ID: {}", responseDto.getId());
+        log.atInfo().addKeyValue("ownerId", responseDto.getId()).log("Successfully updated car owner details");
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
     @Operation(summary = "Get owner details by ID", description = "Fetches the owner details based on the provided owner ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Owner found"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Owner not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping("/getOwnerDetails")
     public ResponseEntity<OwnerResponseDto> getOwnerById(
-            @RequestParam Integer ownerId) {
-        log.info("Received request to fetch owner with ID: {}", ownerId);
-        OwnerResponseDto owner = ownerQueryService.getOwnerById(ownerId);
-        log.info("Successfully fetched owner with ID: {}", ownerId); // Log success
-        return ResponseEntity.status(HttpStatus.OK).body(owner);
+            @RequestParam Integer ownerId, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch owner with ID: {}", ownerId);
+        Optional<String> version = ownerQueryService.getOwnerVersion(ownerId);
+        if (ConditionalGet.notModified(webRequest, version)) {
+            log.info(LogMarkers.SAMPLED, "Owner not modified with ID: {}", ownerId);
+            return null;
+        }
+        VersionedResponseDto<OwnerResponseDto> owner = ConditionalGet.current(version,
+                () -> ownerQueryService.getOwnerById(ownerId), () -> ownerQueryService.evictOwnerById(ownerId));
+        log.info(LogMarkers.SAMPLED, "Successfully fetched owner with ID: {}", ownerId); // Log success
+        return ConditionalGet.ok(owner);
     }
-    @Operation(summary = "Get all owners",
-            description = "Fetches all owners from the system.")
+    @Operation(summary = "Get owners page",
+            description = "Fetches one page of owners ordered by owner ID. Pass the returned nextCursor to fetch the following page.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Owners fetched successfully"),
-            @ApiResponse(responseCode = "204", description = "No owners found"),
+            @ApiResponse(responseCode = "200", description = "Owners page fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
-    @GetMapping("/getAllOwners")
-    public ResponseEntity<List<OwnerResponseDto>> getAllOwners() {
-        log.info("Received request to fetch all owners.");
-        List<OwnerResponseDto> owners = ownerQueryService.getAllOwners();
-        if (owners.isEmpty()) {
-            log.warn("No owners found in the system.");
-            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(Collections.emptyList());
-        }
-        log.info("Successfully fetched {} owners.", owners.size());
-        return ResponseEntity.status(HttpStatus.OK).body(owners);
+    @GetMapping("/getAllOwnersPage")
+    public ResponseEntity<CursorPageResponseDto<OwnerResponseDto>> getAllOwnersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch owners page. Cursor: {}, page size: {}", cursor, pageSize);
+        CursorPageResponseDto<OwnerResponseDto> page = ownerQueryService.getOwnersPage(cursor, pageSize);
+        log.info(LogMarkers.SAMPLED, "Successfully fetched {} owners.", page.getItems().size());
+        return ResponseEntity.status(HttpStatus.OK).body(page);
     }
 
     @Operation(summary = "Get lease history for an owner",
@@ -145,9 +156,9 @@ public class OwnerController {
     @GetMapping("/getLeaseHistoryByOwnerId")
     public ResponseEntity<List<LeaseDto>> getLeaseHistoryByOwnerId(
             @RequestParam Integer ownerId) {  // Owner ID passed as a query parameter
-        log.info("Received request to fetch lease history for owner with ID: {}", ownerId);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease history for owner with ID: {}", ownerId);
         List<LeaseDto> leaseDtos = ownerQueryService.getLeaseHistoryByOwnerId(ownerId);
-        log.info("Successfully fetched lease history for owner with ID: {}. Total leases: {}", ownerId, leaseDtos.size());
+        log.info(LogMarkers.SAMPLED, "Successfully fetched lease history for owner with ID: {}. Total leases: {}", ownerId, leaseDtos.size());
         return ResponseEntity.status(HttpStatus.OK).body(leaseDtos);
     }
 
@@ -161,7 +172,7 @@ public class OwnerController {
     @DeleteMapping("/deleteCarByOwnerIdAndCarId")
     public ResponseEntity<String> deleteCarByOwnerIdAndCarId(
             @RequestParam Integer ownerId, @RequestParam Integer carId) {
-        log.info("Received request to delete car with ID: {} for owner with ID: {}", carId, ownerId);
+        log.info(LogMarkers.SAMPLED, "Received request to delete car with ID: {} for owner with ID: {}", carId, ownerId);
         ownerCommandService.deleteCarByOwnerIdAndCarId(ownerId, carId);
         return new ResponseEntity<>("Car successfully deleted for owner with ID: " + ownerId + " and car ID: " + carId, HttpStatus.OK);
     }
@@ -175,9 +186,9 @@ public class OwnerController {
     })
     @PutMapping("/updateCarDetails")
     public ResponseEntity<RegisterCarResponseDto> updateCarDetails(@RequestBody RegisterCarRequestDto registerCarRequestDto) {
-        log.info("Received request to update car details for owner with ID: {}", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Received request to update car details for owner with ID: {}", registerCarRequestDto.getOwnerId());
         RegisterCarResponseDto responseDto = ownerCommandService.updateCarDetails(registerCarRequestDto);
-        log.info("Successfully updated car details for owner with ID: {} ", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Successfully updated car details for owner with ID: {} ", registerCarRequestDto.getOwnerId());
         return new ResponseEntity<>(responseDto, HttpStatus.OK);
     }
 }
@@ -0,0 +1,44 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Flyway migration switching primary keys to sequence-backed pooled generation.
+ * <p>
+ * Hibernate's pooled optimizer treats each sequence value as the upper bound of a block of 50 ids, so every sequence
+ * starts at max(id) + 50 and the first block begins right after the existing rows. The start value is read over JDBC
+ * and written as a literal, since a subquery in {@code START WITH} is not portable. The identity defaults from V1 are
+ * dropped: their counters would keep handing out ids inside the pooled blocks.
+ */
+public class V3__create_id_sequences extends BaseJavaMigration {
+
+    private static final int INCREMENT = 50; // Must match allocationSize on the entities
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        createSequence(connection, "cars", "car_id", "cars_seq");
+        createSequence(connection, "customers", "customer_id", "customers_seq");
+        createSequence(connection, "leases", "lease_id", "leases_seq");
+        createSequence(connection, "owners", "owner_id", "owners_seq");
+    }
+
+    private static void createSequence(Connection connection, String table, String idColumn, String sequence)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long start;
+            try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table)) {
+                result.next();
+                start = result.getLong(1) + INCREMENT;
+            }
+            statement.execute("CREATE SEQUENCE " + sequence + " START WITH " + start + " INCREMENT BY " + INCREMENT);
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn + " DROP IDENTITY");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Flyway migration script adding secondary indexes for the hot lookup paths.
+-- Composite indexes lead with the equality column so the same index also serves
+-- lookups on its leading column alone.
+
+-- Cars by status (available / on-lease / on-service listings).
+CREATE INDEX idx_cars_status ON cars (status, car_id);
+
+-- Owner -> cars walk (owner details, owner lease history, owner pages).
+CREATE INDEX idx_cars_owner_id ON cars (owner_id, status);
+
+-- Leases by status (admin lease listings).
+CREATE INDEX idx_leases_status ON leases (status, lease_id);
+
+-- Active leases of a customer (lease limit check) and customer -> leases walk.
+CREATE INDEX idx_leases_customer_id_status ON leases (customer_id, status);
+
+-- Car -> leases walk (car details, owner lease history).
+CREATE INDEX idx_leases_car_id_status ON leases (car_id, status);
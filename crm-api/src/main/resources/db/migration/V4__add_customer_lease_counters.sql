@@ -0,0 +1,11 @@
+-- Customer tier, used to look up the active lease limit (crm.lease-limits).
+ALTER TABLE customers ADD COLUMN tier ENUM('STANDARD', 'PREMIUM', 'CORPORATE') DEFAULT 'STANDARD' NOT NULL;
+
+-- Number of ACTIVE leases per customer, maintained by guarded single-row updates on lease start and end.
+ALTER TABLE customers ADD COLUMN active_lease_count INT DEFAULT 0 NOT NULL;
+
+UPDATE customers c
+SET active_lease_count = (SELECT COUNT(*) FROM leases l WHERE l.customer_id = c.customer_id AND l.status = 'ACTIVE');
+
+ALTER TABLE customers
+    ADD CONSTRAINT CK_customers_active_lease_count CHECK (active_lease_count >= 0);
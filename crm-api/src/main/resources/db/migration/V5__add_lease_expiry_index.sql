@@ -0,0 +1,4 @@
+-- Flyway migration script adding the index the lease expiry sweeper claims through.
+-- ACTIVE leases past their end date, oldest first: an equality on status then a range and
+-- sort on end_date, so each chunk reads only the rows it locks.
+CREATE INDEX idx_leases_status_end_date ON leases (status, end_date);
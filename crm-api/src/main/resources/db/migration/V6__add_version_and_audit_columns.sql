@@ -0,0 +1,25 @@
+-- Optimistic locking and auditing columns mapped by BaseEntity. The version also feeds the ETags of the GET endpoints,
+-- so bulk updates that change a rendered column increment it too.
+ALTER TABLE cars ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE cars ADD COLUMN created_on TIMESTAMP(6);
+ALTER TABLE cars ADD COLUMN modified_on TIMESTAMP(6);
+ALTER TABLE cars ADD COLUMN created_by VARCHAR(255);
+ALTER TABLE cars ADD COLUMN modified_by VARCHAR(255);
+
+ALTER TABLE customers ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE customers ADD COLUMN created_on TIMESTAMP(6);
+ALTER TABLE customers ADD COLUMN modified_on TIMESTAMP(6);
+ALTER TABLE customers ADD COLUMN created_by VARCHAR(255);
+ALTER TABLE customers ADD COLUMN modified_by VARCHAR(255);
+
+ALTER TABLE leases ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE leases ADD COLUMN created_on TIMESTAMP(6);
+ALTER TABLE leases ADD COLUMN modified_on TIMESTAMP(6);
+ALTER TABLE leases ADD COLUMN created_by VARCHAR(255);
+ALTER TABLE leases ADD COLUMN modified_by VARCHAR(255);
+
+ALTER TABLE owners ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE owners ADD COLUMN created_on TIMESTAMP(6);
+ALTER TABLE owners ADD COLUMN modified_on TIMESTAMP(6);
+ALTER TABLE owners ADD COLUMN created_by VARCHAR(255);
+ALTER TABLE owners ADD COLUMN modified_by VARCHAR(255);
@@ -0,0 +1,28 @@
+-- Owners and customers accepted for deletion. The entities filter these rows out of every read, so the target
+-- disappears as soon as its deletion job is accepted, while the job removes its leases and cars in chunks.
+ALTER TABLE owners ADD COLUMN pending_deletion BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE customers ADD COLUMN pending_deletion BOOLEAN DEFAULT FALSE NOT NULL;
+
+-- Asynchronous cascading deletes of an owner or customer and their progress, polled by the job status endpoint.
+CREATE TABLE deletion_jobs (
+    job_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    target_type ENUM('OWNER', 'CUSTOMER') NOT NULL,
+    target_id INT NOT NULL,
+    status ENUM('ACCEPTED', 'RUNNING', 'COMPLETED', 'FAILED') NOT NULL,
+    phase ENUM('LEASES', 'CARS', 'TARGET') NOT NULL,
+    leases_deleted INT DEFAULT 0 NOT NULL,
+    cars_deleted INT DEFAULT 0 NOT NULL,
+    failed_attempts INT DEFAULT 0 NOT NULL,
+    last_error VARCHAR(1000),
+    finished_on TIMESTAMP(6),
+    version BIGINT DEFAULT 0 NOT NULL,
+    created_on TIMESTAMP(6),
+    modified_on TIMESTAMP(6),
+    created_by VARCHAR(255),
+    modified_by VARCHAR(255)
+);
+
+-- Unfinished jobs, oldest first, for the workers to claim
+CREATE INDEX idx_deletion_jobs_status ON deletion_jobs (status, job_id);
+-- The latest job of a target, so a repeated delete request returns it instead of queueing another
+CREATE INDEX idx_deletion_jobs_target ON deletion_jobs (target_type, target_id);
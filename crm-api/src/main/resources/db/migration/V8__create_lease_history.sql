@@ -0,0 +1,27 @@
+-- Archive tier for ENDED leases. The lease archiver moves ENDED leases older than crm.lease-archive.archive-after
+-- out of `leases`, so the operational table and its indexes only hold recent history.
+--
+-- H2 has no declarative partitioning; partition_month (the first day of the month the lease ended in) is the range
+-- partition key the production database partitions on, and the month-leading index lets a retention job drop or
+-- export one month without touching the others. Rows keep their lease_id and never change after they are written.
+CREATE TABLE lease_history (
+    lease_id INT PRIMARY KEY,
+    partition_month DATE NOT NULL,
+    start_date TIMESTAMP(6) NOT NULL,
+    end_date TIMESTAMP(6) NOT NULL,
+    car_id INT NOT NULL,
+    customer_id INT NOT NULL,
+    archived_on TIMESTAMP(6) NOT NULL
+);
+
+ALTER TABLE lease_history
+    ADD CONSTRAINT FK_lease_history_car_id FOREIGN KEY (car_id) REFERENCES cars(car_id);
+
+ALTER TABLE lease_history
+    ADD CONSTRAINT FK_lease_history_customer_id FOREIGN KEY (customer_id) REFERENCES customers(customer_id);
+
+CREATE INDEX idx_lease_history_partition_month ON lease_history (partition_month, lease_id);
+
+-- The history endpoints: a customer's archived leases, and the archived leases of an owner's cars
+CREATE INDEX idx_lease_history_customer_id ON lease_history (customer_id, partition_month);
+CREATE INDEX idx_lease_history_car_id ON lease_history (car_id, partition_month);
@@ -0,0 +1,196 @@
+package com.cars.management.controller;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.repository.JdbcRoundTripCounter;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.projection.AggregateVersion;
+import com.cars.management.repository.queryrepository.CustomerQueryRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.CustomerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.CarQueryServiceImpl;
+import com.cars.management.service.serviveports.commandports.CustomerCommandService;
+import com.cars.management.service.serviveports.queryports.CarQueryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls the car by-id endpoint with and without a matching {@code If-None-Match}, and checks that the version
+ * signatures of a car, its owner and its customer move when a lease starts or ends and stay put otherwise.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({CarController.class, CarQueryServiceImpl.class, CustomerCommandServiceImpl.class, LeaseLimitProperties.class,
+        LeaseBatchProperties.class, AvailableCarIndex.class, ReadCacheInvalidator.class, CacheConfig.class,
+        ReadCacheProperties.class, CarMapperImpl.class, CustomerMapperImpl.class, LeaseMapperImpl.class,
+        JdbcRoundTripCounter.class, DeletionJobQueue.class, DeletionJobMapperImpl.class,
+        CustomerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConditionalGetTest {
+
+    @Autowired
+    private CarController carController;
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CustomerCommandService customerCommandService;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private CustomerQueryRepository customerQueryRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Method under test: {@link CarController#getCarStatusAndDetails(Integer, org.springframework.web.context.request.WebRequest)}
+     */
+    @Test
+    void testMatchingIfNoneMatchIsAnsweredWith304FromOneQuery() {
+        // Arrange
+        Car car = car("Conditional");
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        ResponseEntity<CarResponseDto> first = carController.getCarStatusAndDetails(car.getId(),
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/car/getCarDetailsByCarId"), firstResponse));
+        String eTag = first.getHeaders().getETag();
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/car/getCarDetailsByCarId");
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse revalidationResponse = new MockHttpServletResponse();
+
+        // Act
+        JdbcRoundTripCounter.reset();
+        ResponseEntity<CarResponseDto> notModified = carController.getCarStatusAndDetails(car.getId(),
+                new ServletWebRequest(revalidation, revalidationResponse));
+        long roundTrips = JdbcRoundTripCounter.roundTrips();
+
+        // Assert
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(eTag);
+        assertFalse(eTag.startsWith("W/"), "The ETag is strong");
+        assertEquals("no-cache, private", first.getHeaders().getCacheControl());
+        assertEquals(car.getId(), first.getBody().getId());
+        assertNull(notModified);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), revalidationResponse.getStatus());
+        assertEquals(eTag, revalidationResponse.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, roundTrips, "Only the version signature is read");
+    }
+
+    /**
+     * Method under test: {@link CarController#getCarStatusAndDetails(Integer, org.springframework.web.context.request.WebRequest)}
+     */
+    @Test
+    void testCachedBodyOlderThanTheVersionIsReloadedWithItsOwnETag() {
+        // Arrange
+        Car car = car("Cached");
+        ResponseEntity<CarResponseDto> first = carController.getCarStatusAndDetails(car.getId(),
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/car/getCarDetailsByCarId"),
+                        new MockHttpServletResponse()));
+        String staleETag = first.getHeaders().getETag();
+        // Bypasses the services, so the cached entry is not evicted
+        jdbcTemplate.update("UPDATE cars SET model = 'Edited', version = version + 1 WHERE car_id = ?", car.getId());
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/car/getCarDetailsByCarId");
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, staleETag);
+
+        // Act
+        ResponseEntity<CarResponseDto> reloaded = carController.getCarStatusAndDetails(car.getId(),
+                new ServletWebRequest(revalidation, new MockHttpServletResponse()));
+
+        // Assert
+        assertNotNull(reloaded);
+        assertEquals(HttpStatus.OK, reloaded.getStatusCode());
+        assertEquals("Edited", reloaded.getBody().getModel());
+        assertNotEquals(staleETag, reloaded.getHeaders().getETag());
+        assertEquals("\"" + carQueryService.getCarVersion(car.getId()).orElseThrow() + "\"",
+                reloaded.getHeaders().getETag());
+        assertEquals("Edited", carQueryService.getCarStatusAndDetails(car.getId()).getBody().getModel());
+    }
+
+    /**
+     * Method under test: {@link CarQueryServiceImpl#getCarVersion(Integer)}
+     */
+    @Test
+    void testSignaturesChangeWhenALeaseStartsAndEnds() {
+        // Arrange
+        Car car = car("Signature");
+        Customer customer = customerCommandRepository.save(Customer.builder()
+                .name("Signature Customer")
+                .email("signature@example.org")
+                .phoneNumber("555-0102")
+                .build());
+        List<String> beforeStart = signatures(car, customer);
+
+        // Act
+        customerCommandService.startLease(customer.getId(), car.getId());
+        List<String> afterStart = signatures(car, customer);
+        List<String> afterStartAgain = signatures(car, customer);
+        Integer leaseId = jdbcTemplate.queryForObject(
+                "SELECT lease_id FROM leases WHERE car_id = ? AND status = 'ACTIVE'", Integer.class, car.getId());
+        customerCommandService.endLease(leaseId);
+        List<String> afterEnd = signatures(car, customer);
+
+        // Assert
+        assertEquals(afterStart, afterStartAgain, "Reads do not move the signatures");
+        for (int i = 0; i < beforeStart.size(); i++) {
+            assertNotEquals(beforeStart.get(i), afterStart.get(i));
+            assertNotEquals(afterStart.get(i), afterEnd.get(i));
+        }
+        assertEquals(CarStatus.IDLE, carCommandRepository.findById(car.getId()).orElseThrow().getStatus());
+    }
+
+    private Car car(String model) {
+        Owner owner = ownerQueryRepository.findAll().get(0);
+        return carCommandRepository.save(Car.builder()
+                .model(model)
+                .variant("Variant")
+                .status(CarStatus.IDLE)
+                .owner(owner)
+                .build());
+    }
+
+    private List<String> signatures(Car car, Customer customer) {
+        return List.of(
+                carQueryService.getCarVersion(car.getId()).orElseThrow(),
+                customerQueryRepository.findAggregateVersionById(customer.getId()).map(AggregateVersion::signature).orElseThrow(),
+                ownerQueryRepository.findAggregateVersionById(car.getOwner().getId()).map(AggregateVersion::signature).orElseThrow());
+    }
+}
@@ -0,0 +1,133 @@
+package com.cars.management.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Logs bursts through a standalone logger context and checks that only the INFO lines of loggers under the
+ * sampled prefixes are capped, that disabled debug lines do not use up the budget, that key-value events take
+ * one slot each, that warnings always get through, and that with a marker set only the lines carrying it are sampled.
+ */
+class RateSamplingTurboFilterTest {
+
+    private static final int BURST = 500;
+    private static final int MAX_PER_SECOND = 5;
+
+    /**
+     * Method under test: {@link RateSamplingTurboFilter#decide}
+     */
+    @Test
+    void testInfoLinesOfSampledLoggersAreCappedPerSecond() {
+        // Arrange
+        LoggerContext context = new LoggerContext();
+        RateSamplingTurboFilter filter = filter(context, null);
+        ListAppender<ILoggingEvent> appender = appender(context);
+        Logger controller = context.getLogger("com.cars.management.controller.CarController");
+        Logger service = context.getLogger("com.cars.management.service.serviveimpl.queryimpl.CarQueryServiceImpl");
+        Logger sweeper = context.getLogger("com.cars.management.service.expiry.LeaseExpirySweeper");
+
+        // Act
+        long second = System.currentTimeMillis() / 1000;
+        for (int i = 0; i < BURST; i++) {
+            controller.debug("Car details: {}", i);
+            controller.info("Successfully fetched car details for car ID: {}", i);
+            service.atInfo().addKeyValue("carId", i).log("Fetched car");
+            sweeper.info("Lease expiry sweep ended {} leases", i);
+        }
+        for (int i = 0; i < 3; i++) {
+            controller.warn("Car not found: {}", i);
+        }
+        boolean sameSecond = System.currentTimeMillis() / 1000 == second;
+
+        // Assert
+        long controllerInfo = count(appender, controller, Level.INFO);
+        long serviceInfo = count(appender, service, Level.INFO);
+        assertTrue(controllerInfo >= MAX_PER_SECOND && controllerInfo <= (sameSecond ? MAX_PER_SECOND : 2 * MAX_PER_SECOND));
+        assertTrue(serviceInfo >= MAX_PER_SECOND && serviceInfo <= (sameSecond ? MAX_PER_SECOND : 2 * MAX_PER_SECOND));
+        assertEquals(BURST, count(appender, sweeper, Level.INFO), "Loggers outside the prefixes are not sampled");
+        assertEquals(3, count(appender, controller, Level.WARN), "Warnings are not sampled");
+        assertEquals(2L * BURST - controllerInfo - serviceInfo, filter.getDropped());
+        ILoggingEvent keyValueEvent = appender.list.stream()
+                .filter(event -> event.getLoggerName().equals(service.getName()))
+                .findFirst().orElseThrow();
+        assertEquals("carId", keyValueEvent.getKeyValuePairs().get(0).key);
+        context.stop();
+    }
+
+    /**
+     * Method under test: {@link RateSamplingTurboFilter#decide}
+     */
+    @Test
+    void testWithAMarkerOnlyMarkedLinesAreSampled() {
+        // Arrange
+        LoggerContext context = new LoggerContext();
+        RateSamplingTurboFilter filter = filter(context, LogMarkers.SAMPLED.getName());
+        ListAppender<ILoggingEvent> appender = appender(context);
+        Logger controller = context.getLogger("com.cars.management.controller.AuthController");
+        Logger service = context.getLogger("com.cars.management.service.serviveimpl.commandimpl.OwnerCommandServiceImpl");
+
+        // Act
+        long second = System.currentTimeMillis() / 1000;
+        for (int i = 0; i < BURST; i++) {
+            controller.info(LogMarkers.SAMPLED, "Received access token request");
+            controller.atInfo().addKeyValue("username", "admin").log("Issued access token");
+            service.info(LogMarkers.SAMPLED, "Received request to delete owner with ID: {}", i);
+            service.info("Lease with ID: {} successfully ended. Car status set to IDLE.", i);
+            service.atInfo().addKeyValue("ownerId", i).addKeyValue("jobId", i).log("Accepted owner deletion");
+        }
+        boolean sameSecond = System.currentTimeMillis() / 1000 == second;
+
+        // Assert
+        long marked = count(appender, controller, "Received access token request");
+        assertTrue(marked >= MAX_PER_SECOND && marked <= (sameSecond ? MAX_PER_SECOND : 2 * MAX_PER_SECOND));
+        assertEquals(BURST, count(appender, controller, "Issued access token"), "Audit events are never sampled");
+        assertEquals(BURST, count(appender, service, "Accepted owner deletion"), "Audit events are never sampled");
+        assertEquals(BURST, count(appender, service, "Lease with ID: {} successfully ended. Car status set to IDLE."),
+                "Unmarked plain lines are not sampled");
+        long markedService = count(appender, service, "Received request to delete owner with ID: {}");
+        assertEquals(2L * BURST - marked - markedService, filter.getDropped());
+        context.stop();
+    }
+
+    private static RateSamplingTurboFilter filter(LoggerContext context, String marker) {
+        RateSamplingTurboFilter filter = new RateSamplingTurboFilter();
+        filter.setContext(context);
+        filter.addLoggerPrefix("com.cars.management.controller");
+        filter.addLoggerPrefix("com.cars.management.service.serviveimpl");
+        if (marker != null) {
+            filter.setMarker(marker);
+        }
+        filter.setMaxPerSecond(MAX_PER_SECOND);
+        filter.start();
+        context.addTurboFilter(filter);
+        return filter;
+    }
+
+    private static ListAppender<ILoggingEvent> appender(LoggerContext context) {
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        return appender;
+    }
+
+    private static long count(ListAppender<ILoggingEvent> appender, Logger logger, Level level) {
+        return appender.list.stream()
+                .filter(event -> event.getLoggerName().equals(logger.getName()) && event.getLevel() == level)
+                .count();
+    }
+
+    private static long count(ListAppender<ILoggingEvent> appender, Logger logger, String message) {
+        return appender.list.stream()
+                .filter(event -> event.getLoggerName().equals(logger.getName()) && event.getMessage().equals(message))
+                .count();
+    }
+}
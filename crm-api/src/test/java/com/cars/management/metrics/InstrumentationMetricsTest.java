@@ -0,0 +1,102 @@
+package com.cars.management.metrics;
+
+import com.cars.management.config.MetricsConfig;
+import com.cars.management.entity.Car;
+import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.repository.queryrepository.CarQueryRepository;
+import com.cars.management.service.serviveimpl.queryimpl.CarQueryServiceImpl;
+import com.cars.management.service.serviveports.queryports.CarQueryService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls a query service through its port and through the request filter, and checks the recorded
+ * call timers, error counters and per-request statement and entity counts.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({MetricsConfig.class, SimpleMeterRegistry.class, CarQueryServiceImpl.class, CarMapperImpl.class,
+        CustomerMapperImpl.class, LeaseMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InstrumentationMetricsTest {
+
+    private static final String CAR_DETAILS_ROUTE = "/api/car/getCarDetailsByCarId";
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CarQueryRepository carQueryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Method under test: {@link MethodMetricsInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)}
+     */
+    @Test
+    void testServiceAndRepositoryCallsAreTimedAndErrorsCountedByStatus() {
+        // Arrange
+        meterRegistry.clear();
+        Integer carId = carQueryRepository.findAll().get(0).getId();
+
+        // Act
+        carQueryService.getCarStatusAndDetails(carId);
+        assertThrows(ErrorException.class, () -> carQueryService.getCarStatusAndDetails(Integer.MAX_VALUE));
+
+        // Assert
+        assertEquals(1, callCount("service", "CarQueryService", "getCarStatusAndDetails", "success"));
+        assertEquals(1, callCount("service", "CarQueryService", "getCarStatusAndDetails", "error"));
+        assertEquals(2, callCount("repository", "CarQueryRepository", "findWithLeasesById", "success"));
+        assertEquals(1, meterRegistry.get(MethodMetricsInterceptor.ERRORS)
+                .tags("component", "CarQueryService", "method", "getCarStatusAndDetails", "status", "404")
+                .counter().count());
+    }
+
+    /**
+     * Method under test: {@link RequestQueryMetricsFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}
+     */
+    @Test
+    void testRequestFilterRecordsStatementsAndEntitiesPerRoute() throws Exception {
+        // Arrange
+        meterRegistry.clear();
+        Car car = carQueryRepository.findAll().get(0);
+        RequestQueryMetricsFilter filter = new RequestQueryMetricsFilter(meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", CAR_DETAILS_ROUTE);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, CAR_DETAILS_ROUTE);
+            carQueryService.getCarStatusAndDetails(car.getId());
+        });
+
+        // Assert
+        DistributionSummary statements = meterRegistry.get(RequestQueryMetricsFilter.STATEMENTS)
+                .tags("method", "GET", "uri", CAR_DETAILS_ROUTE).summary();
+        DistributionSummary entities = meterRegistry.get(RequestQueryMetricsFilter.ENTITIES)
+                .tags("method", "GET", "uri", CAR_DETAILS_ROUTE).summary();
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount(), "The version signature, then the car, its owner and its leases in one statement");
+        assertTrue(entities.totalAmount() >= 2, "At least the car and its owner are loaded");
+    }
+
+    private long callCount(String layer, String component, String method, String outcome) {
+        return meterRegistry.get(MethodMetricsInterceptor.CALLS)
+                .tags("layer", layer, "component", component, "method", method, "outcome", outcome)
+                .timer().count();
+    }
+}
@@ -0,0 +1,68 @@
+package com.cars.management.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Blocks a virtual thread inside a {@code synchronized} block and checks the monitor attributes the pin
+ * to the method holding the monitor.
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private static final Duration EVENT_DELIVERY_TIMEOUT = Duration.ofSeconds(20);
+
+    private final Object monitor = new Object();
+
+    /**
+     * Method under test: {@link VirtualThreadPinningMonitor#start()}
+     */
+    @Test
+    void testSleepInsideSynchronizedIsRecordedAsPinned() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        pinningMonitor.start();
+
+        try {
+            // Act
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+            // Assert
+            Timer pinned = awaitPinned(meterRegistry);
+            assertNotNull(pinned, "No pinned event was delivered");
+            assertEquals(getClass().getName() + ".sleepWhileHoldingMonitor", pinned.getId().getTag("frame"));
+            assertTrue(pinned.totalTime(TimeUnit.MILLISECONDS) >= 50);
+        } finally {
+            pinningMonitor.stop();
+        }
+        assertFalse(pinningMonitor.isRunning());
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Timer awaitPinned(SimpleMeterRegistry meterRegistry) throws InterruptedException {
+        long deadline = System.nanoTime() + EVENT_DELIVERY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Timer pinned = meterRegistry.find(VirtualThreadPinningMonitor.PINNED).timer();
+            if (pinned != null) {
+                return pinned;
+            }
+            Thread.sleep(100);
+        }
+        return null;
+    }
+}
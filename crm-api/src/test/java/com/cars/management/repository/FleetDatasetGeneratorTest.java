@@ -0,0 +1,131 @@
+package com.cars.management.repository;
+
+import com.cars.management.dataset.FleetDataset;
+import com.cars.management.dataset.FleetDatasetGenerator;
+import com.cars.management.dataset.FleetDatasetSpec;
+import com.cars.management.entity.Owner;
+import com.cars.management.repository.commandrepository.OwnerCommandRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generates small fleets into the migrated test database and checks the invariants the services rely on.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FleetDatasetGeneratorTest {
+
+    private static final LocalDateTime REFERENCE_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OwnerCommandRepository ownerCommandRepository;
+
+    /**
+     * Method under test: {@link FleetDatasetGenerator#generate(FleetDatasetSpec)}
+     */
+    @Test
+    void testGeneratedFleetIsConsistent() {
+        // Arrange
+        FleetDatasetSpec spec = smallFleet().build();
+
+        // Act
+        FleetDataset dataset = new FleetDatasetGenerator(dataSource).generate(spec);
+
+        // Assert
+        assertEquals(spec.getLeases(), countInRange("leases", "lease_id", dataset.leases()));
+        assertEquals(spec.getCars(), countInRange("cars", "car_id", dataset.cars()));
+        assertTrue(dataset.activeLeases() > 0);
+        // Exactly the ON_LEASE cars have an ACTIVE lease, and it is their latest
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars c WHERE c.car_id >= ? AND "
+                + "(c.status = 'ON_LEASE') <> (EXISTS (SELECT 1 FROM leases l WHERE l.car_id = c.car_id AND l.status = 'ACTIVE'))",
+                Integer.class, dataset.cars().first()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leases a JOIN leases l ON l.car_id = a.car_id "
+                + "WHERE a.status = 'ACTIVE' AND a.lease_id >= ? AND l.start_date > a.start_date", Integer.class, dataset.leases().first()));
+        assertEquals(dataset.activeLeases(), jdbcTemplate.queryForObject(
+                "SELECT SUM(active_lease_count) FROM customers WHERE customer_id >= ?", Integer.class, dataset.customers().first()));
+        // Maintained counters match the rows and stay within the tier limits
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers c WHERE c.customer_id >= ? AND "
+                + "c.active_lease_count <> (SELECT COUNT(*) FROM leases l WHERE l.customer_id = c.customer_id AND l.status = 'ACTIVE')",
+                Integer.class, dataset.customers().first()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE customer_id >= ? AND active_lease_count > "
+                + "CASE tier WHEN 'STANDARD' THEN 2 WHEN 'PREMIUM' THEN 4 ELSE 10 END", Integer.class, dataset.customers().first()));
+        // Ended leases lie before the reference time and do not overlap on a car
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leases WHERE lease_id >= ? AND "
+                + "(start_date >= ? OR end_date > ? OR end_date < start_date)", Integer.class,
+                dataset.leases().first(), REFERENCE_TIME, REFERENCE_TIME));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leases a JOIN leases b ON b.car_id = a.car_id "
+                + "AND b.lease_id <> a.lease_id WHERE a.lease_id >= ? AND b.start_date >= a.start_date "
+                + "AND b.start_date < COALESCE(a.end_date, ?)", Integer.class, dataset.leases().first(), REFERENCE_TIME));
+        // Sequences continue after the generated ids
+        Owner owner = ownerCommandRepository.save(Owner.builder().name("Next Owner").email("next.owner@example.org")
+                .phoneNumber("5550000").build());
+        assertTrue(owner.getId() > dataset.owners().last());
+    }
+
+    /**
+     * Method under test: {@link FleetDatasetGenerator#generate(FleetDatasetSpec)}
+     */
+    @Test
+    void testSameSeedGivesSameRowsWhateverTheWriterThreads() {
+        // Arrange
+        FleetDatasetGenerator generator = new FleetDatasetGenerator(dataSource);
+
+        // Act
+        FleetDataset first = generator.generate(smallFleet().writerThreads(1).build());
+        FleetDataset second = generator.generate(smallFleet().writerThreads(4).build());
+        FleetDataset otherSeed = generator.generate(smallFleet().seed(7L).build());
+
+        // Assert
+        assertEquals(leaseRows(first), leaseRows(second));
+        assertEquals(carRows(first), carRows(second));
+        assertNotEquals(leaseRows(first), leaseRows(otherSeed));
+    }
+
+    private FleetDatasetSpec.FleetDatasetSpecBuilder smallFleet() {
+        return FleetDatasetSpec.builder()
+                .owners(20)
+                .cars(2_500)
+                .customers(600)
+                .leases(12_000)
+                .batchSize(500)
+                .referenceTime(REFERENCE_TIME);
+    }
+
+    private int countInRange(String table, String idColumn, FleetDataset.IdRange ids) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + idColumn + " BETWEEN ? AND ?",
+                Integer.class, ids.first(), ids.last());
+    }
+
+    // Rows with ids made relative to each run's ranges, so runs written one after another compare equal
+    private List<String> leaseRows(FleetDataset dataset) {
+        return jdbcTemplate.query("SELECT * FROM leases WHERE lease_id BETWEEN ? AND ? ORDER BY lease_id",
+                (row, i) -> (row.getInt("lease_id") - dataset.leases().first()) + "|" + row.getObject("start_date")
+                        + "|" + row.getObject("end_date") + "|" + row.getString("status")
+                        + "|" + (row.getInt("car_id") - dataset.cars().first())
+                        + "|" + (row.getInt("customer_id") - dataset.customers().first()),
+                dataset.leases().first(), dataset.leases().last());
+    }
+
+    private List<String> carRows(FleetDataset dataset) {
+        return jdbcTemplate.query("SELECT * FROM cars WHERE car_id BETWEEN ? AND ? ORDER BY car_id",
+                (row, i) -> row.getString("model") + "|" + row.getString("variant") + "|" + row.getString("status")
+                        + "|" + (row.getInt("owner_id") - dataset.owners().first()),
+                dataset.cars().first(), dataset.cars().last());
+    }
+}
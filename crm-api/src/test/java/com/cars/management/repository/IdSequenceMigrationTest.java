@@ -0,0 +1,48 @@
+package com.cars.management.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the id columns left by V3__create_id_sequences: no identity counter remains next to the sequences, and each
+ * sequence's first pooled block lies after the seeded rows.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdSequenceMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Method under test: {@code db.migration.V3__create_id_sequences#migrate(org.flywaydb.core.api.migration.Context)}
+     */
+    @Test
+    void testIdColumnsHaveNoIdentityAndSequencesStartAfterTheRows() {
+        // Arrange
+        List<String> idColumns = List.of("CAR_ID", "CUSTOMER_ID", "LEASE_ID", "OWNER_ID");
+
+        // Act
+        Integer identityColumns = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME IN ('CARS', 'CUSTOMERS', 'LEASES', 'OWNERS') AND COLUMN_NAME IN (?, ?, ?, ?) "
+                + "AND IS_IDENTITY = 'YES'", Integer.class, idColumns.toArray());
+        Long firstBlockStart = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE - INCREMENT + 1 FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'OWNERS_SEQ'",
+                Long.class);
+        Integer seededOwners = jdbcTemplate.queryForObject("SELECT MAX(owner_id) FROM owners WHERE owner_id <= 10",
+                Integer.class);
+
+        // Assert
+        assertEquals(0, identityColumns);
+        assertNotNull(seededOwners);
+        assertTrue(firstBlockStart > seededOwners, "The first pooled block begins after the seeded owners");
+    }
+}
@@ -0,0 +1,87 @@
+package com.cars.management.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the application {@link DataSource} so every statement execution sent to the database
+ * is counted. A JDBC batch counts as one round trip however many rows it carries.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class JdbcRoundTripCounter {
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final AtomicLong ROUND_TRIPS = new AtomicLong();
+    private static final AtomicLong BATCHES = new AtomicLong();
+
+    public static long roundTrips() {
+        return ROUND_TRIPS.get();
+    }
+
+    public static long batches() {
+        return BATCHES.get();
+    }
+
+    public static void reset() {
+        ROUND_TRIPS.set(0);
+        BATCHES.set(0);
+    }
+
+    @Bean
+    static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return proxy(DataSource.class, dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(JdbcRoundTripCounter.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (EXECUTE_METHODS.contains(method.getName())) {
+                        ROUND_TRIPS.incrementAndGet();
+                        if (method.getName().endsWith("Batch")) {
+                            BATCHES.incrementAndGet();
+                        }
+                    }
+                    Object result = invoke(method, target, args);
+                    if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                        return proxy(Connection.class, connection);
+                    }
+                    if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return proxy(statementType(method.getReturnType()), statement);
+                    }
+                    return result;
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Statement> statementType(Class<?> returnType) {
+        return (Class<Statement>) returnType;
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.cars.management.repository;
+
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.repository.commandrepository.ArchivedLeaseCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.queryrepository.ArchivedLeaseQueryRepository;
+import com.cars.management.repository.queryrepository.CarQueryRepository;
+import com.cars.management.repository.queryrepository.CustomerQueryRepository;
+import com.cars.management.repository.queryrepository.LeaseQueryRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs each repository lookup against the Flyway schema, then asks H2 to {@code EXPLAIN} every
+ * statement Hibernate generated for it. Fails when any table in the plan is read by a full scan,
+ * i.e. when a lookup lost the index it depends on.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.cars.management.repository.CapturingStatementInspector")
+class QueryPlanRegressionTest {
+
+    private static final String TABLE_SCAN = ".tableScan";
+
+    @Autowired
+    private CarQueryRepository carQueryRepository;
+
+    @Autowired
+    private LeaseQueryRepository leaseQueryRepository;
+
+    @Autowired
+    private ArchivedLeaseQueryRepository archivedLeaseQueryRepository;
+
+    @Autowired
+    private ArchivedLeaseCommandRepository archivedLeaseCommandRepository;
+
+    @Autowired
+    private LeaseCommandRepository leaseCommandRepository;
+
+    @Autowired
+    private CustomerQueryRepository customerQueryRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Method under test: {@link CarQueryRepository#findWithLeasesById(Integer)}
+     */
+    @Test
+    void testFindCarWithLeasesByIdUsesIndex() {
+        assertNoTableScan(() -> carQueryRepository.findWithLeasesById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link CarQueryRepository#findWithLeasesByStatus(CarStatus)}
+     */
+    @Test
+    void testFindCarsByStatusUsesIndex() {
+        assertNoTableScan(() -> carQueryRepository.findWithLeasesByStatus(CarStatus.IDLE), CarStatus.IDLE.name());
+    }
+
+    /**
+     * Method under test: {@link CarQueryRepository#findWithLeasesByOwnerId(Integer)}
+     */
+    @Test
+    void testFindCarsByOwnerIdUsesIndex() {
+        assertNoTableScan(() -> carQueryRepository.findWithLeasesByOwnerId(1), 1);
+    }
+
+    /**
+     * Method under test: {@link CarQueryRepository#findWithLeasesByOwnerIdIn(java.util.Collection)}
+     */
+    @Test
+    void testFindCarsByOwnerIdInUsesIndex() {
+        assertNoTableScan(() -> carQueryRepository.findWithLeasesByOwnerIdIn(List.of(1, 2)), 1, 2);
+    }
+
+    /**
+     * Method under test: {@link CarQueryRepository#findAggregateVersionById(Integer)}
+     */
+    @Test
+    void testFindCarVersionByIdUsesIndex() {
+        assertNoTableScan(() -> carQueryRepository.findAggregateVersionById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findWithCarById(Integer)}
+     */
+    @Test
+    void testFindLeaseWithCarByIdUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findWithCarById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findViewById(Integer)}
+     */
+    @Test
+    void testFindLeaseViewByIdUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findViewById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findViewsByCustomerId(Integer)}
+     */
+    @Test
+    void testFindLeaseViewsByCustomerIdUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findViewsByCustomerId(1), 1);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findViewsByStatus(LeaseStatus)}
+     */
+    @Test
+    void testFindLeasesByStatusUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findViewsByStatus(LeaseStatus.ACTIVE), LeaseStatus.ACTIVE.name());
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findViewsByCarOwnerId(Integer)}
+     */
+    @Test
+    void testFindLeasesByCarOwnerIdUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findViewsByCarOwnerId(1), 1);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findViewsByCustomerIdIn(java.util.Collection)}
+     */
+    @Test
+    void testFindLeasesByCustomerIdInUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findViewsByCustomerIdIn(List.of(1, 2)), 1, 2);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findViewsByIdGreaterThan(Integer, Limit)}
+     */
+    @Test
+    void testLeasePageUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findViewsByIdGreaterThan(5, Limit.of(3)), 5, 0, 3);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryRepository#findAggregateVersionById(Integer)}
+     */
+    @Test
+    void testFindLeaseVersionByIdUsesIndex() {
+        assertNoTableScan(() -> leaseQueryRepository.findAggregateVersionById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link LeaseCommandRepository#claimExpired(LocalDateTime, int)}
+     */
+    @Test
+    void testClaimExpiredLeasesUsesIndex() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        assertNoTableScan(() -> leaseCommandRepository.claimExpired(now, 100), now, 100);
+    }
+
+    /**
+     * Method under test: {@link LeaseCommandRepository#claimEndedBefore(LocalDateTime, int)}
+     */
+    @Test
+    void testClaimEndedLeasesUsesIndex() {
+        LocalDateTime endedBefore = LocalDateTime.of(2024, 1, 1, 0, 0);
+        assertNoTableScan(() -> leaseCommandRepository.claimEndedBefore(endedBefore, 500), endedBefore, 500);
+    }
+
+    /**
+     * Method under test: {@link ArchivedLeaseQueryRepository#findViewsByCustomerId(Integer)}
+     */
+    @Test
+    void testFindArchivedLeasesByCustomerIdUsesIndex() {
+        assertNoTableScan(() -> archivedLeaseQueryRepository.findViewsByCustomerId(1), 1);
+    }
+
+    /**
+     * Method under test: {@link ArchivedLeaseQueryRepository#findViewsByCarOwnerId(Integer)}
+     */
+    @Test
+    void testFindArchivedLeasesByCarOwnerIdUsesIndex() {
+        assertNoTableScan(() -> archivedLeaseQueryRepository.findViewsByCarOwnerId(1), 1);
+    }
+
+    /**
+     * Method under test: {@link ArchivedLeaseQueryRepository#findViewById(Integer)}
+     */
+    @Test
+    void testFindArchivedLeaseViewByIdUsesIndex() {
+        assertNoTableScan(() -> archivedLeaseQueryRepository.findViewById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link ArchivedLeaseQueryRepository#findAggregateVersionById(Integer)}
+     */
+    @Test
+    void testFindArchivedLeaseVersionByIdUsesIndex() {
+        assertNoTableScan(() -> archivedLeaseQueryRepository.findAggregateVersionById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link ArchivedLeaseQueryRepository#findViewsByIdGreaterThan(Integer, Limit)}
+     */
+    @Test
+    void testArchivedLeasePageUsesIndex() {
+        assertNoTableScan(() -> archivedLeaseQueryRepository.findViewsByIdGreaterThan(5, Limit.of(3)), 5, 0, 3);
+    }
+
+    /**
+     * Method under test: {@link ArchivedLeaseCommandRepository#findIdsByCarIdIn(java.util.Collection)}
+     */
+    @Test
+    void testFindArchivedLeaseIdsByCarIdInUsesIndex() {
+        assertNoTableScan(() -> archivedLeaseCommandRepository.findIdsByCarIdIn(List.of(1, 2)), 1, 2);
+    }
+
+    /**
+     * Method under test: {@link CustomerQueryRepository#findWithLeasesById(Integer)}
+     */
+    @Test
+    void testFindCustomerWithLeasesByIdUsesIndex() {
+        assertNoTableScan(() -> customerQueryRepository.findWithLeasesById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link CustomerQueryRepository#findByIdGreaterThanOrderByIdAsc(Integer, Limit)}
+     */
+    @Test
+    void testCustomerPageUsesIndex() {
+        assertNoTableScan(() -> customerQueryRepository.findByIdGreaterThanOrderByIdAsc(5, Limit.of(3)), 5, 0, 3);
+    }
+
+    /**
+     * Method under test: {@link CustomerQueryRepository#findAggregateVersionById(Integer)}
+     */
+    @Test
+    void testFindCustomerVersionByIdUsesIndex() {
+        assertNoTableScan(() -> customerQueryRepository.findAggregateVersionById(1), 1);
+    }
+
+    /**
+     * Method under test: {@link OwnerQueryRepository#findByIdGreaterThanOrderByIdAsc(Integer, Limit)}
+     */
+    @Test
+    void testOwnerPageUsesIndex() {
+        assertNoTableScan(() -> ownerQueryRepository.findByIdGreaterThanOrderByIdAsc(5, Limit.of(3)), 5, 0, 3);
+    }
+
+    /**
+     * Method under test: {@link OwnerQueryRepository#existsById(Object)}
+     */
+    @Test
+    void testOwnerExistsByIdUsesIndex() {
+        assertNoTableScan(() -> ownerQueryRepository.existsById(1), 1);
+    }
+
+    /**
+     * Executes the lookup, then explains every statement it issued with the same bind values.
+     */
+    /**
+     * Method under test: {@link OwnerQueryRepository#findAggregateVersionById(Integer)}
+     */
+    @Test
+    void testFindOwnerVersionByIdUsesIndex() {
+        assertNoTableScan(() -> ownerQueryRepository.findAggregateVersionById(1), 1);
+    }
+
+    private void assertNoTableScan(Runnable lookup, Object... params) {
+        entityManager.clear();
+        CapturingStatementInspector.clear();
+
+        lookup.run();
+
+        List<String> statements = CapturingStatementInspector.statements();
+        assertFalse(statements.isEmpty(), "Lookup did not issue any SQL statement");
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, params);
+            assertNotNull(plan);
+            assertFalse(plan.contains(TABLE_SCAN), () -> "Full table scan in plan for: " + sql + "\n" + plan);
+        }
+    }
+}
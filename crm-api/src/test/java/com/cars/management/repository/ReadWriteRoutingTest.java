@@ -0,0 +1,241 @@
+package com.cars.management.repository;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.DataSourceRoutingConfig;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.datasource.DataSourceRouter;
+import com.cars.management.dto.request.CarDto;
+import com.cars.management.dto.request.RegisterCarRequestDto;
+import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.RegisterCarResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.OwnerCommandRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.OwnerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.OwnerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.CarQueryServiceImpl;
+import com.cars.management.service.serviveports.commandports.OwnerCommandService;
+import com.cars.management.service.serviveports.queryports.CarQueryService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repositories against two separate H2 databases standing in for the primary and a replica
+ * that has not caught up, so every read shows which pool served it.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "crm.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "crm.datasource.replica.max-lag=1h"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataSourceRoutingConfig.class, OwnerCommandServiceImpl.class, AvailableCarIndex.class, ReadCacheInvalidator.class,
+        CacheConfig.class, ReadCacheProperties.class, OwnerMapperImpl.class, CarMapperImpl.class, DeletionJobQueue.class,
+        DeletionJobMapperImpl.class, OwnerSearchIndex.class, CarQueryServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private OwnerCommandRepository ownerCommandRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private OwnerCommandService ownerCommandService;
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private DataSourceRouter dataSourceRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void migrateReplica() {
+        // Flyway only migrates the primary; a real replica gets its schema through replication
+        Flyway.configure().dataSource(replicaDataSource).locations("classpath:db/migration").load().migrate();
+    }
+
+    @AfterEach
+    void clearRequest() {
+        dataSourceRouter.endRequest();
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Methods under test: {@link OwnerCommandRepository#findById(Object)} and {@link OwnerQueryRepository#findById(Object)}
+     */
+    @Test
+    void testRepositoriesFollowCommandQuerySplit() {
+        // Arrange
+        Owner owner = ownerCommandRepository.save(buildOwner());
+
+        // Act and Assert
+        assertTrue(ownerCommandRepository.findById(owner.getId()).isPresent());
+        assertTrue(ownerQueryRepository.findById(owner.getId()).isEmpty());
+    }
+
+    /**
+     * Method under test: {@link OwnerQueryRepository#findById(Object)}
+     */
+    @Test
+    void testSurroundingTransactionDecidesRoute() {
+        // Arrange
+        Owner owner = ownerCommandRepository.save(buildOwner());
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Act and Assert
+        assertNotNull(readWrite.execute(status -> ownerQueryRepository.findById(owner.getId()).orElse(null)));
+        assertNull(readOnly.execute(status -> ownerQueryRepository.findById(owner.getId()).orElse(null)));
+    }
+
+    /**
+     * Method under test: {@link DataSourceRouter#writeRecorded()}
+     */
+    @Test
+    void testReadsAfterWriteInSameRequestUsePrimary() {
+        // Arrange
+        dataSourceRouter.beginRequest();
+        Owner owner = ownerCommandRepository.save(buildOwner());
+
+        // Act and Assert
+        assertTrue(ownerQueryRepository.findById(owner.getId()).isPresent());
+        dataSourceRouter.endRequest();
+        assertTrue(ownerQueryRepository.findById(owner.getId()).isEmpty());
+    }
+
+    /**
+     * Method under test: {@link DataSourceRouter#writeRecorded()}
+     */
+    @Test
+    void testWriterReadsPrimaryWithinMaxLag() {
+        // Arrange
+        authenticate("writer");
+        Owner owner = ownerCommandRepository.save(buildOwner());
+
+        // Act and Assert
+        authenticate("writer");
+        assertTrue(ownerQueryRepository.findById(owner.getId()).isPresent());
+        authenticate("someone-else");
+        assertTrue(ownerQueryRepository.findById(owner.getId()).isEmpty());
+    }
+
+    /**
+     * Method under test: {@link OwnerCommandServiceImpl#registerCar(RegisterCarRequestDto)}
+     */
+    @Test
+    void testRegisterCarFindsOwnerMissingFromReplica() {
+        // Arrange
+        Owner owner = ownerCommandRepository.save(buildOwner());
+        dataSourceRouter.beginRequest();
+
+        // Act
+        RegisterCarResponseDto response = ownerCommandService.registerCar(new RegisterCarRequestDto(owner.getId(),
+                List.of(CarDto.builder().model("Routing Model").variant("Variant").build())));
+
+        // Assert
+        assertEquals(owner.getId(), response.getId());
+        assertEquals(1, response.getCar().size());
+        assertNotNull(response.getCar().get(0).getId());
+    }
+
+    /**
+     * Method under test: {@link OwnerCommandServiceImpl#updateOwnerById(UpdateOwnerDetailsRequestDto)}
+     */
+    @Test
+    void testUpdateOwnerStartsFromPrimaryRow() {
+        // Arrange
+        Owner owner = ownerCommandRepository.save(buildOwner());
+        dataSourceRouter.beginRequest();
+
+        // Act
+        ownerCommandService.updateOwnerById(UpdateOwnerDetailsRequestDto.builder()
+                .id(owner.getId())
+                .name("Renamed Owner")
+                .email(owner.getEmail())
+                .phoneNumber(owner.getPhoneNumber())
+                .build());
+
+        // Assert
+        Owner updated = ownerCommandRepository.findById(owner.getId()).orElseThrow();
+        assertEquals("Renamed Owner", updated.getName());
+        assertEquals(owner.getVersion() + 1, updated.getVersion());
+    }
+
+    /**
+     * Method under test: {@link CarQueryServiceImpl#getCarStatusAndDetails(Integer)}
+     */
+    @Test
+    void testCacheMissLoadsFromPrimary() {
+        // Arrange
+        Owner owner = ownerCommandRepository.save(buildOwner());
+        Car car = carCommandRepository.save(Car.builder()
+                .model("Routing Model")
+                .variant("Variant")
+                .status(CarStatus.IDLE)
+                .owner(owner)
+                .build());
+
+        // Act
+        CarResponseDto carResponseDto = carQueryService.getCarStatusAndDetails(car.getId()).getBody();
+
+        // Assert
+        assertEquals(car.getId(), carResponseDto.getId());
+        assertTrue(ownerQueryRepository.findById(owner.getId()).isEmpty());
+    }
+
+    private void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(name, null, Collections.emptyList()));
+    }
+
+    private Owner buildOwner() {
+        return Owner.builder()
+                .name("Routing Owner")
+                .email(UUID.randomUUID() + "@example.org")
+                .phoneNumber("5550000")
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.cars.management.security;
+
+import com.cars.management.config.AuthProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Issues tokens with a fixed clock and checks that they verify to the same user and roles, and that tampered,
+ * foreign-key and expired tokens are refused.
+ */
+class AccessTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-15T10:00:00Z");
+    private static final Authentication ADMIN = UsernamePasswordAuthenticationToken.authenticated(
+            "CarsAdmin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    /**
+     * Method under test: {@link AccessTokenService#verify(String)}
+     */
+    @Test
+    void testIssuedTokenVerifiesToTheSameUserAndRoles() {
+        // Arrange
+        AccessTokenService service = service(secret('a'), NOW);
+        String token = service.issue(ADMIN);
+
+        // Act
+        Authentication authentication = service.verify(token);
+
+        // Assert
+        assertTrue(authentication.isAuthenticated());
+        assertEquals("CarsAdmin", authentication.getName());
+        assertEquals(List.of("ROLE_ADMIN"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertEquals(3, token.split("\\.").length, "Compact JWT: header, claims, signature");
+    }
+
+    /**
+     * Method under test: {@link AccessTokenService#verify(String)}
+     */
+    @Test
+    void testTamperedForeignAndExpiredTokensAreRefused() {
+        // Arrange
+        AccessTokenService service = service(secret('a'), NOW);
+        String token = service.issue(ADMIN);
+        String[] parts = token.split("\\.");
+        String elevatedClaims = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"intruder\",\"roles\":[\"ROLE_ADMIN\"],\"iat\":0,\"exp\":9999999999}".getBytes());
+        String tampered = parts[0] + "." + elevatedClaims + "." + parts[2];
+        String foreign = service(secret('b'), NOW).issue(ADMIN);
+        AccessTokenService later = service(secret('a'), NOW.plus(Duration.ofMinutes(15)));
+
+        // Act and Assert
+        assertThrows(BadCredentialsException.class, () -> service.verify(tampered));
+        assertThrows(BadCredentialsException.class, () -> service.verify(foreign));
+        assertThrows(BadCredentialsException.class, () -> service.verify("not-a-token"));
+        assertThrows(BadCredentialsException.class, () -> service.verify(parts[0] + "." + parts[1] + ".%%%"));
+        assertThrows(CredentialsExpiredException.class, () -> later.verify(token));
+    }
+
+    private static AccessTokenService service(String secret, Instant now) {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.getToken().setSecret(secret);
+        authProperties.getToken().setTimeToLive(Duration.ofMinutes(15));
+        return new AccessTokenService(authProperties, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+}
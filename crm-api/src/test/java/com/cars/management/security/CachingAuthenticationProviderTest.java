@@ -0,0 +1,77 @@
+package com.cars.management.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Authenticates through a BCrypt-backed provider and checks that repeated correct credentials skip BCrypt
+ * but still get a token with their own request details, while wrong passwords always reach it and are refused.
+ */
+class CachingAuthenticationProviderTest {
+
+    /**
+     * Method under test: {@link CachingAuthenticationProvider#authenticate(Authentication)}
+     */
+    @Test
+    void testRepeatedCredentialsSkipTheDelegateAndWrongPasswordsDoNot() {
+        // Arrange
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        DaoAuthenticationProvider bcrypt = new DaoAuthenticationProvider(encoder);
+        bcrypt.setUserDetailsService(new InMemoryUserDetailsManager(
+                User.withUsername("CarsAdmin").password(encoder.encode("admin")).roles("ADMIN").build()));
+        AtomicInteger delegateCalls = new AtomicInteger();
+        AuthenticationProvider counting = new AuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+                delegateCalls.incrementAndGet();
+                return bcrypt.authenticate(authentication);
+            }
+
+            @Override
+            public boolean supports(Class<?> authentication) {
+                return bcrypt.supports(authentication);
+            }
+        };
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(counting, 10, Duration.ofMinutes(5));
+
+        // Act
+        Authentication first = provider.authenticate(credentials("admin", "first request"));
+        Authentication second = provider.authenticate(credentials("admin", "second request"));
+        int callsAfterRepeat = delegateCalls.get();
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("wrong", "wrong request")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("wrong", "wrong request")));
+        Authentication afterWrong = provider.authenticate(credentials("admin", "third request"));
+
+        // Assert
+        assertTrue(first.isAuthenticated());
+        assertTrue(second.isAuthenticated());
+        assertNotSame(first, second, "Each request gets its own token");
+        assertEquals(first.getPrincipal(), second.getPrincipal());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertEquals("first request", first.getDetails());
+        assertEquals("second request", second.getDetails());
+        assertEquals("third request", afterWrong.getDetails());
+        assertEquals(1, callsAfterRepeat);
+        assertEquals(3, delegateCalls.get(), "Every wrong password goes to BCrypt");
+        assertEquals(1, provider.size());
+    }
+
+    private static Authentication credentials(String password, Object details) {
+        UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated("CarsAdmin", password);
+        token.setDetails(details);
+        return token;
+    }
+}
@@ -0,0 +1,141 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.ContactSearchProperties;
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
+import com.cars.management.config.PaginationProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.dto.request.CreateCustomerRequestDto;
+import com.cars.management.dto.request.CreateOwnerRequestDto;
+import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
+import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Owner;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.OwnerCommandRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.ContactSearchIndexLoader;
+import com.cars.management.service.search.CustomerSearchIndex;
+import com.cars.management.service.search.OwnerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.commandimpl.OwnerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.CustomerQueryServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.OwnerQueryServiceImpl;
+import com.cars.management.service.serviveports.commandports.CustomerCommandService;
+import com.cars.management.service.serviveports.commandports.OwnerCommandService;
+import com.cars.management.service.serviveports.queryports.CustomerQueryService;
+import com.cars.management.service.serviveports.queryports.OwnerQueryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds customers and owners behind the services' back, loads the search indexes from the streamed scan and checks
+ * that registrations, updates and deletions through the services are searchable without another rebuild.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({ContactSearchIndexLoader.class, CustomerSearchIndex.class, OwnerSearchIndex.class, ContactSearchProperties.class,
+        CustomerQueryServiceImpl.class, OwnerQueryServiceImpl.class, CustomerCommandServiceImpl.class,
+        OwnerCommandServiceImpl.class, PaginationProperties.class, LeaseLimitProperties.class, LeaseBatchProperties.class,
+        AvailableCarIndex.class, ReadCacheInvalidator.class, CacheConfig.class, ReadCacheProperties.class,
+        DeletionJobQueue.class, OwnerMapperImpl.class, CarMapperImpl.class, CustomerMapperImpl.class,
+        LeaseMapperImpl.class, DeletionJobMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ContactSearchIntegrationTest {
+
+    @Autowired
+    private ContactSearchIndexLoader contactSearchIndexLoader;
+
+    @Autowired
+    private CustomerQueryService customerQueryService;
+
+    @Autowired
+    private OwnerQueryService ownerQueryService;
+
+    @Autowired
+    private CustomerCommandService customerCommandService;
+
+    @Autowired
+    private OwnerCommandService ownerCommandService;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private OwnerCommandRepository ownerCommandRepository;
+
+    /**
+     * Method under test: {@link ContactSearchIndexLoader#rebuildCustomers()}
+     */
+    @Test
+    void testRebuildLoadsRowsWrittenBehindTheServices() {
+        // Arrange
+        Customer prefix = customerCommandRepository.save(Customer.builder()
+                .name("Quillon Varga").email("quillon@example.org").phoneNumber("7345550101").build());
+        Customer substring = customerCommandRepository.save(Customer.builder()
+                .name("Marta Aquillo").email("marta@example.org").phoneNumber("7345550102").build());
+        Owner owner = ownerCommandRepository.save(Owner.builder()
+                .name("Quillon Fleet").email("fleet@quillon.example.org").phoneNumber("7345550103").build());
+
+        // Act
+        contactSearchIndexLoader.rebuild();
+        List<ContactSearchResultDto> customers = customerQueryService.searchCustomers("quill", null);
+        List<ContactSearchResultDto> owners = ownerQueryService.searchOwners("734 555 0103", null);
+
+        // Assert
+        assertEquals(List.of(prefix.getId(), substring.getId()), ids(customers), "A name prefix outranks a substring");
+        assertEquals(List.of(owner.getId()), ids(owners));
+    }
+
+    /**
+     * Method under test: {@link CustomerCommandService#updateCustomerById(UpdateCustomerDetailsRequestDto)}
+     */
+    @Test
+    void testServiceWritesKeepTheIndexesCurrent() {
+        // Arrange
+        contactSearchIndexLoader.rebuild();
+        Integer customerId = customerCommandService.registerCustomer(CreateCustomerRequestDto.builder()
+                .name("Zebulon Hart").email("zebulon@example.org").phoneNumber("9185550101").build()).getId();
+        Integer ownerId = ownerCommandService.createOwner(CreateOwnerRequestDto.builder()
+                .name("Zebulon Motors").email("zebulon.motors@example.org").phoneNumber("9185550102").build()).getId();
+        List<ContactSearchResultDto> registered = customerQueryService.searchCustomers("zebul", 5);
+
+        // Act
+        customerCommandService.updateCustomerById(UpdateCustomerDetailsRequestDto.builder()
+                .id(customerId).name("Ximena Hart").email("ximena@example.org").phoneNumber("9185550101").build());
+        ownerCommandService.updateOwnerById(UpdateOwnerDetailsRequestDto.builder()
+                .id(ownerId).name("Ximena Motors").email("ximena.motors@example.org").phoneNumber("9185550102").build());
+        List<ContactSearchResultDto> renamedCustomers = customerQueryService.searchCustomers("ximena", 5);
+        List<ContactSearchResultDto> staleCustomers = customerQueryService.searchCustomers("zebul", 5);
+        customerCommandService.deleteCustomerById(customerId);
+        ownerCommandService.deleteOwnerById(ownerId);
+
+        // Assert
+        assertEquals(List.of(customerId), ids(registered));
+        assertEquals(List.of(customerId), ids(renamedCustomers));
+        assertEquals("ximena@example.org", renamedCustomers.get(0).getEmail());
+        assertTrue(staleCustomers.isEmpty(), "The old name is no longer indexed");
+        assertTrue(customerQueryService.searchCustomers("ximena", 5).isEmpty(), "Deleted customers are hidden at once");
+        assertTrue(ownerQueryService.searchOwners("ximena", 5).isEmpty(), "Deleted owners are hidden at once");
+    }
+
+    private static List<Integer> ids(List<ContactSearchResultDto> results) {
+        return results.stream().map(ContactSearchResultDto::getId).toList();
+    }
+}
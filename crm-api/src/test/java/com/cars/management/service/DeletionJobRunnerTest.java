@@ -0,0 +1,290 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.DeletionJobProperties;
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.dto.response.DeletionJobResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Lease;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.DeletionJobPhase;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.DeletionTargetType;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.commandrepository.OwnerCommandRepository;
+import com.cars.management.repository.queryrepository.CustomerQueryRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.deletion.DeletionJobRunner;
+import com.cars.management.service.search.CustomerSearchIndex;
+import com.cars.management.service.search.OwnerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.commandimpl.OwnerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.DeletionJobQueryServiceImpl;
+import com.cars.management.service.serviveports.commandports.CustomerCommandService;
+import com.cars.management.service.serviveports.commandports.OwnerCommandService;
+import com.cars.management.service.serviveports.queryports.DeletionJobQueryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Accepts owner and customer deletions, checks that the target disappears from reads at once, then runs the
+ * deletion jobs chunk by chunk and checks that every lease and car goes before the target row, with the lease
+ * slots of other customers and the leased cars released.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({DeletionJobRunner.class, DeletionJobQueue.class, DeletionJobProperties.class, DeletionJobQueryServiceImpl.class,
+        OwnerCommandServiceImpl.class, CustomerCommandServiceImpl.class, LeaseLimitProperties.class,
+        LeaseBatchProperties.class, AvailableCarIndex.class, ReadCacheInvalidator.class, CacheConfig.class,
+        ReadCacheProperties.class, OwnerMapperImpl.class, CarMapperImpl.class, CustomerMapperImpl.class,
+        LeaseMapperImpl.class, DeletionJobMapperImpl.class,
+        CustomerSearchIndex.class, OwnerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeletionJobRunnerTest {
+
+    private static final String CUSTOMERS_WITH_WRONG_COUNTER =
+            "SELECT COUNT(*) FROM customers c WHERE c.active_lease_count <> " +
+                    "(SELECT COUNT(*) FROM leases l WHERE l.customer_id = c.customer_id AND l.status = 'ACTIVE')";
+
+    @Autowired
+    private DeletionJobRunner deletionJobRunner;
+
+    @Autowired
+    private DeletionJobProperties deletionJobProperties;
+
+    @Autowired
+    private DeletionJobQueryService deletionJobQueryService;
+
+    @Autowired
+    private OwnerCommandService ownerCommandService;
+
+    @Autowired
+    private CustomerCommandService customerCommandService;
+
+    @Autowired
+    private OwnerCommandRepository ownerCommandRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private CustomerQueryRepository customerQueryRepository;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private LeaseCommandRepository leaseCommandRepository;
+
+    @Autowired
+    private AvailableCarIndex availableCarIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Method under test: {@link DeletionJobRunner#runPendingJobs()}
+     */
+    @Test
+    void testOwnerDeletionHidesOwnerAndDeletesLeasesThenCarsThenOwner() {
+        // Arrange
+        deletionJobProperties.setChunkSize(4);
+        Owner owner = owner("Deleted Owner");
+        Customer renter = customer("Owner Renter");
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            cars.add(car(owner, "Owned " + i, i % 3 == 0 ? CarStatus.ON_LEASE : CarStatus.IDLE));
+        }
+        int leases = 0;
+        for (Car car : cars) {
+            lease(car, renter, LeaseStatus.ENDED);
+            leases++;
+            if (car.getStatus() == CarStatus.ON_LEASE) {
+                lease(car, renter, LeaseStatus.ACTIVE);
+                leases++;
+            }
+        }
+        Integer unrelatedLeases = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leases", Integer.class) - leases;
+
+        // Act
+        DeletionJobResponseDto accepted = ownerCommandService.deleteOwnerById(owner.getId());
+        boolean visibleAfterAccept = ownerQueryRepository.findById(owner.getId()).isPresent()
+                || ownerQueryRepository.findAll().stream().anyMatch(o -> o.getId().equals(owner.getId()));
+        DeletionJobResponseDto repeated = ownerCommandService.deleteOwnerById(owner.getId());
+        int chunks = deletionJobRunner.runPendingJobs();
+        DeletionJobResponseDto finished = deletionJobQueryService.getDeletionJobById(accepted.getJobId());
+
+        // Assert
+        assertEquals(DeletionJobStatus.ACCEPTED, accepted.getStatus());
+        assertEquals(DeletionTargetType.OWNER, accepted.getTargetType());
+        assertFalse(visibleAfterAccept, "The owner is hidden as soon as the job is accepted");
+        assertEquals(accepted.getJobId(), repeated.getJobId(), "A repeated delete returns the unfinished job");
+        assertEquals(DeletionJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(DeletionJobPhase.TARGET, finished.getPhase());
+        assertEquals(leases, finished.getLeasesDeleted());
+        assertEquals(cars.size(), finished.getCarsDeleted());
+        assertEquals(3 + 3 + 1, chunks, "12 leases and 9 cars in chunks of 4, then the owner row");
+        assertNotNull(finished.getFinishedOn());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM owners WHERE owner_id = ?", Integer.class, owner.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars WHERE owner_id = ?", Integer.class, owner.getId()));
+        assertEquals(unrelatedLeases, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leases", Integer.class));
+        assertEquals(0, customerCommandRepository.findById(renter.getId()).orElseThrow().getActiveLeaseCount(),
+                "The renter's lease slots are released");
+        assertEquals(0, jdbcTemplate.queryForObject(CUSTOMERS_WITH_WRONG_COUNTER, Integer.class));
+        assertEquals(0, deletionJobRunner.runPendingJobs(), "Nothing is left to run");
+        ErrorException gone = assertThrows(ErrorException.class, () -> ownerCommandService.deleteOwnerById(owner.getId()));
+        assertEquals(HttpStatus.NOT_FOUND, gone.getStatus());
+    }
+
+    /**
+     * Method under test: {@link OwnerCommandServiceImpl#deleteOwnerById(Integer)}
+     */
+    @Test
+    void testCarsOfAnOwnerPendingDeletionCannotBeLeased() {
+        // Arrange
+        Owner owner = owner("Retiring Owner");
+        Customer renter = customer("Retiring Renter");
+        Customer latecomer = customer("Late Renter");
+        Car idle = car(owner, "Idle", CarStatus.IDLE);
+        Car leased = car(owner, "Returned", CarStatus.IDLE);
+        // Outside a transaction, so the index takes the car at once
+        availableCarIndex.carSaved(idle);
+        customerCommandService.startLease(renter.getId(), leased.getId());
+        Integer leaseId = jdbcTemplate.queryForObject(
+                "SELECT lease_id FROM leases WHERE car_id = ? AND status = 'ACTIVE'", Integer.class, leased.getId());
+
+        // Act
+        ownerCommandService.deleteOwnerById(owner.getId());
+        ErrorException idleRejected = assertThrows(ErrorException.class,
+                () -> customerCommandService.startLease(latecomer.getId(), idle.getId()));
+        customerCommandService.endLease(leaseId);
+        ErrorException returnedRejected = assertThrows(ErrorException.class,
+                () -> customerCommandService.startLease(latecomer.getId(), leased.getId()));
+        deletionJobRunner.runPendingJobs();
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, idleRejected.getStatus());
+        assertEquals(HttpStatus.CONFLICT, returnedRejected.getStatus(), "An ended lease does not bring the car back");
+        assertTrue(availableCarIndex.findAvailable(null, null).stream().noneMatch(car -> car.getId().equals(idle.getId())),
+                "The idle car is dropped from the index");
+        assertEquals(0, customerCommandRepository.findById(latecomer.getId()).orElseThrow().getActiveLeaseCount());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leases WHERE customer_id = ?", Integer.class, latecomer.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars WHERE owner_id = ?", Integer.class, owner.getId()));
+    }
+
+    /**
+     * Method under test: {@link DeletionJobRunner#runPendingJobs()}
+     */
+    @Test
+    void testCustomerDeletionHidesCustomerAndReleasesLeasedCars() {
+        // Arrange
+        deletionJobProperties.setChunkSize(2);
+        Owner owner = owner("Kept Owner");
+        Customer customer = customer("Deleted Customer");
+        Car leased = car(owner, "Leased", CarStatus.ON_LEASE);
+        Car returned = car(owner, "Returned", CarStatus.IDLE);
+        lease(leased, customer, LeaseStatus.ACTIVE);
+        lease(returned, customer, LeaseStatus.ENDED);
+        lease(returned, customer, LeaseStatus.ENDED);
+
+        // Act
+        DeletionJobResponseDto accepted = customerCommandService.deleteCustomerById(customer.getId());
+        boolean visibleAfterAccept = customerQueryRepository.findWithLeasesById(customer.getId()).isPresent();
+        deletionJobRunner.runPendingJobs();
+        DeletionJobResponseDto finished = deletionJobQueryService.getDeletionJobById(accepted.getJobId());
+
+        // Assert
+        assertFalse(visibleAfterAccept, "The customer is hidden as soon as the job is accepted");
+        assertEquals(DeletionJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(3, finished.getLeasesDeleted());
+        assertEquals(0, finished.getCarsDeleted());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE customer_id = ?", Integer.class, customer.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leases WHERE customer_id = ?", Integer.class, customer.getId()));
+        assertEquals(CarStatus.IDLE, carCommandRepository.findById(leased.getId()).orElseThrow().getStatus());
+        assertTrue(ownerQueryRepository.findById(owner.getId()).isPresent(), "The owner of the leased cars is kept");
+    }
+
+    /**
+     * Method under test: {@link DeletionJobQueryServiceImpl#getDeletionJobById(Long)}
+     */
+    @Test
+    void testUnknownTargetsAndJobsAreNotFound() {
+        // Act and Assert
+        ErrorException owner = assertThrows(ErrorException.class, () -> ownerCommandService.deleteOwnerById(-1));
+        ErrorException customer = assertThrows(ErrorException.class, () -> customerCommandService.deleteCustomerById(-1));
+        ErrorException job = assertThrows(ErrorException.class, () -> deletionJobQueryService.getDeletionJobById(-1L));
+        assertEquals(HttpStatus.NOT_FOUND, owner.getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, customer.getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, job.getStatus());
+    }
+
+    private Owner owner(String name) {
+        return ownerCommandRepository.save(Owner.builder()
+                .name(name)
+                .email(name.replace(' ', '.') + "@example.org")
+                .phoneNumber("555-0100")
+                .build());
+    }
+
+    private Customer customer(String name) {
+        return customerCommandRepository.save(Customer.builder()
+                .name(name)
+                .email(name.replace(' ', '.') + "@example.org")
+                .phoneNumber("555-0100")
+                .build());
+    }
+
+    private Car car(Owner owner, String variant, CarStatus status) {
+        return carCommandRepository.save(Car.builder()
+                .model("Deletion Model")
+                .variant(variant)
+                .status(status)
+                .owner(owner)
+                .build());
+    }
+
+    private void lease(Car car, Customer customer, LeaseStatus status) {
+        leaseCommandRepository.save(Lease.builder()
+                .car(car)
+                .customer(customer)
+                .startDate(LocalDateTime.now().minusDays(30))
+                .endDate(LocalDateTime.now().plusDays(30))
+                .status(status)
+                .build());
+        if (status == LeaseStatus.ACTIVE) {
+            // The counter is not insertable through the entity, so the slot the lease holds is taken directly
+            jdbcTemplate.update("UPDATE customers SET active_lease_count = active_lease_count + 1 WHERE customer_id = ?",
+                    customer.getId());
+        }
+    }
+}
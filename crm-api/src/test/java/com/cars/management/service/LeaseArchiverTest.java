@@ -0,0 +1,284 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.ContactSearchProperties;
+import com.cars.management.config.DeletionJobProperties;
+import com.cars.management.config.LeaseArchiveProperties;
+import com.cars.management.config.PaginationProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.dto.request.CarDto;
+import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.request.RegisterCarRequestDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Lease;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.commandrepository.OwnerCommandRepository;
+import com.cars.management.service.archive.LeaseArchiver;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.deletion.DeletionJobRunner;
+import com.cars.management.service.search.ContactSearchIndexLoader;
+import com.cars.management.service.search.CustomerSearchIndex;
+import com.cars.management.service.search.OwnerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.OwnerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.CustomerQueryServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.DeletionJobQueryServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.LeaseQueryServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.OwnerQueryServiceImpl;
+import com.cars.management.service.serviveports.commandports.OwnerCommandService;
+import com.cars.management.service.serviveports.queryports.CustomerQueryService;
+import com.cars.management.service.serviveports.queryports.DeletionJobQueryService;
+import com.cars.management.service.serviveports.queryports.LeaseQueryService;
+import com.cars.management.service.serviveports.queryports.OwnerQueryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds ENDED leases on both sides of the archive age next to an ACTIVE one, runs the archiver and checks that
+ * exactly the old ENDED leases move to {@code lease_history}, that the history and lease endpoints still return every
+ * lease, and that deletion jobs delete the archived leases before the cars and owner they reference.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({LeaseArchiver.class, LeaseArchiveProperties.class, CustomerQueryServiceImpl.class, OwnerQueryServiceImpl.class,
+        PaginationProperties.class, AvailableCarIndex.class, DeletionJobRunner.class, DeletionJobQueue.class,
+        DeletionJobProperties.class, DeletionJobQueryServiceImpl.class, OwnerCommandServiceImpl.class,
+        ReadCacheInvalidator.class, CacheConfig.class, ReadCacheProperties.class, SimpleMeterRegistry.class,
+        OwnerMapperImpl.class, CarMapperImpl.class, CustomerMapperImpl.class, LeaseMapperImpl.class, DeletionJobMapperImpl.class,
+        CustomerSearchIndex.class, OwnerSearchIndex.class, ContactSearchIndexLoader.class, ContactSearchProperties.class,
+        LeaseQueryServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeaseArchiverTest {
+
+    @Autowired
+    private LeaseArchiver leaseArchiver;
+
+    @Autowired
+    private LeaseArchiveProperties leaseArchiveProperties;
+
+    @Autowired
+    private CustomerQueryService customerQueryService;
+
+    @Autowired
+    private OwnerQueryService ownerQueryService;
+
+    @Autowired
+    private LeaseQueryService leaseQueryService;
+
+    @Autowired
+    private OwnerCommandService ownerCommandService;
+
+    @Autowired
+    private DeletionJobRunner deletionJobRunner;
+
+    @Autowired
+    private DeletionJobQueryService deletionJobQueryService;
+
+    @Autowired
+    private OwnerCommandRepository ownerCommandRepository;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private LeaseCommandRepository leaseCommandRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Method under test: {@link LeaseArchiver#archive()}
+     */
+    @Test
+    void testArchiveMovesOnlyOldEndedLeasesAndHistoryMergesBothTiers() {
+        // Arrange
+        leaseArchiveProperties.setChunkSize(2);
+        LocalDateTime now = LocalDateTime.now();
+        Owner owner = owner("Archive Owner");
+        Customer customer = customer("Archive Customer");
+        Car returned = car(owner, "Returned", CarStatus.IDLE);
+        Car leased = car(owner, "Leased", CarStatus.ON_LEASE);
+        List<Lease> old = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            old.add(lease(returned, customer, LeaseStatus.ENDED, now.minusDays(200 + i)));
+        }
+        Lease recent = lease(returned, customer, LeaseStatus.ENDED, now.minusDays(10));
+        // Past its end date but not yet swept: still holds the car, so it stays in the hot tier
+        Lease overdue = lease(leased, customer, LeaseStatus.ACTIVE, now.minusDays(200));
+
+        // Act
+        int archived = leaseArchiver.archive();
+        int archivedOnSecondRun = leaseArchiver.archive();
+        List<LeaseDto> customerHistory = customerQueryService.getLeaseHistoryByCustomerId(customer.getId());
+        List<LeaseDto> ownerHistory = ownerQueryService.getLeaseHistoryByOwnerId(owner.getId());
+
+        // Assert
+        assertEquals(old.size(), archived);
+        assertEquals(0, archivedOnSecondRun);
+        for (Lease lease : old) {
+            assertTrue(leaseCommandRepository.findById(lease.getId()).isEmpty(), "Archived leases leave the hot tier");
+            LocalDate partitionMonth = jdbcTemplate.queryForObject(
+                    "SELECT partition_month FROM lease_history WHERE lease_id = ?", LocalDate.class, lease.getId());
+            assertEquals(lease.getEndDate().toLocalDate().withDayOfMonth(1), partitionMonth);
+        }
+        assertTrue(leaseCommandRepository.findById(recent.getId()).isPresent());
+        assertTrue(leaseCommandRepository.findById(overdue.getId()).isPresent());
+        assertEquals(old.size() + 2, customerHistory.size());
+        assertEquals(List.of(recent.getId(), overdue.getId()),
+                customerHistory.subList(0, 2).stream().map(LeaseDto::getId).toList(), "The hot tier comes first");
+        assertTrue(customerHistory.subList(2, customerHistory.size()).stream().allMatch(lease ->
+                lease.getStatus() == LeaseStatus.ENDED && returned.getId().equals(lease.getCarDto().getId())));
+        assertEquals(customerHistory.stream().map(LeaseDto::getId).toList(), ownerHistory.stream().map(LeaseDto::getId).toList());
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryService#getLeaseDetailsById(Integer)}
+     */
+    @Test
+    void testLeaseEndpointsReadArchivedLeases() {
+        // Arrange
+        leaseArchiveProperties.setChunkSize(500);
+        LocalDateTime now = LocalDateTime.now();
+        Owner owner = owner("Lookup Owner");
+        Customer customer = customer("Lookup Customer");
+        Car car = car(owner, "Lookup", CarStatus.IDLE);
+        Lease archived = lease(car, customer, LeaseStatus.ENDED, now.minusDays(300));
+        Lease recent = lease(car, customer, LeaseStatus.ENDED, now.minusDays(1));
+        leaseArchiver.archive();
+
+        // Act
+        LeaseDto byId = leaseQueryService.getLeaseDetailsById(archived.getId()).getBody();
+        String version = leaseQueryService.getLeaseVersion(archived.getId()).orElseThrow();
+        List<Integer> ended = leaseQueryService.getLeaseDetailsByStatus(LeaseStatus.ENDED).stream().map(LeaseDto::getId).toList();
+        Integer total = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM leases) + (SELECT COUNT(*) FROM lease_history)", Integer.class);
+        List<Integer> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponseDto<LeaseDto> page = leaseQueryService.getLeaseDetailsPage(cursor, 1);
+            page.getItems().forEach(lease -> paged.add(lease.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<Integer> exported = new ArrayList<>();
+        long exportedCount = leaseQueryService.exportLeaseDetails(lease -> exported.add(lease.getId()));
+        ownerCommandService.updateCarDetails(new RegisterCarRequestDto(owner.getId(),
+                List.of(CarDto.builder().id(car.getId()).model("Renamed Model").variant("Lookup").build())));
+        LeaseDto afterCarUpdate = leaseQueryService.getLeaseDetailsById(archived.getId()).getBody();
+
+        // Assert
+        assertTrue(leaseCommandRepository.findById(archived.getId()).isEmpty(), "The lease is only in the archive");
+        assertEquals(LeaseStatus.ENDED, byId.getStatus());
+        assertEquals(car.getId(), byId.getCarDto().getId());
+        assertTrue(version.startsWith("-1-"), "Archived leases get their own signature");
+        assertTrue(ended.containsAll(List.of(archived.getId(), recent.getId())));
+        assertTrue(paged.containsAll(List.of(archived.getId(), recent.getId())));
+        assertEquals(total, paged.size());
+        assertEquals(paged.stream().sorted().toList(), paged, "Pages run over both tiers in id order");
+        assertEquals(total.longValue(), exportedCount);
+        assertEquals(paged, exported.stream().sorted().toList());
+        assertEquals("Renamed Model", afterCarUpdate.getCarDto().getModel(), "A car update evicts the archived lease");
+    }
+
+    /**
+     * Method under test: {@link DeletionJobRunner#runPendingJobs()}
+     */
+    @Test
+    void testOwnerDeletionDeletesArchivedLeasesBeforeCars() {
+        // Arrange
+        leaseArchiveProperties.setChunkSize(500);
+        LocalDateTime now = LocalDateTime.now();
+        Owner owner = owner("Archived Owner");
+        Customer customer = customer("Archived Renter");
+        Car car = car(owner, "Archived", CarStatus.IDLE);
+        for (int i = 0; i < 3; i++) {
+            lease(car, customer, LeaseStatus.ENDED, now.minusDays(365 + i));
+        }
+        lease(car, customer, LeaseStatus.ENDED, now.minusDays(1));
+        leaseArchiver.archive();
+
+        // Act
+        DeletionJobResponseDto accepted = ownerCommandService.deleteOwnerById(owner.getId());
+        deletionJobRunner.runPendingJobs();
+        DeletionJobResponseDto finished = deletionJobQueryService.getDeletionJobById(accepted.getJobId());
+
+        // Assert
+        assertEquals(DeletionJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(4, finished.getLeasesDeleted(), "Hot and archived leases are both counted");
+        assertEquals(1, finished.getCarsDeleted());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lease_history WHERE car_id = ?", Integer.class, car.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM owners WHERE owner_id = ?", Integer.class, owner.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE customer_id = ?", Integer.class, customer.getId()),
+                "The renter is kept");
+    }
+
+    private Owner owner(String name) {
+        return ownerCommandRepository.save(Owner.builder()
+                .name(name)
+                .email(name.replace(' ', '.') + "@example.org")
+                .phoneNumber("555-0100")
+                .build());
+    }
+
+    private Customer customer(String name) {
+        return customerCommandRepository.save(Customer.builder()
+                .name(name)
+                .email(name.replace(' ', '.') + "@example.org")
+                .phoneNumber("555-0100")
+                .build());
+    }
+
+    private Car car(Owner owner, String variant, CarStatus status) {
+        return carCommandRepository.save(Car.builder()
+                .model("Archive Model")
+                .variant(variant)
+                .status(status)
+                .owner(owner)
+                .build());
+    }
+
+    private Lease lease(Car car, Customer customer, LeaseStatus status, LocalDateTime endDate) {
+        Lease lease = leaseCommandRepository.save(Lease.builder()
+                .car(car)
+                .customer(customer)
+                .startDate(endDate.minusDays(30))
+                .endDate(endDate)
+                .status(status)
+                .build());
+        if (status == LeaseStatus.ACTIVE) {
+            // The counter is not insertable through the entity, so the slot the lease holds is taken directly
+            jdbcTemplate.update("UPDATE customers SET active_lease_count = active_lease_count + 1 WHERE customer_id = ?",
+                    customer.getId());
+        }
+        return lease;
+    }
+}
@@ -0,0 +1,270 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.dto.request.BatchEndLeaseRequestDto;
+import com.cars.management.dto.request.BatchStartLeaseRequestDto;
+import com.cars.management.dto.request.StartLeaseItemDto;
+import com.cars.management.dto.response.BatchItemCode;
+import com.cars.management.dto.response.BatchLeaseItemResultDto;
+import com.cars.management.dto.response.BatchLeaseResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.CustomerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl;
+import com.cars.management.service.serviveports.commandports.CustomerCommandService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs batch start and end requests in both modes and checks the per-item codes, that a rejected
+ * ALL_OR_NOTHING batch changes nothing, and that overlapping batches never lease a car twice.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({CustomerCommandServiceImpl.class, LeaseLimitProperties.class, LeaseBatchProperties.class, AvailableCarIndex.class,
+        ReadCacheInvalidator.class, CacheConfig.class, ReadCacheProperties.class, CustomerMapperImpl.class,
+        LeaseMapperImpl.class, CarMapperImpl.class, DeletionJobQueue.class, DeletionJobMapperImpl.class,
+        CustomerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeaseBatchTest {
+
+    private static final int MISSING_ID = 999_999;
+
+    @Autowired
+    private CustomerCommandService customerCommandService;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private LeaseCommandRepository leaseCommandRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Method under test: {@link CustomerCommandServiceImpl#startLeases(BatchStartLeaseRequestDto)}
+     */
+    @Test
+    void testStartLeasesAllOrNothingChangesNothingWhenAnItemFails() {
+        // Arrange
+        Customer customer = customer("aon");
+        List<Car> cars = cars("All Or Nothing", 3);
+        BatchStartLeaseRequestDto request = startRequest(LeaseBatchProperties.Mode.ALL_OR_NOTHING,
+                item(customer, cars.get(0)), item(customer, cars.get(1)), item(customer, cars.get(2)));
+
+        // Act
+        BatchLeaseResponseDto response = customerCommandService.startLeases(request);
+
+        // Assert
+        assertFalse(response.isApplied());
+        assertEquals(List.of(BatchItemCode.NOT_APPLIED, BatchItemCode.NOT_APPLIED, BatchItemCode.LEASE_LIMIT_REACHED),
+                codes(response));
+        assertEquals(0, response.getSucceeded());
+        assertEquals(0, activeLeaseCount(customer));
+        cars.forEach(car -> assertEquals(CarStatus.IDLE, statusOf(car)));
+    }
+
+    /**
+     * Method under test: {@link CustomerCommandServiceImpl#startLeases(BatchStartLeaseRequestDto)}
+     */
+    @Test
+    void testStartLeasesBestEffortStartsTheItemsThatPass() {
+        // Arrange
+        Customer first = customer("best-effort-1");
+        Customer second = customer("best-effort-2");
+        List<Car> cars = cars("Best Effort", 3);
+        BatchStartLeaseRequestDto request = startRequest(LeaseBatchProperties.Mode.BEST_EFFORT,
+                item(first, cars.get(0)),
+                item(second, cars.get(0)),
+                item(first, cars.get(1)),
+                item(first, cars.get(2)),
+                new StartLeaseItemDto(MISSING_ID, cars.get(2).getId()),
+                new StartLeaseItemDto(second.getId(), MISSING_ID));
+
+        // Act
+        BatchLeaseResponseDto response = customerCommandService.startLeases(request);
+
+        // Assert
+        assertTrue(response.isApplied());
+        assertEquals(List.of(BatchItemCode.STARTED, BatchItemCode.CAR_NOT_AVAILABLE, BatchItemCode.STARTED,
+                BatchItemCode.LEASE_LIMIT_REACHED, BatchItemCode.CUSTOMER_NOT_FOUND, BatchItemCode.CAR_NOT_FOUND),
+                codes(response));
+        assertEquals(2, response.getSucceeded());
+        assertEquals(4, response.getFailed());
+        assertEquals(2, activeLeaseCount(first));
+        assertEquals(0, activeLeaseCount(second));
+        assertEquals(CarStatus.ON_LEASE, statusOf(cars.get(0)));
+        assertEquals(CarStatus.ON_LEASE, statusOf(cars.get(1)));
+        assertEquals(CarStatus.IDLE, statusOf(cars.get(2)));
+        for (BatchLeaseItemResultDto result : response.getResults()) {
+            if (result.getCode() == BatchItemCode.STARTED) {
+                assertEquals(LeaseStatus.ACTIVE, leaseCommandRepository.findById(result.getLeaseId()).orElseThrow().getStatus());
+            } else {
+                assertNull(result.getLeaseId());
+                assertNotNull(result.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Method under test: {@link CustomerCommandServiceImpl#endLeases(BatchEndLeaseRequestDto)}
+     */
+    @Test
+    void testEndLeasesReportsEachItemAndReleasesSlotsAndCars() {
+        // Arrange
+        Customer customer = customer("end");
+        List<Car> cars = cars("End", 2);
+        List<Integer> leaseIds = leaseIdsOf(customerCommandService.startLeases(startRequest(null,
+                item(customer, cars.get(0)), item(customer, cars.get(1)))));
+        customerCommandService.endLease(leaseIds.get(1));
+        BatchEndLeaseRequestDto rejected = new BatchEndLeaseRequestDto(LeaseBatchProperties.Mode.ALL_OR_NOTHING,
+                List.of(leaseIds.get(0), leaseIds.get(1)));
+        BatchEndLeaseRequestDto bestEffort = new BatchEndLeaseRequestDto(LeaseBatchProperties.Mode.BEST_EFFORT,
+                List.of(leaseIds.get(0), leaseIds.get(0), leaseIds.get(1), MISSING_ID));
+
+        // Act
+        BatchLeaseResponseDto rejectedResponse = customerCommandService.endLeases(rejected);
+        int activeAfterRejection = activeLeaseCount(customer);
+        BatchLeaseResponseDto response = customerCommandService.endLeases(bestEffort);
+
+        // Assert
+        assertFalse(rejectedResponse.isApplied());
+        assertEquals(List.of(BatchItemCode.NOT_APPLIED, BatchItemCode.LEASE_ALREADY_ENDED), codes(rejectedResponse));
+        assertEquals(1, activeAfterRejection);
+        assertTrue(response.isApplied());
+        assertEquals(List.of(BatchItemCode.ENDED, BatchItemCode.DUPLICATE, BatchItemCode.LEASE_ALREADY_ENDED,
+                BatchItemCode.LEASE_NOT_FOUND), codes(response));
+        assertEquals(cars.get(0).getId(), response.getResults().get(0).getCarId());
+        assertEquals(customer.getId(), response.getResults().get(0).getCustomerId());
+        assertNotNull(leaseCommandRepository.findById(leaseIds.get(0)).orElseThrow().getEndDate());
+        assertEquals(0, activeLeaseCount(customer));
+        cars.forEach(car -> assertEquals(CarStatus.IDLE, statusOf(car)));
+    }
+
+    /**
+     * Method under test: {@link CustomerCommandServiceImpl#startLeases(BatchStartLeaseRequestDto)}
+     */
+    @Test
+    void testOverlappingBatchesLeaseEachCarOnce() throws Exception {
+        // Arrange
+        int batches = 4;
+        List<Car> cars = cars("Overlap", 10);
+        List<BatchStartLeaseRequestDto> requests = IntStream.range(0, batches)
+                .mapToObj(batch -> startRequest(LeaseBatchProperties.Mode.BEST_EFFORT, IntStream.range(0, cars.size())
+                        .mapToObj(i -> item(customer("overlap-" + batch + "-" + i), cars.get(i)))
+                        .toArray(StartLeaseItemDto[]::new)))
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(batches);
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        // Act
+        int started = 0;
+        try {
+            List<Future<BatchLeaseResponseDto>> responses = new ArrayList<>();
+            for (BatchStartLeaseRequestDto request : requests) {
+                responses.add(executor.submit(() -> {
+                    startGate.await();
+                    return customerCommandService.startLeases(request);
+                }));
+            }
+            startGate.countDown();
+            for (Future<BatchLeaseResponseDto> response : responses) {
+                started += response.get(2, TimeUnit.MINUTES).getSucceeded();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(cars.size(), started);
+        for (Car car : cars) {
+            assertEquals(CarStatus.ON_LEASE, statusOf(car));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM leases WHERE car_id = ? AND status = 'ACTIVE'", Integer.class, car.getId()));
+        }
+    }
+
+    private Customer customer(String name) {
+        return customerCommandRepository.save(Customer.builder()
+                .name("Batch " + name)
+                .email("batch-" + name + "@example.org")
+                .phoneNumber("555-0101")
+                .leases(new ArrayList<>())
+                .build());
+    }
+
+    private List<Car> cars(String model, int count) {
+        Owner owner = ownerQueryRepository.findAll().get(0);
+        return carCommandRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> Car.builder()
+                        .model(model)
+                        .variant("Variant " + i)
+                        .status(CarStatus.IDLE)
+                        .owner(owner)
+                        .build())
+                .toList());
+    }
+
+    private static StartLeaseItemDto item(Customer customer, Car car) {
+        return new StartLeaseItemDto(customer.getId(), car.getId());
+    }
+
+    private static BatchStartLeaseRequestDto startRequest(LeaseBatchProperties.Mode mode, StartLeaseItemDto... items) {
+        return new BatchStartLeaseRequestDto(mode, List.of(items));
+    }
+
+    private static List<BatchItemCode> codes(BatchLeaseResponseDto response) {
+        return response.getResults().stream().map(BatchLeaseItemResultDto::getCode).toList();
+    }
+
+    private static List<Integer> leaseIdsOf(BatchLeaseResponseDto response) {
+        return response.getResults().stream().map(BatchLeaseItemResultDto::getLeaseId).toList();
+    }
+
+    private int activeLeaseCount(Customer customer) {
+        return customerCommandRepository.findById(customer.getId()).orElseThrow().getActiveLeaseCount();
+    }
+
+    private CarStatus statusOf(Car car) {
+        return carCommandRepository.findById(car.getId()).orElseThrow().getStatus();
+    }
+}
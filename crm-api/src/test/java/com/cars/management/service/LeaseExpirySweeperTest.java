@@ -0,0 +1,169 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.LeaseExpiryProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Lease;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.expiry.LeaseExpirySweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds ACTIVE leases past their end date next to open-ended and future ones, runs the sweeper alone and
+ * concurrently, and checks that exactly the expired leases end, once, with their cars and customer slots released.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({LeaseExpirySweeper.class, LeaseExpiryProperties.class, AvailableCarIndex.class, ReadCacheInvalidator.class,
+        CacheConfig.class, ReadCacheProperties.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeaseExpirySweeperTest {
+
+    private static final String EXPIRED_ACTIVE_LEASES =
+            "SELECT COUNT(*) FROM leases WHERE status = 'ACTIVE' AND end_date < CURRENT_TIMESTAMP";
+    private static final String CUSTOMERS_WITH_WRONG_COUNTER =
+            "SELECT COUNT(*) FROM customers c WHERE c.active_lease_count <> " +
+                    "(SELECT COUNT(*) FROM leases l WHERE l.customer_id = c.customer_id AND l.status = 'ACTIVE')";
+
+    @Autowired
+    private LeaseExpirySweeper leaseExpirySweeper;
+
+    @Autowired
+    private LeaseExpiryProperties leaseExpiryProperties;
+
+    @Autowired
+    private LeaseCommandRepository leaseCommandRepository;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Method under test: {@link LeaseExpirySweeper#sweep()}
+     */
+    @Test
+    void testSweepEndsOnlyExpiredLeasesAndReleasesCarsAndSlots() {
+        // Arrange
+        leaseExpiryProperties.setChunkSize(7);
+        LocalDateTime now = LocalDateTime.now();
+        List<Lease> expired = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expired.add(activeLease("Expired " + i, now.minusDays(i + 1)));
+        }
+        Lease openEnded = activeLease("Open ended", null);
+        Lease future = activeLease("Future", now.plusDays(3));
+        Integer expectedEnded = jdbcTemplate.queryForObject(EXPIRED_ACTIVE_LEASES, Integer.class);
+
+        // Act
+        int ended = leaseExpirySweeper.sweep();
+        int endedOnSecondRun = leaseExpirySweeper.sweep();
+
+        // Assert
+        assertEquals(expectedEnded, ended);
+        assertEquals(0, endedOnSecondRun);
+        for (Lease lease : expired) {
+            Lease reloaded = leaseCommandRepository.findById(lease.getId()).orElseThrow();
+            assertEquals(LeaseStatus.ENDED, reloaded.getStatus());
+            assertEquals(lease.getEndDate().withNano(0), reloaded.getEndDate().withNano(0), "The scheduled end date is kept");
+            assertEquals(CarStatus.IDLE, carCommandRepository.findById(lease.getCar().getId()).orElseThrow().getStatus());
+        }
+        for (Lease lease : List.of(openEnded, future)) {
+            assertEquals(LeaseStatus.ACTIVE, leaseCommandRepository.findById(lease.getId()).orElseThrow().getStatus());
+            assertEquals(CarStatus.ON_LEASE, carCommandRepository.findById(lease.getCar().getId()).orElseThrow().getStatus());
+        }
+        assertEquals(0, jdbcTemplate.queryForObject(EXPIRED_ACTIVE_LEASES, Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(CUSTOMERS_WITH_WRONG_COUNTER, Integer.class));
+    }
+
+    /**
+     * Method under test: {@link LeaseExpirySweeper#sweep()}
+     */
+    @Test
+    void testConcurrentSweepsEndEachLeaseOnce() throws Exception {
+        // Arrange
+        leaseExpiryProperties.setChunkSize(5);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 60; i++) {
+            activeLease("Contended " + i, now.minusHours(i + 1));
+        }
+        Integer expectedEnded = jdbcTemplate.queryForObject(EXPIRED_ACTIVE_LEASES, Integer.class);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        int ended = 0;
+        try {
+            List<Future<Integer>> sweeps = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                sweeps.add(executor.submit(leaseExpirySweeper::sweep));
+            }
+            for (Future<Integer> sweep : sweeps) {
+                ended += sweep.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        ended += leaseExpirySweeper.sweep(); // A sweeper that found its chunk locked stops early and leaves the rest
+
+        // Assert
+        assertEquals(expectedEnded, ended);
+        assertEquals(0, jdbcTemplate.queryForObject(EXPIRED_ACTIVE_LEASES, Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(CUSTOMERS_WITH_WRONG_COUNTER, Integer.class));
+    }
+
+    private Lease activeLease(String name, LocalDateTime endDate) {
+        Owner owner = ownerQueryRepository.findAll().get(0);
+        Car car = carCommandRepository.save(Car.builder()
+                .model("Expiry Model")
+                .variant(name)
+                .status(CarStatus.ON_LEASE)
+                .owner(owner)
+                .build());
+        Customer customer = customerCommandRepository.save(Customer.builder()
+                .name(name)
+                .email(name.replace(' ', '.') + "@example.org")
+                .phoneNumber("555-0100")
+                .build());
+        // The counter is not insertable through the entity, so the slot the lease holds is taken directly
+        jdbcTemplate.update("UPDATE customers SET active_lease_count = 1 WHERE customer_id = ?", customer.getId());
+        return leaseCommandRepository.save(Lease.builder()
+                .car(car)
+                .customer(customer)
+                .startDate(LocalDateTime.now().minusDays(60))
+                .endDate(endDate)
+                .status(LeaseStatus.ACTIVE)
+                .build());
+    }
+}
@@ -0,0 +1,113 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.cache.ReadCaches;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.CustomerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl;
+import com.cars.management.service.serviveimpl.queryimpl.CarQueryServiceImpl;
+import com.cars.management.service.serviveports.commandports.CustomerCommandService;
+import com.cars.management.service.serviveports.queryports.CarQueryService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads a car through the cached query service, mutates it through a command service and checks
+ * that the next read is a miss that sees the committed change.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({CarQueryServiceImpl.class, CustomerCommandServiceImpl.class, CacheConfig.class, ReadCacheProperties.class,
+        ReadCacheInvalidator.class, LeaseLimitProperties.class, LeaseBatchProperties.class, AvailableCarIndex.class, CarMapperImpl.class,
+        CustomerMapperImpl.class, LeaseMapperImpl.class, DeletionJobQueue.class, DeletionJobMapperImpl.class,
+        CustomerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadCacheIntegrationTest {
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CustomerCommandService customerCommandService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    /**
+     * Method under test: {@link CarQueryServiceImpl#getCarStatusAndDetails(Integer)}
+     */
+    @Test
+    void testStartLeaseEvictsCachedCar() {
+        // Arrange
+        Car car = carCommandRepository.save(Car.builder()
+                .model("Cached Model")
+                .variant("Variant")
+                .status(CarStatus.IDLE)
+                .owner(ownerQueryRepository.findAll().get(0))
+                .build());
+        Customer customer = customerCommandRepository.save(Customer.builder()
+                .name("Cached Customer")
+                .email("cached@example.org")
+                .phoneNumber("5551234")
+                .leases(new ArrayList<>())
+                .build());
+        CacheStats before = stats();
+
+        // Act
+        CarResponseDto firstRead = carQueryService.getCarStatusAndDetails(car.getId()).getBody();
+        CarResponseDto secondRead = carQueryService.getCarStatusAndDetails(car.getId()).getBody();
+        CustomerStartLeaseResponseDto started = customerCommandService.startLease(customer.getId(), car.getId());
+        CarResponseDto readAfterLease = carQueryService.getCarStatusAndDetails(car.getId()).getBody();
+
+        // Assert
+        CacheStats delta = stats().minus(before);
+        assertSame(firstRead, secondRead);
+        assertEquals(1, delta.hitCount());
+        assertEquals(2, delta.missCount());
+        assertEquals(CarStatus.IDLE, firstRead.getStatus());
+        assertEquals(CarStatus.ON_LEASE, readAfterLease.getStatus());
+        assertEquals(1, readAfterLease.getLeaseDtoList().size());
+        assertEquals(1, started.getLeaseDtoList().size(), "The response lists the lease just started");
+        assertEquals(car.getId(), started.getLeaseDtoList().get(0).getCarDto().getId());
+    }
+
+    private CacheStats stats() {
+        return ((CaffeineCache) cacheManager.getCache(ReadCaches.CARS)).getNativeCache().stats();
+    }
+}
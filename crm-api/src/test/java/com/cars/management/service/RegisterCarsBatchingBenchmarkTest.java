@@ -0,0 +1,90 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.dto.request.CarDto;
+import com.cars.management.dto.request.RegisterCarRequestDto;
+import com.cars.management.dto.response.RegisterCarResponseDto;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.JdbcRoundTripCounter;
+import com.cars.management.repository.queryrepository.CarQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.OwnerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.OwnerCommandServiceImpl;
+import com.cars.management.service.serviveports.commandports.OwnerCommandService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registers a 10k-car fleet through {@link OwnerCommandService#registerCar(RegisterCarRequestDto)}
+ * and counts the JDBC round trips it takes. With pooled sequence ids and JDBC batching the
+ * inserts go out in batches of {@code hibernate.jdbc.batch_size} and the sequence is hit once
+ * per allocation block, instead of two round trips per car.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({OwnerCommandServiceImpl.class, AvailableCarIndex.class, ReadCacheInvalidator.class, CacheConfig.class,
+        ReadCacheProperties.class, JdbcRoundTripCounter.class, OwnerMapperImpl.class, CarMapperImpl.class,
+        DeletionJobQueue.class, DeletionJobMapperImpl.class,
+        OwnerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RegisterCarsBatchingBenchmarkTest {
+
+    private static final int FLEET_SIZE = 10_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private OwnerCommandService ownerCommandService;
+
+    @Autowired
+    private CarQueryRepository carQueryRepository;
+
+    /**
+     * Method under test: {@link OwnerCommandServiceImpl#registerCar(RegisterCarRequestDto)}
+     */
+    @Test
+    void testRegisterCarsRunsInBatchedRoundTrips() {
+        // Arrange
+        List<CarDto> carDtos = IntStream.range(0, FLEET_SIZE)
+                .mapToObj(i -> CarDto.builder().model("Model " + i).variant("Variant").build())
+                .collect(Collectors.toList());
+        RegisterCarRequestDto request = new RegisterCarRequestDto(1, carDtos);
+        long carsBefore = carQueryRepository.count();
+        JdbcRoundTripCounter.reset();
+
+        // Act
+        long start = System.nanoTime();
+        RegisterCarResponseDto response = ownerCommandService.registerCar(request);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        long roundTrips = JdbcRoundTripCounter.roundTrips();
+        long batches = JdbcRoundTripCounter.batches();
+        log.info("Registered {} cars in {} ms with {} JDBC round trips ({} insert batches)",
+                FLEET_SIZE, elapsedMillis, roundTrips, batches);
+
+        assertEquals(FLEET_SIZE, response.getCar().size());
+        assertEquals(FLEET_SIZE, response.getCar().stream().map(CarDto::getId).distinct().count());
+        assertEquals(carsBefore + FLEET_SIZE, carQueryRepository.count());
+        assertEquals(FLEET_SIZE / BATCH_SIZE, batches);
+        // One owner lookup, one sequence call per id block and one execution per insert batch
+        long expectedRoundTrips = 1 + FLEET_SIZE / BATCH_SIZE + batches;
+        assertTrue(roundTrips <= expectedRoundTrips,
+                "Expected at most " + expectedRoundTrips + " round trips but got " + roundTrips);
+    }
+}
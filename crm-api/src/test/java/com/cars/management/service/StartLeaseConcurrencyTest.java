@@ -0,0 +1,205 @@
+package com.cars.management.service;
+
+import com.cars.management.config.CacheConfig;
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
+import com.cars.management.config.ReadCacheProperties;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.queryrepository.CarQueryRepository;
+import com.cars.management.repository.queryrepository.CustomerQueryRepository;
+import com.cars.management.repository.queryrepository.LeaseQueryRepository;
+import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.CustomerSearchIndex;
+import com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl;
+import com.cars.management.service.serviveports.commandports.CustomerCommandService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires concurrent {@link CustomerCommandService#startLease(Integer, Integer)} calls and checks that the
+ * car reservation and the per-customer lease limit both hold under contention.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({CustomerCommandServiceImpl.class, LeaseLimitProperties.class, LeaseBatchProperties.class, AvailableCarIndex.class, ReadCacheInvalidator.class,
+        CacheConfig.class, ReadCacheProperties.class, CustomerMapperImpl.class, LeaseMapperImpl.class, CarMapperImpl.class,
+        DeletionJobQueue.class, DeletionJobMapperImpl.class,
+        CustomerSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StartLeaseConcurrencyTest {
+
+    private static final int ATTEMPTS = 1_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private CustomerCommandService customerCommandService;
+
+    @Autowired
+    private CustomerCommandRepository customerCommandRepository;
+
+    @Autowired
+    private CarCommandRepository carCommandRepository;
+
+    @Autowired
+    private CarQueryRepository carQueryRepository;
+
+    @Autowired
+    private CustomerQueryRepository customerQueryRepository;
+
+    @Autowired
+    private LeaseLimitProperties leaseLimitProperties;
+
+    @Autowired
+    private LeaseQueryRepository leaseQueryRepository;
+
+    @Autowired
+    private OwnerQueryRepository ownerQueryRepository;
+
+    /**
+     * Method under test: {@link CustomerCommandServiceImpl#startLease(Integer, Integer)}
+     */
+    @Test
+    void testConcurrentStartLeaseHasExactlyOneWinner() throws Exception {
+        // Arrange
+        Owner owner = ownerQueryRepository.findAll().get(0);
+        Car car = carCommandRepository.save(Car.builder()
+                .model("Contested Model")
+                .variant("Variant")
+                .status(CarStatus.IDLE)
+                .owner(owner)
+                .build());
+        List<Customer> customers = customerCommandRepository.saveAll(IntStream.range(0, ATTEMPTS)
+                .mapToObj(i -> Customer.builder()
+                        .name("Customer " + i)
+                        .email("stress" + i + "@example.org")
+                        .phoneNumber("555" + i)
+                        .leases(new ArrayList<>())
+                        .build())
+                .collect(Collectors.toList()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        Map<HttpStatus, AtomicInteger> rejections = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (Customer customer : customers) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    customerCommandService.startLease(customer.getId(), car.getId());
+                    winners.incrementAndGet();
+                } catch (ErrorException e) {
+                    rejections.computeIfAbsent(e.getStatus(), status -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, winners.get());
+        assertEquals(Map.of(HttpStatus.CONFLICT, ATTEMPTS - 1), rejections.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get())));
+        assertEquals(CarStatus.ON_LEASE, carQueryRepository.findById(car.getId()).orElseThrow().getStatus());
+        assertEquals(1, leaseQueryRepository.findViewsByCarOwnerId(owner.getId()).stream()
+                .filter(lease -> lease.carId().equals(car.getId()))
+                .count());
+    }
+
+    /**
+     * Method under test: {@link CustomerCommandServiceImpl#startLease(Integer, Integer)}
+     */
+    @Test
+    void testConcurrentStartLeaseNeverExceedsCustomerLimit() throws Exception {
+        // Arrange
+        int carCount = 200;
+        int leaseLimit = leaseLimitProperties.getDefaultLimit();
+        Owner owner = ownerQueryRepository.findAll().get(0);
+        List<Car> cars = carCommandRepository.saveAll(IntStream.range(0, carCount)
+                .mapToObj(i -> Car.builder()
+                        .model("Limit Model " + i)
+                        .variant("Variant")
+                        .status(CarStatus.IDLE)
+                        .owner(owner)
+                        .build())
+                .collect(Collectors.toList()));
+        Customer customer = customerCommandRepository.save(Customer.builder()
+                .name("Limited Customer")
+                .email("limited@example.org")
+                .phoneNumber("5550000")
+                .leases(new ArrayList<>())
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        Map<HttpStatus, AtomicInteger> rejections = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (Car car : cars) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    customerCommandService.startLease(customer.getId(), car.getId());
+                    winners.incrementAndGet();
+                } catch (ErrorException e) {
+                    rejections.computeIfAbsent(e.getStatus(), status -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(leaseLimit, winners.get());
+        assertEquals(Map.of(HttpStatus.CONFLICT, carCount - leaseLimit), rejections.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get())));
+        assertEquals(leaseLimit, customerQueryRepository.findById(customer.getId()).orElseThrow().getActiveLeaseCount());
+        assertEquals(leaseLimit, cars.stream()
+                .filter(car -> carQueryRepository.findById(car.getId()).orElseThrow().getStatus() == CarStatus.ON_LEASE)
+                .count());
+    }
+}
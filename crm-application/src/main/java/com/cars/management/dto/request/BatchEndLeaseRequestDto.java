@@ -0,0 +1,22 @@
+package com.cars.management.dto.request;
+
+import com.cars.management.config.LeaseBatchProperties;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchEndLeaseRequestDto {
+    // Falls back to crm.lease-batch.default-mode
+    private LeaseBatchProperties.Mode mode;
+    @NotEmpty(message = "Lease ids cannot be empty")
+    private List<@NotNull Integer> leaseIds;
+}
@@ -0,0 +1,23 @@
+package com.cars.management.dto.request;
+
+import com.cars.management.config.LeaseBatchProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchStartLeaseRequestDto {
+    // Falls back to crm.lease-batch.default-mode
+    private LeaseBatchProperties.Mode mode;
+    @NotEmpty(message = "Leases cannot be empty")
+    private List<@Valid @NotNull StartLeaseItemDto> leases;
+}
@@ -0,0 +1,18 @@
+package com.cars.management.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StartLeaseItemDto {
+    @NotNull(message = "Customer id cannot be empty")
+    private Integer customerId;
+    @NotNull(message = "Car id cannot be empty")
+    private Integer carId;
+}
@@ -0,0 +1,19 @@
+package com.cars.management.dto.response;
+
+/**
+ * Outcome of one item of a batch lease request.
+ */
+public enum BatchItemCode {
+    STARTED,
+    ENDED,
+    /** The item could have been applied, but another item failed in an ALL_OR_NOTHING batch. */
+    NOT_APPLIED,
+    CUSTOMER_NOT_FOUND,
+    CAR_NOT_FOUND,
+    LEASE_NOT_FOUND,
+    CAR_NOT_AVAILABLE,
+    LEASE_LIMIT_REACHED,
+    LEASE_ALREADY_ENDED,
+    /** The same lease appears earlier in the batch. */
+    DUPLICATE
+}
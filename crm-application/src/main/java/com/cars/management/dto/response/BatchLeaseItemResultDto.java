@@ -0,0 +1,20 @@
+package com.cars.management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchLeaseItemResultDto {
+    // Position of the item in the request
+    private int index;
+    private Integer leaseId;
+    private Integer customerId;
+    private Integer carId;
+    private BatchItemCode code;
+    private String message;
+}
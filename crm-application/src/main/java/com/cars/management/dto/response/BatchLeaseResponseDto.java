@@ -0,0 +1,22 @@
+package com.cars.management.dto.response;
+
+import com.cars.management.config.LeaseBatchProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchLeaseResponseDto {
+    private LeaseBatchProperties.Mode mode;
+    // False when an ALL_OR_NOTHING batch was rejected and nothing changed
+    private boolean applied;
+    private int succeeded;
+    private int failed;
+    private List<BatchLeaseItemResultDto> results;
+}
@@ -0,0 +1,17 @@
+package com.cars.management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ContactSearchResultDto {
+    private Integer id;
+    private String name;
+    private String email;
+    private String phoneNumber;
+}
@@ -0,0 +1,18 @@
+package com.cars.management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageResponseDto<T> {
+    private List<T> items;
+    private Integer pageSize;
+    private String nextCursor; // Null on the last page
+}
@@ -0,0 +1,29 @@
+package com.cars.management.dto.response;
+
+import com.cars.management.enums.DeletionJobPhase;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.DeletionTargetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DeletionJobResponseDto {
+    private Long jobId;
+    private DeletionTargetType targetType;
+    private Integer targetId;
+    private DeletionJobStatus status;
+    private DeletionJobPhase phase; // Phase of the last chunk that ran
+    private Integer leasesDeleted;
+    private Integer carsDeleted;
+    private Integer failedAttempts;
+    private String lastError;
+    private LocalDateTime createdOn;
+    private LocalDateTime finishedOn;
+}
@@ -0,0 +1,16 @@
+package com.cars.management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenResponseDto {
+    private String accessToken;
+    private String tokenType; // Always "Bearer": send as "Authorization: Bearer <accessToken>"
+    private long expiresIn; // Seconds
+}
@@ -1,5 +1,6 @@
 package com.cars.management.dto.response;
 
+import com.cars.management.enums.CustomerTier;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,4 +17,5 @@ public class UpdateCustomerDetailsResponseDto {
     private String name;
     private String email;
     private String phoneNumber;
+    private CustomerTier tier;
 }
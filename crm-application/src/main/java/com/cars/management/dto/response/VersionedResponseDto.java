@@ -0,0 +1,19 @@
+package com.cars.management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A by-id response together with the version signature read just before it. The read cache stores the two as
+ * one entry, so the ETag sent with a body always belongs to that body.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VersionedResponseDto<T> {
+    private String version; // Null if the entity disappeared between the two reads
+    private T body;
+}
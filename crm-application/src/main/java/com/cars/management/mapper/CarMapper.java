@@ -0,0 +1,36 @@
+package com.cars.management.mapper;
+
+import com.cars.management.dto.request.CarDto;
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.LeaseResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Lease;
+import com.cars.management.entity.Owner;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(config = CrmMapperConfig.class)
+public interface CarMapper {
+
+    CarDto toCarDto(Car car);
+
+    List<CarDto> toCarDtos(List<Car> cars);
+
+    // New cars start IDLE and without leases; the id comes from the sequence on save
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "leases", ignore = true)
+    @Mapping(target = "status", constant = "IDLE")
+    @Mapping(target = "owner", source = "owner")
+    @Mapping(target = "model", source = "carDto.model")
+    @Mapping(target = "variant", source = "carDto.variant")
+    Car toCar(CarDto carDto, Owner owner);
+
+    @Mapping(target = "leaseDtoList", source = "leases")
+    CarResponseDto toCarResponseDto(Car car);
+
+    List<CarResponseDto> toCarResponseDtos(List<Car> cars);
+
+    LeaseResponseDto toLeaseResponseDto(Lease lease);
+}
@@ -0,0 +1,17 @@
+package com.cars.management.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings of the generated DTO/entity mappers. An unmapped target property fails the
+ * build, so a field added to a DTO or entity has to be mapped or explicitly ignored.
+ */
+@MapperConfig(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface CrmMapperConfig {
+}
@@ -0,0 +1,51 @@
+package com.cars.management.mapper;
+
+import com.cars.management.dto.request.CreateCustomerRequestDto;
+import com.cars.management.dto.request.CustomerDto;
+import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
+import com.cars.management.dto.response.CreateCustomerResponseDto;
+import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.dto.response.UpdateCustomerDetailsResponseDto;
+import com.cars.management.entity.Customer;
+import com.cars.management.repository.projection.LeaseCarView;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+
+import java.util.List;
+
+@Mapper(config = CrmMapperConfig.class, uses = LeaseMapper.class)
+public interface CustomerMapper {
+
+    // New customers keep the entity's default tier; the active lease count belongs to the database
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tier", ignore = true)
+    @Mapping(target = "activeLeaseCount", ignore = true)
+    @Mapping(target = "leases", ignore = true)
+    Customer toCustomer(CreateCustomerRequestDto createCustomerRequestDto);
+
+    CreateCustomerResponseDto toCreateCustomerResponseDto(Customer customer);
+
+    UpdateCustomerDetailsResponseDto toUpdateCustomerDetailsResponseDto(Customer customer);
+
+    // The current tier is kept when the request leaves it out
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tier", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "activeLeaseCount", ignore = true)
+    @Mapping(target = "leases", ignore = true)
+    @IgnoreEntityMetadata
+    void updateCustomer(UpdateCustomerDetailsRequestDto updateCustomerDetailsRequestDto, @MappingTarget Customer customer);
+
+    @Mapping(target = "id", source = "customer.id")
+    @Mapping(target = "name", source = "customer.name")
+    @Mapping(target = "email", source = "customer.email")
+    @Mapping(target = "phoneNumber", source = "customer.phoneNumber")
+    @Mapping(target = "leaseDtoList", source = "leases")
+    CustomerDto toCustomerDto(Customer customer, List<LeaseCarView> leases);
+
+    @Mapping(target = "id", source = "customer.id")
+    @Mapping(target = "name", source = "customer.name")
+    @Mapping(target = "leaseDtoList", source = "leases")
+    CustomerStartLeaseResponseDto toCustomerStartLeaseResponseDto(Customer customer, List<LeaseCarView> leases);
+}
@@ -0,0 +1,13 @@
+package com.cars.management.mapper;
+
+import com.cars.management.dto.response.DeletionJobResponseDto;
+import com.cars.management.entity.DeletionJob;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = CrmMapperConfig.class)
+public interface DeletionJobMapper {
+
+    @Mapping(target = "jobId", source = "id")
+    DeletionJobResponseDto toDeletionJobResponseDto(DeletionJob deletionJob);
+}
@@ -0,0 +1,22 @@
+package com.cars.management.mapper;
+
+import org.mapstruct.Mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Leaves the {@code BaseEntity} columns of an updated entity alone: Hibernate owns the version and the auditing
+ * listener the created and modified columns.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+@Mapping(target = "version", ignore = true)
+@Mapping(target = "createdOn", ignore = true)
+@Mapping(target = "modifiedOn", ignore = true)
+@Mapping(target = "createdBy", ignore = true)
+@Mapping(target = "modifiedBy", ignore = true)
+public @interface IgnoreEntityMetadata {
+}
@@ -0,0 +1,24 @@
+package com.cars.management.mapper;
+
+import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.entity.Lease;
+import com.cars.management.repository.projection.LeaseCarView;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(config = CrmMapperConfig.class, uses = CarMapper.class)
+public interface LeaseMapper {
+
+    @Mapping(target = "id", source = "leaseId")
+    @Mapping(target = "carDto.id", source = "carId")
+    @Mapping(target = "carDto.model", source = "model")
+    @Mapping(target = "carDto.variant", source = "variant")
+    LeaseDto toLeaseDto(LeaseCarView lease);
+
+    List<LeaseDto> toLeaseDtos(List<LeaseCarView> leases);
+
+    @Mapping(target = "carDto", source = "car")
+    LeaseDto toLeaseDto(Lease lease);
+}
@@ -0,0 +1,46 @@
+package com.cars.management.mapper;
+
+import com.cars.management.dto.request.CreateOwnerRequestDto;
+import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
+import com.cars.management.dto.response.CreateOwnerResponseDto;
+import com.cars.management.dto.response.OwnerResponseDto;
+import com.cars.management.dto.response.RegisterCarResponseDto;
+import com.cars.management.dto.response.UpdateOwnerDetailsResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Owner;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
+
+@Mapper(config = CrmMapperConfig.class, uses = CarMapper.class)
+public interface OwnerMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "cars", ignore = true)
+    Owner toOwner(CreateOwnerRequestDto createOwnerRequestDto);
+
+    CreateOwnerResponseDto toCreateOwnerResponseDto(Owner owner);
+
+    UpdateOwnerDetailsResponseDto toUpdateOwnerDetailsResponseDto(Owner owner);
+
+    // The id addresses the owner to update and is never copied onto it
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "cars", ignore = true)
+    @IgnoreEntityMetadata
+    void updateOwner(UpdateOwnerDetailsRequestDto updateOwnerDetailsRequestDto, @MappingTarget Owner owner);
+
+    // Cars are passed in because they are loaded with their leases by a separate query
+    @Mapping(target = "id", source = "owner.id")
+    @Mapping(target = "name", source = "owner.name")
+    @Mapping(target = "email", source = "owner.email")
+    @Mapping(target = "phoneNumber", source = "owner.phoneNumber")
+    @Mapping(target = "cars", source = "cars")
+    OwnerResponseDto toOwnerResponseDto(Owner owner, List<Car> cars);
+
+    @Mapping(target = "id", source = "owner.id")
+    @Mapping(target = "name", source = "owner.name")
+    @Mapping(target = "car", source = "cars")
+    RegisterCarResponseDto toRegisterCarResponseDto(Owner owner, List<Car> cars);
+}
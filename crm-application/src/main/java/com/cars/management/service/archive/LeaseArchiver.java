@@ -0,0 +1,113 @@
+package com.cars.management.service.archive;
+
+import com.cars.management.config.LeaseArchiveProperties;
+import com.cars.management.entity.Car;
+import com.cars.management.repository.commandrepository.ArchivedLeaseCommandRepository;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.projection.ExpiredLeaseView;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves ENDED leases older than {@code crm.lease-archive.archive-after} from {@code leases} to {@code lease_history},
+ * every {@code crm.lease-archive.sweep-interval}. Each chunk runs in its own transaction: it claims leases with
+ * {@code FOR UPDATE SKIP LOCKED}, copies them with one {@code INSERT ... SELECT} and deletes them with one bulk delete,
+ * so a lease is in exactly one tier at every commit. ENDED leases hold no customer slot and no car status, so nothing
+ * else changes. The number of leases archived per run is recorded as {@code crm.lease-archive.archived}.
+ */
+@Slf4j
+@Component
+public class LeaseArchiver {
+
+    public static final String ARCHIVED_PER_RUN = "crm.lease-archive.archived";
+
+    private final LeaseCommandRepository leaseCommandRepository;
+    private final ArchivedLeaseCommandRepository archivedLeaseCommandRepository;
+    private final CarCommandRepository carCommandRepository;
+    private final ReadCacheInvalidator readCacheInvalidator;
+    private final LeaseArchiveProperties leaseArchiveProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary archivedPerRun;
+
+    public LeaseArchiver(LeaseCommandRepository leaseCommandRepository,
+                         ArchivedLeaseCommandRepository archivedLeaseCommandRepository,
+                         CarCommandRepository carCommandRepository,
+                         ReadCacheInvalidator readCacheInvalidator,
+                         LeaseArchiveProperties leaseArchiveProperties,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.leaseCommandRepository = leaseCommandRepository;
+        this.archivedLeaseCommandRepository = archivedLeaseCommandRepository;
+        this.carCommandRepository = carCommandRepository;
+        this.readCacheInvalidator = readCacheInvalidator;
+        this.leaseArchiveProperties = leaseArchiveProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedPerRun = DistributionSummary.builder(ARCHIVED_PER_RUN).baseUnit("leases").register(meterRegistry);
+    }
+
+    /**
+     * @return the number of leases this run archived
+     */
+    @Scheduled(initialDelayString = "${crm.lease-archive.sweep-interval:PT1H}",
+            fixedDelayString = "${crm.lease-archive.sweep-interval:PT1H}")
+    public int archive() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime endedBefore = now.minus(leaseArchiveProperties.getArchiveAfter());
+        int chunkSize = leaseArchiveProperties.getChunkSize();
+        int archived = 0;
+        int chunks = 0;
+        try {
+            while (chunks < leaseArchiveProperties.getMaxChunksPerRun()) {
+                Integer chunkArchived = transactionTemplate.execute(status -> archiveChunk(endedBefore, now, chunkSize));
+                chunks++;
+                archived += chunkArchived;
+                if (chunkArchived < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while archiving ended leases. {} leases were archived before the failure.", archived, e);
+        }
+        archivedPerRun.record(archived);
+        if (archived > 0) {
+            log.info("Lease archive run moved {} leases in {} chunks.", archived, chunks);
+        } else {
+            log.debug("Lease archive run found no leases to archive.");
+        }
+        return archived;
+    }
+
+    private int archiveChunk(LocalDateTime endedBefore, LocalDateTime now, int chunkSize) {
+        List<ExpiredLeaseView> leases = leaseCommandRepository.claimEndedBefore(endedBefore, chunkSize);
+        if (leases.isEmpty()) {
+            return 0;
+        }
+        List<Integer> leaseIds = leases.stream().map(ExpiredLeaseView::getLeaseId).toList();
+        archivedLeaseCommandRepository.archiveAll(leaseIds, now);
+        leaseCommandRepository.deleteAllByIdIn(leaseIds);
+
+        // The cached customer, car and owner entries render the lease from the hot tier; the owners are needed to evict theirs
+        Map<Integer, Car> cars = carCommandRepository.findAllById(leases.stream().map(ExpiredLeaseView::getCarId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+        leases.forEach(lease -> {
+            Car car = cars.get(lease.getCarId());
+            Integer ownerId = car == null || car.getOwner() == null ? null : car.getOwner().getId();
+            readCacheInvalidator.leaseRemoved(lease.getLeaseId(), lease.getCustomerId(), lease.getCarId(), ownerId);
+        });
+        return leases.size();
+    }
+}
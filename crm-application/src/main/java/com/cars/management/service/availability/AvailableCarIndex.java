@@ -0,0 +1,250 @@
+package com.cars.management.service.availability;
+
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.service.support.TransactionCallbacks;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process index of the cars that can be leased, so browsing does not hit the database.
+ * Car ids are bit positions: one {@link BitSet} holds the IDLE cars and one per model and per
+ * variant holds every known car with that value, so a filtered lookup is a couple of word-wise ANDs.
+ * <p>
+ * Writers report changes through {@link #carSaved}, {@link #carStatusChanged} and {@link #carDeleted};
+ * inside a transaction the change is applied only after commit. {@link AvailableCarIndexReconciler}
+ * periodically replaces the content with what the database holds to repair any drift.
+ */
+@Component
+public class AvailableCarIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BitSet knownCars = new BitSet();
+    private final BitSet idleCars = new BitSet();
+    private final Map<String, Bucket> carsByModel = new HashMap<>();
+    private final Map<String, Bucket> carsByVariant = new HashMap<>();
+    private String[] models = new String[0];
+    private String[] variants = new String[0];
+
+    // Cars changed while a reconciliation was reading the database; its snapshot must not overwrite them
+    private final BitSet changedDuringReconcile = new BitSet();
+    private boolean reconciling;
+    private volatile boolean loaded;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void carSaved(Car car) {
+        Integer carId = car.getId();
+        String model = car.getModel();
+        String variant = car.getVariant();
+        CarStatus status = car.getStatus();
+        TransactionCallbacks.afterCommit(() -> write(() -> {
+            markChanged(carId);
+            put(carId, model, variant, status);
+        }));
+    }
+
+    public void carStatusChanged(Integer carId, CarStatus status) {
+        TransactionCallbacks.afterCommit(() -> write(() -> {
+            markChanged(carId);
+            // A car the index has never seen has no model/variant to show; reconciliation will add it
+            if (knownCars.get(carId)) {
+                idleCars.set(carId, status == CarStatus.IDLE);
+            }
+        }));
+    }
+
+    public void carDeleted(Integer carId) {
+        TransactionCallbacks.afterCommit(() -> write(() -> {
+            markChanged(carId);
+            remove(carId);
+        }));
+    }
+
+    /**
+     * Returns the IDLE cars matching the optional model and variant, in id order.
+     * Lease history is not kept in the index, so {@code leaseDtoList} is always empty.
+     */
+    public List<CarResponseDto> findAvailable(String model, String variant) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) idleCars.clone();
+            if (!restrict(matches, carsByModel, model) || !restrict(matches, carsByVariant, variant)) {
+                return Collections.emptyList();
+            }
+            List<CarResponseDto> cars = new ArrayList<>(matches.cardinality());
+            for (int carId = matches.nextSetBit(0); carId >= 0; carId = matches.nextSetBit(carId + 1)) {
+                cars.add(CarResponseDto.builder()
+                        .id(carId)
+                        .model(models[carId])
+                        .variant(variants[carId])
+                        .status(CarStatus.IDLE)
+                        .leaseDtoList(Collections.emptyList())
+                        .build());
+            }
+            return cars;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int availableCount() {
+        lock.readLock().lock();
+        try {
+            return idleCars.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts tracking changes so that a snapshot read from the database after this call can be
+     * applied with {@link #completeReconcile(List)} without undoing newer updates.
+     */
+    public void beginReconcile() {
+        write(() -> {
+            changedDuringReconcile.clear();
+            reconciling = true;
+        });
+    }
+
+    /**
+     * Replaces the index content with the given snapshot of every car, except for cars changed since
+     * {@link #beginReconcile()}. Returns the number of cars whose indexed state was wrong.
+     */
+    public int completeReconcile(List<Car> snapshot) {
+        lock.writeLock().lock();
+        try {
+            int corrected = 0;
+            BitSet snapshotIds = new BitSet();
+            for (Car car : snapshot) {
+                int carId = car.getId();
+                snapshotIds.set(carId);
+                if (changedDuringReconcile.get(carId)) {
+                    continue;
+                }
+                if (!matches(carId, car)) {
+                    corrected++;
+                    put(carId, car.getModel(), car.getVariant(), car.getStatus());
+                }
+            }
+            BitSet removed = (BitSet) knownCars.clone();
+            removed.andNot(snapshotIds);
+            removed.andNot(changedDuringReconcile);
+            for (int carId = removed.nextSetBit(0); carId >= 0; carId = removed.nextSetBit(carId + 1)) {
+                corrected++;
+                remove(carId);
+            }
+            reconciling = false;
+            changedDuringReconcile.clear();
+            loaded = true;
+            return corrected;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean matches(int carId, Car car) {
+        return knownCars.get(carId)
+                && idleCars.get(carId) == (car.getStatus() == CarStatus.IDLE)
+                && car.getModel().equals(models[carId])
+                && car.getVariant().equals(variants[carId]);
+    }
+
+    private void put(int carId, String model, String variant, CarStatus status) {
+        if (knownCars.get(carId)) {
+            unlink(carsByModel, models[carId], carId);
+            unlink(carsByVariant, variants[carId], carId);
+        }
+        ensureCapacity(carId);
+        models[carId] = link(carsByModel, model, carId);
+        variants[carId] = link(carsByVariant, variant, carId);
+        knownCars.set(carId);
+        idleCars.set(carId, status == CarStatus.IDLE);
+    }
+
+    private void remove(int carId) {
+        if (!knownCars.get(carId)) {
+            return;
+        }
+        unlink(carsByModel, models[carId], carId);
+        unlink(carsByVariant, variants[carId], carId);
+        models[carId] = null;
+        variants[carId] = null;
+        knownCars.clear(carId);
+        idleCars.clear(carId);
+    }
+
+    // Returns the bucket's string so equal model and variant values are stored once, not once per car
+    private static String link(Map<String, Bucket> index, String value, int carId) {
+        Bucket bucket = index.computeIfAbsent(value, Bucket::new);
+        bucket.cars.set(carId);
+        return bucket.value;
+    }
+
+    private static void unlink(Map<String, Bucket> index, String value, int carId) {
+        Bucket bucket = index.get(value);
+        if (bucket != null) {
+            bucket.cars.clear(carId);
+            if (bucket.cars.isEmpty()) {
+                index.remove(value);
+            }
+        }
+    }
+
+    private static boolean restrict(BitSet matches, Map<String, Bucket> index, String value) {
+        if (value == null) {
+            return true;
+        }
+        Bucket bucket = index.get(value);
+        if (bucket == null) {
+            return false;
+        }
+        matches.and(bucket.cars);
+        return true;
+    }
+
+    private void ensureCapacity(int carId) {
+        if (carId >= models.length) {
+            int capacity = Math.max(carId + 1, models.length * 2);
+            models = Arrays.copyOf(models, capacity);
+            variants = Arrays.copyOf(variants, capacity);
+        }
+    }
+
+    private void markChanged(int carId) {
+        if (reconciling) {
+            changedDuringReconcile.set(carId);
+        }
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Bucket {
+        private final String value;
+        private final BitSet cars = new BitSet();
+
+        private Bucket(String value) {
+            this.value = value;
+        }
+    }
+}
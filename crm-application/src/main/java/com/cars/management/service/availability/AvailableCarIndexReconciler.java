@@ -0,0 +1,58 @@
+package com.cars.management.service.availability;
+
+import com.cars.management.entity.Car;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Loads {@link AvailableCarIndex} from the database at startup and re-reads it every
+ * {@code crm.availability.reconcile-interval}, so writes that bypass the services are picked up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailableCarIndexReconciler {
+
+    private final CarCommandRepository carCommandRepository;
+    private final AvailableCarIndex availableCarIndex;
+    // A lock rather than synchronized, which would pin a virtual thread to its carrier for the whole read
+    private final Lock reconcileLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${crm.availability.reconcile-interval:PT5M}",
+            fixedDelayString = "${crm.availability.reconcile-interval:PT5M}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            boolean initialLoad = !availableCarIndex.isLoaded();
+            availableCarIndex.beginReconcile();
+            // Read through the command repository so the snapshot comes from the primary, not a lagging replica
+            List<Car> cars = carCommandRepository.findAll();
+            int corrected = availableCarIndex.completeReconcile(cars);
+            if (initialLoad) {
+                log.info("Available car index loaded with {} cars, {} available for lease.", cars.size(), availableCarIndex.availableCount());
+            } else if (corrected > 0) {
+                log.warn("Available car index corrected {} of {} cars from the database.", corrected, cars.size());
+            } else {
+                log.debug("Available car index is in sync with the database. {} cars checked.", cars.size());
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while reconciling the available car index.", e);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+}
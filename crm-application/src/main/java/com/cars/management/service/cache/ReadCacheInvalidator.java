@@ -0,0 +1,122 @@
+package com.cars.management.service.cache;
+
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Lease;
+import com.cars.management.entity.Owner;
+import com.cars.management.service.support.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts the read cache entries a mutation makes stale. The cached DTOs embed related entities
+ * (an owner holds its cars and their leases, a customer its leases and their cars), so a change
+ * to one entity evicts every cached entry that renders it.
+ * <p>
+ * Keys are evicted immediately and again after commit. The cached reads are {@code sync}, so a load
+ * and its put are one atomic compute, and an eviction of the same key waits for a load in flight.
+ * The after-commit pass therefore also drops a value that a concurrent reader loaded before the
+ * commit, however late that reader puts it; a load that starts afterwards reads the committed row.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public void customerChanged(Integer customerId) {
+        evict(ReadCaches.CUSTOMERS, customerId);
+    }
+
+    public void ownerChanged(Integer ownerId) {
+        evict(ReadCaches.OWNERS, ownerId);
+    }
+
+    /**
+     * A lease was started, ended or removed: its own entry, its car, the car's owner and its customer are stale.
+     */
+    public void leaseChanged(Lease lease) {
+        evict(ReadCaches.LEASES, lease.getId());
+        evict(ReadCaches.CUSTOMERS, idOf(lease.getCustomer()));
+        Car car = lease.getCar();
+        if (car != null) {
+            evict(ReadCaches.CARS, car.getId());
+            evict(ReadCaches.OWNERS, idOf(car.getOwner()));
+        }
+    }
+
+    /**
+     * A lease was ended by a bulk update without being loaded: evicts the same entries as {@link #leaseChanged(Lease)}.
+     */
+    public void leaseEnded(Integer leaseId, Integer customerId, Car car) {
+        evict(ReadCaches.LEASES, leaseId);
+        evict(ReadCaches.CUSTOMERS, customerId);
+        evict(ReadCaches.CARS, car.getId());
+        evict(ReadCaches.OWNERS, idOf(car.getOwner()));
+    }
+
+    /**
+     * A lease was deleted by a bulk delete without being loaded: evicts the same entries as {@link #leaseChanged(Lease)}.
+     */
+    public void leaseRemoved(Integer leaseId, Integer customerId, Integer carId, Integer ownerId) {
+        evict(ReadCaches.LEASES, leaseId);
+        evict(ReadCaches.CUSTOMERS, customerId);
+        evict(ReadCaches.CARS, carId);
+        evict(ReadCaches.OWNERS, ownerId);
+    }
+
+    /**
+     * An archived lease was deleted, or the car it renders changed. Archived leases are rendered only by their own
+     * entry: the customer, car and owner entries list the leases still in the {@code leases} table.
+     */
+    public void archivedLeaseChanged(Integer leaseId) {
+        evict(ReadCaches.LEASES, leaseId);
+    }
+
+    /**
+     * A car was deleted by a bulk delete, after its leases, or taken out of circulation with its owner; the leases
+     * were evicted when they were removed.
+     */
+    public void carRemoved(Integer carId, Integer ownerId) {
+        evict(ReadCaches.CARS, carId);
+        evict(ReadCaches.OWNERS, ownerId);
+    }
+
+    /**
+     * A car's details changed or the car was removed: every lease and customer entry that renders it is stale too.
+     */
+    public void carChanged(Car car) {
+        evict(ReadCaches.CARS, car.getId());
+        evict(ReadCaches.OWNERS, idOf(car.getOwner()));
+        leasesOf(car.getLeases()).forEach(this::leaseChanged);
+    }
+
+    private static List<Lease> leasesOf(List<Lease> leases) {
+        return leases == null ? List.of() : leases;
+    }
+
+    private static Integer idOf(Customer customer) {
+        return customer == null ? null : customer.getId();
+    }
+
+    private static Integer idOf(Owner owner) {
+        return owner == null ? null : owner.getId();
+    }
+
+    private void evict(String cacheName, Integer key) {
+        if (key == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(key);
+        // Blocks while a sync load of the key is in flight, then removes whatever that load put
+        TransactionCallbacks.afterCommit(() -> cache.evict(key));
+    }
+}
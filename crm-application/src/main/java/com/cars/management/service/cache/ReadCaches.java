@@ -0,0 +1,15 @@
+package com.cars.management.service.cache;
+
+/**
+ * Names of the single-entity read caches; bounds are configured under {@code crm.cache.caches}.
+ */
+public final class ReadCaches {
+
+    public static final String CARS = "cars";
+    public static final String CUSTOMERS = "customers";
+    public static final String OWNERS = "owners";
+    public static final String LEASES = "leases";
+
+    private ReadCaches() {
+    }
+}
@@ -0,0 +1,44 @@
+package com.cars.management.service.deletion;
+
+import com.cars.management.entity.DeletionJob;
+import com.cars.management.enums.DeletionJobPhase;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.DeletionTargetType;
+import com.cars.management.repository.commandrepository.DeletionJobCommandRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Queues deletion jobs for {@link DeletionJobRunner}. The caller first marks the target pending deletion, which
+ * hides it from reads; two concurrent delete requests queue at most one job, because only one of them changes the row.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeletionJobQueue {
+
+    private final DeletionJobCommandRepository deletionJobCommandRepository;
+
+    /**
+     * Queues a job for a target the caller has just marked pending deletion ({@code marked}), or returns the job
+     * already deleting it. A target whose last job FAILED is queued again. Empty if the target does not exist.
+     */
+    public Optional<DeletionJob> enqueue(DeletionTargetType targetType, Integer targetId, boolean marked) {
+        if (marked) {
+            return Optional.of(save(targetType, targetId));
+        }
+        return deletionJobCommandRepository.findFirstByTargetTypeAndTargetIdOrderByIdDesc(targetType, targetId)
+                .filter(job -> job.getStatus() != DeletionJobStatus.COMPLETED)
+                .map(job -> job.getStatus() == DeletionJobStatus.FAILED ? save(targetType, targetId) : job);
+    }
+
+    private DeletionJob save(DeletionTargetType targetType, Integer targetId) {
+        return deletionJobCommandRepository.save(DeletionJob.builder()
+                .targetType(targetType)
+                .targetId(targetId)
+                .status(DeletionJobStatus.ACCEPTED)
+                .phase(DeletionJobPhase.LEASES)
+                .build());
+    }
+}
@@ -0,0 +1,269 @@
+package com.cars.management.service.deletion;
+
+import com.cars.management.config.DeletionJobProperties;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.DeletionJob;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.DeletionJobPhase;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.repository.commandrepository.ArchivedLeaseCommandRepository;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.DeletionJobCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.commandrepository.OwnerCommandRepository;
+import com.cars.management.repository.projection.DependentLeaseView;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Works off accepted deletion jobs, every {@code crm.deletion-jobs.poll-interval}. Each chunk runs in its own
+ * transaction: it claims the oldest unfinished job with {@code FOR UPDATE SKIP LOCKED} and deletes one chunk of
+ * its rows in dependency order, with one set-based statement per table: the leases first, then their archived
+ * copies in {@code lease_history}, then an owner's cars, then the owner or customer row itself. Workers on other nodes skip the claimed job and run the next one.
+ * <p>
+ * A chunk locks what it deletes in the same order as {@code endLease}: lease, then customer, then car. Every chunk
+ * looks for leases again before it moves on, so a lease started on a car of a deleting owner in the meantime is
+ * deleted before the car. A chunk that fails is rolled back and retried on the next run; after
+ * {@code crm.deletion-jobs.max-attempts} consecutive failures the job is marked FAILED.
+ */
+@Slf4j
+@Component
+public class DeletionJobRunner {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final DeletionJobCommandRepository deletionJobCommandRepository;
+    private final LeaseCommandRepository leaseCommandRepository;
+    private final ArchivedLeaseCommandRepository archivedLeaseCommandRepository;
+    private final CustomerCommandRepository customerCommandRepository;
+    private final CarCommandRepository carCommandRepository;
+    private final OwnerCommandRepository ownerCommandRepository;
+    private final AvailableCarIndex availableCarIndex;
+    private final ReadCacheInvalidator readCacheInvalidator;
+    private final DeletionJobProperties deletionJobProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public DeletionJobRunner(DeletionJobCommandRepository deletionJobCommandRepository,
+                             LeaseCommandRepository leaseCommandRepository,
+                             ArchivedLeaseCommandRepository archivedLeaseCommandRepository,
+                             CustomerCommandRepository customerCommandRepository,
+                             CarCommandRepository carCommandRepository,
+                             OwnerCommandRepository ownerCommandRepository,
+                             AvailableCarIndex availableCarIndex,
+                             ReadCacheInvalidator readCacheInvalidator,
+                             DeletionJobProperties deletionJobProperties,
+                             PlatformTransactionManager transactionManager) {
+        this.deletionJobCommandRepository = deletionJobCommandRepository;
+        this.leaseCommandRepository = leaseCommandRepository;
+        this.archivedLeaseCommandRepository = archivedLeaseCommandRepository;
+        this.customerCommandRepository = customerCommandRepository;
+        this.carCommandRepository = carCommandRepository;
+        this.ownerCommandRepository = ownerCommandRepository;
+        this.availableCarIndex = availableCarIndex;
+        this.readCacheInvalidator = readCacheInvalidator;
+        this.deletionJobProperties = deletionJobProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return the number of chunks this run completed
+     */
+    @Scheduled(initialDelayString = "${crm.deletion-jobs.poll-interval:PT5S}",
+            fixedDelayString = "${crm.deletion-jobs.poll-interval:PT5S}")
+    public int runPendingJobs() {
+        int chunks = 0;
+        while (chunks < deletionJobProperties.getMaxChunksPerRun()) {
+            Long[] claimed = new Long[1];
+            try {
+                Boolean ran = transactionTemplate.execute(status -> {
+                    Optional<Long> jobId = deletionJobCommandRepository.claimNextUnfinished();
+                    jobId.ifPresent(id -> claimed[0] = id);
+                    return jobId.map(this::runChunk).orElse(false);
+                });
+                if (!Boolean.TRUE.equals(ran)) {
+                    break;
+                }
+                chunks++;
+            } catch (Exception e) {
+                if (claimed[0] == null) {
+                    log.error("Error occurred while claiming a deletion job.", e);
+                } else {
+                    recordFailure(claimed[0], e);
+                }
+                // Retried on the next run, so whatever the chunk collided with has time to finish
+                break;
+            }
+        }
+        if (chunks > 0) {
+            log.info("Deletion job run completed {} chunks.", chunks);
+        }
+        return chunks;
+    }
+
+    private boolean runChunk(Long jobId) {
+        DeletionJob job = deletionJobCommandRepository.findById(jobId).orElseThrow();
+        job.setStatus(DeletionJobStatus.RUNNING);
+        boolean finished = switch (job.getTargetType()) {
+            case OWNER -> deleteOwnerChunk(job);
+            case CUSTOMER -> deleteCustomerChunk(job);
+        };
+        job.setFailedAttempts(0);
+        if (finished) {
+            job.setStatus(DeletionJobStatus.COMPLETED);
+            job.setFinishedOn(LocalDateTime.now());
+            log.atInfo().addKeyValue("jobId", job.getId()).addKeyValue("targetType", job.getTargetType())
+                    .addKeyValue("targetId", job.getTargetId())
+                    .log("Deletion job completed: {} leases and {} cars deleted", job.getLeasesDeleted(), job.getCarsDeleted());
+        }
+        return true;
+    }
+
+    /**
+     * @return true once the owner row itself is deleted
+     */
+    private boolean deleteOwnerChunk(DeletionJob job) {
+        Integer ownerId = job.getTargetId();
+        int chunkSize = deletionJobProperties.getChunkSize();
+        List<DependentLeaseView> leases = leaseCommandRepository.lockChunkByOwnerId(ownerId, chunkSize);
+        if (!leases.isEmpty()) {
+            job.setPhase(DeletionJobPhase.LEASES);
+            List<Integer> leaseIds = leases.stream().map(DependentLeaseView::getLeaseId).toList();
+            List<Integer> activeLeaseIds = activeLeaseIds(leases);
+            if (!activeLeaseIds.isEmpty()) {
+                // Counted from the lease rows, so the slots are released before the leases are deleted
+                List<Integer> customerIds = leases.stream().map(DependentLeaseView::getCustomerId).distinct().toList();
+                customerCommandRepository.releaseActiveLeases(customerIds, activeLeaseIds);
+            }
+            leaseCommandRepository.deleteAllByIdIn(leaseIds);
+            leases.forEach(lease -> readCacheInvalidator.leaseRemoved(lease.getLeaseId(), lease.getCustomerId(), lease.getCarId(), ownerId));
+            job.setLeasesDeleted(job.getLeasesDeleted() + leases.size());
+            return false;
+        }
+        if (deleteArchivedLeases(job, archivedLeaseCommandRepository.lockChunkIdsByOwnerId(ownerId, chunkSize))) {
+            return false;
+        }
+        List<Integer> carIds = carCommandRepository.lockChunkIdsByOwnerId(ownerId, chunkSize);
+        if (!carIds.isEmpty()) {
+            job.setPhase(DeletionJobPhase.CARS);
+            carCommandRepository.deleteAllByIdIn(carIds);
+            carIds.forEach(carId -> {
+                availableCarIndex.carDeleted(carId);
+                readCacheInvalidator.carRemoved(carId, ownerId);
+            });
+            job.setCarsDeleted(job.getCarsDeleted() + carIds.size());
+            return false;
+        }
+        job.setPhase(DeletionJobPhase.TARGET);
+        ownerCommandRepository.deletePendingById(ownerId);
+        readCacheInvalidator.ownerChanged(ownerId);
+        return true;
+    }
+
+    /**
+     * @return true once the customer row itself is deleted
+     */
+    private boolean deleteCustomerChunk(DeletionJob job) {
+        Integer customerId = job.getTargetId();
+        int chunkSize = deletionJobProperties.getChunkSize();
+        List<DependentLeaseView> leases = leaseCommandRepository.lockChunkByCustomerId(customerId, chunkSize);
+        if (!leases.isEmpty()) {
+            job.setPhase(DeletionJobPhase.LEASES);
+            List<Integer> leaseIds = leases.stream().map(DependentLeaseView::getLeaseId).toList();
+            List<Integer> activeCarIds = leases.stream()
+                    .filter(lease -> lease.getStatus() == LeaseStatus.ACTIVE)
+                    .map(DependentLeaseView::getCarId)
+                    .distinct()
+                    .toList();
+            // The customer row goes last, so their lease counter is left alone; the leased cars become available again
+            if (!activeCarIds.isEmpty()) {
+                carCommandRepository.compareAndSetStatuses(activeCarIds, CarStatus.ON_LEASE, CarStatus.IDLE);
+            }
+            leaseCommandRepository.deleteAllByIdIn(leaseIds);
+
+            // Read after the bulk updates, so the statuses are current; the owners are needed to evict their cached entries
+            Map<Integer, Car> cars = carCommandRepository.findAllById(leases.stream().map(DependentLeaseView::getCarId).distinct().toList())
+                    .stream()
+                    .collect(Collectors.toMap(Car::getId, Function.identity()));
+            activeCarIds.stream()
+                    .map(cars::get)
+                    .filter(car -> car != null && car.getStatus() == CarStatus.IDLE)
+                    .forEach(car -> availableCarIndex.carStatusChanged(car.getId(), CarStatus.IDLE));
+            leases.forEach(lease -> {
+                Car car = cars.get(lease.getCarId());
+                Integer ownerId = car == null || car.getOwner() == null ? null : car.getOwner().getId();
+                readCacheInvalidator.leaseRemoved(lease.getLeaseId(), customerId, lease.getCarId(), ownerId);
+            });
+            job.setLeasesDeleted(job.getLeasesDeleted() + leases.size());
+            return false;
+        }
+        if (deleteArchivedLeases(job, archivedLeaseCommandRepository.lockChunkIdsByCustomerId(customerId, chunkSize))) {
+            return false;
+        }
+        job.setPhase(DeletionJobPhase.TARGET);
+        customerCommandRepository.deletePendingById(customerId);
+        readCacheInvalidator.customerChanged(customerId);
+        return true;
+    }
+
+    /**
+     * Archived leases are ENDED and rendered only by their own cached entry, so deleting them releases nothing and
+     * evicts just that entry.
+     *
+     * @return true if a chunk of archived leases was deleted
+     */
+    private boolean deleteArchivedLeases(DeletionJob job, List<Integer> archivedLeaseIds) {
+        if (archivedLeaseIds.isEmpty()) {
+            return false;
+        }
+        job.setPhase(DeletionJobPhase.LEASES);
+        archivedLeaseCommandRepository.deleteAllByIdIn(archivedLeaseIds);
+        archivedLeaseIds.forEach(readCacheInvalidator::archivedLeaseChanged);
+        job.setLeasesDeleted(job.getLeasesDeleted() + archivedLeaseIds.size());
+        return true;
+    }
+
+    private void recordFailure(Long jobId, Exception failure) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> deletionJobCommandRepository.findById(jobId).ifPresent(job -> {
+                job.setFailedAttempts(job.getFailedAttempts() + 1);
+                job.setLastError(truncate(String.valueOf(failure.getMessage())));
+                if (job.getFailedAttempts() >= deletionJobProperties.getMaxAttempts()) {
+                    job.setStatus(DeletionJobStatus.FAILED);
+                    job.setFinishedOn(LocalDateTime.now());
+                    log.error("Deletion job {} failed after {} attempts; the {} with ID: {} stays hidden.",
+                            jobId, job.getFailedAttempts(), job.getTargetType(), job.getTargetId(), failure);
+                } else {
+                    log.warn("Chunk of deletion job {} failed (attempt {}), retrying on the next run: {}",
+                            jobId, job.getFailedAttempts(), failure.getMessage());
+                }
+            }));
+        } catch (Exception e) {
+            log.error("Error occurred while recording the failure of deletion job {}.", jobId, e);
+        }
+    }
+
+    private static List<Integer> activeLeaseIds(List<DependentLeaseView> leases) {
+        return leases.stream()
+                .filter(lease -> lease.getStatus() == LeaseStatus.ACTIVE)
+                .map(DependentLeaseView::getLeaseId)
+                .toList();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,120 @@
+package com.cars.management.service.expiry;
+
+import com.cars.management.config.LeaseExpiryProperties;
+import com.cars.management.entity.Car;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.repository.commandrepository.CarCommandRepository;
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.projection.ExpiredLeaseView;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ends ACTIVE leases whose end date has passed, every {@code crm.lease-expiry.sweep-interval}. Each chunk runs in
+ * its own transaction: it claims leases with {@code FOR UPDATE SKIP LOCKED}, ends them, releases their customers'
+ * lease slots and sets their cars back to IDLE with one set-based update per table. Sweepers on other nodes skip
+ * the claimed rows, and a concurrent {@code endLease} waits for the chunk and then finds the lease already ended.
+ * The number of leases ended per run is recorded as {@code crm.lease-expiry.ended}.
+ */
+@Slf4j
+@Component
+public class LeaseExpirySweeper {
+
+    public static final String ENDED_PER_RUN = "crm.lease-expiry.ended";
+
+    private final LeaseCommandRepository leaseCommandRepository;
+    private final CustomerCommandRepository customerCommandRepository;
+    private final CarCommandRepository carCommandRepository;
+    private final AvailableCarIndex availableCarIndex;
+    private final ReadCacheInvalidator readCacheInvalidator;
+    private final LeaseExpiryProperties leaseExpiryProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary endedPerRun;
+
+    public LeaseExpirySweeper(LeaseCommandRepository leaseCommandRepository,
+                              CustomerCommandRepository customerCommandRepository,
+                              CarCommandRepository carCommandRepository,
+                              AvailableCarIndex availableCarIndex,
+                              ReadCacheInvalidator readCacheInvalidator,
+                              LeaseExpiryProperties leaseExpiryProperties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.leaseCommandRepository = leaseCommandRepository;
+        this.customerCommandRepository = customerCommandRepository;
+        this.carCommandRepository = carCommandRepository;
+        this.availableCarIndex = availableCarIndex;
+        this.readCacheInvalidator = readCacheInvalidator;
+        this.leaseExpiryProperties = leaseExpiryProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.endedPerRun = DistributionSummary.builder(ENDED_PER_RUN).baseUnit("leases").register(meterRegistry);
+    }
+
+    /**
+     * @return the number of leases this run ended
+     */
+    @Scheduled(initialDelayString = "${crm.lease-expiry.sweep-interval:PT1M}",
+            fixedDelayString = "${crm.lease-expiry.sweep-interval:PT1M}")
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = leaseExpiryProperties.getChunkSize();
+        int ended = 0;
+        int chunks = 0;
+        try {
+            while (chunks < leaseExpiryProperties.getMaxChunksPerRun()) {
+                Integer chunkEnded = transactionTemplate.execute(status -> endExpiredChunk(now, chunkSize));
+                chunks++;
+                ended += chunkEnded;
+                if (chunkEnded < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while ending expired leases. {} leases were ended before the failure.", ended, e);
+        }
+        endedPerRun.record(ended);
+        if (ended > 0) {
+            log.info("Lease expiry sweep ended {} leases in {} chunks.", ended, chunks);
+        } else {
+            log.debug("Lease expiry sweep found no expired leases.");
+        }
+        return ended;
+    }
+
+    private int endExpiredChunk(LocalDateTime now, int chunkSize) {
+        List<ExpiredLeaseView> leases = leaseCommandRepository.claimExpired(now, chunkSize);
+        if (leases.isEmpty()) {
+            return 0;
+        }
+        List<Integer> leaseIds = leases.stream().map(ExpiredLeaseView::getLeaseId).toList();
+        List<Integer> customerIds = leases.stream().map(ExpiredLeaseView::getCustomerId).distinct().toList();
+        List<Integer> carIds = leases.stream().map(ExpiredLeaseView::getCarId).distinct().toList();
+
+        // Same lock order as endLease: lease, then customer, then car
+        leaseCommandRepository.endAllIfActive(leaseIds);
+        customerCommandRepository.releaseActiveLeases(customerIds, leaseIds);
+        carCommandRepository.compareAndSetStatuses(carIds, CarStatus.ON_LEASE, CarStatus.IDLE);
+
+        // Read after the bulk updates, so the statuses are current; the owners are needed to evict their cached entries
+        Map<Integer, Car> cars = carCommandRepository.findAllById(carIds).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+        cars.values().stream()
+                .filter(car -> car.getStatus() == CarStatus.IDLE)
+                .forEach(car -> availableCarIndex.carStatusChanged(car.getId(), CarStatus.IDLE));
+        leases.forEach(lease -> readCacheInvalidator.leaseEnded(lease.getLeaseId(), lease.getCustomerId(), cars.get(lease.getCarId())));
+        return leases.size();
+    }
+}
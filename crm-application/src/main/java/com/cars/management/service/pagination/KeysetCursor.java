@@ -0,0 +1,65 @@
+package com.cars.management.service.pagination;
+
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.exception.ErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursor for keyset pagination over integer primary keys.
+ * A page is read as {@code id > lastSeenId ORDER BY id LIMIT pageSize + 1}, so the cost
+ * of a page does not depend on how deep the cursor is.
+ */
+public final class KeysetCursor {
+
+    private static final String PREFIX = "id:";
+    private static final int FIRST_PAGE = 0;
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Integer lastSeenId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastSeenId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Integer decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw ErrorException.badRequest("Invalid page cursor: " + cursor);
+            }
+            return Integer.parseInt(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw ErrorException.badRequest("Invalid page cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1}; the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <E, T> CursorPageResponseDto<T> toPage(List<E> rows, int pageSize,
+                                                         Function<E, Integer> idExtractor,
+                                                         Function<List<E>, List<T>> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encode(idExtractor.apply(pageRows.get(pageRows.size() - 1))) : null;
+        return CursorPageResponseDto.<T>builder()
+                .items(mapper.apply(pageRows))
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public static <E, T> Function<List<E>, List<T>> eachOf(Function<E, T> mapper) {
+        return rows -> rows.stream().map(mapper).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,536 @@
+package com.cars.management.service.search;
+
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.repository.projection.ContactView;
+import com.cars.management.service.support.TransactionCallbacks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process n-gram index over the name, email and phone number of customers or owners, so staff can find a record
+ * by typing part of any of them. Every trigram of the lower-cased name and email and of the phone number's digits
+ * maps to a sorted array of record ids, and so do the first one and two characters of every word. A query of three
+ * or more characters matches anywhere; its trigram lists are intersected, smallest first, and each candidate is
+ * checked against the record. Shorter queries match the start of a word.
+ * <p>
+ * Matches are ranked exact field, then field prefix, then word prefix, then substring; a name match ranks above an
+ * email match and an email match above a phone match, and ties go to the lower id. Only the best {@code limit}
+ * matches are kept while scanning. The first one to three characters of each field are indexed as well, so the
+ * records that can match exactly or as a prefix are scored first; the other candidates are scanned in id order and
+ * the scan stops once they can no longer displace a kept match.
+ * <p>
+ * Writers report changes through {@link #contactSaved} and {@link #contactRemoved}; inside a transaction the change
+ * is applied only after commit. {@link ContactSearchIndexLoader} builds the content from a streamed scan at startup
+ * and replaces it periodically to repair any drift.
+ */
+public class ContactSearchIndex {
+
+    private static final int TRIGRAM = 3;
+
+    // Field order breaks ties between equally good matches
+    private static final int NAME = 0;
+    private static final int EMAIL = 1;
+    private static final int PHONE = 2;
+    private static final int FIELDS = 3;
+
+    // Match classes, best first
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int NO_MATCH = -1;
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Content content = new Content();
+
+    // Records changed while a rebuild was reading the database, with their latest state (null once removed);
+    // the rebuilt content must not overwrite them
+    private final Map<Integer, Contact> changedDuringRebuild = new HashMap<>();
+    private boolean rebuilding;
+    private volatile boolean loaded;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return content.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void contactSaved(Integer id, String name, String email, String phoneNumber) {
+        Contact contact = Contact.of(id, name, email, phoneNumber);
+        TransactionCallbacks.afterCommit(() -> write(() -> {
+            markChanged(id, contact);
+            content.put(contact);
+        }));
+    }
+
+    public void contactRemoved(Integer id) {
+        TransactionCallbacks.afterCommit(() -> write(() -> {
+            markChanged(id, null);
+            content.remove(id);
+        }));
+    }
+
+    /**
+     * Returns up to {@code limit} records matching {@code query} in any field, best match first.
+     */
+    public List<ContactSearchResultDto> search(String query, int limit) {
+        String text = query.strip().toLowerCase(Locale.ROOT);
+        String digits = phoneDigits(text);
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(text);
+            int[] fieldStarts = fieldStarts(text);
+            if (digits != null && !digits.equals(text)) {
+                candidates = union(candidates, candidates(digits));
+                fieldStarts = union(fieldStarts, fieldStarts(digits));
+            }
+            // Max-heap of score and id packed into one long, so the worst kept match is at the head
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+            // Only records with a field starting like the query can match exactly or as a prefix, so they go first
+            for (int id : intersection(candidates, fieldStarts)) {
+                offer(best, limit, id, text, digits);
+            }
+            for (int i = 0, j = 0; i < candidates.length; i++) {
+                int id = candidates[i];
+                while (j < fieldStarts.length && fieldStarts[j] < id) {
+                    j++;
+                }
+                if (j < fieldStarts.length && fieldStarts[j] == id) {
+                    continue;
+                }
+                // The rest score a name word prefix at best and come in id order, so none can beat a full heap
+                if (best.size() == limit && (best.peek() >>> Integer.SIZE) <= WORD_PREFIX * FIELDS + NAME) {
+                    break;
+                }
+                offer(best, limit, id, text, digits);
+            }
+            long[] ranks = best.stream().mapToLong(Long::longValue).sorted().toArray();
+            List<ContactSearchResultDto> results = new ArrayList<>(ranks.length);
+            for (long rank : ranks) {
+                Contact contact = content.contacts[(int) rank];
+                results.add(ContactSearchResultDto.builder()
+                        .id(contact.id())
+                        .name(contact.name())
+                        .email(contact.email())
+                        .phoneNumber(contact.phoneNumber())
+                        .build());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts tracking changes and returns an empty content to fill from a database scan without holding the lock.
+     * Hand it to {@link #completeRebuild(Rebuild)}, or to {@link #abortRebuild()} if the scan fails.
+     */
+    public Rebuild beginRebuild() {
+        write(() -> {
+            changedDuringRebuild.clear();
+            rebuilding = true;
+        });
+        return new Rebuild();
+    }
+
+    /**
+     * Replaces the index content with the rebuilt one, after replaying the changes made since
+     * {@link #beginRebuild()}. Returns the number of records indexed.
+     */
+    public int completeRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach((id, contact) -> {
+                if (contact == null) {
+                    rebuild.content.remove(id);
+                } else {
+                    rebuild.content.put(contact);
+                }
+            });
+            content = rebuild.content;
+            rebuilding = false;
+            changedDuringRebuild.clear();
+            loaded = true;
+            return content.size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild() {
+        write(() -> {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+        });
+    }
+
+    private int[] candidates(String key) {
+        long[] grams = queryGrams(key);
+        if (grams.length == 0) {
+            return NO_IDS;
+        }
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = content.postings.get(grams[i]);
+            if (lists[i] == null) {
+                return NO_IDS;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+        Postings smallest = lists[0];
+        int[] ids = new int[smallest.size];
+        int count = 0;
+        next:
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(id)) {
+                    continue next;
+                }
+            }
+            ids[count++] = id;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private int[] fieldStarts(String key) {
+        Postings postings = key.isEmpty() ? null : content.postings.get(fieldStartGram(key, Math.min(key.length(), TRIGRAM)));
+        return postings == null ? NO_IDS : Arrays.copyOf(postings.ids, postings.size);
+    }
+
+    private void offer(PriorityQueue<Long> best, int limit, int id, String text, String digits) {
+        int score = score(content.contacts[id], text, digits);
+        if (score == NO_MATCH) {
+            return;
+        }
+        long rank = ((long) score << Integer.SIZE) | id;
+        if (best.size() < limit) {
+            best.add(rank);
+        } else if (rank < best.peek()) {
+            best.poll();
+            best.add(rank);
+        }
+    }
+
+    private static int score(Contact contact, String text, String digits) {
+        int best = Math.min(score(contact.nameKey(), text, NAME), score(contact.emailKey(), text, EMAIL));
+        if (digits != null) {
+            best = Math.min(best, score(contact.phoneKey(), digits, PHONE));
+        }
+        return best == Integer.MAX_VALUE ? NO_MATCH : best;
+    }
+
+    private static int score(String key, String query, int field) {
+        int matchClass = matchClass(key, query);
+        return matchClass == NO_MATCH ? Integer.MAX_VALUE : matchClass * FIELDS + field;
+    }
+
+    private static int matchClass(String key, String query) {
+        if (key.equals(query)) {
+            return EXACT;
+        }
+        if (key.startsWith(query)) {
+            return PREFIX;
+        }
+        int matchClass = NO_MATCH;
+        for (int at = key.indexOf(query); at >= 0; at = key.indexOf(query, at + 1)) {
+            if (isWordStart(key, at)) {
+                return WORD_PREFIX;
+            }
+            matchClass = SUBSTRING;
+        }
+        // Shorter queries have only word-prefix grams, so they must not match in the middle of a word either
+        return query.length() >= TRIGRAM ? matchClass : NO_MATCH;
+    }
+
+    /**
+     * Digits of a query that looks like a phone number, so "555-0100" also finds "(555) 0100"; null if it has letters.
+     */
+    private static String phoneDigits(String text) {
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                return null;
+            }
+            if (Character.isDigit(c)) {
+                digits.append(c);
+            }
+        }
+        return digits.isEmpty() ? null : digits.toString();
+    }
+
+    private static long[] queryGrams(String key) {
+        if (key.length() >= TRIGRAM) {
+            long[] grams = new long[key.length() - TRIGRAM + 1];
+            for (int i = 0; i < grams.length; i++) {
+                grams[i] = gram(TRIGRAM, key, i);
+            }
+            return distinct(grams, grams.length);
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isLetterOrDigit(key.charAt(i))) {
+                return new long[0];
+            }
+        }
+        return key.isEmpty() ? new long[0] : new long[]{gram(key.length(), key, 0)};
+    }
+
+    /**
+     * Every trigram of the keys, the one- and two-character prefix of every word and the first one to three characters
+     * of each key, sorted and distinct.
+     */
+    private static long[] indexGrams(Contact contact) {
+        String[] keys = {contact.nameKey(), contact.emailKey(), contact.phoneKey()};
+        int capacity = 0;
+        for (String key : keys) {
+            capacity += key.length() * 3 + TRIGRAM;
+        }
+        long[] grams = new long[capacity];
+        int count = 0;
+        for (String key : keys) {
+            for (int i = 0; i + TRIGRAM <= key.length(); i++) {
+                grams[count++] = gram(TRIGRAM, key, i);
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (isWordStart(key, i)) {
+                    grams[count++] = gram(1, key, i);
+                    if (i + 1 < key.length() && Character.isLetterOrDigit(key.charAt(i + 1))) {
+                        grams[count++] = gram(2, key, i);
+                    }
+                }
+            }
+            for (int length = 1; length <= Math.min(key.length(), TRIGRAM); length++) {
+                grams[count++] = fieldStartGram(key, length);
+            }
+        }
+        return distinct(grams, count);
+    }
+
+    // The length tags the gram, so the prefix "jo" and the trigram "jo" followed by a NUL never collide
+    private static long gram(int length, String key, int from) {
+        long gram = length;
+        for (int i = 0; i < TRIGRAM; i++) {
+            gram = (gram << Character.SIZE) | (i < length ? key.charAt(from + i) : 0);
+        }
+        return gram;
+    }
+
+    // Tagged past the other grams, so "jo" starting the field never collides with "jo" starting a later word
+    private static long fieldStartGram(String key, int length) {
+        return gram(length, key, 0) + ((long) TRIGRAM << (TRIGRAM * Character.SIZE));
+    }
+
+    private static long[] distinct(long[] grams, int count) {
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static boolean isWordStart(String key, int at) {
+        return Character.isLetterOrDigit(key.charAt(at)) && (at == 0 || !Character.isLetterOrDigit(key.charAt(at - 1)));
+    }
+
+    private static int[] intersection(int[] left, int[] right) {
+        int[] ids = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (right[j] < left[i]) {
+                j++;
+            } else {
+                ids[count++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static int[] union(int[] left, int[] right) {
+        int[] ids = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < left.length || j < right.length) {
+            if (j == right.length || (i < left.length && left[i] < right[j])) {
+                ids[count++] = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                ids[count++] = right[j++];
+            } else {
+                ids[count++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private void markChanged(Integer id, Contact contact) {
+        if (rebuilding) {
+            changedDuringRebuild.put(id, contact);
+        }
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Content being filled from a database scan, in id order, before it replaces the live content.
+     */
+    public static final class Rebuild {
+        private final Content content = new Content();
+
+        private Rebuild() {
+        }
+
+        public void add(ContactView contact) {
+            content.put(Contact.of(contact.id(), contact.name(), contact.email(), contact.phoneNumber()));
+        }
+    }
+
+    private record Contact(int id, String name, String email, String phoneNumber,
+                           String nameKey, String emailKey, String phoneKey) {
+
+        private static Contact of(Integer id, String name, String email, String phoneNumber) {
+            return new Contact(id, name, email, phoneNumber, lowerCase(name), lowerCase(email), digitsOf(phoneNumber));
+        }
+
+        private static String lowerCase(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+
+        private static String digitsOf(String value) {
+            if (value == null) {
+                return "";
+            }
+            StringBuilder digits = new StringBuilder(value.length());
+            value.chars().filter(Character::isDigit).forEach(c -> digits.append((char) c));
+            return digits.toString();
+        }
+    }
+
+    /**
+     * Records by id, and the ids of the records containing each gram.
+     */
+    private static final class Content {
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private Contact[] contacts = new Contact[0];
+        private int size;
+
+        private void put(Contact contact) {
+            int id = contact.id();
+            if (id < contacts.length && contacts[id] != null) {
+                if (contacts[id].equals(contact)) {
+                    return;
+                }
+                unlink(contacts[id]);
+                size--;
+            }
+            ensureCapacity(id);
+            contacts[id] = contact;
+            size++;
+            for (long gram : indexGrams(contact)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+            }
+        }
+
+        private void remove(int id) {
+            if (id >= contacts.length || contacts[id] == null) {
+                return;
+            }
+            unlink(contacts[id]);
+            contacts[id] = null;
+            size--;
+        }
+
+        // The grams are derived again from the record rather than stored, which would cost more than the record
+        private void unlink(Contact contact) {
+            for (long gram : indexGrams(contact)) {
+                Postings ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(contact.id());
+                    if (ids.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        private void ensureCapacity(int id) {
+            if (id >= contacts.length) {
+                contacts = Arrays.copyOf(contacts, Math.max(id + 1, contacts.length * 2));
+            }
+        }
+    }
+
+    /**
+     * Sorted, growable array of record ids. A scan adds ids in ascending order, which only appends.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        private void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            int insertAt = -at - 1;
+            grow();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.cars.management.service.search;
+
+import com.cars.management.repository.commandrepository.CustomerCommandRepository;
+import com.cars.management.repository.commandrepository.OwnerCommandRepository;
+import com.cars.management.repository.projection.ContactView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Builds {@link CustomerSearchIndex} and {@link OwnerSearchIndex} from a streamed scan at startup and rebuilds them
+ * every {@code crm.contact-search.rebuild-interval}, so writes that bypass the services are picked up. The new content
+ * is filled without holding the index lock, so searches keep being answered from the old one until it is swapped in.
+ * <p>
+ * Searches never load an index themselves; until it is loaded they are refused with a 503. An index whose load failed
+ * is retried every {@code crm.contact-search.retry-after} instead of waiting for the next full rebuild.
+ */
+@Slf4j
+@Component
+public class ContactSearchIndexLoader {
+
+    private final CustomerCommandRepository customerCommandRepository;
+    private final OwnerCommandRepository ownerCommandRepository;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final OwnerSearchIndex ownerSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    // A lock rather than synchronized, which would pin a virtual thread to its carrier for the whole scan
+    private final Lock rebuildLock = new ReentrantLock();
+
+    public ContactSearchIndexLoader(CustomerCommandRepository customerCommandRepository,
+                                    OwnerCommandRepository ownerCommandRepository,
+                                    CustomerSearchIndex customerSearchIndex,
+                                    OwnerSearchIndex ownerSearchIndex,
+                                    PlatformTransactionManager transactionManager) {
+        this.customerCommandRepository = customerCommandRepository;
+        this.ownerCommandRepository = ownerCommandRepository;
+        this.customerSearchIndex = customerSearchIndex;
+        this.ownerSearchIndex = ownerSearchIndex;
+        // Not read-only, so the scan is routed to the primary rather than a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${crm.contact-search.rebuild-interval:PT1H}",
+            fixedDelayString = "${crm.contact-search.rebuild-interval:PT1H}")
+    public void rebuild() {
+        rebuildCustomers();
+        rebuildOwners();
+    }
+
+    @Scheduled(initialDelayString = "${crm.contact-search.retry-after:PT30S}",
+            fixedDelayString = "${crm.contact-search.retry-after:PT30S}")
+    public void loadMissing() {
+        rebuild("Customer", customerSearchIndex, customerCommandRepository::streamAllContactViews, true);
+        rebuild("Owner", ownerSearchIndex, ownerCommandRepository::streamAllContactViews, true);
+    }
+
+    public void rebuildCustomers() {
+        rebuild("Customer", customerSearchIndex, customerCommandRepository::streamAllContactViews, false);
+    }
+
+    public void rebuildOwners() {
+        rebuild("Owner", ownerSearchIndex, ownerCommandRepository::streamAllContactViews, false);
+    }
+
+    private void rebuild(String name, ContactSearchIndex index, Supplier<Stream<ContactView>> scan, boolean onlyIfMissing) {
+        rebuildLock.lock();
+        try {
+            boolean initialLoad = !index.isLoaded();
+            // Checked under the lock, so a load that finished while this one waited is not repeated
+            if (onlyIfMissing && !initialLoad) {
+                return;
+            }
+            long started = System.nanoTime();
+            ContactSearchIndex.Rebuild rebuild = index.beginRebuild();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<ContactView> contacts = scan.get()) {
+                        contacts.forEach(rebuild::add);
+                    }
+                });
+            } catch (RuntimeException e) {
+                index.abortRebuild();
+                throw e;
+            }
+            int size = index.completeRebuild(rebuild);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            if (initialLoad) {
+                log.info("{} search index loaded with {} records in {} ms.", name, size, elapsedMillis);
+            } else {
+                log.debug("{} search index rebuilt with {} records in {} ms.", name, size, elapsedMillis);
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while rebuilding the {} search index.", name.toLowerCase(), e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.cars.management.service.search;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Search index over the name, email and phone number of every owner that is not pending deletion.
+ */
+@Component
+public class OwnerSearchIndex extends ContactSearchIndex {
+}
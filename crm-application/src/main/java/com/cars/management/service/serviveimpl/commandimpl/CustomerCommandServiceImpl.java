@@ -1,34 +1,58 @@
 package com.cars.management.service.serviveimpl.commandimpl;
 
-import com.cars.management.dto.request.CarDto;
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
+import com.cars.management.dto.request.BatchEndLeaseRequestDto;
+import com.cars.management.dto.request.BatchStartLeaseRequestDto;
 import com.cars.management.dto.request.CreateCustomerRequestDto;
 import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.request.StartLeaseItemDto;
 import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
+import com.cars.management.dto.response.BatchItemCode;
+import com.cars.management.dto.response.BatchLeaseItemResultDto;
+import com.cars.management.dto.response.BatchLeaseResponseDto;
 import com.cars.management.dto.response.CreateCustomerResponseDto;
 import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.UpdateCustomerDetailsResponseDto;
 import com.cars.management.entity.Car;
 import com.cars.management.entity.Customer;
+import com.cars.management.entity.DeletionJob;
 import com.cars.management.entity.Lease;
 import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.DeletionTargetType;
 import com.cars.management.enums.LeaseStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.mapper.CustomerMapper;
+import com.cars.management.mapper.DeletionJobMapper;
+import com.cars.management.mapper.LeaseMapper;
 import com.cars.management.repository.commandrepository.CarCommandRepository;
 import com.cars.management.repository.commandrepository.CustomerCommandRepository;
 import com.cars.management.repository.commandrepository.LeaseCommandRepository;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.CustomerQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.CustomerSearchIndex;
 import com.cars.management.service.serviveports.commandports.CustomerCommandService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,19 +66,26 @@ public class CustomerCommandServiceImpl implements CustomerCommandService {
      private final CarCommandRepository carCommandRepository;
      private final LeaseQueryRepository leaseQueryRepository;
      private final LeaseCommandRepository leaseCommandRepository;
-
-    @Autowired
-    private ModelMapper modelMapper;
+     private final LeaseLimitProperties leaseLimitProperties;
+     private final LeaseBatchProperties leaseBatchProperties;
+     private final AvailableCarIndex availableCarIndex;
+     private final ReadCacheInvalidator readCacheInvalidator;
+     private final DeletionJobQueue deletionJobQueue;
+     private final CustomerSearchIndex customerSearchIndex;
+     private final CustomerMapper customerMapper;
+     private final LeaseMapper leaseMapper;
+     private final DeletionJobMapper deletionJobMapper;
 
     @Override
     @Transactional
     public CreateCustomerResponseDto registerCustomer(CreateCustomerRequestDto createCustomerRequestDto) {
-        log.info("Starting customer registration process. Request: {}", createCustomerRequestDto); // Log start of process
+        log.info(LogMarkers.SAMPLED, "Starting customer registration process"); // Log start of process
         try {
             log.debug("Saving customer with details: {}", createCustomerRequestDto); // Log customer details being saved
-            Customer savedCustomer = customerCommandRepository.save(modelMapper.map(createCustomerRequestDto, Customer.class));
-            log.info("Customer registered successfully with ID: {}", savedCustomer.getId()); // Log success after saving
-            return modelMapper.map(savedCustomer, CreateCustomerResponseDto.class);
+            Customer savedCustomer = customerCommandRepository.save(customerMapper.toCustomer(createCustomerRequestDto));
+            customerSearchIndex.contactSaved(savedCustomer.getId(), savedCustomer.getName(), savedCustomer.getEmail(), savedCustomer.getPhoneNumber());
+            log.atInfo().addKeyValue("customerId", savedCustomer.getId()).log("Customer registered successfully"); // Log success after saving
+            return customerMapper.toCreateCustomerResponseDto(savedCustomer);
         } catch (Exception e) {
             log.error("Error occurred while registering customer. Request Data: {}. Error: {}",
                     createCustomerRequestDto, e.getMessage(), e);
@@ -64,15 +95,18 @@ public class CustomerCommandServiceImpl implements CustomerCommandService {
 
 
     @Override
-    public void deleteCustomerById(Integer customerId) {
-        log.info("Received request to delete customer with ID: {}", customerId);  // Log entry for the start of the request
+    @Transactional
+    public DeletionJobResponseDto deleteCustomerById(Integer customerId) {
+        log.info(LogMarkers.SAMPLED, "Received request to delete customer with ID: {}", customerId);  // Log entry for the start of the request
         try {
-            Customer customer = customerQueryRepository.findById(customerId)
+            // Hidden from reads from here on; the job deletes the leases and the customer row in chunks
+            boolean marked = customerCommandRepository.markPendingDeletion(customerId) == 1;
+            DeletionJob job = deletionJobQueue.enqueue(DeletionTargetType.CUSTOMER, customerId, marked)
                     .orElseThrow(() -> ErrorException.resourceNotExist("Customer not found with ID: " + customerId));
-            log.debug("Customer found: {} - {}", customer.getId(), customer.getName());
-            log.info("Deleting customer with ID: {}", customerId);
-            customerCommandRepository.deleteById(customerId);
-            log.info("Successfully deleted customer with ID: {}", customerId);
+            readCacheInvalidator.customerChanged(customerId);
+            customerSearchIndex.contactRemoved(customerId);
+            log.atInfo().addKeyValue("customerId", customerId).addKeyValue("jobId", job.getId()).log("Accepted customer deletion");
+            return deletionJobMapper.toDeletionJobResponseDto(job);
         } catch (ErrorException e) {
             log.error("Error deleting customer with ID: {}. Exception: {}", customerId, e.getMessage(), e);
             throw e;
@@ -84,18 +118,24 @@ public class CustomerCommandServiceImpl implements CustomerCommandService {
 
     @Override
     public UpdateCustomerDetailsResponseDto updateCustomerById(UpdateCustomerDetailsRequestDto updateCustomerDetailsRequestDto) {
-        log.info("Received request to update customer with ID: {}", updateCustomerDetailsRequestDto.getId());
+        log.info(LogMarkers.SAMPLED, "Received request to update customer with ID: {}", updateCustomerDetailsRequestDto.getId());
         try {
-            Customer customer = customerQueryRepository.findById(updateCustomerDetailsRequestDto.getId())
+            // Loaded from the primary, so the merge starts from the current row and version rather than a lagging copy
+            Customer customer = customerCommandRepository.findById(updateCustomerDetailsRequestDto.getId())
                     .orElseThrow(() -> ErrorException.resourceNotExist("Customer not found with ID: " + updateCustomerDetailsRequestDto.getId()));
             log.debug("Customer found: {} - {}", customer.getId(), customer.getName());
-            updateCustomerDetails(customer, updateCustomerDetailsRequestDto);
+            customerMapper.updateCustomer(updateCustomerDetailsRequestDto, customer);
             Customer savedCustomer = customerCommandRepository.save(customer);
-            log.info("Successfully updated customer with ID: {}", savedCustomer.getId());
-            return modelMapper.map(savedCustomer, UpdateCustomerDetailsResponseDto.class);
+            readCacheInvalidator.customerChanged(customer.getId());
+            customerSearchIndex.contactSaved(savedCustomer.getId(), savedCustomer.getName(), savedCustomer.getEmail(), savedCustomer.getPhoneNumber());
+            log.info(LogMarkers.SAMPLED, "Successfully updated customer with ID: {}", savedCustomer.getId());
+            return customerMapper.toUpdateCustomerDetailsResponseDto(savedCustomer);
         } catch (ErrorException e) {
             log.error("Error updating customer with ID: {}. Exception: {}", updateCustomerDetailsRequestDto.getId(), e.getMessage(), e);
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Concurrent update of customer with ID: {}. Exception: {}", updateCustomerDetailsRequestDto.getId(), e.getMessage());
+            throw ErrorException.resourceExist("Customer with ID: " + updateCustomerDetailsRequestDto.getId() + " was changed by another request");
         } catch (Exception e) {
             log.error("Unexpected error occurred while updating customer with ID: {}. Exception: {}", updateCustomerDetailsRequestDto.getId(), e.getMessage(), e);
             throw ErrorException.internalError("Unexpected error while updating customer with ID: " + updateCustomerDetailsRequestDto.getId(), e);
@@ -103,22 +143,23 @@ public class CustomerCommandServiceImpl implements CustomerCommandService {
     }
 
     @Override
+    @Transactional
     public CustomerStartLeaseResponseDto startLease(Integer customerId, Integer carId) {
-        log.info("Received request to start lease for customer ID: {} and car ID: {}", customerId, carId);
+        log.info(LogMarkers.SAMPLED, "Received request to start lease for customer ID: {} and car ID: {}", customerId, carId);
 
         try {
-            Customer customer = customerCommandRepository.findById(customerId)
+            Customer customer = customerQueryRepository.findById(customerId)
                     .orElseThrow(() -> ErrorException.resourceNotExist("Customer not found with ID: " + customerId));
+            reserveLeaseSlot(customer);
+            reserveCar(carId);
+            availableCarIndex.carStatusChanged(carId, CarStatus.ON_LEASE);
             Car car = carQueryRepository.findById(carId)
                     .orElseThrow(() -> ErrorException.resourceNotExist("Car not found with ID: " + carId));
-            validateCarAvailability(car);
-            validateCustomerLeaseLimit(customerId);
-            Lease lease = createLease(customer, car);
-            car.setStatus(CarStatus.ON_LEASE);
-            carCommandRepository.save(car);
-            leaseCommandRepository.save(lease);
-            log.info("Successfully started lease for customer ID: {} and car ID: {}", customerId, carId);
-            return mapToCustomerStartLeaseResponse(customer);
+            Lease lease = leaseCommandRepository.save(createLease(customer, car));
+            readCacheInvalidator.leaseChanged(lease);
+            log.info(LogMarkers.SAMPLED, "Successfully started lease for customer ID: {} and car ID: {}", customerId, carId);
+            // The projection query flushes the new lease first, so it is part of the list
+            return customerMapper.toCustomerStartLeaseResponseDto(customer, leaseQueryRepository.findViewsByCustomerId(customerId));
         } catch (ErrorException e) {
             log.error("Error occurred while starting lease for customer ID: {} and car ID: {}. Exception: {}", customerId, carId, e.getMessage(), e);
             throw e;
@@ -130,14 +171,17 @@ public class CustomerCommandServiceImpl implements CustomerCommandService {
 
 
     @Override
+    @Transactional
     public LeaseDto endLease(Integer leaseId) {
-        log.info("Received request to end lease with ID: {}", leaseId);
+        log.info(LogMarkers.SAMPLED, "Received request to end lease with ID: {}", leaseId);
         try {
-            Lease lease = leaseQueryRepository.findById(leaseId)
+            Lease lease = leaseQueryRepository.findWithCarById(leaseId)
                     .orElseThrow(() -> ErrorException.resourceNotExist("Lease not found with ID: " + leaseId));
-            endLeaseAndUpdateCarStatus(lease);
+            LocalDateTime endDate = LocalDateTime.now();
+            endLeaseAndReleaseCar(lease, endDate);
+            readCacheInvalidator.leaseChanged(lease);
             log.info("Lease with ID: {} successfully ended. Car status set to IDLE.", leaseId);
-            return mapToEndLeaseDto(lease);
+            return mapToEndLeaseDto(lease, endDate);
         } catch (ErrorException e) {
             log.error("Error occurred while ending lease with ID: {}. Error: {}", leaseId, e.getMessage(), e);
             throw e;
@@ -147,85 +191,252 @@ public class CustomerCommandServiceImpl implements CustomerCommandService {
         }
     }
 
-    private void endLeaseAndUpdateCarStatus(Lease lease) {
-        lease.setStatus(LeaseStatus.ENDED);
-        lease.setEndDate(LocalDateTime.now());
+    /**
+     * Locks every customer, then every car of the batch, decides each item against the locked rows in request
+     * order, and applies the accepted items with one statement per table: the same lock order as {@link #startLease}.
+     */
+    @Override
+    @Transactional
+    public BatchLeaseResponseDto startLeases(BatchStartLeaseRequestDto batchStartLeaseRequestDto) {
+        List<StartLeaseItemDto> items = batchStartLeaseRequestDto.getLeases();
+        LeaseBatchProperties.Mode mode = batchMode(batchStartLeaseRequestDto.getMode(), items);
+        log.info(LogMarkers.SAMPLED, "Received request to start {} leases in {} mode", items.size(), mode);
+        try {
+            Map<Integer, Customer> customers = byId(customerCommandRepository.lockAllById(
+                    distinctIds(items, StartLeaseItemDto::getCustomerId)), Customer::getId);
+            Map<Integer, Car> cars = byId(carCommandRepository.lockAllById(
+                    distinctIds(items, StartLeaseItemDto::getCarId)), Car::getId);
 
-        Car car = lease.getCar();
-        car.setStatus(CarStatus.IDLE);
+            Map<Integer, Integer> slotsTaken = new HashMap<>();
+            Set<Integer> carsTaken = new HashSet<>();
+            List<BatchLeaseItemResultDto> results = new ArrayList<>();
+            for (int index = 0; index < items.size(); index++) {
+                StartLeaseItemDto item = items.get(index);
+                BatchLeaseItemResultDto result = checkStart(item, customers.get(item.getCustomerId()),
+                        cars.get(item.getCarId()), slotsTaken, carsTaken);
+                result.setIndex(index);
+                results.add(result);
+            }
+            if (!isApplicable(mode, results, BatchItemCode.STARTED)) {
+                return rejectBatch(mode, results, BatchItemCode.STARTED);
+            }
 
-        // Save the updated car and lease
-        carCommandRepository.save(car);
-        leaseCommandRepository.save(lease);
+            List<BatchLeaseItemResultDto> started = withCode(results, BatchItemCode.STARTED);
+            if (!started.isEmpty()) {
+                List<Lease> leases = started.stream()
+                        .map(result -> createLease(customers.get(result.getCustomerId()), cars.get(result.getCarId())))
+                        .toList();
+                List<Integer> carIds = started.stream().map(BatchLeaseItemResultDto::getCarId).toList();
+                carCommandRepository.compareAndSetStatuses(carIds, CarStatus.IDLE, CarStatus.ON_LEASE);
+                leaseCommandRepository.saveAllAndFlush(leases);
+                customerCommandRepository.takeActiveLeases(distinctIds(started, BatchLeaseItemResultDto::getCustomerId),
+                        leases.stream().map(Lease::getId).toList());
+                for (int i = 0; i < leases.size(); i++) {
+                    started.get(i).setLeaseId(leases.get(i).getId());
+                    availableCarIndex.carStatusChanged(carIds.get(i), CarStatus.ON_LEASE);
+                    readCacheInvalidator.leaseChanged(leases.get(i));
+                }
+            }
+            BatchLeaseResponseDto responseDto = batchResponse(mode, true, results, BatchItemCode.STARTED);
+            log.info("Batch started {} of {} leases", responseDto.getSucceeded(), items.size());
+            return responseDto;
+        } catch (ErrorException e) {
+            log.error("Error occurred while starting a batch of {} leases. Exception: {}", items.size(), e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error occurred while starting a batch of {} leases. Exception: {}", items.size(), e.getMessage(), e);
+            throw ErrorException.internalError("Error while starting a batch of " + items.size() + " leases", e);
+        }
     }
-    private LeaseDto mapToEndLeaseDto(Lease lease) {
-        LeaseDto leaseDto = new LeaseDto();
-        leaseDto.setId(lease.getId());
-        leaseDto.setStartDate(lease.getStartDate());
-        leaseDto.setEndDate(lease.getEndDate());
-        leaseDto.setStatus(lease.getStatus());
 
-        CarDto carDto = new CarDto();
-        carDto.setId(lease.getCar().getId());
-        carDto.setModel(lease.getCar().getModel());
-        carDto.setVariant(lease.getCar().getVariant());
-        leaseDto.setCarDto(carDto);
+    /**
+     * Locks the leases of the batch, then releases the ended ones' customer slots and cars with one statement
+     * per table: the same lock order as {@link #endLease}.
+     */
+    @Override
+    @Transactional
+    public BatchLeaseResponseDto endLeases(BatchEndLeaseRequestDto batchEndLeaseRequestDto) {
+        List<Integer> leaseIds = batchEndLeaseRequestDto.getLeaseIds();
+        LeaseBatchProperties.Mode mode = batchMode(batchEndLeaseRequestDto.getMode(), leaseIds);
+        log.info(LogMarkers.SAMPLED, "Received request to end {} leases in {} mode", leaseIds.size(), mode);
+        try {
+            Map<Integer, Lease> leases = byId(leaseCommandRepository.lockAllById(new HashSet<>(leaseIds)), Lease::getId);
+
+            Set<Integer> seen = new HashSet<>();
+            List<BatchLeaseItemResultDto> results = new ArrayList<>();
+            for (int index = 0; index < leaseIds.size(); index++) {
+                BatchLeaseItemResultDto result = checkEnd(leaseIds.get(index), leases.get(leaseIds.get(index)), seen);
+                result.setIndex(index);
+                results.add(result);
+            }
+            if (!isApplicable(mode, results, BatchItemCode.ENDED)) {
+                return rejectBatch(mode, results, BatchItemCode.ENDED);
+            }
 
-        return leaseDto;
+            List<BatchLeaseItemResultDto> ended = withCode(results, BatchItemCode.ENDED);
+            if (!ended.isEmpty()) {
+                List<Integer> endedIds = ended.stream().map(BatchLeaseItemResultDto::getLeaseId).toList();
+                List<Integer> carIds = distinctIds(ended, BatchLeaseItemResultDto::getCarId);
+                leaseCommandRepository.endAllIfActive(endedIds, LocalDateTime.now());
+                customerCommandRepository.releaseActiveLeases(distinctIds(ended, BatchLeaseItemResultDto::getCustomerId), endedIds);
+                carCommandRepository.compareAndSetStatuses(carIds, CarStatus.ON_LEASE, CarStatus.IDLE);
+                // Read after the bulk updates, so the statuses are current; this also loads the cars the cache eviction needs
+                carCommandRepository.findAllById(carIds).stream()
+                        .filter(car -> car.getStatus() == CarStatus.IDLE)
+                        .forEach(car -> availableCarIndex.carStatusChanged(car.getId(), CarStatus.IDLE));
+                endedIds.forEach(leaseId -> readCacheInvalidator.leaseChanged(leases.get(leaseId)));
+            }
+            BatchLeaseResponseDto responseDto = batchResponse(mode, true, results, BatchItemCode.ENDED);
+            log.info("Batch ended {} of {} leases", responseDto.getSucceeded(), leaseIds.size());
+            return responseDto;
+        } catch (ErrorException e) {
+            log.error("Error occurred while ending a batch of {} leases. Exception: {}", leaseIds.size(), e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error occurred while ending a batch of {} leases. Exception: {}", leaseIds.size(), e.getMessage(), e);
+            throw ErrorException.internalError("Error while ending a batch of " + leaseIds.size() + " leases", e);
+        }
     }
 
-
-    private void updateCustomerDetails(Customer customer, UpdateCustomerDetailsRequestDto requestDto) {
-        customer.setName(requestDto.getName());
-        customer.setEmail(requestDto.getEmail());
-        customer.setPhoneNumber(requestDto.getPhoneNumber());
+    // Checks run in the same order as startLease; a car taken by an earlier item is no longer available
+    private BatchLeaseItemResultDto checkStart(StartLeaseItemDto item, Customer customer, Car car,
+                                               Map<Integer, Integer> slotsTaken, Set<Integer> carsTaken) {
+        BatchLeaseItemResultDto result = BatchLeaseItemResultDto.builder()
+                .customerId(item.getCustomerId())
+                .carId(item.getCarId())
+                .build();
+        if (customer == null) {
+            return withOutcome(result, BatchItemCode.CUSTOMER_NOT_FOUND, "Customer not found with ID: " + item.getCustomerId());
+        }
+        int leaseLimit = leaseLimitProperties.limitFor(customer.getTier().name());
+        if (customer.getActiveLeaseCount() + slotsTaken.getOrDefault(customer.getId(), 0) >= leaseLimit) {
+            return withOutcome(result, BatchItemCode.LEASE_LIMIT_REACHED, "Customer already has " + leaseLimit + " active leases");
+        }
+        if (car == null) {
+            return withOutcome(result, BatchItemCode.CAR_NOT_FOUND, "Car not found with ID: " + item.getCarId());
+        }
+        if (car.getStatus() != CarStatus.IDLE || carsTaken.contains(car.getId())) {
+            return withOutcome(result, BatchItemCode.CAR_NOT_AVAILABLE, "Car is not available for lease");
+        }
+        slotsTaken.merge(customer.getId(), 1, Integer::sum);
+        carsTaken.add(car.getId());
+        return withOutcome(result, BatchItemCode.STARTED, null);
     }
 
-    private void validateCarAvailability(Car car) {
-        if (car.getStatus() != CarStatus.IDLE) {
-            throw ErrorException.internalError("Car is not available for lease");
+    private static BatchLeaseItemResultDto checkEnd(Integer leaseId, Lease lease, Set<Integer> seen) {
+        BatchLeaseItemResultDto result = BatchLeaseItemResultDto.builder().leaseId(leaseId).build();
+        if (lease == null) {
+            return withOutcome(result, BatchItemCode.LEASE_NOT_FOUND, "Lease not found with ID: " + leaseId);
+        }
+        // The proxies answer getId() without loading the customer or the car
+        result.setCustomerId(lease.getCustomer().getId());
+        result.setCarId(lease.getCar().getId());
+        if (!seen.add(leaseId)) {
+            return withOutcome(result, BatchItemCode.DUPLICATE, "Lease appears earlier in the batch with ID: " + leaseId);
+        }
+        if (lease.getStatus() != LeaseStatus.ACTIVE) {
+            return withOutcome(result, BatchItemCode.LEASE_ALREADY_ENDED, "Lease is already ended with ID: " + leaseId);
         }
+        return withOutcome(result, BatchItemCode.ENDED, null);
     }
 
-    private void validateCustomerLeaseLimit(Integer customerId) {
-        List<Lease> activeLeases = leaseQueryRepository.findByCustomerIdAndStatus(customerId, LeaseStatus.ACTIVE.toString());
-        if (activeLeases.size() >= 2) {
-            throw ErrorException.internalError("Customer already has 2 active leases");
+    private LeaseBatchProperties.Mode batchMode(LeaseBatchProperties.Mode requested, List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw ErrorException.badRequest("Batch cannot be empty");
         }
+        if (items.size() > leaseBatchProperties.getMaxSize()) {
+            throw ErrorException.badRequest("Batch cannot hold more than " + leaseBatchProperties.getMaxSize() + " items");
+        }
+        return requested == null ? leaseBatchProperties.getDefaultMode() : requested;
     }
-    private Lease createLease(Customer customer, Car car) {
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setStatus(LeaseStatus.ACTIVE);
-        lease.setStartDate(LocalDateTime.now());
-        return lease;
+
+    private static boolean isApplicable(LeaseBatchProperties.Mode mode, List<BatchLeaseItemResultDto> results, BatchItemCode success) {
+        return mode == LeaseBatchProperties.Mode.BEST_EFFORT || results.stream().allMatch(result -> result.getCode() == success);
     }
-    private CustomerStartLeaseResponseDto mapToCustomerStartLeaseResponse(Customer customer) {
-        List<LeaseDto> leaseDtos = customer.getLeases().stream().map(this::mapToLeaseDto).collect(Collectors.toList());
-        CustomerStartLeaseResponseDto responseDto = new CustomerStartLeaseResponseDto();
-        responseDto.setId(customer.getId());
-        responseDto.setName(customer.getName());
-        responseDto.setLeaseDtoList(leaseDtos);
-        return responseDto;
+
+    // Nothing was written yet, so rejecting the batch only has to relabel the items that would have succeeded
+    private static BatchLeaseResponseDto rejectBatch(LeaseBatchProperties.Mode mode, List<BatchLeaseItemResultDto> results,
+                                                     BatchItemCode success) {
+        withCode(results, success).forEach(result ->
+                withOutcome(result, BatchItemCode.NOT_APPLIED, "Batch was not applied because other items failed"));
+        log.warn("Batch of {} items was not applied because some items failed", results.size());
+        return batchResponse(mode, false, results, success);
     }
 
-    private LeaseDto mapToLeaseDto(Lease lease) {
-        LeaseDto leaseDto = new LeaseDto();
-        leaseDto.setId(lease.getId());
-        leaseDto.setStartDate(lease.getStartDate());
-        leaseDto.setEndDate(lease.getEndDate());
-        leaseDto.setStatus(lease.getStatus());
+    private static BatchLeaseResponseDto batchResponse(LeaseBatchProperties.Mode mode, boolean applied,
+                                                       List<BatchLeaseItemResultDto> results, BatchItemCode success) {
+        int succeeded = withCode(results, success).size();
+        return BatchLeaseResponseDto.builder()
+                .mode(mode)
+                .applied(applied)
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
 
-        CarDto carDto = new CarDto();
-        carDto.setId(lease.getCar().getId());
-        carDto.setModel(lease.getCar().getModel());
-        carDto.setVariant(lease.getCar().getVariant());
-        leaseDto.setCarDto(carDto);
+    private static BatchLeaseItemResultDto withOutcome(BatchLeaseItemResultDto result, BatchItemCode code, String message) {
+        result.setCode(code);
+        result.setMessage(message);
+        return result;
+    }
 
+    private static List<BatchLeaseItemResultDto> withCode(List<BatchLeaseItemResultDto> results, BatchItemCode code) {
+        return results.stream().filter(result -> result.getCode() == code).toList();
+    }
+
+    private static <T> List<Integer> distinctIds(Collection<T> items, Function<T, Integer> id) {
+        return items.stream().map(id).distinct().toList();
+    }
+
+    private static <T> Map<Integer, T> byId(List<T> entities, Function<T, Integer> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    // Only the request that moves the lease off ACTIVE releases the customer's slot and the car
+    private void endLeaseAndReleaseCar(Lease lease, LocalDateTime endDate) {
+        if (leaseCommandRepository.endIfActive(lease.getId(), endDate) == 0) {
+            throw ErrorException.resourceExist("Lease is already ended with ID: " + lease.getId());
+        }
+        customerCommandRepository.decrementActiveLeaseCount(lease.getCustomer().getId());
+        if (carCommandRepository.compareAndSetStatus(lease.getCar().getId(), CarStatus.ON_LEASE, CarStatus.IDLE) == 1) {
+            availableCarIndex.carStatusChanged(lease.getCar().getId(), CarStatus.IDLE);
+        }
+    }
+    // The lease was ended by a bulk update, so the loaded entity still carries its ACTIVE state
+    private LeaseDto mapToEndLeaseDto(Lease lease, LocalDateTime endDate) {
+        LeaseDto leaseDto = leaseMapper.toLeaseDto(lease);
+        leaseDto.setEndDate(endDate);
+        leaseDto.setStatus(LeaseStatus.ENDED);
         return leaseDto;
     }
 
 
-}
 
+    // The conditional update is the reservation: exactly one concurrent request can move the car off IDLE
+    private void reserveCar(Integer carId) {
+        if (carCommandRepository.compareAndSetStatus(carId, CarStatus.IDLE, CarStatus.ON_LEASE) == 1) {
+            return;
+        }
+        if (!carQueryRepository.existsById(carId)) {
+            throw ErrorException.resourceNotExist("Car not found with ID: " + carId);
+        }
+        throw ErrorException.resourceExist("Car is not available for lease");
+    }
+
+    // Single-row guarded increment on customers.active_lease_count; rolled back with the lease if the car cannot be reserved
+    private void reserveLeaseSlot(Customer customer) {
+        int leaseLimit = leaseLimitProperties.limitFor(customer.getTier().name());
+        if (customerCommandRepository.incrementActiveLeaseCount(customer.getId(), leaseLimit) == 0) {
+            throw ErrorException.resourceExist("Customer already has " + leaseLimit + " active leases");
+        }
+    }
+    private Lease createLease(Customer customer, Car car) {
+        Lease lease = new Lease();
+        lease.setCar(car);
+        lease.setCustomer(customer);
+        lease.setStatus(LeaseStatus.ACTIVE);
+        lease.setStartDate(LocalDateTime.now());
+        return lease;
+    }
+}
@@ -5,21 +5,32 @@ import com.cars.management.dto.request.CreateOwnerRequestDto;
 import com.cars.management.dto.request.RegisterCarRequestDto;
 import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
 import com.cars.management.dto.response.CreateOwnerResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.RegisterCarResponseDto;
 import com.cars.management.dto.response.UpdateOwnerDetailsResponseDto;
 import com.cars.management.entity.Car;
+import com.cars.management.entity.DeletionJob;
 import com.cars.management.entity.Owner;
 import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.DeletionTargetType;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.mapper.CarMapper;
+import com.cars.management.mapper.DeletionJobMapper;
+import com.cars.management.mapper.OwnerMapper;
+import com.cars.management.repository.commandrepository.ArchivedLeaseCommandRepository;
 import com.cars.management.repository.commandrepository.CarCommandRepository;
 import com.cars.management.repository.commandrepository.OwnerCommandRepository;
 import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.OwnerSearchIndex;
 import com.cars.management.service.serviveports.commandports.OwnerCommandService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -32,19 +43,26 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
 
      private final OwnerCommandRepository ownerCommandRepository;
      private final CarCommandRepository carCommandRepository;
+     private final ArchivedLeaseCommandRepository archivedLeaseCommandRepository;
      private final OwnerQueryRepository ownerQueryRepository;
-     @Autowired
-     private ModelMapper modelMapper;
+     private final AvailableCarIndex availableCarIndex;
+     private final ReadCacheInvalidator readCacheInvalidator;
+     private final DeletionJobQueue deletionJobQueue;
+     private final OwnerSearchIndex ownerSearchIndex;
+     private final OwnerMapper ownerMapper;
+     private final CarMapper carMapper;
+     private final DeletionJobMapper deletionJobMapper;
 
     @Override
     @Transactional
     public CreateOwnerResponseDto createOwner(CreateOwnerRequestDto createOwnerRequestDto) {
-        log.info("Starting owner creation process. Request: {}", createOwnerRequestDto);
+        log.info(LogMarkers.SAMPLED, "Starting owner creation process");
         try {
             log.debug("Saving owner with details: {}", createOwnerRequestDto);
-            Owner savedOwner = ownerCommandRepository.save(modelMapper.map(createOwnerRequestDto, Owner.class));
-            log.info("Owner created successfully with ID: {}", savedOwner.getId());
-            return modelMapper.map(savedOwner, CreateOwnerResponseDto.class);
+            Owner savedOwner = ownerCommandRepository.save(ownerMapper.toOwner(createOwnerRequestDto));
+            ownerSearchIndex.contactSaved(savedOwner.getId(), savedOwner.getName(), savedOwner.getEmail(), savedOwner.getPhoneNumber());
+            log.atInfo().addKeyValue("ownerId", savedOwner.getId()).log("Owner created successfully");
+            return ownerMapper.toCreateOwnerResponseDto(savedOwner);
         } catch (Exception e) {
             log.error("Error occurred while creating owner. Request Data: {}. Error: {}",
                     createOwnerRequestDto, e.getMessage(), e);
@@ -54,15 +72,17 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
 
     @Override
     public RegisterCarResponseDto registerCar(RegisterCarRequestDto registerCarRequestDto) {
-        log.info("Received request to register cars for owner with ID: {}", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Received request to register cars for owner with ID: {}", registerCarRequestDto.getOwnerId());
         try {
-            Owner owner = ownerQueryRepository.findById(registerCarRequestDto.getOwnerId())
+            // Loaded from the primary: the owner may have been created moments ago and not be on the replica yet
+            Owner owner = ownerCommandRepository.findById(registerCarRequestDto.getOwnerId())
                     .orElseThrow(() -> ErrorException.resourceNotExist("Owner not found with ID: " + registerCarRequestDto.getOwnerId()));
             List<Car> carsToRegister = mapCarDtosToEntities(registerCarRequestDto.getCarDtoList(), owner);
             carCommandRepository.saveAll(carsToRegister);
-            List<CarDto> carDtos = mapCarsToCarDtos(carsToRegister);
-            log.info("Successfully registered {} cars for owner with ID: {}", carsToRegister.size(), owner.getId());
-            return new RegisterCarResponseDto(owner.getId(), owner.getName(), carDtos);
+            carsToRegister.forEach(availableCarIndex::carSaved);
+            readCacheInvalidator.ownerChanged(owner.getId());
+            log.info(LogMarkers.SAMPLED, "Successfully registered {} cars for owner with ID: {}", carsToRegister.size(), owner.getId());
+            return ownerMapper.toRegisterCarResponseDto(owner, carsToRegister);
         } catch (ErrorException e) {
             log.error("Error registering cars for owner with ID: {}. Exception: {}", registerCarRequestDto.getOwnerId(), e.getMessage(), e);
             throw e;
@@ -73,15 +93,28 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
     }
 
     @Override
-    public void deleteOwnerById(Integer ownerId) {
-        log.info("Received request to delete owner with ID: {}", ownerId);
+    @Transactional
+    public DeletionJobResponseDto deleteOwnerById(Integer ownerId) {
+        log.info(LogMarkers.SAMPLED, "Received request to delete owner with ID: {}", ownerId);
         try {
-            Owner owner = ownerQueryRepository.findById(ownerId)
+            // Out of circulation before the owner is hidden, as the guarded status updates skip its cars afterwards;
+            // its leased cars cannot return to IDLE either, so nothing can be leased that the job is about to delete
+            List<Integer> idleCarIds = carCommandRepository.findIdsByOwnerIdAndStatus(ownerId, CarStatus.IDLE);
+            if (!idleCarIds.isEmpty()) {
+                carCommandRepository.compareAndSetStatuses(idleCarIds, CarStatus.IDLE, CarStatus.ON_SERVICE);
+                idleCarIds.forEach(carId -> {
+                    availableCarIndex.carStatusChanged(carId, CarStatus.ON_SERVICE);
+                    readCacheInvalidator.carRemoved(carId, ownerId);
+                });
+            }
+            // Hidden from reads from here on; the job deletes the leases, cars and owner row in chunks
+            boolean marked = ownerCommandRepository.markPendingDeletion(ownerId) == 1;
+            DeletionJob job = deletionJobQueue.enqueue(DeletionTargetType.OWNER, ownerId, marked)
                     .orElseThrow(() -> ErrorException.resourceNotExist("Owner not found with ID: " + ownerId));
-            log.debug("Owner found: {} - {}", owner.getId(), owner.getName());
-            log.info("Deleting owner with ID: {}", ownerId);
-            ownerCommandRepository.deleteById(ownerId);
-            log.info("Successfully deleted owner with ID: {}", ownerId);
+            readCacheInvalidator.ownerChanged(ownerId);
+            ownerSearchIndex.contactRemoved(ownerId);
+            log.atInfo().addKeyValue("ownerId", ownerId).addKeyValue("jobId", job.getId()).log("Accepted owner deletion");
+            return deletionJobMapper.toDeletionJobResponseDto(job);
         } catch (ErrorException e) {
             log.error("Error deleting owner with ID: {}. Exception: {}", ownerId, e.getMessage(), e);
             throw e;
@@ -93,18 +126,24 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
 
     @Override
     public UpdateOwnerDetailsResponseDto updateOwnerById(UpdateOwnerDetailsRequestDto updateOwnerDetailsRequestDto) {
-        log.info("Received request to update owner with ID: {}", updateOwnerDetailsRequestDto.getId());
+        log.info(LogMarkers.SAMPLED, "Received request to update owner with ID: {}", updateOwnerDetailsRequestDto.getId());
         try {
-            Owner owner = ownerQueryRepository.findById(updateOwnerDetailsRequestDto.getId())
+            // Loaded from the primary, so the merge starts from the current row and version rather than a lagging copy
+            Owner owner = ownerCommandRepository.findById(updateOwnerDetailsRequestDto.getId())
                     .orElseThrow(() -> ErrorException.resourceNotExist("Owner not found with ID: " + updateOwnerDetailsRequestDto.getId()));
             log.debug("Owner found: {} - {}", owner.getId(), owner.getName());
-            updateOwnerDetails(owner, updateOwnerDetailsRequestDto);
+            ownerMapper.updateOwner(updateOwnerDetailsRequestDto, owner);
             Owner savedOwner = ownerCommandRepository.save(owner);
-            log.info("Successfully updated owner with ID: {}", savedOwner.getId());
-            return modelMapper.map(savedOwner, UpdateOwnerDetailsResponseDto.class);
+            readCacheInvalidator.ownerChanged(owner.getId());
+            ownerSearchIndex.contactSaved(savedOwner.getId(), savedOwner.getName(), savedOwner.getEmail(), savedOwner.getPhoneNumber());
+            log.info(LogMarkers.SAMPLED, "Successfully updated owner with ID: {}", savedOwner.getId());
+            return ownerMapper.toUpdateOwnerDetailsResponseDto(savedOwner);
         } catch (ErrorException e) {
             log.error("Error updating owner with ID: {}. Exception: {}", updateOwnerDetailsRequestDto.getId(), e.getMessage(), e);
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Concurrent update of owner with ID: {}. Exception: {}", updateOwnerDetailsRequestDto.getId(), e.getMessage());
+            throw ErrorException.resourceExist("Owner with ID: " + updateOwnerDetailsRequestDto.getId() + " was changed by another request");
         } catch (Exception e) {
             log.error("Unexpected error occurred while updating owner with ID: {}. Exception: {}", updateOwnerDetailsRequestDto.getId(), e.getMessage(), e);
             throw ErrorException.internalError("Unexpected error while updating owner with ID: " + updateOwnerDetailsRequestDto.getId(), e);
@@ -114,15 +153,16 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
     @Override
     @Transactional
     public void deleteCarByOwnerIdAndCarId(Integer ownerId, Integer carId) {
-        log.info("Received request to delete car for owner with ID: {} and car ID: {}", ownerId, carId);
+        log.info(LogMarkers.SAMPLED, "Received request to delete car for owner with ID: {} and car ID: {}", ownerId, carId);
 
         try {
             Owner owner = ownerQueryRepository.findById(ownerId)
                     .orElseThrow(() -> ErrorException.resourceNotExist("Owner not found with ID: " + ownerId));
             Car carToDelete = getCarByOwnerAndId(owner, carId);
-            System.out.println("----------------------> " + carToDelete.getId());
+            readCacheInvalidator.carChanged(carToDelete);
             carCommandRepository.deleteCarByCarId(carToDelete.getId());
-            log.info("Successfully deleted car with ID: {} for owner with ID: {}", carId, ownerId);
+            availableCarIndex.carDeleted(carToDelete.getId());
+            log.info(LogMarkers.SAMPLED, "Successfully deleted car with ID: {} for owner with ID: {}", carId, ownerId);
         } catch (ErrorException e) {
             log.error("Error occurred while deleting car with ID: {} for owner with ID: {}. Exception: {}", carId, ownerId, e.getMessage(), e);
             throw e;
@@ -135,30 +175,34 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
 
 
     @Override
+    @Transactional
     public RegisterCarResponseDto updateCarDetails(RegisterCarRequestDto registerCarRequestDto) {
-        log.info("Received request to update car details for owner with ID: {}", registerCarRequestDto.getOwnerId());
+        log.info(LogMarkers.SAMPLED, "Received request to update car details for owner with ID: {}", registerCarRequestDto.getOwnerId());
         try {
             Owner owner = ownerQueryRepository.findById(registerCarRequestDto.getOwnerId())
                     .orElseThrow(() -> ErrorException.resourceNotExist("Owner not found with ID: " + registerCarRequestDto.getOwnerId()));
             List<Car> updatedCars = updateCars(owner, registerCarRequestDto.getCarDtoList());
             carCommandRepository.saveAll(updatedCars);
-            log.info("Successfully updated {} cars for owner with ID: {}", updatedCars.size(), owner.getId());
-            return buildResponse(owner, updatedCars);
+            updatedCars.forEach(availableCarIndex::carSaved);
+            updatedCars.forEach(readCacheInvalidator::carChanged);
+            if (!updatedCars.isEmpty()) {
+                archivedLeaseCommandRepository.findIdsByCarIdIn(updatedCars.stream().map(Car::getId).toList())
+                        .forEach(readCacheInvalidator::archivedLeaseChanged);
+            }
+            log.info(LogMarkers.SAMPLED, "Successfully updated {} cars for owner with ID: {}", updatedCars.size(), owner.getId());
+            return ownerMapper.toRegisterCarResponseDto(owner, updatedCars);
         } catch (ErrorException e) {
             log.error("Error occurred while updating cars for owner with ID: {}. Exception: {}", registerCarRequestDto.getOwnerId(), e.getMessage(), e);
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Concurrent update of cars for owner with ID: {}. Exception: {}", registerCarRequestDto.getOwnerId(), e.getMessage());
+            throw ErrorException.resourceExist("Cars of owner with ID: " + registerCarRequestDto.getOwnerId() + " were changed by another request");
         } catch (Exception e) {
             log.error("Unexpected error occurred while updating cars for owner with ID: {}. Exception: {}", registerCarRequestDto.getOwnerId(), e.getMessage(), e);
             throw ErrorException.internalError("Unexpected error while updating cars for owner ID: " + registerCarRequestDto.getOwnerId(), e);
         }
     }
 
-    private RegisterCarResponseDto buildResponse(Owner owner, List<Car> updatedCars) {
-        List<CarDto> carDtos = updatedCars.stream()
-                .map(car -> new CarDto(car.getId(), car.getModel(), car.getVariant()))
-                .collect(Collectors.toList());
-        return new RegisterCarResponseDto(owner.getId(), owner.getName(), carDtos);
-    }
     private List<Car> updateCars(Owner owner, List<CarDto> carDtoList) {
         return carDtoList.stream()
                 .map(carDto -> {
@@ -168,7 +212,7 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
                             .orElseThrow(() -> ErrorException.resourceNotExist("Car with ID: " + carDto.getId() + " not found"));
                     car.setModel(carDto.getModel());
                     car.setVariant(carDto.getVariant());
-                    car.setStatus(CarStatus.IDLE);  // Reset status to IDLE
+                    // The status is left alone: resetting it would free a car that is still on lease
                     return car;
                 })
                 .collect(Collectors.toList());
@@ -177,24 +221,9 @@ public class OwnerCommandServiceImpl implements OwnerCommandService{
 
     private List<Car> mapCarDtosToEntities(List<CarDto> carDtoList, Owner owner) {
         return carDtoList.stream()
-                .map(carDto -> Car.builder()
-                        .model(carDto.getModel())
-                        .variant(carDto.getVariant())
-                        .status(CarStatus.IDLE)
-                        .owner(owner)
-                        .build())
+                .map(carDto -> carMapper.toCar(carDto, owner))
                 .collect(Collectors.toList());
     }
-    private List<CarDto> mapCarsToCarDtos(List<Car> cars) {
-        return cars.stream()
-                .map(car -> new CarDto(car.getId(), car.getModel(), car.getVariant()))
-                .collect(Collectors.toList());
-    }
-    private void updateOwnerDetails(Owner owner, UpdateOwnerDetailsRequestDto requestDto) {
-        owner.setName(requestDto.getName());
-        owner.setEmail(requestDto.getEmail());
-        owner.setPhoneNumber(requestDto.getPhoneNumber());
-    }
 
     private Car getCarByOwnerAndId(Owner owner, Integer carId) {
         return owner.getCars().stream()
@@ -1,20 +1,25 @@
 package com.cars.management.service.serviveimpl.queryimpl;
 
 import com.cars.management.dto.response.CarResponseDto;
-import com.cars.management.dto.response.LeaseResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.entity.Car;
-import com.cars.management.entity.Lease;
 import com.cars.management.enums.CarStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.mapper.CarMapper;
+import com.cars.management.repository.projection.AggregateVersion;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.cache.ReadCaches;
 import com.cars.management.service.serviveports.queryports.CarQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -23,15 +28,25 @@ public class CarQueryServiceImpl implements CarQueryService {
 
      private final CarQueryRepository carQueryRepository;
      private final OwnerQueryRepository ownerQueryRepository;
+     private final CarMapper carMapper;
 
     @Override
-    public CarResponseDto getCarStatusAndDetails(Integer carId) {
-        log.info("Received request to fetch car details for car ID: {}", carId);
+    public Optional<String> getCarVersion(Integer carId) {
+        log.debug("Received request to fetch the version of car ID: {}", carId);
+        return carQueryRepository.findAggregateVersionById(carId).map(AggregateVersion::signature);
+    }
+
+    @Override
+    @Cacheable(cacheNames = ReadCaches.CARS, key = "#carId", sync = true)
+    public VersionedResponseDto<CarResponseDto> getCarStatusAndDetails(Integer carId) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch car details for car ID: {}", carId);
         try {
-            Car car = carQueryRepository.findById(carId)
+            // Read before the car: a concurrent write can only leave the body newer than its version, never older
+            String version = getCarVersion(carId).orElse(null);
+            Car car = carQueryRepository.findWithLeasesById(carId)
                     .orElseThrow(() -> ErrorException.resourceNotExist("CarNotFound", "Car not found with ID: ", carId));
             log.debug("Car details found for car ID: {}", carId);
-            return mapCarToCarResponseDto(car);
+            return new VersionedResponseDto<>(version, carMapper.toCarResponseDto(car));
         } catch (ErrorException e) {
             log.error("Error occurred while retrieving car details for car ID: {}. Error: {}", carId, e.getMessage(), e);
             throw e;
@@ -40,19 +55,24 @@ public class CarQueryServiceImpl implements CarQueryService {
             throw ErrorException.internalError("InternalError", "Unexpected error while retrieving car details for car ID: " + carId);
         }
     }
+
+    @Override
+    @CacheEvict(cacheNames = ReadCaches.CARS, key = "#carId")
+    public void evictCarStatusAndDetails(Integer carId) {
+        log.debug("Evicting the cached car ID: {}", carId);
+    }
+
     @Override
     public List<CarResponseDto> getCarsByStatus(CarStatus status) {
-        log.info("Received request to fetch cars with status: {}", status);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch cars with status: {}", status);
         try {
-            List<Car> cars = carQueryRepository.findByStatus(status.toString());
+            List<Car> cars = carQueryRepository.findWithLeasesByStatus(status);
             if (cars.isEmpty()) {
                 log.warn("No cars found with status: {}", status);
             } else {
-                log.info("Successfully fetched {} cars with status: {}", cars.size(), status);
+                log.info(LogMarkers.SAMPLED, "Successfully fetched {} cars with status: {}", cars.size(), status);
             }
-            return cars.stream()
-                    .map(this::mapCarToCarResponseDto)
-                    .collect(Collectors.toList());
+            return carMapper.toCarResponseDtos(cars);
         } catch (Exception e) {
             String errorMessage = "Error retrieving cars with status: " + status;
             log.error(errorMessage, e);
@@ -60,25 +80,4 @@ public class CarQueryServiceImpl implements CarQueryService {
         }
     }
 
-    private CarResponseDto mapCarToCarResponseDto(Car car) {
-        List<LeaseResponseDto> leaseResponseDtos = car.getLeases().stream()
-                .map(this::mapLeaseToLeaseResponseDto)  // Map each Lease entity to LeaseResponseDto
-                .collect(Collectors.toList());
-
-        return CarResponseDto.builder()
-                .id(car.getId())
-                .model(car.getModel())
-                .variant(car.getVariant())
-                .status(car.getStatus())
-                .leaseDtoList(leaseResponseDtos)
-                .build();
-    }
-    private LeaseResponseDto mapLeaseToLeaseResponseDto(Lease lease) {
-        return LeaseResponseDto.builder()
-                .id(lease.getId())
-                .startDate(lease.getStartDate())
-                .endDate(lease.getEndDate())
-                .status(lease.getStatus())
-                .build();
-    }
 }
@@ -1,24 +1,44 @@
 package com.cars.management.service.serviveimpl.queryimpl;
 
-import com.cars.management.dto.request.CarDto;
+import com.cars.management.config.ContactSearchProperties;
+import com.cars.management.config.PaginationProperties;
 import com.cars.management.dto.request.CustomerDto;
 import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.response.CarResponseDto;
-import com.cars.management.dto.response.LeaseResponseDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.entity.Car;
 import com.cars.management.entity.Customer;
-import com.cars.management.entity.Lease;
 import com.cars.management.enums.CarStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.mapper.CarMapper;
+import com.cars.management.mapper.CustomerMapper;
+import com.cars.management.mapper.LeaseMapper;
+import com.cars.management.repository.projection.LeaseCarView;
+import com.cars.management.repository.projection.AggregateVersion;
+import com.cars.management.repository.queryrepository.ArchivedLeaseQueryRepository;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.CustomerQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCaches;
+import com.cars.management.service.pagination.KeysetCursor;
+import com.cars.management.service.search.CustomerSearchIndex;
 import com.cars.management.service.serviveports.queryports.CustomerQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,11 +49,27 @@ public class CustomerQueryServiceImpl implements CustomerQueryService {
     private final CustomerQueryRepository customerQueryRepository;
     private final CarQueryRepository carQueryRepository;
     private final LeaseQueryRepository leaseQueryRepository;
+    private final ArchivedLeaseQueryRepository archivedLeaseQueryRepository;
+    private final PaginationProperties paginationProperties;
+    private final ContactSearchProperties contactSearchProperties;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final AvailableCarIndex availableCarIndex;
+    private final CustomerMapper customerMapper;
+    private final LeaseMapper leaseMapper;
+    private final CarMapper carMapper;
 
     @Override
-    public CustomerDto getCustomerById(Integer customerId) {
-        log.info("Received request to fetch customer with ID: {}", customerId);
+    public Optional<String> getCustomerVersion(Integer customerId) {
+        log.debug("Received request to fetch the version of customer ID: {}", customerId);
+        return customerQueryRepository.findAggregateVersionById(customerId).map(AggregateVersion::signature);
+    }
+
+    @Override
+    @Cacheable(cacheNames = ReadCaches.CUSTOMERS, key = "#customerId", sync = true)
+    public VersionedResponseDto<CustomerDto> getCustomerById(Integer customerId) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch customer with ID: {}", customerId);
         try {
+            String version = getCustomerVersion(customerId).orElse(null);
             // Fetch the customer from the repository, or throw an exception if not found
             Customer customer = customerQueryRepository.findById(customerId)
                     .orElseThrow(() -> ErrorException.resourceNotExist("CustomerNotFound", "Customer not found with ID: ", customerId));
@@ -41,8 +77,8 @@ public class CustomerQueryServiceImpl implements CustomerQueryService {
             // Log the customer details for debugging
             log.debug("Customer found: {} - {}", customer.getId(), customer.getName());
 
-            // Map the Customer entity to CustomerDto and return the result
-            return mapToCustomerDto(customer);
+            // Map the Customer entity and its lease rows to CustomerDto and return the result
+            return new VersionedResponseDto<>(version, customerMapper.toCustomerDto(customer, leaseQueryRepository.findViewsByCustomerId(customerId)));
         } catch (ErrorException e) {
             log.error("Error occurred while retrieving customer with ID: {}. Error: {}", customerId, e.getMessage());
             throw e;
@@ -52,16 +88,25 @@ public class CustomerQueryServiceImpl implements CustomerQueryService {
         }
     }
 
+    @Override
+    @CacheEvict(cacheNames = ReadCaches.CUSTOMERS, key = "#customerId")
+    public void evictCustomerById(Integer customerId) {
+        log.debug("Evicting the cached customer ID: {}", customerId);
+    }
+
 
     @Override
     public List<LeaseDto> getLeaseHistoryByCustomerId(Integer customerId) {
-        log.info("Received request to fetch lease history for customer with ID: {}", customerId);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease history for customer with ID: {}", customerId);
         try {
-            Customer customer = customerQueryRepository.findById(customerId)
-                    .orElseThrow(() -> ErrorException.resourceNotExist("CustomerNotFound", "Customer not found with ID: ", customerId));
-            log.debug("Customer found: {} - {}", customer.getId(), customer.getName());
-            List<LeaseDto> leaseDtos = mapLeasesToDtos(customer.getLeases());
-            log.info("Total leases found for customer with ID {}: {}", customerId, leaseDtos.size());
+            if (!customerQueryRepository.existsById(customerId)) {
+                throw ErrorException.resourceNotExist("CustomerNotFound", "Customer not found with ID: ", customerId);
+            }
+            // Hot tier first, then the leases the archiver moved to lease_history; a lease is in exactly one of them
+            List<LeaseCarView> leases = new ArrayList<>(leaseQueryRepository.findViewsByCustomerId(customerId));
+            leases.addAll(archivedLeaseQueryRepository.findViewsByCustomerId(customerId));
+            List<LeaseDto> leaseDtos = leaseMapper.toLeaseDtos(leases);
+            log.info(LogMarkers.SAMPLED, "Total leases found for customer with ID {}: {}", customerId, leaseDtos.size());
             return leaseDtos;
         } catch (ErrorException e) {
             log.error("Error retrieving lease history for customer with ID: {}. Error: {}", customerId, e.getMessage());
@@ -75,17 +120,33 @@ public class CustomerQueryServiceImpl implements CustomerQueryService {
 
     @Override
     public List<CarResponseDto> viewCarsForLease(CarStatus status) {
-        log.info("Received request to fetch cars with status: {}", status);
+        return viewCarsForLease(status, null, null);
+    }
+
+    /**
+     * IDLE cars are answered from {@link AvailableCarIndex} without a database round trip, and
+     * without lease history. Other statuses, or an index that is not loaded yet, go to the database;
+     * the index is only ever loaded by its reconciler, never on a request thread.
+     */
+    @Override
+    public List<CarResponseDto> viewCarsForLease(CarStatus status, String model, String variant) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch cars with status: {}, model: {}, variant: {}", status, model, variant);
         try {
-            List<Car> cars = carQueryRepository.findByStatus(status.toString());
+            if (status == CarStatus.IDLE && availableCarIndex.isLoaded()) {
+                List<CarResponseDto> cars = availableCarIndex.findAvailable(model, variant);
+                log.info(LogMarkers.SAMPLED, "Successfully fetched {} cars with status: {} from the availability index", cars.size(), status);
+                return cars;
+            }
+            List<Car> cars = carQueryRepository.findWithLeasesByStatus(status).stream()
+                    .filter(car -> model == null || model.equals(car.getModel()))
+                    .filter(car -> variant == null || variant.equals(car.getVariant()))
+                    .collect(Collectors.toList());
             if (cars.isEmpty()) {
                 log.warn("No cars found with status: {}", status);
             } else {
-                log.info("Successfully fetched {} cars with status: {}", cars.size(), status);
+                log.info(LogMarkers.SAMPLED, "Successfully fetched {} cars with status: {}", cars.size(), status);
             }
-            return cars.stream()
-                    .map(this::mapCarToCarResponseDto)
-                    .collect(Collectors.toList());
+            return carMapper.toCarResponseDtos(cars);
         } catch (Exception e) {
             String errorMessage = "Error retrieving cars with status: " + status;
             log.error(errorMessage, e);
@@ -94,93 +155,57 @@ public class CustomerQueryServiceImpl implements CustomerQueryService {
     }
 
     @Override
-    public List<CustomerDto> getAllCustomers() {
-        log.info("Fetching all customers from the database.");
+    public CursorPageResponseDto<CustomerDto> getCustomersPage(String cursor, Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch customers page. Cursor: {}, page size: {}", cursor, pageSize);
         try {
-            List<Customer> customers = customerQueryRepository.findAll();
-            if (customers.isEmpty()) {
-                log.warn("No customers found in the database.");
-            } else {
-                log.info("Successfully fetched {} customers.", customers.size());
-            }
-            return customers.stream()
-                    .map(this::mapToCustomerDto)
-                    .collect(Collectors.toList());
+            int size = paginationProperties.resolvePageSize(pageSize);
+            List<Customer> customers = customerQueryRepository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decode(cursor), Limit.of(size + 1));
+            CursorPageResponseDto<CustomerDto> page = KeysetCursor.toPage(customers, size, Customer::getId, this::mapPageToCustomerDtos);
+            log.info(LogMarkers.SAMPLED, "Successfully fetched {} customers. Next cursor: {}", page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (ErrorException e) {
+            log.error("Error occurred while fetching customers page for cursor: {}. Error: {}", cursor, e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
-            log.error("Error occurred while fetching customers from the database.", e);
-            throw ErrorException.internalError("InternalError", "Error occurred while fetching customers from the database.");
+            log.error("Error occurred while fetching customers page from the database.", e);
+            throw ErrorException.internalError("InternalError", "Error occurred while fetching customers page from the database.");
         }
     }
 
-    private CustomerDto mapToCustomerDto(Customer customer) {
-        List<LeaseDto> leaseDtos = customer.getLeases().stream()
-                .map(this::mapToLeaseGetAllDto)  // Map Lease to LeaseDto
-                .collect(Collectors.toList());
-        return CustomerDto.builder()
-                .id(customer.getId())
-                .name(customer.getName())
-                .email(customer.getEmail())
-                .phoneNumber(customer.getPhoneNumber())
-                .leaseDtoList(leaseDtos)
-                .build();
-    }
-
-    private LeaseDto mapToLeaseGetAllDto(Lease lease) {
-        CarDto carDto = CarDto.builder()
-                .id(lease.getCar().getId())
-                .model(lease.getCar().getModel())
-                .variant(lease.getCar().getVariant())
-                .build();
-        return LeaseDto.builder()
-                .id(lease.getId())
-                .startDate(lease.getStartDate())
-                .endDate(lease.getEndDate())
-                .status(lease.getStatus())
-                .carDto(carDto)
-                .build();
-    }
-
-    private List<LeaseDto> mapLeasesToDtos(List<Lease> leases) {
-        return leases.stream()
-                .map(this::mapToLeaseDto)
-                .collect(Collectors.toList());
-    }
-    private LeaseDto mapToLeaseDto(Lease lease) {
-        CarDto carDto = new CarDto();
-        carDto.setId(lease.getCar().getId());
-        carDto.setModel(lease.getCar().getModel());
-        carDto.setVariant(lease.getCar().getVariant());
-
-        LeaseDto leaseDto = new LeaseDto();
-        leaseDto.setId(lease.getId());
-        leaseDto.setStartDate(lease.getStartDate());
-        leaseDto.setEndDate(lease.getEndDate());
-        leaseDto.setStatus(lease.getStatus());
-        leaseDto.setCarDto(carDto);
-
-        return leaseDto;
+    @Override
+    public List<ContactSearchResultDto> searchCustomers(String query, Integer limit) {
+        log.info(LogMarkers.SAMPLED, "Received request to search customers. Limit: {}", limit);
+        try {
+            String resolvedQuery = contactSearchProperties.resolveQuery(query);
+            int resolvedLimit = contactSearchProperties.resolveLimit(limit);
+            // Loaded at startup and on a schedule by ContactSearchIndexLoader, never on a request thread
+            if (!customerSearchIndex.isLoaded()) {
+                throw ErrorException.serviceUnavailable("Customer search index is loading, retry later",
+                        contactSearchProperties.getRetryAfter());
+            }
+            List<ContactSearchResultDto> matches = customerSearchIndex.search(resolvedQuery, resolvedLimit);
+            log.info(LogMarkers.SAMPLED, "Found {} customers matching the search query.", matches.size());
+            return matches;
+        } catch (ErrorException e) {
+            log.error("Error occurred while searching customers. Error: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error occurred while searching customers. Error: {}", e.getMessage(), e);
+            throw ErrorException.internalError("InternalError", "Unexpected error while searching customers.");
+        }
     }
 
-    private CarResponseDto mapCarToCarResponseDto(Car car) {
-        List<LeaseResponseDto> leaseResponseDtos = car.getLeases().stream()
-                .map(this::mapLeaseToLeaseResponseDto)  // Map each Lease entity to LeaseResponseDto
+    private List<CustomerDto> mapPageToCustomerDtos(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Leases of the whole page in one query instead of one collection load per customer. Only the hot tier, as in
+        // getCustomerById: active and recent leases, while the archived ones are left to getLeaseHistoryByCustomerId
+        List<Integer> customerIds = customers.stream().map(Customer::getId).collect(Collectors.toList());
+        Map<Integer, List<LeaseCarView>> leasesByCustomerId = leaseQueryRepository.findViewsByCustomerIdIn(customerIds).stream()
+                .collect(Collectors.groupingBy(LeaseCarView::customerId));
+        return customers.stream()
+                .map(customer -> customerMapper.toCustomerDto(customer, leasesByCustomerId.getOrDefault(customer.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
-
-        return CarResponseDto.builder()
-                .id(car.getId())
-                .model(car.getModel())
-                .variant(car.getVariant())
-                .status(car.getStatus())
-                .leaseDtoList(leaseResponseDtos)
-                .build();
     }
-    private LeaseResponseDto mapLeaseToLeaseResponseDto(Lease lease) {
-        return LeaseResponseDto.builder()
-                .id(lease.getId())
-                .startDate(lease.getStartDate())
-                .endDate(lease.getEndDate())
-                .status(lease.getStatus())
-                .build();
-    }
-
 }
@@ -0,0 +1,36 @@
+package com.cars.management.service.serviveimpl.queryimpl;
+
+import com.cars.management.dto.response.DeletionJobResponseDto;
+import com.cars.management.exception.ErrorException;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.mapper.DeletionJobMapper;
+import com.cars.management.repository.queryrepository.DeletionJobQueryRepository;
+import com.cars.management.service.serviveports.queryports.DeletionJobQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeletionJobQueryServiceImpl implements DeletionJobQueryService {
+
+    private final DeletionJobQueryRepository deletionJobQueryRepository;
+    private final DeletionJobMapper deletionJobMapper;
+
+    @Override
+    public DeletionJobResponseDto getDeletionJobById(Long jobId) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch deletion job with ID: {}", jobId);
+        try {
+            return deletionJobQueryRepository.findById(jobId)
+                    .map(deletionJobMapper::toDeletionJobResponseDto)
+                    .orElseThrow(() -> ErrorException.resourceNotExist("Deletion job not found with ID: " + jobId));
+        } catch (ErrorException e) {
+            log.error("Error occurred while fetching deletion job with ID: {}. Error: {}", jobId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error occurred while fetching deletion job with ID: {}. Error: {}", jobId, e.getMessage(), e);
+            throw ErrorException.internalError("Unexpected error while fetching deletion job with ID: " + jobId, e);
+        }
+    }
+}
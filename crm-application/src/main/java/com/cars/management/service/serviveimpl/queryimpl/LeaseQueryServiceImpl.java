@@ -1,35 +1,71 @@
 package com.cars.management.service.serviveimpl.queryimpl;
 
+import com.cars.management.config.PaginationProperties;
 import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.service.cache.ReadCaches;
+import com.cars.management.service.pagination.KeysetCursor;
 import com.cars.management.service.serviveports.queryports.LeaseQueryService;
-import com.cars.management.dto.request.CarDto;
-import com.cars.management.entity.Lease;
 import com.cars.management.enums.LeaseStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.LeaseMapper;
+import com.cars.management.repository.projection.LeaseCarView;
+import com.cars.management.repository.projection.AggregateVersion;
+import com.cars.management.repository.queryrepository.ArchivedLeaseQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Reads leases from both tiers: the {@code leases} table, and {@code lease_history}, where the lease archiver moves
+ * old ENDED leases under the same ids. A lease is in exactly one of them, so lookups by id fall back to the archive,
+ * and lists, pages and the export cover both.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LeaseQueryServiceImpl implements LeaseQueryService {
 
     private final LeaseQueryRepository leaseQueryRepository;
+    private final ArchivedLeaseQueryRepository archivedLeaseQueryRepository;
+    private final PaginationProperties paginationProperties;
+    private final LeaseMapper leaseMapper;
 
     @Override
-    public LeaseDto getLeaseDetailsById(Integer leaseId) {
-        log.info("Received request to fetch lease details for lease ID: {}", leaseId);
+    public Optional<String> getLeaseVersion(Integer leaseId) {
+        log.debug("Received request to fetch the version of lease ID: {}", leaseId);
+        return leaseQueryRepository.findAggregateVersionById(leaseId)
+                .or(() -> archivedLeaseQueryRepository.findAggregateVersionById(leaseId))
+                .map(AggregateVersion::signature);
+    }
+
+    @Override
+    @Cacheable(cacheNames = ReadCaches.LEASES, key = "#leaseId", sync = true)
+    public VersionedResponseDto<LeaseDto> getLeaseDetailsById(Integer leaseId) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease details for lease ID: {}", leaseId);
         try {
-            Lease lease = leaseQueryRepository.findById(leaseId)
+            String version = getLeaseVersion(leaseId).orElse(null);
+            LeaseCarView lease = leaseQueryRepository.findViewById(leaseId)
+                    .or(() -> archivedLeaseQueryRepository.findViewById(leaseId))
                     .orElseThrow(() -> ErrorException.resourceNotExist("LeaseNotFound", "Lease details not found with ID: ", leaseId));
             log.debug("Lease details found for lease ID: {}", leaseId);
-            return mapToLeaseDto(lease);
+            return new VersionedResponseDto<>(version, leaseMapper.toLeaseDto(lease));
         } catch (ErrorException e) {
             log.error("Error occurred while fetching lease details for lease ID: {}. Error: {}", leaseId, e.getMessage(), e);
             throw e;
@@ -39,19 +75,27 @@ public class LeaseQueryServiceImpl implements LeaseQueryService {
         }
     }
 
+    @Override
+    @CacheEvict(cacheNames = ReadCaches.LEASES, key = "#leaseId")
+    public void evictLeaseDetailsById(Integer leaseId) {
+        log.debug("Evicting the cached lease ID: {}", leaseId);
+    }
+
     @Override
     public List<LeaseDto> getLeaseDetailsByStatus(LeaseStatus status) {
-        log.info("Received request to fetch leases with status: {}", status);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch leases with status: {}", status);
         try {
-            List<Lease> leases = leaseQueryRepository.findByLeaseByStatus(status.toString());
+            List<LeaseCarView> leases = new ArrayList<>(leaseQueryRepository.findViewsByStatus(status));
+            if (status == LeaseStatus.ENDED) {
+                // Every archived lease is ENDED
+                leases.addAll(archivedLeaseQueryRepository.findAllViews());
+            }
             if (leases.isEmpty()) {
                 log.warn("No leases found with status: {}", status);
                 return Collections.emptyList();
             }
-            log.info("Successfully retrieved {} leases with status: {}", leases.size(), status);
-            return leases.stream()
-                    .map(this::mapToLeaseDto)
-                    .collect(Collectors.toList());
+            log.info(LogMarkers.SAMPLED, "Successfully retrieved {} leases with status: {}", leases.size(), status);
+            return leaseMapper.toLeaseDtos(leases);
 
         } catch (Exception e) {
             String errorMessage = "Error retrieving leases with status: " + status;
@@ -61,39 +105,51 @@ public class LeaseQueryServiceImpl implements LeaseQueryService {
     }
 
     @Override
-    public List<LeaseDto> getAllLeaseDetails() {
-        log.info("Received request to fetch all lease details.");
+    public CursorPageResponseDto<LeaseDto> getLeaseDetailsPage(String cursor, Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease details page. Cursor: {}, page size: {}", cursor, pageSize);
         try {
-            List<Lease> leases = leaseQueryRepository.findAll();
-            if (leases.isEmpty()) {
-                log.warn("No lease details found in the database.");
-                return Collections.emptyList();
-            }
-            log.info("Successfully fetched {} lease details.", leases.size());
-            return leases.stream()
-                    .map(this::mapToLeaseDto)
-                    .collect(Collectors.toList());
+            int size = paginationProperties.resolvePageSize(pageSize);
+            Integer afterId = KeysetCursor.decode(cursor);
+            // The tiers hold disjoint ids, so the first size + 1 of both, merged by id, are the first size + 1 overall
+            List<LeaseCarView> leases = new ArrayList<>(leaseQueryRepository.findViewsByIdGreaterThan(afterId, Limit.of(size + 1)));
+            leases.addAll(archivedLeaseQueryRepository.findViewsByIdGreaterThan(afterId, Limit.of(size + 1)));
+            leases.sort(Comparator.comparing(LeaseCarView::leaseId));
+            leases = leases.subList(0, Math.min(leases.size(), size + 1));
+            CursorPageResponseDto<LeaseDto> page = KeysetCursor.toPage(leases, size, LeaseCarView::leaseId, KeysetCursor.eachOf(leaseMapper::toLeaseDto));
+            log.info(LogMarkers.SAMPLED, "Successfully fetched {} lease details. Next cursor: {}", page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (ErrorException e) {
+            log.error("Error occurred while fetching lease details page for cursor: {}. Error: {}", cursor, e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
-            String errorMessage = "Error occurred while fetching lease details.";
+            String errorMessage = "Error occurred while fetching lease details page.";
             log.error(errorMessage, e);
             throw ErrorException.internalError("InternalError", errorMessage, e);
         }
     }
 
-    private LeaseDto mapToLeaseDto(Lease lease) {
-        CarDto carDto = CarDto.builder()
-                .id(lease.getCar().getId())
-                .model(lease.getCar().getModel())
-                .variant(lease.getCar().getVariant())
-                .build();
-
-        return LeaseDto.builder()
-                .id(lease.getId())
-                .startDate(lease.getStartDate())
-                .endDate(lease.getEndDate())
-                .status(lease.getStatus())
-                .carDto(carDto)
-                .build();
+    /**
+     * Streams every lease to the consumer without materializing the table: the {@code leases} table first, then the
+     * archive. Rows are projections, not managed entities, so already written leases can be garbage collected right
+     * away. Both queries are started before either is read, the hot tier's first, so a lease the archiver moves
+     * during the export is never lost; it is written twice only if it moved in the instant between the two starts.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportLeaseDetails(Consumer<LeaseDto> consumer) {
+        log.info(LogMarkers.SAMPLED, "Received request to export all lease details.");
+        long exported = 0;
+        try (Stream<LeaseCarView> leases = Stream.concat(leaseQueryRepository.streamAllViews(), archivedLeaseQueryRepository.streamAllViews())) {
+            Iterator<LeaseCarView> iterator = leases.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(leaseMapper.toLeaseDto(iterator.next()));
+                exported++;
+            }
+            log.info(LogMarkers.SAMPLED, "Successfully exported {} lease details.", exported);
+            return exported;
+        } catch (Exception e) {
+            log.error("Error occurred while exporting lease details after {} rows.", exported, e);
+            throw ErrorException.internalError("InternalError", "Error occurred while exporting lease details.", e);
+        }
     }
-
 }
@@ -1,24 +1,40 @@
 package com.cars.management.service.serviveimpl.queryimpl;
 
+import com.cars.management.config.ContactSearchProperties;
+import com.cars.management.config.PaginationProperties;
 import com.cars.management.dto.request.LeaseDto;
-import com.cars.management.dto.request.CarDto;
-import com.cars.management.dto.response.CarResponseDto;
-import com.cars.management.dto.response.LeaseResponseDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
 import com.cars.management.dto.response.OwnerResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.entity.Car;
-import com.cars.management.entity.Lease;
 import com.cars.management.entity.Owner;
-import com.cars.management.enums.CarStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.mapper.LeaseMapper;
+import com.cars.management.mapper.OwnerMapper;
+import com.cars.management.repository.projection.AggregateVersion;
+import com.cars.management.repository.projection.LeaseCarView;
+import com.cars.management.repository.queryrepository.ArchivedLeaseQueryRepository;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
 import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.cache.ReadCaches;
+import com.cars.management.service.pagination.KeysetCursor;
+import com.cars.management.service.search.OwnerSearchIndex;
 import com.cars.management.service.serviveports.queryports.OwnerQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,15 +44,32 @@ public class OwnerQueryServiceImpl implements OwnerQueryService {
 
     private final CarQueryRepository carQueryRepository;
     private final OwnerQueryRepository ownerQueryRepository;
+    private final LeaseQueryRepository leaseQueryRepository;
+    private final ArchivedLeaseQueryRepository archivedLeaseQueryRepository;
+    private final PaginationProperties paginationProperties;
+    private final ContactSearchProperties contactSearchProperties;
+    private final OwnerSearchIndex ownerSearchIndex;
+    private final OwnerMapper ownerMapper;
+    private final LeaseMapper leaseMapper;
 
     @Override
-    public OwnerResponseDto getOwnerById(Integer ownerId) {
-        log.info("Received request to fetch owner details for owner with ID: {}", ownerId);
+    public Optional<String> getOwnerVersion(Integer ownerId) {
+        log.debug("Received request to fetch the version of owner ID: {}", ownerId);
+        return ownerQueryRepository.findAggregateVersionById(ownerId).map(AggregateVersion::signature);
+    }
+
+    @Override
+    @Cacheable(cacheNames = ReadCaches.OWNERS, key = "#ownerId", sync = true)
+    public VersionedResponseDto<OwnerResponseDto> getOwnerById(Integer ownerId) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch owner details for owner with ID: {}", ownerId);
         try {
+            String version = getOwnerVersion(ownerId).orElse(null);
             Owner owner = ownerQueryRepository.findById(ownerId)
                     .orElseThrow(() -> ErrorException.resourceNotExist("OwnerNotFound", "Owner not found with ID: ", ownerId));
             log.debug("Owner found: {} - {}", owner.getId(), owner.getName());
-            return mapOwnerToOwnerResponseDto(owner);
+            // Cars and their leases come in one query; Owner.cars and Car.leases are both bags and cannot be join-fetched together
+            List<Car> cars = carQueryRepository.findWithLeasesByOwnerId(ownerId);
+            return new VersionedResponseDto<>(version, ownerMapper.toOwnerResponseDto(owner, cars));
         } catch (ErrorException e) {
             log.error("Error occurred while fetching owner with ID: {}. Error: {}", ownerId, e.getMessage(), e);
             throw e;
@@ -47,34 +80,41 @@ public class OwnerQueryServiceImpl implements OwnerQueryService {
     }
 
     @Override
-    public List<OwnerResponseDto> getAllOwners() {
-        log.info("Received request to fetch all owners from the database.");
+    @CacheEvict(cacheNames = ReadCaches.OWNERS, key = "#ownerId")
+    public void evictOwnerById(Integer ownerId) {
+        log.debug("Evicting the cached owner ID: {}", ownerId);
+    }
+
+    @Override
+    public CursorPageResponseDto<OwnerResponseDto> getOwnersPage(String cursor, Integer pageSize) {
+        log.info(LogMarkers.SAMPLED, "Received request to fetch owners page. Cursor: {}, page size: {}", cursor, pageSize);
         try {
-            List<Owner> owners = ownerQueryRepository.findAll();
-            if (owners.isEmpty()) {
-                log.warn("No owners found in the database.");
-            } else {
-                log.info("Successfully retrieved {} owners from the database.", owners.size());
-            }
-            return owners.stream()
-                    .map(this::mapOwnerToOwnerResponseDto)
-                    .collect(Collectors.toList());
+            int size = paginationProperties.resolvePageSize(pageSize);
+            List<Owner> owners = ownerQueryRepository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decode(cursor), Limit.of(size + 1));
+            CursorPageResponseDto<OwnerResponseDto> page = KeysetCursor.toPage(owners, size, Owner::getId, this::mapPageToOwnerResponseDtos);
+            log.info(LogMarkers.SAMPLED, "Successfully retrieved {} owners. Next cursor: {}", page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (ErrorException e) {
+            log.error("Error occurred while fetching owners page for cursor: {}. Error: {}", cursor, e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
-            log.error("Unexpected error occurred while fetching owners. Error: {}", e.getMessage(), e);
-            throw ErrorException.internalError("InternalError", "Unexpected error occurred while fetching owners.");
+            log.error("Unexpected error occurred while fetching owners page. Error: {}", e.getMessage(), e);
+            throw ErrorException.internalError("InternalError", "Unexpected error occurred while fetching owners page.");
         }
     }
 
-
     @Override
     public List<LeaseDto> getLeaseHistoryByOwnerId(Integer ownerId) {
-        log.info("Received request to fetch lease history for owner with ID: {}", ownerId);
+        log.info(LogMarkers.SAMPLED, "Received request to fetch lease history for owner with ID: {}", ownerId);
         try {
-            Owner owner = ownerQueryRepository.findById(ownerId)
-                    .orElseThrow(() -> ErrorException.resourceNotExist("OwnerNotFound", "Owner not found with ID: ", ownerId));
-            log.debug("Owner found: {} - {}", owner.getId(), owner.getName());
-            List<LeaseDto> leaseDtos = mapCarsToLeaseDtos(owner.getCars()); // Use the helper method
-            log.info("Successfully retrieved {} leases for owner with ID: {}", leaseDtos.size(), ownerId);
+            if (!ownerQueryRepository.existsById(ownerId)) {
+                throw ErrorException.resourceNotExist("OwnerNotFound", "Owner not found with ID: ", ownerId);
+            }
+            // Hot tier first, then the leases the archiver moved to lease_history; a lease is in exactly one of them
+            List<LeaseCarView> leases = new ArrayList<>(leaseQueryRepository.findViewsByCarOwnerId(ownerId));
+            leases.addAll(archivedLeaseQueryRepository.findViewsByCarOwnerId(ownerId));
+            List<LeaseDto> leaseDtos = leaseMapper.toLeaseDtos(leases);
+            log.info(LogMarkers.SAMPLED, "Successfully retrieved {} leases for owner with ID: {}", leaseDtos.size(), ownerId);
             return leaseDtos;
         } catch (ErrorException e) {
             log.error("Error occurred while retrieving lease history for owner with ID: {}. Error: {}", ownerId, e.getMessage(), e);
@@ -85,63 +125,38 @@ public class OwnerQueryServiceImpl implements OwnerQueryService {
         }
     }
 
-    private List<LeaseDto> mapCarsToLeaseDtos(List<Car> cars) {
-        return cars.stream()
-                .flatMap(car -> car.getLeases().stream())
-                .map(this::mapToLeaseDto)
-                .collect(Collectors.toList());
-    }
-    private LeaseDto mapToLeaseDto(Lease lease) {
-        CarDto carDto = new CarDto();
-        carDto.setId(lease.getCar().getId());
-        carDto.setModel(lease.getCar().getModel());
-        carDto.setVariant(lease.getCar().getVariant());
-
-        LeaseDto leaseDto = new LeaseDto();
-        leaseDto.setId(lease.getId());
-        leaseDto.setStartDate(lease.getStartDate());
-        leaseDto.setEndDate(lease.getEndDate());
-        leaseDto.setStatus(lease.getStatus());
-        leaseDto.setCarDto(carDto);
-
-        return leaseDto;
-    }
-
-    private OwnerResponseDto mapOwnerToOwnerResponseDto(Owner owner) {
-        // Map the list of Car entities to CarResponseDto
-        List<CarResponseDto> carResponseDtos = owner.getCars().stream()
-                .map(this::mapCarToCarResponseDto)  // Map each Car entity to CarResponseDto
-                .collect(Collectors.toList());
-
-        // Build and return the OwnerResponseDto
-        return OwnerResponseDto.builder()
-                .id(owner.getId())
-                .name(owner.getName())
-                .email(owner.getEmail())
-                .phoneNumber(owner.getPhoneNumber())
-                .cars(carResponseDtos)
-                .build();
+    @Override
+    public List<ContactSearchResultDto> searchOwners(String query, Integer limit) {
+        log.info(LogMarkers.SAMPLED, "Received request to search owners. Limit: {}", limit);
+        try {
+            String resolvedQuery = contactSearchProperties.resolveQuery(query);
+            int resolvedLimit = contactSearchProperties.resolveLimit(limit);
+            // Loaded at startup and on a schedule by ContactSearchIndexLoader, never on a request thread
+            if (!ownerSearchIndex.isLoaded()) {
+                throw ErrorException.serviceUnavailable("Owner search index is loading, retry later",
+                        contactSearchProperties.getRetryAfter());
+            }
+            List<ContactSearchResultDto> matches = ownerSearchIndex.search(resolvedQuery, resolvedLimit);
+            log.info(LogMarkers.SAMPLED, "Found {} owners matching the search query.", matches.size());
+            return matches;
+        } catch (ErrorException e) {
+            log.error("Error occurred while searching owners. Error: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error occurred while searching owners. Error: {}", e.getMessage(), e);
+            throw ErrorException.internalError("InternalError", "Unexpected error while searching owners.");
+        }
     }
 
-    private CarResponseDto mapCarToCarResponseDto(Car car) {
-        List<LeaseResponseDto> leaseResponseDtos = car.getLeases().stream()
-                .map(this::mapLeaseToLeaseResponseDto)  // Map each Lease entity to LeaseResponseDto
+    private List<OwnerResponseDto> mapPageToOwnerResponseDtos(List<Owner> owners) {
+        if (owners.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> ownerIds = owners.stream().map(Owner::getId).collect(Collectors.toList());
+        Map<Integer, List<Car>> carsByOwnerId = carQueryRepository.findWithLeasesByOwnerIdIn(ownerIds).stream()
+                .collect(Collectors.groupingBy(car -> car.getOwner().getId()));
+        return owners.stream()
+                .map(owner -> ownerMapper.toOwnerResponseDto(owner, carsByOwnerId.getOrDefault(owner.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
-
-        return CarResponseDto.builder()
-                .id(car.getId())
-                .model(car.getModel())
-                .variant(car.getVariant())
-                .status(car.getStatus())
-                .leaseDtoList(leaseResponseDtos)
-                .build();
-    }
-    private LeaseResponseDto mapLeaseToLeaseResponseDto(Lease lease) {
-        return LeaseResponseDto.builder()
-                .id(lease.getId())
-                .startDate(lease.getStartDate())
-                .endDate(lease.getEndDate())
-                .status(lease.getStatus())
-                .build();
     }
 }
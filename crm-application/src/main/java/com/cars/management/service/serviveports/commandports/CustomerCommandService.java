@@ -1,16 +1,21 @@
 package com.cars.management.service.serviveports.commandports;
 
+import com.cars.management.dto.request.BatchEndLeaseRequestDto;
+import com.cars.management.dto.request.BatchStartLeaseRequestDto;
 import com.cars.management.dto.request.CreateCustomerRequestDto;
 import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
+import com.cars.management.dto.response.BatchLeaseResponseDto;
 import com.cars.management.dto.response.CreateCustomerResponseDto;
 import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.UpdateCustomerDetailsResponseDto;
 
 public interface CustomerCommandService {
     CreateCustomerResponseDto registerCustomer(CreateCustomerRequestDto createCustomerRequestDto);
 
-    void deleteCustomerById(Integer customerId);
+    // Hides the customer at once and queues a job that deletes their leases and the customer in chunks
+    DeletionJobResponseDto deleteCustomerById(Integer customerId);
 
     UpdateCustomerDetailsResponseDto updateCustomerById(UpdateCustomerDetailsRequestDto updateCustomerDetailsRequestDto);
 
@@ -19,4 +24,10 @@ public interface CustomerCommandService {
 
     // 4. End a lease
     LeaseDto endLease(Integer leaseId);
+
+    // 5. Start several leases in one transaction
+    BatchLeaseResponseDto startLeases(BatchStartLeaseRequestDto batchStartLeaseRequestDto);
+
+    // 6. End several leases in one transaction
+    BatchLeaseResponseDto endLeases(BatchEndLeaseRequestDto batchEndLeaseRequestDto);
 }
@@ -4,6 +4,7 @@ import com.cars.management.dto.request.CreateOwnerRequestDto;
 import com.cars.management.dto.request.RegisterCarRequestDto;
 import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
 import com.cars.management.dto.response.CreateOwnerResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.RegisterCarResponseDto;
 import com.cars.management.dto.response.UpdateOwnerDetailsResponseDto;
 
@@ -13,7 +14,8 @@ public interface OwnerCommandService {
 
     RegisterCarResponseDto registerCar(RegisterCarRequestDto registerCarRequestDto);
 
-    void deleteOwnerById(Integer ownerId);
+    // Hides the owner at once and queues a job that deletes their leases, cars and the owner in chunks
+    DeletionJobResponseDto deleteOwnerById(Integer ownerId);
 
     UpdateOwnerDetailsResponseDto updateOwnerById(UpdateOwnerDetailsRequestDto updateOwnerDetailsRequestDto);
 
@@ -1,12 +1,21 @@
 package com.cars.management.service.serviveports.queryports;
 
 import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.enums.CarStatus;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CarQueryService {
-    CarResponseDto getCarStatusAndDetails(Integer carId);
+    // Cached together with the version signature read just before it
+    VersionedResponseDto<CarResponseDto> getCarStatusAndDetails(Integer carId);
+
+    // Drops the cached by-id entry, for a reader that found it older than the current version
+    void evictCarStatusAndDetails(Integer carId);
+
+    // Signature of everything the by-id GET renders, read without loading it; empty if the car does not exist
+    Optional<String> getCarVersion(Integer carId);
 
     List<CarResponseDto> getCarsByStatus(CarStatus status);
 
@@ -3,16 +3,33 @@ package com.cars.management.service.serviveports.queryports;
 import com.cars.management.dto.request.CustomerDto;
 import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.enums.CarStatus;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CustomerQueryService {
-    CustomerDto getCustomerById(Integer customerId);
+    // Cached together with the version signature read just before it
+    VersionedResponseDto<CustomerDto> getCustomerById(Integer customerId);
+
+    // Drops the cached by-id entry, for a reader that found it older than the current version
+    void evictCustomerById(Integer customerId);
+
+    // Signature of everything the by-id GET renders, read without loading it; empty if the customer does not exist
+    Optional<String> getCustomerVersion(Integer customerId);
 
     List<LeaseDto> getLeaseHistoryByCustomerId(Integer customerId);
 
     List<CarResponseDto> viewCarsForLease(CarStatus status);
 
-    List<CustomerDto> getAllCustomers();
+    List<CarResponseDto> viewCarsForLease(CarStatus status, String model, String variant);
+
+    // Like getCustomerById, lists only the leases still in the hot tier; getLeaseHistoryByCustomerId adds the archived ones
+    CursorPageResponseDto<CustomerDto> getCustomersPage(String cursor, Integer pageSize);
+
+    // Best matches first, by name, email or phone number, answered from the in-memory search index
+    List<ContactSearchResultDto> searchCustomers(String query, Integer limit);
 }
@@ -0,0 +1,9 @@
+package com.cars.management.service.serviveports.queryports;
+
+import com.cars.management.dto.response.DeletionJobResponseDto;
+
+public interface DeletionJobQueryService {
+
+    // Status and progress of an owner or customer deletion accepted by deleteOwnerById or deleteCustomerById
+    DeletionJobResponseDto getDeletionJobById(Long jobId);
+}
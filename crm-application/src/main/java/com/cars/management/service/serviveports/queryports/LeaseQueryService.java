@@ -1,14 +1,27 @@
 package com.cars.management.service.serviveports.queryports;
 
 import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 import com.cars.management.enums.LeaseStatus;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LeaseQueryService {
-    LeaseDto getLeaseDetailsById(Integer leaseId);
+    // Cached together with the version signature read just before it
+    VersionedResponseDto<LeaseDto> getLeaseDetailsById(Integer leaseId);
+
+    // Drops the cached by-id entry, for a reader that found it older than the current version
+    void evictLeaseDetailsById(Integer leaseId);
+
+    // Signature of everything the by-id GET renders, read without loading it; empty if the lease does not exist
+    Optional<String> getLeaseVersion(Integer leaseId);
 
     List<LeaseDto> getLeaseDetailsByStatus(LeaseStatus status);
 
-    List<LeaseDto> getAllLeaseDetails();
+    CursorPageResponseDto<LeaseDto> getLeaseDetailsPage(String cursor, Integer pageSize);
+
+    long exportLeaseDetails(Consumer<LeaseDto> consumer);
 }
@@ -1,15 +1,28 @@
 package com.cars.management.service.serviveports.queryports;
 
 import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
 import com.cars.management.dto.response.OwnerResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface OwnerQueryService {
-    OwnerResponseDto getOwnerById(Integer ownerId);
+    // Cached together with the version signature read just before it
+    VersionedResponseDto<OwnerResponseDto> getOwnerById(Integer ownerId);
 
-    List<OwnerResponseDto> getAllOwners();
+    // Drops the cached by-id entry, for a reader that found it older than the current version
+    void evictOwnerById(Integer ownerId);
+
+    // Signature of everything the by-id GET renders, read without loading it; empty if the owner does not exist
+    Optional<String> getOwnerVersion(Integer ownerId);
+
+    CursorPageResponseDto<OwnerResponseDto> getOwnersPage(String cursor, Integer pageSize);
 
     List<LeaseDto> getLeaseHistoryByOwnerId(Integer ownerId);
 
+    // Best matches first, by name, email or phone number, answered from the in-memory search index
+    List<ContactSearchResultDto> searchOwners(String query, Integer limit);
 }
@@ -0,0 +1,50 @@
+package com.cars.management.mapper;
+
+import com.cars.management.dto.request.CreateCustomerRequestDto;
+import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
+import com.cars.management.entity.Customer;
+import com.cars.management.enums.CustomerTier;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerMapperTest {
+
+    private final CustomerMapper customerMapper = new CustomerMapperImpl(new LeaseMapperImpl(new CarMapperImpl()));
+
+    /**
+     * Method under test: {@link CustomerMapper#toCustomer(CreateCustomerRequestDto)}
+     */
+    @Test
+    void testToCustomerKeepsDefaultTier() {
+        // Act
+        Customer actualCustomer = customerMapper
+                .toCustomer(new CreateCustomerRequestDto("Name", "jane.doe@example.org", "6625550144"));
+
+        // Assert
+        assertNull(actualCustomer.getId());
+        assertEquals("Name", actualCustomer.getName());
+        assertEquals("jane.doe@example.org", actualCustomer.getEmail());
+        assertEquals("6625550144", actualCustomer.getPhoneNumber());
+        assertEquals(CustomerTier.STANDARD, actualCustomer.getTier());
+    }
+
+    /**
+     * Method under test:
+     * {@link CustomerMapper#updateCustomer(UpdateCustomerDetailsRequestDto, Customer)}
+     */
+    @Test
+    void testUpdateCustomerKeepsTierWhenAbsent() {
+        // Arrange
+        Customer customer = Customer.builder().id(1).name("Old").tier(CustomerTier.PREMIUM).build();
+
+        // Act
+        customerMapper.updateCustomer(new UpdateCustomerDetailsRequestDto(2, "Name", "jane.doe@example.org",
+                "6625550144", null), customer);
+
+        // Assert
+        assertEquals(1, customer.getId());
+        assertEquals("Name", customer.getName());
+        assertEquals(CustomerTier.PREMIUM, customer.getTier());
+    }
+}
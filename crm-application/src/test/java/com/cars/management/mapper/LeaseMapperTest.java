@@ -0,0 +1,59 @@
+package com.cars.management.mapper;
+
+import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Lease;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.repository.projection.LeaseCarView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaseMapperTest {
+
+    private final LeaseMapper leaseMapper = new LeaseMapperImpl(new CarMapperImpl());
+
+    /**
+     * Method under test: {@link LeaseMapper#toLeaseDto(LeaseCarView)}
+     */
+    @Test
+    void testToLeaseDtoFromView() {
+        // Arrange
+        LocalDateTime start = LocalDate.of(1970, 1, 1).atStartOfDay();
+        LeaseCarView view = new LeaseCarView(1, start, null, LeaseStatus.ACTIVE, 2, "Model", "Variant", 3);
+
+        // Act
+        LeaseDto actualLeaseDto = leaseMapper.toLeaseDto(view);
+
+        // Assert
+        assertEquals(1, actualLeaseDto.getId());
+        assertEquals(start, actualLeaseDto.getStartDate());
+        assertNull(actualLeaseDto.getEndDate());
+        assertEquals(LeaseStatus.ACTIVE, actualLeaseDto.getStatus());
+        assertEquals(2, actualLeaseDto.getCarDto().getId());
+        assertEquals("Model", actualLeaseDto.getCarDto().getModel());
+        assertEquals("Variant", actualLeaseDto.getCarDto().getVariant());
+    }
+
+    /**
+     * Method under test: {@link LeaseMapper#toLeaseDto(Lease)}
+     */
+    @Test
+    void testToLeaseDtoFromEntity() {
+        // Arrange
+        Car car = Car.builder().id(2).model("Model").variant("Variant").build();
+        Lease lease = Lease.builder().id(1).car(car).status(LeaseStatus.ENDED).build();
+
+        // Act
+        LeaseDto actualLeaseDto = leaseMapper.toLeaseDto(lease);
+
+        // Assert
+        assertEquals(1, actualLeaseDto.getId());
+        assertEquals(LeaseStatus.ENDED, actualLeaseDto.getStatus());
+        assertEquals(2, actualLeaseDto.getCarDto().getId());
+        assertEquals("Model", actualLeaseDto.getCarDto().getModel());
+    }
+}
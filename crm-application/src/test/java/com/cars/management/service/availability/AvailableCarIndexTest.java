@@ -0,0 +1,184 @@
+package com.cars.management.service.availability;
+
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.enums.CarStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailableCarIndexTest {
+
+    /**
+     * Method under test: {@link AvailableCarIndex#findAvailable(String, String)}
+     */
+    @Test
+    void testFindAvailable() {
+        // Arrange
+        AvailableCarIndex index = new AvailableCarIndex();
+        index.beginReconcile();
+        index.completeReconcile(List.of(
+                buildCar(3, "Corolla", "XLE", CarStatus.IDLE),
+                buildCar(1, "Corolla", "LE", CarStatus.IDLE),
+                buildCar(2, "Civic", "LX", CarStatus.ON_LEASE),
+                buildCar(4, "Civic", "EX", CarStatus.IDLE)));
+
+        // Act
+        List<CarResponseDto> actualFindAvailableResult = index.findAvailable(null, null);
+
+        // Assert
+        assertTrue(index.isLoaded());
+        assertEquals(List.of(1, 3, 4), ids(actualFindAvailableResult));
+        CarResponseDto getResult = actualFindAvailableResult.get(0);
+        assertEquals("Corolla", getResult.getModel());
+        assertEquals("LE", getResult.getVariant());
+        assertEquals(CarStatus.IDLE, getResult.getStatus());
+        assertTrue(getResult.getLeaseDtoList().isEmpty());
+    }
+
+    /**
+     * Method under test: {@link AvailableCarIndex#findAvailable(String, String)}
+     */
+    @Test
+    void testFindAvailable2() {
+        // Arrange
+        AvailableCarIndex index = new AvailableCarIndex();
+        index.beginReconcile();
+        index.completeReconcile(List.of(
+                buildCar(1, "Corolla", "LE", CarStatus.IDLE),
+                buildCar(2, "Corolla", "XLE", CarStatus.IDLE),
+                buildCar(3, "Corolla", "XLE", CarStatus.ON_SERVICE),
+                buildCar(4, "Civic", "XLE", CarStatus.IDLE)));
+
+        // Act and Assert
+        assertEquals(List.of(1, 2), ids(index.findAvailable("Corolla", null)));
+        assertEquals(List.of(2, 4), ids(index.findAvailable(null, "XLE")));
+        assertEquals(List.of(2), ids(index.findAvailable("Corolla", "XLE")));
+        assertTrue(index.findAvailable("Model T", null).isEmpty());
+    }
+
+    /**
+     * Method under test: {@link AvailableCarIndex#carStatusChanged(Integer, CarStatus)}
+     */
+    @Test
+    void testCarStatusChanged() {
+        // Arrange
+        AvailableCarIndex index = new AvailableCarIndex();
+        index.beginReconcile();
+        index.completeReconcile(List.of(buildCar(1, "Corolla", "LE", CarStatus.IDLE), buildCar(2, "Civic", "LX", CarStatus.ON_LEASE)));
+
+        // Act
+        index.carStatusChanged(1, CarStatus.ON_LEASE);
+        index.carStatusChanged(2, CarStatus.IDLE);
+        index.carStatusChanged(99, CarStatus.IDLE);
+
+        // Assert
+        assertEquals(List.of(2), ids(index.findAvailable(null, null)));
+        assertEquals(1, index.availableCount());
+    }
+
+    /**
+     * Methods under test: {@link AvailableCarIndex#carSaved(Car)} and {@link AvailableCarIndex#carDeleted(Integer)}
+     */
+    @Test
+    void testCarSavedAndDeleted() {
+        // Arrange
+        AvailableCarIndex index = new AvailableCarIndex();
+        index.carSaved(buildCar(1, "Corolla", "LE", CarStatus.IDLE));
+        index.carSaved(buildCar(2, "Corolla", "LE", CarStatus.IDLE));
+
+        // Act
+        index.carSaved(buildCar(1, "Civic", "EX", CarStatus.IDLE));
+        index.carDeleted(2);
+
+        // Assert
+        assertTrue(index.findAvailable("Corolla", null).isEmpty());
+        assertEquals(List.of(1), ids(index.findAvailable("Civic", "EX")));
+    }
+
+    /**
+     * Method under test: {@link AvailableCarIndex#carStatusChanged(Integer, CarStatus)}
+     */
+    @Test
+    void testCarStatusChangedWaitsForCommit() {
+        // Arrange
+        AvailableCarIndex index = new AvailableCarIndex();
+        index.carSaved(buildCar(1, "Corolla", "LE", CarStatus.IDLE));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            index.carStatusChanged(1, CarStatus.ON_LEASE);
+
+            // Assert
+            assertEquals(List.of(1), ids(index.findAvailable(null, null)));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(index.findAvailable(null, null).isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Method under test: {@link AvailableCarIndex#completeReconcile(List)}
+     */
+    @Test
+    void testCompleteReconcile() {
+        // Arrange
+        AvailableCarIndex index = new AvailableCarIndex();
+        index.carSaved(buildCar(1, "Corolla", "LE", CarStatus.IDLE));
+        index.carSaved(buildCar(2, "Civic", "LX", CarStatus.IDLE));
+        index.carSaved(buildCar(3, "Golf", "GTI", CarStatus.IDLE));
+        index.beginReconcile();
+
+        // Act
+        int actualCompleteReconcileResult = index.completeReconcile(List.of(
+                buildCar(1, "Corolla", "LE", CarStatus.IDLE),
+                buildCar(2, "Civic", "LX", CarStatus.ON_LEASE),
+                buildCar(4, "Polo", "TSI", CarStatus.IDLE)));
+
+        // Assert
+        assertEquals(3, actualCompleteReconcileResult);
+        assertEquals(List.of(1, 4), ids(index.findAvailable(null, null)));
+        assertTrue(index.findAvailable("Golf", null).isEmpty());
+    }
+
+    /**
+     * Method under test: {@link AvailableCarIndex#completeReconcile(List)}
+     */
+    @Test
+    void testCompleteReconcileKeepsNewerChanges() {
+        // Arrange
+        AvailableCarIndex index = new AvailableCarIndex();
+        index.carSaved(buildCar(1, "Corolla", "LE", CarStatus.IDLE));
+        index.carSaved(buildCar(2, "Civic", "LX", CarStatus.IDLE));
+        index.beginReconcile();
+        List<Car> snapshot = List.of(buildCar(1, "Corolla", "LE", CarStatus.IDLE));
+        index.carStatusChanged(1, CarStatus.ON_LEASE);
+        index.carSaved(buildCar(3, "Golf", "GTI", CarStatus.IDLE));
+
+        // Act
+        int actualCompleteReconcileResult = index.completeReconcile(snapshot);
+
+        // Assert
+        assertEquals(1, actualCompleteReconcileResult);
+        assertEquals(List.of(3), ids(index.findAvailable(null, null)));
+    }
+
+    private List<Integer> ids(List<CarResponseDto> cars) {
+        return cars.stream().map(CarResponseDto::getId).collect(Collectors.toList());
+    }
+
+    private Car buildCar(Integer id, String model, String variant, CarStatus status) {
+        Car car = new Car();
+        car.setId(id);
+        car.setModel(model);
+        car.setVariant(variant);
+        car.setStatus(status);
+        return car;
+    }
+}
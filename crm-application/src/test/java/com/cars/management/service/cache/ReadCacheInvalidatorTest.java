@@ -0,0 +1,174 @@
+package com.cars.management.service.cache;
+
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Lease;
+import com.cars.management.entity.Owner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCacheInvalidatorTest {
+
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(ReadCaches.CARS, ReadCaches.CUSTOMERS, ReadCaches.OWNERS, ReadCaches.LEASES);
+
+    private final ReadCacheInvalidator readCacheInvalidator = new ReadCacheInvalidator(cacheManager);
+
+    @BeforeEach
+    void fillCaches() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            for (int id = 1; id <= 3; id++) {
+                cacheManager.getCache(cacheName).put(id, cacheName + id);
+            }
+        }
+    }
+
+    /**
+     * Method under test: {@link ReadCacheInvalidator#leaseChanged(Lease)}
+     */
+    @Test
+    void testLeaseChanged() {
+        // Arrange
+        Lease lease = buildLease(1, buildCar(2, buildOwner(3)), buildCustomer(1));
+
+        // Act
+        readCacheInvalidator.leaseChanged(lease);
+
+        // Assert
+        assertCached(ReadCaches.LEASES, 2, 3);
+        assertCached(ReadCaches.CARS, 1, 3);
+        assertCached(ReadCaches.OWNERS, 1, 2);
+        assertCached(ReadCaches.CUSTOMERS, 2, 3);
+    }
+
+    /**
+     * Method under test: {@link ReadCacheInvalidator#carChanged(Car)}
+     */
+    @Test
+    void testCarChanged() {
+        // Arrange
+        Car car = buildCar(1, buildOwner(1));
+        car.getLeases().add(buildLease(2, car, buildCustomer(2)));
+        car.getLeases().add(buildLease(3, car, buildCustomer(3)));
+
+        // Act
+        readCacheInvalidator.carChanged(car);
+
+        // Assert
+        assertCached(ReadCaches.CARS, 2, 3);
+        assertCached(ReadCaches.OWNERS, 2, 3);
+        assertCached(ReadCaches.LEASES, 1);
+        assertCached(ReadCaches.CUSTOMERS, 1);
+    }
+
+    /**
+     * Method under test: {@link ReadCacheInvalidator#customerChanged(Integer)}
+     */
+    @Test
+    void testCustomerChangedEvictsAgainAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            readCacheInvalidator.customerChanged(1);
+            cacheManager.getCache(ReadCaches.CUSTOMERS).put(1, "loaded before commit");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertCached(ReadCaches.CUSTOMERS, 2, 3);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Method under test: {@link ReadCacheInvalidator#customerChanged(Integer)}
+     */
+    @Test
+    void testEvictionWaitsForLoadInFlight() throws Exception {
+        // Arrange
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(ReadCaches.CUSTOMERS);
+        ReadCacheInvalidator caffeineInvalidator = new ReadCacheInvalidator(caffeineCacheManager);
+        Cache cache = caffeineCacheManager.getCache(ReadCaches.CUSTOMERS);
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch put = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Act: the reader has read the row before the commit and puts it only after the eviction started
+            Future<Object> load = executor.submit(() -> cache.get(1, () -> {
+                loaded.countDown();
+                put.await();
+                return "loaded before commit";
+            }));
+            assertTrue(loaded.await(5, TimeUnit.SECONDS));
+            Future<?> eviction = executor.submit(() -> caffeineInvalidator.customerChanged(1));
+            assertThrows(TimeoutException.class, () -> eviction.get(200, TimeUnit.MILLISECONDS));
+            put.countDown();
+            load.get(5, TimeUnit.SECONDS);
+            eviction.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertNull(cache.get(1));
+        } finally {
+            put.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertCached(String cacheName, Integer... expectedIds) {
+        Cache cache = cacheManager.getCache(cacheName);
+        List<Integer> cachedIds = new ArrayList<>();
+        for (int id = 1; id <= 3; id++) {
+            if (cache.get(id) != null) {
+                cachedIds.add(id);
+            }
+        }
+        assertEquals(List.of(expectedIds), cachedIds, cacheName);
+    }
+
+    private Owner buildOwner(Integer id) {
+        Owner owner = new Owner();
+        owner.setId(id);
+        owner.setCars(new ArrayList<>());
+        return owner;
+    }
+
+    private Car buildCar(Integer id, Owner owner) {
+        Car car = new Car();
+        car.setId(id);
+        car.setOwner(owner);
+        car.setLeases(new ArrayList<>());
+        return car;
+    }
+
+    private Customer buildCustomer(Integer id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setLeases(new ArrayList<>());
+        return customer;
+    }
+
+    private Lease buildLease(Integer id, Car car, Customer customer) {
+        Lease lease = new Lease();
+        lease.setId(id);
+        lease.setCar(car);
+        lease.setCustomer(customer);
+        return lease;
+    }
+}
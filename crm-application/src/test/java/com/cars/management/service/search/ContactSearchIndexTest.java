@@ -0,0 +1,133 @@
+package com.cars.management.service.search;
+
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.repository.projection.ContactView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactSearchIndexTest {
+
+    /**
+     * Method under test: {@link ContactSearchIndex#search(String, int)}
+     */
+    @Test
+    void testSearchRanksExactThenPrefixThenWordPrefixThenSubstring() {
+        // Arrange
+        ContactSearchIndex index = load(
+                new ContactView(1, "Joanna Ray", "ray@example.org", "6625550101"),
+                new ContactView(2, "Jo Smith", "joanne@example.org", "6625550102"),
+                new ContactView(3, "Lee Ann", "lee@example.org", "6625550103"),
+                new ContactView(4, "Annabel Smith", "annabel@example.org", "6625550104"),
+                new ContactView(5, "Ann", "a@example.org", "6625550105"),
+                new ContactView(6, "Bob", "bob@example.org", "6625550106"));
+
+        // Act and Assert
+        assertEquals(List.of(5, 4, 3, 1, 2), ids(index.search("ANN ", 10)));
+        assertEquals(List.of(5, 4, 3), ids(index.search("ann", 3)));
+        assertEquals(List.of(2, 4), ids(index.search("smith", 10)), "Equal word-prefix matches go by id");
+        assertTrue(index.search("annex", 10).isEmpty());
+        ContactSearchResultDto getResult = index.search("bob@", 1).get(0);
+        assertEquals(6, getResult.getId());
+        assertEquals("Bob", getResult.getName());
+        assertEquals("bob@example.org", getResult.getEmail());
+        assertEquals("6625550106", getResult.getPhoneNumber());
+    }
+
+    /**
+     * Method under test: {@link ContactSearchIndex#search(String, int)}
+     */
+    @Test
+    void testShortQueriesMatchWordStartsAndPhoneQueriesIgnoreFormatting() {
+        // Arrange
+        ContactSearchIndex index = load(
+                new ContactView(1, "Jo Smith", "smith@example.org", "(662) 555-0144"),
+                new ContactView(2, "Joanna Ray", "ray@example.org", "662-555-0199"),
+                new ContactView(3, "Lee Anjo", "lee@example.org", "+1 312 555 0100"));
+
+        // Act and Assert
+        assertEquals(List.of(1, 2), ids(index.search("jo", 10)));
+        assertEquals(List.of(3), ids(index.search("a", 10)), "Only Anjo starts a word with an a");
+        assertEquals(List.of(1), ids(index.search("555-0144", 10)));
+        assertEquals(List.of(1, 2), ids(index.search("662 555", 10)));
+        assertEquals(List.of(3), ids(index.search("13", 10)));
+        assertEquals(List.of(1, 2, 3), ids(index.search("555", 10)));
+    }
+
+    /**
+     * Method under test: {@link ContactSearchIndex#search(String, int)}
+     */
+    @Test
+    void testFieldPrefixMatchesWithHigherIdsAreNotCutOffByTheEarlyStop() {
+        // Arrange
+        ContactSearchIndex index = load(
+                new ContactView(1, "Ana Garcia", "ana@example.org", "6625550101"),
+                new ContactView(2, "Luis Garcia", "luis@example.org", "6625550102"),
+                new ContactView(3, "Rosa Garcia", "rosa@example.org", "6625550103"),
+                new ContactView(4, "Mia Lopez", "garcia.mia@example.org", "6625550104"),
+                new ContactView(5, "Garcia Motors", "fleet@example.org", "6625550105"));
+
+        // Act and Assert
+        assertEquals(List.of(5, 4), ids(index.search("ga", 2)));
+        assertEquals(List.of(5, 4, 1), ids(index.search("garc", 3)), "An email prefix outranks a name word prefix");
+        assertEquals(List.of(5, 4, 1, 2, 3), ids(index.search("garcia", 5)));
+    }
+
+    /**
+     * Method under test: {@link ContactSearchIndex#completeRebuild(ContactSearchIndex.Rebuild)}
+     */
+    @Test
+    void testChangesDuringRebuildAreNotOverwrittenByTheScan() {
+        // Arrange
+        ContactSearchIndex index = load(new ContactView(2, "Removed Person", "removed@example.org", "6625550102"));
+        ContactSearchIndex.Rebuild rebuild = index.beginRebuild();
+        rebuild.add(new ContactView(1, "Old Name", "old@example.org", "6625550101"));
+        rebuild.add(new ContactView(2, "Removed Person", "removed@example.org", "6625550102"));
+
+        // Act
+        index.contactSaved(1, "New Name", "new@example.org", "6625550101");
+        index.contactRemoved(2);
+        int size = index.completeRebuild(rebuild);
+
+        // Assert
+        assertEquals(1, size);
+        assertEquals(List.of(1), ids(index.search("new name", 10)));
+        assertTrue(index.search("old", 10).isEmpty());
+        assertTrue(index.search("removed", 10).isEmpty());
+    }
+
+    /**
+     * Method under test: {@link ContactSearchIndex#contactSaved(Integer, String, String, String)}
+     */
+    @Test
+    void testContactSavedReplacesThePreviousGrams() {
+        // Arrange
+        ContactSearchIndex index = load(new ContactView(1, "Maria Lopez", "maria@example.org", "6625550101"));
+
+        // Act
+        index.contactSaved(1, "Maria Garcia", "maria.garcia@example.org", "6625550101");
+        index.contactSaved(7, "Garcia Motors", "fleet@garcia.example.org", "6625550107");
+
+        // Assert
+        assertTrue(index.search("lopez", 10).isEmpty());
+        assertEquals(List.of(7, 1), ids(index.search("garcia", 10)));
+        assertEquals(2, index.size());
+    }
+
+    private static ContactSearchIndex load(ContactView... contacts) {
+        ContactSearchIndex index = new ContactSearchIndex();
+        ContactSearchIndex.Rebuild rebuild = index.beginRebuild();
+        for (ContactView contact : contacts) {
+            rebuild.add(contact);
+        }
+        index.completeRebuild(rebuild);
+        assertTrue(index.isLoaded());
+        return index;
+    }
+
+    private static List<Integer> ids(List<ContactSearchResultDto> results) {
+        return results.stream().map(ContactSearchResultDto::getId).toList();
+    }
+}
@@ -1,31 +1,47 @@
 package com.cars.management.service.serviveimpl.commandimpl;
 
+import com.cars.management.config.LeaseBatchProperties;
+import com.cars.management.config.LeaseLimitProperties;
 import com.cars.management.dto.request.CarDto;
 import com.cars.management.dto.request.CreateCustomerRequestDto;
 import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.request.UpdateCustomerDetailsRequestDto;
 import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.UpdateCustomerDetailsResponseDto;
 import com.cars.management.entity.Car;
 import com.cars.management.entity.Customer;
+import com.cars.management.entity.DeletionJob;
 import com.cars.management.entity.Lease;
-import com.cars.management.entity.Owner;
 import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.CustomerTier;
+import com.cars.management.enums.DeletionJobPhase;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.DeletionTargetType;
 import com.cars.management.enums.LeaseStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
 import com.cars.management.repository.commandrepository.CarCommandRepository;
 import com.cars.management.repository.commandrepository.CustomerCommandRepository;
 import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.repository.projection.LeaseCarView;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.CustomerQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.CustomerSearchIndex;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -36,17 +52,28 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-@ContextConfiguration(classes = {CustomerCommandServiceImpl.class})
+@ContextConfiguration(classes = {CustomerCommandServiceImpl.class, LeaseLimitProperties.class, LeaseBatchProperties.class, CustomerMapperImpl.class,
+        LeaseMapperImpl.class, CarMapperImpl.class, DeletionJobMapperImpl.class})
 @ExtendWith(SpringExtension.class)
 @DisabledInAotMode
 class CustomerCommandServiceImplTest {
+    @MockBean
+    private CustomerSearchIndex customerSearchIndex;
+
+    @MockBean
+    private AvailableCarIndex availableCarIndex;
+
     @MockBean
     private CarCommandRepository carCommandRepository;
 
+    @MockBean
+    private DeletionJobQueue deletionJobQueue;
+
     @MockBean
     private CarQueryRepository carQueryRepository;
 
@@ -62,11 +89,14 @@ class CustomerCommandServiceImplTest {
     @MockBean
     private LeaseCommandRepository leaseCommandRepository;
 
+    @Autowired
+    private LeaseLimitProperties leaseLimitProperties;
+
     @MockBean
     private LeaseQueryRepository leaseQueryRepository;
 
     @MockBean
-    private ModelMapper modelMapper;
+    private ReadCacheInvalidator readCacheInvalidator;
 
     /**
      * Method under test:
@@ -81,7 +111,6 @@ class CustomerCommandServiceImplTest {
         customer.setLeases(new ArrayList<>());
         customer.setName("Name");
         customer.setPhoneNumber("6625550144");
-        when(modelMapper.map(Mockito.any(), Mockito.<Class<Customer>>any())).thenReturn(customer);
 
         Customer customer2 = new Customer();
         customer2.setEmail("jane.doe@example.org");
@@ -93,6 +122,7 @@ class CustomerCommandServiceImplTest {
 
         customerCommandServiceImpl
                 .registerCustomer(new CreateCustomerRequestDto("Name", "jane.doe@example.org", "6625550144"));
+        verify(customerSearchIndex).contactSaved(eq(1), eq("Name"), eq("jane.doe@example.org"), eq("6625550144"));
     }
 
     /**
@@ -102,22 +132,26 @@ class CustomerCommandServiceImplTest {
     @Test
     void testDeleteCustomerById() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Name");
-        customer.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer);
-        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-        doNothing().when(customerCommandRepository).deleteById(Mockito.<Integer>any());
+        when(customerCommandRepository.markPendingDeletion(Mockito.<Integer>any())).thenReturn(1);
+        DeletionJob job = DeletionJob.builder()
+                .id(7L)
+                .targetType(DeletionTargetType.CUSTOMER)
+                .targetId(1)
+                .status(DeletionJobStatus.ACCEPTED)
+                .phase(DeletionJobPhase.LEASES)
+                .build();
+        when(deletionJobQueue.enqueue(DeletionTargetType.CUSTOMER, 1, true)).thenReturn(Optional.of(job));
 
         // Act
-        customerCommandServiceImpl.deleteCustomerById(1);
-
-        // Assert that nothing has changed
-        verify(customerCommandRepository).deleteById(eq(1));
-        verify(customerQueryRepository).findById(eq(1));
+        DeletionJobResponseDto actualDeleteCustomerByIdResult = customerCommandServiceImpl.deleteCustomerById(1);
+
+        // Assert that the customer is hidden and left to the job
+        assertEquals(7L, actualDeleteCustomerByIdResult.getJobId());
+        assertEquals(DeletionTargetType.CUSTOMER, actualDeleteCustomerByIdResult.getTargetType());
+        verify(customerCommandRepository).markPendingDeletion(eq(1));
+        verify(customerCommandRepository, never()).deleteById(Mockito.<Integer>any());
+        verify(readCacheInvalidator).customerChanged(eq(1));
+        verify(customerSearchIndex).contactRemoved(eq(1));
     }
 
     /**
@@ -127,21 +161,14 @@ class CustomerCommandServiceImplTest {
     @Test
     void testDeleteCustomerById2() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Name");
-        customer.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer);
-        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-        doThrow(ErrorException.unauthorized("An error occurred")).when(customerCommandRepository)
-                .deleteById(Mockito.<Integer>any());
+        when(customerCommandRepository.markPendingDeletion(Mockito.<Integer>any())).thenReturn(0);
+        when(deletionJobQueue.enqueue(DeletionTargetType.CUSTOMER, 1, false)).thenReturn(Optional.empty());
 
         // Act and Assert
-        assertThrows(ErrorException.class, () -> customerCommandServiceImpl.deleteCustomerById(1));
-        verify(customerCommandRepository).deleteById(eq(1));
-        verify(customerQueryRepository).findById(eq(1));
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.deleteCustomerById(1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(customerCommandRepository).markPendingDeletion(eq(1));
+        verify(readCacheInvalidator, never()).customerChanged(Mockito.<Integer>any());
     }
 
     /**
@@ -156,9 +183,8 @@ class CustomerCommandServiceImplTest {
                 .id(1)
                 .name("Name")
                 .phoneNumber("6625550144")
+                .tier(CustomerTier.STANDARD)
                 .build();
-        when(modelMapper.map(Mockito.any(), Mockito.<Class<UpdateCustomerDetailsResponseDto>>any()))
-                .thenReturn(buildResult);
 
         Customer customer = new Customer();
         customer.setEmail("jane.doe@example.org");
@@ -167,7 +193,7 @@ class CustomerCommandServiceImplTest {
         customer.setName("Name");
         customer.setPhoneNumber("6625550144");
         Optional<Customer> ofResult = Optional.of(customer);
-        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(customerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         Customer customer2 = new Customer();
         customer2.setEmail("jane.doe@example.org");
@@ -178,12 +204,14 @@ class CustomerCommandServiceImplTest {
         when(customerCommandRepository.save(Mockito.<Customer>any())).thenReturn(customer2);
 
         // Act
-        customerCommandServiceImpl.updateCustomerById(new UpdateCustomerDetailsRequestDto());
+        UpdateCustomerDetailsResponseDto actualUpdateCustomerByIdResult = customerCommandServiceImpl
+                .updateCustomerById(new UpdateCustomerDetailsRequestDto());
 
         // Assert
-        verify(modelMapper).map(isA(Object.class), isA(Class.class));
-        verify(customerQueryRepository).findById(isNull());
+        verify(customerCommandRepository).findById(isNull());
         verify(customerCommandRepository).save(isA(Customer.class));
+        verify(readCacheInvalidator).customerChanged(eq(1));
+        assertEquals(buildResult, actualUpdateCustomerByIdResult);
     }
 
     /**
@@ -193,9 +221,6 @@ class CustomerCommandServiceImplTest {
     @Test
     void testUpdateCustomerById2() {
         // Arrange
-        when(modelMapper.map(Mockito.any(), Mockito.<Class<UpdateCustomerDetailsResponseDto>>any()))
-                .thenThrow(ErrorException.unauthorized("An error occurred"));
-
         Customer customer = new Customer();
         customer.setEmail("jane.doe@example.org");
         customer.setId(1);
@@ -203,21 +228,15 @@ class CustomerCommandServiceImplTest {
         customer.setName("Name");
         customer.setPhoneNumber("6625550144");
         Optional<Customer> ofResult = Optional.of(customer);
-        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(customerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
-        Customer customer2 = new Customer();
-        customer2.setEmail("jane.doe@example.org");
-        customer2.setId(1);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Name");
-        customer2.setPhoneNumber("6625550144");
-        when(customerCommandRepository.save(Mockito.<Customer>any())).thenReturn(customer2);
+        when(customerCommandRepository.save(Mockito.<Customer>any()))
+                .thenThrow(ErrorException.unauthorized("An error occurred"));
 
         // Act and Assert
         assertThrows(ErrorException.class,
                 () -> customerCommandServiceImpl.updateCustomerById(new UpdateCustomerDetailsRequestDto()));
-        verify(modelMapper).map(isA(Object.class), isA(Class.class));
-        verify(customerQueryRepository).findById(isNull());
+        verify(customerCommandRepository).findById(isNull());
         verify(customerCommandRepository).save(isA(Customer.class));
     }
 
@@ -228,94 +247,44 @@ class CustomerCommandServiceImplTest {
     @Test
     void testStartLease() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        ArrayList<Lease> leases = new ArrayList<>();
-        customer.setLeases(leases);
-        customer.setName("Name");
-        customer.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer);
-        when(customerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Model");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Variant");
-        Optional<Car> ofResult2 = Optional.of(car);
-        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult2);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("jane.doe@example.org");
-        owner2.setId(1);
-        owner2.setName("Name");
-        owner2.setPhoneNumber("6625550144");
-
-        Car car2 = new Car();
-        car2.setId(1);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Model");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.IDLE);
-        car2.setVariant("Variant");
-        when(carCommandRepository.save(Mockito.<Car>any())).thenReturn(car2);
-        when(leaseQueryRepository.findByCustomerIdAndStatus(Mockito.<Integer>any(), Mockito.<String>any()))
-                .thenReturn(new ArrayList<>());
-
-        Owner owner3 = new Owner();
-        owner3.setCars(new ArrayList<>());
-        owner3.setEmail("jane.doe@example.org");
-        owner3.setId(1);
-        owner3.setName("Name");
-        owner3.setPhoneNumber("6625550144");
-
-        Car car3 = new Car();
-        car3.setId(1);
-        car3.setLeases(new ArrayList<>());
-        car3.setModel("Model");
-        car3.setOwner(owner3);
-        car3.setStatus(CarStatus.IDLE);
-        car3.setVariant("Variant");
-
-        Customer customer2 = new Customer();
-        customer2.setEmail("jane.doe@example.org");
-        customer2.setId(1);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Name");
-        customer2.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car3);
-        lease.setCustomer(customer2);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-        when(leaseCommandRepository.save(Mockito.<Lease>any())).thenReturn(lease);
+        Customer customer = buildCustomer(new ArrayList<>());
+        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.of(customer));
+        when(customerCommandRepository.incrementActiveLeaseCount(Mockito.<Integer>any(), anyInt())).thenReturn(1);
+        when(carCommandRepository.compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any())).thenReturn(1);
+
+        Car car = buildCar(1, CarStatus.ON_LEASE);
+        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.of(car));
+        when(leaseCommandRepository.save(Mockito.<Lease>any())).thenAnswer(invocation -> {
+            Lease lease = invocation.getArgument(0);
+            lease.setId(11);
+            return lease;
+        });
+        when(leaseQueryRepository.findViewsByCustomerId(Mockito.<Integer>any())).thenReturn(List.of(new LeaseCarView(11,
+                LocalDate.of(1970, 1, 1).atStartOfDay(), null, LeaseStatus.ACTIVE, 1, "Model", "Variant", 1)));
 
         // Act
         CustomerStartLeaseResponseDto actualStartLeaseResult = customerCommandServiceImpl.startLease(1, 1);
 
         // Assert
-        verify(leaseQueryRepository).findByCustomerIdAndStatus(eq(1), eq("ACTIVE"));
-        verify(customerCommandRepository).findById(eq(1));
+        verify(customerQueryRepository).findById(eq(1));
+        verify(customerCommandRepository).incrementActiveLeaseCount(eq(1), eq(2));
+        verify(carCommandRepository).compareAndSetStatus(eq(1), eq(CarStatus.IDLE), eq(CarStatus.ON_LEASE));
         verify(carQueryRepository).findById(eq(1));
-        verify(carCommandRepository).save(isA(Car.class));
         verify(leaseCommandRepository).save(isA(Lease.class));
+        verify(availableCarIndex).carStatusChanged(eq(1), eq(CarStatus.ON_LEASE));
+        verify(readCacheInvalidator).leaseChanged(isA(Lease.class));
+        verify(leaseQueryRepository).findViewsByCustomerId(eq(1));
+        verify(customerQueryRepository, never()).findWithLeasesById(Mockito.<Integer>any());
+        verify(carCommandRepository, never()).save(Mockito.<Car>any());
         assertEquals("Name", actualStartLeaseResult.getName());
         assertEquals(1, actualStartLeaseResult.getId().intValue());
-        assertEquals(leases, actualStartLeaseResult.getLeaseDtoList());
+        List<LeaseDto> leaseDtoList = actualStartLeaseResult.getLeaseDtoList();
+        assertEquals(1, leaseDtoList.size());
+        LeaseDto getResult = leaseDtoList.get(0);
+        assertEquals(11, getResult.getId().intValue());
+        assertEquals(LeaseStatus.ACTIVE, getResult.getStatus());
+        assertEquals("Model", getResult.getCarDto().getModel());
+        assertEquals(1, getResult.getCarDto().getId().intValue());
     }
 
     /**
@@ -325,57 +294,17 @@ class CustomerCommandServiceImplTest {
     @Test
     void testStartLease2() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Name");
-        customer.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer);
-        when(customerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Model");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Variant");
-        Optional<Car> ofResult2 = Optional.of(car);
-        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult2);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("jane.doe@example.org");
-        owner2.setId(1);
-        owner2.setName("Name");
-        owner2.setPhoneNumber("6625550144");
-
-        Car car2 = new Car();
-        car2.setId(1);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Model");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.IDLE);
-        car2.setVariant("Variant");
-        when(carCommandRepository.save(Mockito.<Car>any())).thenReturn(car2);
-        when(leaseQueryRepository.findByCustomerIdAndStatus(Mockito.<Integer>any(), Mockito.<String>any()))
-                .thenReturn(new ArrayList<>());
+        Customer customer = buildCustomer(new ArrayList<>());
+        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.of(customer));
+        when(customerCommandRepository.incrementActiveLeaseCount(Mockito.<Integer>any(), anyInt())).thenReturn(1);
+        when(carCommandRepository.compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any())).thenReturn(1);
+        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.of(buildCar(1, CarStatus.ON_LEASE)));
         when(leaseCommandRepository.save(Mockito.<Lease>any())).thenThrow(ErrorException.unauthorized("An error occurred"));
 
         // Act and Assert
         assertThrows(ErrorException.class, () -> customerCommandServiceImpl.startLease(1, 1));
-        verify(leaseQueryRepository).findByCustomerIdAndStatus(eq(1), eq("ACTIVE"));
-        verify(customerCommandRepository).findById(eq(1));
-        verify(carQueryRepository).findById(eq(1));
-        verify(carCommandRepository).save(isA(Car.class));
+        verify(customerQueryRepository).findById(eq(1));
+        verify(carCommandRepository).compareAndSetStatus(eq(1), eq(CarStatus.IDLE), eq(CarStatus.ON_LEASE));
         verify(leaseCommandRepository).save(isA(Lease.class));
     }
 
@@ -386,136 +315,20 @@ class CustomerCommandServiceImplTest {
     @Test
     void testStartLease3() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to start lease for customer ID: {} and car ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to start lease for customer ID: {} and car ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to start lease for customer ID: {} and car ID: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to start lease for customer ID: {} and car ID: {}");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
         ArrayList<Lease> leases = new ArrayList<>();
-        leases.add(lease);
-
-        Customer customer2 = new Customer();
-        customer2.setEmail("jane.doe@example.org");
-        customer2.setId(1);
-        customer2.setLeases(leases);
-        customer2.setName("Name");
-        customer2.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer2);
-        when(customerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("jane.doe@example.org");
-        owner2.setId(1);
-        owner2.setName("Name");
-        owner2.setPhoneNumber("6625550144");
-
-        Car car2 = new Car();
-        car2.setId(1);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Model");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.IDLE);
-        car2.setVariant("Variant");
-        Optional<Car> ofResult2 = Optional.of(car2);
-        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult2);
-
-        Owner owner3 = new Owner();
-        owner3.setCars(new ArrayList<>());
-        owner3.setEmail("jane.doe@example.org");
-        owner3.setId(1);
-        owner3.setName("Name");
-        owner3.setPhoneNumber("6625550144");
-
-        Car car3 = new Car();
-        car3.setId(1);
-        car3.setLeases(new ArrayList<>());
-        car3.setModel("Model");
-        car3.setOwner(owner3);
-        car3.setStatus(CarStatus.IDLE);
-        car3.setVariant("Variant");
-        when(carCommandRepository.save(Mockito.<Car>any())).thenReturn(car3);
-        when(leaseQueryRepository.findByCustomerIdAndStatus(Mockito.<Integer>any(), Mockito.<String>any()))
-                .thenReturn(new ArrayList<>());
-
-        Owner owner4 = new Owner();
-        owner4.setCars(new ArrayList<>());
-        owner4.setEmail("jane.doe@example.org");
-        owner4.setId(1);
-        owner4.setName("Name");
-        owner4.setPhoneNumber("6625550144");
-
-        Car car4 = new Car();
-        car4.setId(1);
-        car4.setLeases(new ArrayList<>());
-        car4.setModel("Model");
-        car4.setOwner(owner4);
-        car4.setStatus(CarStatus.IDLE);
-        car4.setVariant("Variant");
-
-        Customer customer3 = new Customer();
-        customer3.setEmail("jane.doe@example.org");
-        customer3.setId(1);
-        customer3.setLeases(new ArrayList<>());
-        customer3.setName("Name");
-        customer3.setPhoneNumber("6625550144");
-
-        Lease lease2 = new Lease();
-        lease2.setCar(car4);
-        lease2.setCustomer(customer3);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(1);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ACTIVE);
-        when(leaseCommandRepository.save(Mockito.<Lease>any())).thenReturn(lease2);
+        leases.add(buildLease(1, buildCar(1, CarStatus.ON_LEASE), LeaseStatus.ACTIVE));
+        leases.add(buildLease(2, buildCar(2, CarStatus.ON_LEASE), LeaseStatus.ACTIVE));
+        when(customerQueryRepository.findById(Mockito.<Integer>any()))
+                .thenReturn(Optional.of(buildCustomer(leases)));
+        when(customerCommandRepository.incrementActiveLeaseCount(Mockito.<Integer>any(), anyInt())).thenReturn(0);
 
-        // Act
-        CustomerStartLeaseResponseDto actualStartLeaseResult = customerCommandServiceImpl.startLease(1, 1);
-
-        // Assert
-        verify(leaseQueryRepository).findByCustomerIdAndStatus(eq(1), eq("ACTIVE"));
-        verify(customerCommandRepository).findById(eq(1));
-        verify(carQueryRepository).findById(eq(1));
-        verify(carCommandRepository).save(isA(Car.class));
-        verify(leaseCommandRepository).save(isA(Lease.class));
-        List<LeaseDto> leaseDtoList = actualStartLeaseResult.getLeaseDtoList();
-        assertEquals(1, leaseDtoList.size());
-        LeaseDto getResult = leaseDtoList.get(0);
-        assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult.getStartDate().toLocalDate().toString());
-        assertEquals("Name", actualStartLeaseResult.getName());
-        CarDto carDto = getResult.getCarDto();
-        assertEquals("Received request to start lease for customer ID: {} and car ID: {}", carDto.getModel());
-        assertEquals("Received request to start lease for customer ID: {} and car ID: {}", carDto.getVariant());
-        assertEquals(1, carDto.getId().intValue());
-        assertEquals(1, getResult.getId().intValue());
-        assertEquals(1, actualStartLeaseResult.getId().intValue());
-        assertEquals(LeaseStatus.ACTIVE, getResult.getStatus());
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.startLease(1, 3));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verify(customerQueryRepository).findById(eq(1));
+        verify(customerCommandRepository).incrementActiveLeaseCount(eq(1), eq(2));
+        verify(carCommandRepository, never()).compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any());
+        verify(leaseCommandRepository, never()).save(Mockito.<Lease>any());
     }
 
     /**
@@ -525,176 +338,81 @@ class CustomerCommandServiceImplTest {
     @Test
     void testStartLease4() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to start lease for customer ID: {} and car ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to start lease for customer ID: {} and car ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to start lease for customer ID: {} and car ID: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to start lease for customer ID: {} and car ID: {}");
-        customer.setPhoneNumber("6625550144");
+        ArrayList<Lease> leases = new ArrayList<>();
+        leases.add(buildLease(2, buildCar(2, CarStatus.IDLE), LeaseStatus.ENDED));
+        leases.add(buildLease(1, buildCar(1, CarStatus.ON_LEASE), LeaseStatus.ACTIVE));
+        when(customerQueryRepository.findById(Mockito.<Integer>any()))
+                .thenReturn(Optional.of(buildCustomer(leases)));
+        when(customerCommandRepository.incrementActiveLeaseCount(Mockito.<Integer>any(), anyInt())).thenReturn(1);
+        when(carCommandRepository.compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any())).thenReturn(0);
+        when(carQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(true);
 
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("john.smith@example.org");
-        owner2.setId(2);
-        owner2.setName("Successfully started lease for customer ID: {} and car ID: {}");
-        owner2.setPhoneNumber("8605550118");
-
-        Car car2 = new Car();
-        car2.setId(2);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Successfully started lease for customer ID: {} and car ID: {}");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.ON_LEASE);
-        car2.setVariant("Successfully started lease for customer ID: {} and car ID: {}");
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.startLease(1, 3));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verify(carCommandRepository).compareAndSetStatus(eq(3), eq(CarStatus.IDLE), eq(CarStatus.ON_LEASE));
+        verify(availableCarIndex, never()).carStatusChanged(Mockito.<Integer>any(), Mockito.any());
+        verify(carQueryRepository).existsById(eq(3));
+        verify(leaseCommandRepository, never()).save(Mockito.<Lease>any());
+    }
 
-        Customer customer2 = new Customer();
-        customer2.setEmail("john.smith@example.org");
-        customer2.setId(2);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Successfully started lease for customer ID: {} and car ID: {}");
-        customer2.setPhoneNumber("8605550118");
+    /**
+     * Method under test:
+     * {@link CustomerCommandServiceImpl#startLease(Integer, Integer)}
+     */
+    @Test
+    void testStartLease5() {
+        // Arrange
+        when(customerQueryRepository.findById(Mockito.<Integer>any()))
+                .thenReturn(Optional.of(buildCustomer(new ArrayList<>())));
+        when(customerCommandRepository.incrementActiveLeaseCount(Mockito.<Integer>any(), anyInt())).thenReturn(1);
+        when(carCommandRepository.compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any())).thenReturn(0);
+        when(carQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(false);
 
-        Lease lease2 = new Lease();
-        lease2.setCar(car2);
-        lease2.setCustomer(customer2);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(2);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ENDED);
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.startLease(1, 99));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(carQueryRepository).existsById(eq(99));
+        verify(leaseCommandRepository, never()).save(Mockito.<Lease>any());
+    }
 
-        ArrayList<Lease> leases = new ArrayList<>();
-        leases.add(lease2);
-        leases.add(lease);
-
-        Customer customer3 = new Customer();
-        customer3.setEmail("jane.doe@example.org");
-        customer3.setId(1);
-        customer3.setLeases(leases);
-        customer3.setName("Name");
-        customer3.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer3);
-        when(customerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+    /**
+     * Method under test:
+     * {@link CustomerCommandServiceImpl#startLease(Integer, Integer)}
+     */
+    @Test
+    void testStartLease6() {
+        // Arrange
+        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.empty());
 
-        Owner owner3 = new Owner();
-        owner3.setCars(new ArrayList<>());
-        owner3.setEmail("jane.doe@example.org");
-        owner3.setId(1);
-        owner3.setName("Name");
-        owner3.setPhoneNumber("6625550144");
-
-        Car car3 = new Car();
-        car3.setId(1);
-        car3.setLeases(new ArrayList<>());
-        car3.setModel("Model");
-        car3.setOwner(owner3);
-        car3.setStatus(CarStatus.IDLE);
-        car3.setVariant("Variant");
-        Optional<Car> ofResult2 = Optional.of(car3);
-        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult2);
-
-        Owner owner4 = new Owner();
-        owner4.setCars(new ArrayList<>());
-        owner4.setEmail("jane.doe@example.org");
-        owner4.setId(1);
-        owner4.setName("Name");
-        owner4.setPhoneNumber("6625550144");
-
-        Car car4 = new Car();
-        car4.setId(1);
-        car4.setLeases(new ArrayList<>());
-        car4.setModel("Model");
-        car4.setOwner(owner4);
-        car4.setStatus(CarStatus.IDLE);
-        car4.setVariant("Variant");
-        when(carCommandRepository.save(Mockito.<Car>any())).thenReturn(car4);
-        when(leaseQueryRepository.findByCustomerIdAndStatus(Mockito.<Integer>any(), Mockito.<String>any()))
-                .thenReturn(new ArrayList<>());
-
-        Owner owner5 = new Owner();
-        owner5.setCars(new ArrayList<>());
-        owner5.setEmail("jane.doe@example.org");
-        owner5.setId(1);
-        owner5.setName("Name");
-        owner5.setPhoneNumber("6625550144");
-
-        Car car5 = new Car();
-        car5.setId(1);
-        car5.setLeases(new ArrayList<>());
-        car5.setModel("Model");
-        car5.setOwner(owner5);
-        car5.setStatus(CarStatus.IDLE);
-        car5.setVariant("Variant");
-
-        Customer customer4 = new Customer();
-        customer4.setEmail("jane.doe@example.org");
-        customer4.setId(1);
-        customer4.setLeases(new ArrayList<>());
-        customer4.setName("Name");
-        customer4.setPhoneNumber("6625550144");
-
-        Lease lease3 = new Lease();
-        lease3.setCar(car5);
-        lease3.setCustomer(customer4);
-        lease3.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease3.setId(1);
-        lease3.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease3.setStatus(LeaseStatus.ACTIVE);
-        when(leaseCommandRepository.save(Mockito.<Lease>any())).thenReturn(lease3);
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.startLease(1, 1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(customerCommandRepository, never()).incrementActiveLeaseCount(Mockito.<Integer>any(), anyInt());
+        verify(carCommandRepository, never()).compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any());
+    }
 
-        // Act
-        CustomerStartLeaseResponseDto actualStartLeaseResult = customerCommandServiceImpl.startLease(1, 1);
+    /**
+     * Method under test:
+     * {@link CustomerCommandServiceImpl#startLease(Integer, Integer)}
+     */
+    @Test
+    void testStartLease7() {
+        // Arrange
+        Customer customer = buildCustomer(new ArrayList<>());
+        customer.setTier(CustomerTier.PREMIUM);
+        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.of(customer));
+        when(customerCommandRepository.incrementActiveLeaseCount(Mockito.<Integer>any(), anyInt())).thenReturn(0);
+        leaseLimitProperties.getTiers().put(CustomerTier.PREMIUM.name(), 4);
 
-        // Assert
-        verify(leaseQueryRepository).findByCustomerIdAndStatus(eq(1), eq("ACTIVE"));
-        verify(customerCommandRepository).findById(eq(1));
-        verify(carQueryRepository).findById(eq(1));
-        verify(carCommandRepository).save(isA(Car.class));
-        verify(leaseCommandRepository).save(isA(Lease.class));
-        List<LeaseDto> leaseDtoList = actualStartLeaseResult.getLeaseDtoList();
-        assertEquals(2, leaseDtoList.size());
-        LeaseDto getResult = leaseDtoList.get(0);
-        assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
-        LeaseDto getResult2 = leaseDtoList.get(1);
-        assertEquals("1970-01-01", getResult2.getEndDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult.getStartDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult2.getStartDate().toLocalDate().toString());
-        assertEquals("Name", actualStartLeaseResult.getName());
-        CarDto carDto = getResult2.getCarDto();
-        assertEquals("Received request to start lease for customer ID: {} and car ID: {}", carDto.getModel());
-        assertEquals("Received request to start lease for customer ID: {} and car ID: {}", carDto.getVariant());
-        CarDto carDto2 = getResult.getCarDto();
-        assertEquals("Successfully started lease for customer ID: {} and car ID: {}", carDto2.getModel());
-        assertEquals("Successfully started lease for customer ID: {} and car ID: {}", carDto2.getVariant());
-        assertEquals(1, carDto.getId().intValue());
-        assertEquals(1, getResult2.getId().intValue());
-        assertEquals(1, actualStartLeaseResult.getId().intValue());
-        assertEquals(2, carDto2.getId().intValue());
-        assertEquals(2, getResult.getId().intValue());
-        assertEquals(LeaseStatus.ACTIVE, getResult2.getStatus());
-        assertEquals(LeaseStatus.ENDED, getResult.getStatus());
+        // Act and Assert
+        try {
+            ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.startLease(1, 1));
+            assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+            verify(customerCommandRepository).incrementActiveLeaseCount(eq(1), eq(4));
+        } finally {
+            leaseLimitProperties.getTiers().clear();
+        }
     }
 
     /**
@@ -703,92 +421,24 @@ class CustomerCommandServiceImplTest {
     @Test
     void testEndLease() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Model");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Variant");
-        when(carCommandRepository.save(Mockito.<Car>any())).thenReturn(car);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("jane.doe@example.org");
-        owner2.setId(1);
-        owner2.setName("Name");
-        owner2.setPhoneNumber("6625550144");
-
-        Car car2 = new Car();
-        car2.setId(1);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Model");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.IDLE);
-        car2.setVariant("Variant");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Name");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car2);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-        Optional<Lease> ofResult = Optional.of(lease);
-        when(leaseQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-
-        Owner owner3 = new Owner();
-        owner3.setCars(new ArrayList<>());
-        owner3.setEmail("jane.doe@example.org");
-        owner3.setId(1);
-        owner3.setName("Name");
-        owner3.setPhoneNumber("6625550144");
-
-        Car car3 = new Car();
-        car3.setId(1);
-        car3.setLeases(new ArrayList<>());
-        car3.setModel("Model");
-        car3.setOwner(owner3);
-        car3.setStatus(CarStatus.IDLE);
-        car3.setVariant("Variant");
-
-        Customer customer2 = new Customer();
-        customer2.setEmail("jane.doe@example.org");
-        customer2.setId(1);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Name");
-        customer2.setPhoneNumber("6625550144");
-
-        Lease lease2 = new Lease();
-        lease2.setCar(car3);
-        lease2.setCustomer(customer2);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(1);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ACTIVE);
-        when(leaseCommandRepository.save(Mockito.<Lease>any())).thenReturn(lease2);
+        Lease lease = buildLease(1, buildCar(1, CarStatus.ON_LEASE), LeaseStatus.ACTIVE);
+        lease.setCustomer(buildCustomer(new ArrayList<>()));
+        when(leaseQueryRepository.findWithCarById(Mockito.<Integer>any())).thenReturn(Optional.of(lease));
+        when(leaseCommandRepository.endIfActive(Mockito.<Integer>any(), Mockito.any())).thenReturn(1);
+        when(customerCommandRepository.decrementActiveLeaseCount(Mockito.<Integer>any())).thenReturn(1);
+        when(carCommandRepository.compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any())).thenReturn(1);
 
         // Act
         LeaseDto actualEndLeaseResult = customerCommandServiceImpl.endLease(1);
 
         // Assert
-        verify(leaseQueryRepository).findById(eq(1));
-        verify(carCommandRepository).save(isA(Car.class));
-        verify(leaseCommandRepository).save(isA(Lease.class));
+        verify(leaseQueryRepository).findWithCarById(eq(1));
+        verify(leaseCommandRepository).endIfActive(eq(1), Mockito.any());
+        verify(customerCommandRepository).decrementActiveLeaseCount(eq(1));
+        verify(carCommandRepository).compareAndSetStatus(eq(1), eq(CarStatus.ON_LEASE), eq(CarStatus.IDLE));
+        verify(availableCarIndex).carStatusChanged(eq(1), eq(CarStatus.IDLE));
+        verify(readCacheInvalidator).leaseChanged(same(lease));
+        verify(leaseCommandRepository, never()).save(Mockito.<Lease>any());
         assertEquals("1970-01-01", actualEndLeaseResult.getStartDate().toLocalDate().toString());
         CarDto carDto = actualEndLeaseResult.getCarDto();
         assertEquals("Model", carDto.getModel());
@@ -796,6 +446,7 @@ class CustomerCommandServiceImplTest {
         assertEquals(1, carDto.getId().intValue());
         assertEquals(1, actualEndLeaseResult.getId().intValue());
         assertEquals(LeaseStatus.ENDED, actualEndLeaseResult.getStatus());
+        assertNotNull(actualEndLeaseResult.getEndDate());
     }
 
     /**
@@ -804,59 +455,60 @@ class CustomerCommandServiceImplTest {
     @Test
     void testEndLease2() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
+        Lease lease = buildLease(1, buildCar(1, CarStatus.IDLE), LeaseStatus.ENDED);
+        lease.setCustomer(buildCustomer(new ArrayList<>()));
+        when(leaseQueryRepository.findWithCarById(Mockito.<Integer>any())).thenReturn(Optional.of(lease));
+        when(leaseCommandRepository.endIfActive(Mockito.<Integer>any(), Mockito.any())).thenReturn(0);
 
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Model");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Variant");
-        when(carCommandRepository.save(Mockito.<Car>any())).thenReturn(car);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("jane.doe@example.org");
-        owner2.setId(1);
-        owner2.setName("Name");
-        owner2.setPhoneNumber("6625550144");
-
-        Car car2 = new Car();
-        car2.setId(1);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Model");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.IDLE);
-        car2.setVariant("Variant");
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.endLease(1));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verify(leaseCommandRepository).endIfActive(eq(1), Mockito.any());
+        verify(customerCommandRepository, never()).decrementActiveLeaseCount(Mockito.<Integer>any());
+        verify(readCacheInvalidator, never()).leaseChanged(Mockito.any());
+        verify(carCommandRepository, never()).compareAndSetStatus(Mockito.<Integer>any(), Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Method under test: {@link CustomerCommandServiceImpl#endLease(Integer)}
+     */
+    @Test
+    void testEndLease3() {
+        // Arrange
+        when(leaseQueryRepository.findWithCarById(Mockito.<Integer>any())).thenReturn(Optional.empty());
+
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerCommandServiceImpl.endLease(1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(leaseCommandRepository, never()).endIfActive(Mockito.<Integer>any(), Mockito.any());
+    }
 
+    private Customer buildCustomer(List<Lease> leases) {
         Customer customer = new Customer();
         customer.setEmail("jane.doe@example.org");
         customer.setId(1);
-        customer.setLeases(new ArrayList<>());
+        customer.setLeases(leases);
         customer.setName("Name");
         customer.setPhoneNumber("6625550144");
+        return customer;
+    }
+
+    private Car buildCar(Integer id, CarStatus status) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLeases(new ArrayList<>());
+        car.setModel("Model");
+        car.setStatus(status);
+        car.setVariant("Variant");
+        return car;
+    }
 
+    private Lease buildLease(Integer id, Car car, LeaseStatus status) {
         Lease lease = new Lease();
-        lease.setCar(car2);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
+        lease.setCar(car);
+        lease.setId(id);
         lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-        Optional<Lease> ofResult = Optional.of(lease);
-        when(leaseQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-        when(leaseCommandRepository.save(Mockito.<Lease>any())).thenThrow(ErrorException.unauthorized("An error occurred"));
-
-        // Act and Assert
-        assertThrows(ErrorException.class, () -> customerCommandServiceImpl.endLease(1));
-        verify(leaseQueryRepository).findById(eq(1));
-        verify(carCommandRepository).save(isA(Car.class));
-        verify(leaseCommandRepository).save(isA(Lease.class));
+        lease.setStatus(status);
+        return lease;
     }
 }
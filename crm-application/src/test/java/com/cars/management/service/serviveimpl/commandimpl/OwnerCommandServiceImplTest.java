@@ -4,22 +4,35 @@ import com.cars.management.dto.request.CarDto;
 import com.cars.management.dto.request.CreateOwnerRequestDto;
 import com.cars.management.dto.request.RegisterCarRequestDto;
 import com.cars.management.dto.request.UpdateOwnerDetailsRequestDto;
+import com.cars.management.dto.response.DeletionJobResponseDto;
 import com.cars.management.dto.response.RegisterCarResponseDto;
 import com.cars.management.dto.response.UpdateOwnerDetailsResponseDto;
 import com.cars.management.entity.Car;
+import com.cars.management.entity.DeletionJob;
 import com.cars.management.entity.Owner;
 import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.DeletionJobPhase;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.DeletionTargetType;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.DeletionJobMapperImpl;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.commandrepository.ArchivedLeaseCommandRepository;
 import com.cars.management.repository.commandrepository.CarCommandRepository;
 import com.cars.management.repository.commandrepository.OwnerCommandRepository;
 import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.cache.ReadCacheInvalidator;
+import com.cars.management.service.deletion.DeletionJobQueue;
+import com.cars.management.service.search.OwnerSearchIndex;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -32,15 +45,25 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-@ContextConfiguration(classes = {OwnerCommandServiceImpl.class})
+@ContextConfiguration(classes = {OwnerCommandServiceImpl.class, OwnerMapperImpl.class, CarMapperImpl.class,
+        DeletionJobMapperImpl.class})
 @ExtendWith(SpringExtension.class)
 @DisabledInAotMode
 class OwnerCommandServiceImplTest {
+    @MockBean
+    private OwnerSearchIndex ownerSearchIndex;
+
+    @MockBean
+    private AvailableCarIndex availableCarIndex;
+
     @MockBean
     private CarCommandRepository carCommandRepository;
 
     @MockBean
-    private ModelMapper modelMapper;
+    private ArchivedLeaseCommandRepository archivedLeaseCommandRepository;
+
+    @MockBean
+    private DeletionJobQueue deletionJobQueue;
 
     @MockBean
     private OwnerCommandRepository ownerCommandRepository;
@@ -51,6 +74,9 @@ class OwnerCommandServiceImplTest {
     @MockBean
     private OwnerQueryRepository ownerQueryRepository;
 
+    @MockBean
+    private ReadCacheInvalidator readCacheInvalidator;
+
     /**
      * Method under test:
      * {@link OwnerCommandServiceImpl#createOwner(CreateOwnerRequestDto)}
@@ -65,7 +91,6 @@ class OwnerCommandServiceImplTest {
         owner.setId(1);
         owner.setName("Name");
         owner.setPhoneNumber("6625550144");
-        when(modelMapper.map(Mockito.any(), Mockito.<Class<Owner>>any())).thenReturn(owner);
 
         Owner owner2 = new Owner();
         owner2.setCars(new ArrayList<>());
@@ -96,14 +121,14 @@ class OwnerCommandServiceImplTest {
         owner.setName("Name");
         owner.setPhoneNumber("6625550144");
         Optional<Owner> ofResult = Optional.of(owner);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act
         RegisterCarResponseDto actualRegisterCarResult = ownerCommandServiceImpl
                 .registerCar(new RegisterCarRequestDto(1, new ArrayList<>()));
 
         // Assert
-        verify(ownerQueryRepository).findById(eq(1));
+        verify(ownerCommandRepository).findById(eq(1));
         verify(carCommandRepository).saveAll(isA(Iterable.class));
         assertEquals("Name", actualRegisterCarResult.getName());
         assertEquals(1, actualRegisterCarResult.getId().intValue());
@@ -126,7 +151,7 @@ class OwnerCommandServiceImplTest {
         owner.setName("Name");
         owner.setPhoneNumber("6625550144");
         Optional<Owner> ofResult = Optional.of(owner);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         ArrayList<CarDto> carDtoList = new ArrayList<>();
         CarDto buildResult = CarDto.builder().id(1).model("Model").variant("Variant").build();
@@ -137,8 +162,10 @@ class OwnerCommandServiceImplTest {
                 .registerCar(new RegisterCarRequestDto(1, carDtoList));
 
         // Assert
-        verify(ownerQueryRepository).findById(eq(1));
+        verify(ownerCommandRepository).findById(eq(1));
         verify(carCommandRepository).saveAll(isA(Iterable.class));
+        verify(availableCarIndex).carSaved(isA(Car.class));
+        verify(readCacheInvalidator).ownerChanged(eq(1));
         List<CarDto> car = actualRegisterCarResult.getCar();
         assertEquals(1, car.size());
         CarDto getResult = car.get(0);
@@ -165,7 +192,7 @@ class OwnerCommandServiceImplTest {
         owner.setName("Name");
         owner.setPhoneNumber("6625550144");
         Optional<Owner> ofResult = Optional.of(owner);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         ArrayList<CarDto> carDtoList = new ArrayList<>();
         CarDto buildResult = CarDto.builder().id(1).model("Model").variant("Variant").build();
@@ -178,7 +205,7 @@ class OwnerCommandServiceImplTest {
                 .registerCar(new RegisterCarRequestDto(1, carDtoList));
 
         // Assert
-        verify(ownerQueryRepository).findById(eq(1));
+        verify(ownerCommandRepository).findById(eq(1));
         verify(carCommandRepository).saveAll(isA(Iterable.class));
         List<CarDto> car = actualRegisterCarResult.getCar();
         assertEquals(2, car.size());
@@ -211,12 +238,12 @@ class OwnerCommandServiceImplTest {
         owner.setName("Name");
         owner.setPhoneNumber("6625550144");
         Optional<Owner> ofResult = Optional.of(owner);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act and Assert
         assertThrows(ErrorException.class,
                 () -> ownerCommandServiceImpl.registerCar(new RegisterCarRequestDto(1, new ArrayList<>())));
-        verify(ownerQueryRepository).findById(eq(1));
+        verify(ownerCommandRepository).findById(eq(1));
         verify(carCommandRepository).saveAll(isA(Iterable.class));
     }
 
@@ -226,23 +253,28 @@ class OwnerCommandServiceImplTest {
     @Test
     void testDeleteOwnerById() {
         // Arrange
-        doNothing().when(ownerCommandRepository).deleteById(Mockito.<Integer>any());
-
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
-        Optional<Owner> ofResult = Optional.of(owner);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.markPendingDeletion(Mockito.<Integer>any())).thenReturn(1);
+        when(carCommandRepository.findIdsByOwnerIdAndStatus(1, CarStatus.IDLE)).thenReturn(List.of(5));
+        DeletionJob job = DeletionJob.builder()
+                .id(7L)
+                .targetType(DeletionTargetType.OWNER)
+                .targetId(1)
+                .status(DeletionJobStatus.ACCEPTED)
+                .phase(DeletionJobPhase.LEASES)
+                .build();
+        when(deletionJobQueue.enqueue(DeletionTargetType.OWNER, 1, true)).thenReturn(Optional.of(job));
 
         // Act
-        ownerCommandServiceImpl.deleteOwnerById(1);
-
-        // Assert that nothing has changed
-        verify(ownerCommandRepository).deleteById(eq(1));
-        verify(ownerQueryRepository).findById(eq(1));
+        DeletionJobResponseDto actualDeleteOwnerByIdResult = ownerCommandServiceImpl.deleteOwnerById(1);
+
+        // Assert that the owner is hidden and left to the job
+        assertEquals(7L, actualDeleteOwnerByIdResult.getJobId());
+        assertEquals(DeletionJobStatus.ACCEPTED, actualDeleteOwnerByIdResult.getStatus());
+        verify(ownerCommandRepository).markPendingDeletion(eq(1));
+        verify(ownerCommandRepository, never()).deleteById(Mockito.<Integer>any());
+        verify(readCacheInvalidator).ownerChanged(eq(1));
+        verify(carCommandRepository).compareAndSetStatuses(eq(List.of(5)), eq(CarStatus.IDLE), eq(CarStatus.ON_SERVICE));
+        verify(availableCarIndex).carStatusChanged(eq(5), eq(CarStatus.ON_SERVICE));
     }
 
     /**
@@ -251,22 +283,14 @@ class OwnerCommandServiceImplTest {
     @Test
     void testDeleteOwnerById2() {
         // Arrange
-        doThrow(ErrorException.unauthorized("An error occurred")).when(ownerCommandRepository)
-                .deleteById(Mockito.<Integer>any());
-
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
-        Optional<Owner> ofResult = Optional.of(owner);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.markPendingDeletion(Mockito.<Integer>any())).thenReturn(0);
+        when(deletionJobQueue.enqueue(DeletionTargetType.OWNER, 1, false)).thenReturn(Optional.empty());
 
         // Act and Assert
-        assertThrows(ErrorException.class, () -> ownerCommandServiceImpl.deleteOwnerById(1));
-        verify(ownerCommandRepository).deleteById(eq(1));
-        verify(ownerQueryRepository).findById(eq(1));
+        ErrorException exception = assertThrows(ErrorException.class, () -> ownerCommandServiceImpl.deleteOwnerById(1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(ownerCommandRepository).markPendingDeletion(eq(1));
+        verify(readCacheInvalidator, never()).ownerChanged(Mockito.<Integer>any());
     }
 
     /**
@@ -282,9 +306,6 @@ class OwnerCommandServiceImplTest {
                 .name("Name")
                 .phoneNumber("6625550144")
                 .build();
-        when(modelMapper.map(Mockito.any(), Mockito.<Class<UpdateOwnerDetailsResponseDto>>any()))
-                .thenReturn(buildResult);
-
         Owner owner = new Owner();
         owner.setCars(new ArrayList<>());
         owner.setEmail("jane.doe@example.org");
@@ -300,15 +321,17 @@ class OwnerCommandServiceImplTest {
         owner2.setName("Name");
         owner2.setPhoneNumber("6625550144");
         Optional<Owner> ofResult = Optional.of(owner2);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act
-        ownerCommandServiceImpl.updateOwnerById(new UpdateOwnerDetailsRequestDto());
+        UpdateOwnerDetailsResponseDto actualUpdateOwnerByIdResult = ownerCommandServiceImpl
+                .updateOwnerById(new UpdateOwnerDetailsRequestDto());
 
         // Assert
-        verify(modelMapper).map(isA(Object.class), isA(Class.class));
-        verify(ownerQueryRepository).findById(isNull());
+        verify(ownerCommandRepository).findById(isNull());
         verify(ownerCommandRepository).save(isA(Owner.class));
+        verify(readCacheInvalidator).ownerChanged(eq(1));
+        assertEquals(buildResult, actualUpdateOwnerByIdResult);
     }
 
     /**
@@ -318,16 +341,7 @@ class OwnerCommandServiceImplTest {
     @Test
     void testUpdateOwnerById2() {
         // Arrange
-        when(modelMapper.map(Mockito.any(), Mockito.<Class<UpdateOwnerDetailsResponseDto>>any()))
-                .thenThrow(ErrorException.unauthorized("An error occurred"));
-
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
-        when(ownerCommandRepository.save(Mockito.<Owner>any())).thenReturn(owner);
+        when(ownerCommandRepository.save(Mockito.<Owner>any())).thenThrow(ErrorException.unauthorized("An error occurred"));
 
         Owner owner2 = new Owner();
         owner2.setCars(new ArrayList<>());
@@ -336,13 +350,12 @@ class OwnerCommandServiceImplTest {
         owner2.setName("Name");
         owner2.setPhoneNumber("6625550144");
         Optional<Owner> ofResult = Optional.of(owner2);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerCommandRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act and Assert
         assertThrows(ErrorException.class,
                 () -> ownerCommandServiceImpl.updateOwnerById(new UpdateOwnerDetailsRequestDto()));
-        verify(modelMapper).map(isA(Object.class), isA(Class.class));
-        verify(ownerQueryRepository).findById(isNull());
+        verify(ownerCommandRepository).findById(isNull());
         verify(ownerCommandRepository).save(isA(Owner.class));
     }
 
@@ -387,6 +400,8 @@ class OwnerCommandServiceImplTest {
 
         // Assert that nothing has changed
         verify(carCommandRepository).deleteCarByCarId(eq(1));
+        verify(availableCarIndex).carDeleted(eq(1));
+        verify(readCacheInvalidator).carChanged(isA(Car.class));
         verify(ownerQueryRepository).findById(eq(1));
     }
 
@@ -597,6 +612,8 @@ class OwnerCommandServiceImplTest {
         // Assert
         verify(ownerQueryRepository).findById(eq(1));
         verify(carCommandRepository).saveAll(isA(Iterable.class));
+        verify(availableCarIndex).carSaved(isA(Car.class));
+        verify(readCacheInvalidator).carChanged(isA(Car.class));
         List<CarDto> car2 = actualUpdateCarDetailsResult.getCar();
         CarDto getResult = car2.get(0);
         assertEquals("Model", getResult.getModel());
@@ -679,4 +696,46 @@ class OwnerCommandServiceImplTest {
         assertEquals(1, actualUpdateCarDetailsResult.getId().intValue());
         assertEquals(carDtoList, car3);
     }
+
+    /**
+     * Method under test:
+     * {@link OwnerCommandServiceImpl#updateCarDetails(RegisterCarRequestDto)}
+     */
+    @Test
+    void testUpdateCarDetailsKeepsTheStatusOfALeasedCar() {
+        // Arrange
+        when(carCommandRepository.saveAll(Mockito.<Iterable<Car>>any())).thenReturn(new ArrayList<>());
+
+        Car car = new Car();
+        car.setId(1);
+        car.setLeases(new ArrayList<>());
+        car.setModel("Old Model");
+        car.setStatus(CarStatus.ON_LEASE);
+        car.setVariant("Old Variant");
+
+        ArrayList<Car> cars = new ArrayList<>();
+        cars.add(car);
+
+        Owner owner = new Owner();
+        owner.setCars(cars);
+        owner.setEmail("jane.doe@example.org");
+        owner.setId(1);
+        owner.setName("Name");
+        owner.setPhoneNumber("6625550144");
+        car.setOwner(owner);
+        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.of(owner));
+
+        ArrayList<CarDto> carDtoList = new ArrayList<>();
+        carDtoList.add(CarDto.builder().id(1).model("Model").variant("Variant").build());
+
+        // Act
+        ownerCommandServiceImpl.updateCarDetails(new RegisterCarRequestDto(1, carDtoList));
+
+        // Assert
+        verify(availableCarIndex).carSaved(same(car));
+        verify(archivedLeaseCommandRepository).findIdsByCarIdIn(eq(List.of(1)));
+        assertEquals(CarStatus.ON_LEASE, car.getStatus());
+        assertEquals("Model", car.getModel());
+        assertEquals("Variant", car.getVariant());
+    }
 }
@@ -9,6 +9,7 @@ import com.cars.management.entity.Owner;
 import com.cars.management.enums.CarStatus;
 import com.cars.management.enums.LeaseStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.OwnerQueryRepository;
 import org.junit.jupiter.api.Test;
@@ -30,7 +31,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@ContextConfiguration(classes = {CarQueryServiceImpl.class})
+@ContextConfiguration(classes = {CarQueryServiceImpl.class, CarMapperImpl.class})
 @ExtendWith(SpringExtension.class)
 @DisabledInAotMode
 class CarQueryServiceImplTest {
@@ -66,13 +67,13 @@ class CarQueryServiceImplTest {
         car.setStatus(CarStatus.IDLE);
         car.setVariant("Variant");
         Optional<Car> ofResult = Optional.of(car);
-        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(carQueryRepository.findWithLeasesById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act
-        CarResponseDto actualCarStatusAndDetails = carQueryServiceImpl.getCarStatusAndDetails(1);
+        CarResponseDto actualCarStatusAndDetails = carQueryServiceImpl.getCarStatusAndDetails(1).getBody();
 
         // Assert
-        verify(carQueryRepository).findById(eq(1));
+        verify(carQueryRepository).findWithLeasesById(eq(1));
         assertEquals("Model", actualCarStatusAndDetails.getModel());
         assertEquals("Variant", actualCarStatusAndDetails.getVariant());
         assertEquals(1, actualCarStatusAndDetails.getId().intValue());
@@ -134,13 +135,13 @@ class CarQueryServiceImplTest {
         car2.setStatus(CarStatus.IDLE);
         car2.setVariant("Variant");
         Optional<Car> ofResult = Optional.of(car2);
-        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(carQueryRepository.findWithLeasesById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act
-        CarResponseDto actualCarStatusAndDetails = carQueryServiceImpl.getCarStatusAndDetails(1);
+        CarResponseDto actualCarStatusAndDetails = carQueryServiceImpl.getCarStatusAndDetails(1).getBody();
 
         // Assert
-        verify(carQueryRepository).findById(eq(1));
+        verify(carQueryRepository).findWithLeasesById(eq(1));
         List<LeaseResponseDto> leaseDtoList = actualCarStatusAndDetails.getLeaseDtoList();
         assertEquals(1, leaseDtoList.size());
         LeaseResponseDto getResult = leaseDtoList.get(0);
@@ -239,13 +240,13 @@ class CarQueryServiceImplTest {
         car3.setStatus(CarStatus.IDLE);
         car3.setVariant("Variant");
         Optional<Car> ofResult = Optional.of(car3);
-        when(carQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(carQueryRepository.findWithLeasesById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act
-        CarResponseDto actualCarStatusAndDetails = carQueryServiceImpl.getCarStatusAndDetails(1);
+        CarResponseDto actualCarStatusAndDetails = carQueryServiceImpl.getCarStatusAndDetails(1).getBody();
 
         // Assert
-        verify(carQueryRepository).findById(eq(1));
+        verify(carQueryRepository).findWithLeasesById(eq(1));
         List<LeaseResponseDto> leaseDtoList = actualCarStatusAndDetails.getLeaseDtoList();
         assertEquals(2, leaseDtoList.size());
         LeaseResponseDto getResult = leaseDtoList.get(0);
@@ -270,12 +271,12 @@ class CarQueryServiceImplTest {
     @Test
     void testGetCarStatusAndDetails4() {
         // Arrange
-        when(carQueryRepository.findById(Mockito.<Integer>any()))
+        when(carQueryRepository.findWithLeasesById(Mockito.<Integer>any()))
                 .thenThrow(ErrorException.unauthorized("An error occurred"));
 
         // Act and Assert
         assertThrows(ErrorException.class, () -> carQueryServiceImpl.getCarStatusAndDetails(1));
-        verify(carQueryRepository).findById(eq(1));
+        verify(carQueryRepository).findWithLeasesById(eq(1));
     }
 
     /**
@@ -284,13 +285,13 @@ class CarQueryServiceImplTest {
     @Test
     void testGetCarsByStatus() {
         // Arrange
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
         List<CarResponseDto> actualCarsByStatus = carQueryServiceImpl.getCarsByStatus(CarStatus.IDLE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("IDLE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.IDLE));
         assertTrue(actualCarsByStatus.isEmpty());
     }
 
@@ -318,13 +319,13 @@ class CarQueryServiceImplTest {
 
         ArrayList<Car> carList = new ArrayList<>();
         carList.add(car);
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(carList);
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(carList);
 
         // Act
         List<CarResponseDto> actualCarsByStatus = carQueryServiceImpl.getCarsByStatus(CarStatus.IDLE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("IDLE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.IDLE));
         assertEquals(1, actualCarsByStatus.size());
         CarResponseDto getResult = actualCarsByStatus.get(0);
         assertEquals("Received request to fetch cars with status: {}", getResult.getModel());
@@ -373,13 +374,13 @@ class CarQueryServiceImplTest {
         ArrayList<Car> carList = new ArrayList<>();
         carList.add(car2);
         carList.add(car);
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(carList);
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(carList);
 
         // Act
         List<CarResponseDto> actualCarsByStatus = carQueryServiceImpl.getCarsByStatus(CarStatus.IDLE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("IDLE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.IDLE));
         assertEquals(2, actualCarsByStatus.size());
         CarResponseDto getResult = actualCarsByStatus.get(1);
         assertEquals("Received request to fetch cars with status: {}", getResult.getModel());
@@ -399,13 +400,13 @@ class CarQueryServiceImplTest {
     @Test
     void testGetCarsByStatus4() {
         // Arrange
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
         List<CarResponseDto> actualCarsByStatus = carQueryServiceImpl.getCarsByStatus(CarStatus.ON_LEASE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("ON_LEASE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.ON_LEASE));
         assertTrue(actualCarsByStatus.isEmpty());
     }
 
@@ -415,13 +416,13 @@ class CarQueryServiceImplTest {
     @Test
     void testGetCarsByStatus5() {
         // Arrange
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
         List<CarResponseDto> actualCarsByStatus = carQueryServiceImpl.getCarsByStatus(CarStatus.ON_SERVICE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("ON_SERVICE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.ON_SERVICE));
         assertTrue(actualCarsByStatus.isEmpty());
     }
 
@@ -481,13 +482,13 @@ class CarQueryServiceImplTest {
 
         ArrayList<Car> carList = new ArrayList<>();
         carList.add(car2);
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(carList);
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(carList);
 
         // Act
         List<CarResponseDto> actualCarsByStatus = carQueryServiceImpl.getCarsByStatus(CarStatus.IDLE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("IDLE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.IDLE));
         assertEquals(1, actualCarsByStatus.size());
         CarResponseDto getResult = actualCarsByStatus.get(0);
         List<LeaseResponseDto> leaseDtoList = getResult.getLeaseDtoList();
@@ -589,13 +590,13 @@ class CarQueryServiceImplTest {
 
         ArrayList<Car> carList = new ArrayList<>();
         carList.add(car3);
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(carList);
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(carList);
 
         // Act
         List<CarResponseDto> actualCarsByStatus = carQueryServiceImpl.getCarsByStatus(CarStatus.IDLE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("IDLE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.IDLE));
         assertEquals(1, actualCarsByStatus.size());
         CarResponseDto getResult = actualCarsByStatus.get(0);
         List<LeaseResponseDto> leaseDtoList = getResult.getLeaseDtoList();
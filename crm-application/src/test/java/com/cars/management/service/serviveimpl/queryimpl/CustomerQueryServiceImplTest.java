@@ -1,9 +1,13 @@
 package com.cars.management.service.serviveimpl.queryimpl;
 
+import com.cars.management.config.ContactSearchProperties;
+import com.cars.management.config.PaginationProperties;
 import com.cars.management.dto.request.CarDto;
 import com.cars.management.dto.request.CustomerDto;
 import com.cars.management.dto.request.LeaseDto;
 import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
 import com.cars.management.entity.Car;
 import com.cars.management.entity.Customer;
 import com.cars.management.entity.Lease;
@@ -11,18 +15,30 @@ import com.cars.management.entity.Owner;
 import com.cars.management.enums.CarStatus;
 import com.cars.management.enums.LeaseStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.exception.ServiceUnavailableException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.repository.projection.LeaseCarView;
+import com.cars.management.repository.queryrepository.ArchivedLeaseQueryRepository;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.CustomerQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
+import com.cars.management.service.availability.AvailableCarIndex;
+import com.cars.management.service.pagination.KeysetCursor;
+import com.cars.management.service.search.CustomerSearchIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,13 +46,22 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@ContextConfiguration(classes = {CustomerQueryServiceImpl.class})
+@ContextConfiguration(classes = {CustomerQueryServiceImpl.class, PaginationProperties.class, ContactSearchProperties.class, CustomerMapperImpl.class,
+        LeaseMapperImpl.class, CarMapperImpl.class})
 @ExtendWith(SpringExtension.class)
 @DisabledInAotMode
 class CustomerQueryServiceImplTest {
+    @MockBean
+    private CustomerSearchIndex customerSearchIndex;
+
+    @MockBean
+    private AvailableCarIndex availableCarIndex;
+
     @MockBean
     private CarQueryRepository carQueryRepository;
 
@@ -49,6 +74,9 @@ class CustomerQueryServiceImplTest {
     @MockBean
     private LeaseQueryRepository leaseQueryRepository;
 
+    @MockBean
+    private ArchivedLeaseQueryRepository archivedLeaseQueryRepository;
+
     /**
      * Method under test: {@link CustomerQueryServiceImpl#getCustomerById(Integer)}
      */
@@ -58,23 +86,24 @@ class CustomerQueryServiceImplTest {
         Customer customer = new Customer();
         customer.setEmail("jane.doe@example.org");
         customer.setId(1);
-        ArrayList<Lease> leases = new ArrayList<>();
-        customer.setLeases(leases);
         customer.setName("Name");
         customer.setPhoneNumber("6625550144");
         Optional<Customer> ofResult = Optional.of(customer);
         when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        ArrayList<LeaseCarView> leases = new ArrayList<>();
+        when(leaseQueryRepository.findViewsByCustomerId(Mockito.<Integer>any())).thenReturn(leases);
 
         // Act
-        CustomerDto actualCustomerById = customerQueryServiceImpl.getCustomerById(1);
+        CustomerDto actualCustomerById = customerQueryServiceImpl.getCustomerById(1).getBody();
 
         // Assert
         verify(customerQueryRepository).findById(eq(1));
+        verify(leaseQueryRepository).findViewsByCustomerId(eq(1));
         assertEquals("6625550144", actualCustomerById.getPhoneNumber());
         assertEquals("Name", actualCustomerById.getName());
         assertEquals("jane.doe@example.org", actualCustomerById.getEmail());
         assertEquals(1, actualCustomerById.getId().intValue());
-        assertEquals(leases, actualCustomerById.getLeaseDtoList());
+        assertTrue(actualCustomerById.getLeaseDtoList().isEmpty());
     }
 
     /**
@@ -83,53 +112,28 @@ class CustomerQueryServiceImplTest {
     @Test
     void testGetCustomerById2() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch customer with ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch customer with ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch customer with ID: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch customer with ID: {}");
-        customer.setPhoneNumber("6625550144");
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Received request to fetch customer with ID: {}",
+                "Received request to fetch customer with ID: {}", 1);
 
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        ArrayList<Lease> leases = new ArrayList<>();
+        ArrayList<LeaseCarView> leases = new ArrayList<>();
         leases.add(lease);
 
         Customer customer2 = new Customer();
         customer2.setEmail("jane.doe@example.org");
         customer2.setId(1);
-        customer2.setLeases(leases);
         customer2.setName("Name");
         customer2.setPhoneNumber("6625550144");
         Optional<Customer> ofResult = Optional.of(customer2);
         when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(leaseQueryRepository.findViewsByCustomerId(Mockito.<Integer>any())).thenReturn(leases);
 
         // Act
-        CustomerDto actualCustomerById = customerQueryServiceImpl.getCustomerById(1);
+        CustomerDto actualCustomerById = customerQueryServiceImpl.getCustomerById(1).getBody();
 
         // Assert
         verify(customerQueryRepository).findById(eq(1));
+        verify(leaseQueryRepository).findViewsByCustomerId(eq(1));
         List<LeaseDto> leaseDtoList = actualCustomerById.getLeaseDtoList();
         assertEquals(1, leaseDtoList.size());
         LeaseDto getResult = leaseDtoList.get(0);
@@ -153,84 +157,33 @@ class CustomerQueryServiceImplTest {
     @Test
     void testGetCustomerById3() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch customer with ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch customer with ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch customer with ID: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch customer with ID: {}");
-        customer.setPhoneNumber("6625550144");
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Received request to fetch customer with ID: {}",
+                "Received request to fetch customer with ID: {}", 1);
 
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("john.smith@example.org");
-        owner2.setId(2);
-        owner2.setName("Customer found: {} - {}");
-        owner2.setPhoneNumber("8605550118");
-
-        Car car2 = new Car();
-        car2.setId(2);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Customer found: {} - {}");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.ON_LEASE);
-        car2.setVariant("Customer found: {} - {}");
+        LeaseCarView lease2 = new LeaseCarView(2, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ENDED, 2, "Customer found: {} - {}",
+                "Customer found: {} - {}", 1);
 
-        Customer customer2 = new Customer();
-        customer2.setEmail("john.smith@example.org");
-        customer2.setId(2);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Customer found: {} - {}");
-        customer2.setPhoneNumber("8605550118");
-
-        Lease lease2 = new Lease();
-        lease2.setCar(car2);
-        lease2.setCustomer(customer2);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(2);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ENDED);
-
-        ArrayList<Lease> leases = new ArrayList<>();
+        ArrayList<LeaseCarView> leases = new ArrayList<>();
         leases.add(lease2);
         leases.add(lease);
 
         Customer customer3 = new Customer();
         customer3.setEmail("jane.doe@example.org");
         customer3.setId(1);
-        customer3.setLeases(leases);
         customer3.setName("Name");
         customer3.setPhoneNumber("6625550144");
         Optional<Customer> ofResult = Optional.of(customer3);
         when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(leaseQueryRepository.findViewsByCustomerId(Mockito.<Integer>any())).thenReturn(leases);
 
         // Act
-        CustomerDto actualCustomerById = customerQueryServiceImpl.getCustomerById(1);
+        CustomerDto actualCustomerById = customerQueryServiceImpl.getCustomerById(1).getBody();
 
         // Assert
         verify(customerQueryRepository).findById(eq(1));
+        verify(leaseQueryRepository).findViewsByCustomerId(eq(1));
         List<LeaseDto> leaseDtoList = actualCustomerById.getLeaseDtoList();
         assertEquals(2, leaseDtoList.size());
         LeaseDto getResult = leaseDtoList.get(0);
@@ -278,20 +231,15 @@ class CustomerQueryServiceImplTest {
     @Test
     void testGetLeaseHistoryByCustomerId() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Name");
-        customer.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer);
-        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(customerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(true);
+        when(leaseQueryRepository.findViewsByCustomerId(Mockito.<Integer>any())).thenReturn(new ArrayList<>());
 
         // Act
         List<LeaseDto> actualLeaseHistoryByCustomerId = customerQueryServiceImpl.getLeaseHistoryByCustomerId(1);
 
         // Assert
-        verify(customerQueryRepository).findById(eq(1));
+        verify(customerQueryRepository).existsById(eq(1));
+        verify(leaseQueryRepository).findViewsByCustomerId(eq(1));
         assertTrue(actualLeaseHistoryByCustomerId.isEmpty());
     }
 
@@ -302,53 +250,21 @@ class CustomerQueryServiceImplTest {
     @Test
     void testGetLeaseHistoryByCustomerId2() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch lease history for customer with ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch lease history for customer with ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch lease history for customer with ID: {}");
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Received request to fetch lease history for customer with ID: {}",
+                "Received request to fetch lease history for customer with ID: {}", 1);
 
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch lease history for customer with ID: {}");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        ArrayList<Lease> leases = new ArrayList<>();
+        ArrayList<LeaseCarView> leases = new ArrayList<>();
         leases.add(lease);
-
-        Customer customer2 = new Customer();
-        customer2.setEmail("jane.doe@example.org");
-        customer2.setId(1);
-        customer2.setLeases(leases);
-        customer2.setName("Name");
-        customer2.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer2);
-        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(customerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(true);
+        when(leaseQueryRepository.findViewsByCustomerId(Mockito.<Integer>any())).thenReturn(leases);
 
         // Act
         List<LeaseDto> actualLeaseHistoryByCustomerId = customerQueryServiceImpl.getLeaseHistoryByCustomerId(1);
 
         // Assert
-        verify(customerQueryRepository).findById(eq(1));
+        verify(customerQueryRepository).existsById(eq(1));
+        verify(leaseQueryRepository).findViewsByCustomerId(eq(1));
         assertEquals(1, actualLeaseHistoryByCustomerId.size());
         LeaseDto getResult = actualLeaseHistoryByCustomerId.get(0);
         assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
@@ -368,84 +284,26 @@ class CustomerQueryServiceImplTest {
     @Test
     void testGetLeaseHistoryByCustomerId3() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch lease history for customer with ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch lease history for customer with ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch lease history for customer with ID: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch lease history for customer with ID: {}");
-        customer.setPhoneNumber("6625550144");
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Received request to fetch lease history for customer with ID: {}",
+                "Received request to fetch lease history for customer with ID: {}", 1);
 
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("john.smith@example.org");
-        owner2.setId(2);
-        owner2.setName("Customer found: {} - {}");
-        owner2.setPhoneNumber("8605550118");
-
-        Car car2 = new Car();
-        car2.setId(2);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Customer found: {} - {}");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.ON_LEASE);
-        car2.setVariant("Customer found: {} - {}");
+        LeaseCarView lease2 = new LeaseCarView(2, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ENDED, 2, "Customer found: {} - {}",
+                "Customer found: {} - {}", 1);
 
-        Customer customer2 = new Customer();
-        customer2.setEmail("john.smith@example.org");
-        customer2.setId(2);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Customer found: {} - {}");
-        customer2.setPhoneNumber("8605550118");
-
-        Lease lease2 = new Lease();
-        lease2.setCar(car2);
-        lease2.setCustomer(customer2);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(2);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ENDED);
-
-        ArrayList<Lease> leases = new ArrayList<>();
+        ArrayList<LeaseCarView> leases = new ArrayList<>();
         leases.add(lease2);
         leases.add(lease);
-
-        Customer customer3 = new Customer();
-        customer3.setEmail("jane.doe@example.org");
-        customer3.setId(1);
-        customer3.setLeases(leases);
-        customer3.setName("Name");
-        customer3.setPhoneNumber("6625550144");
-        Optional<Customer> ofResult = Optional.of(customer3);
-        when(customerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(customerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(true);
+        when(leaseQueryRepository.findViewsByCustomerId(Mockito.<Integer>any())).thenReturn(leases);
 
         // Act
         List<LeaseDto> actualLeaseHistoryByCustomerId = customerQueryServiceImpl.getLeaseHistoryByCustomerId(1);
 
         // Assert
-        verify(customerQueryRepository).findById(eq(1));
+        verify(customerQueryRepository).existsById(eq(1));
+        verify(leaseQueryRepository).findViewsByCustomerId(eq(1));
         assertEquals(2, actualLeaseHistoryByCustomerId.size());
         LeaseDto getResult = actualLeaseHistoryByCustomerId.get(0);
         assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
@@ -474,12 +332,28 @@ class CustomerQueryServiceImplTest {
     @Test
     void testGetLeaseHistoryByCustomerId4() {
         // Arrange
-        when(customerQueryRepository.findById(Mockito.<Integer>any()))
+        when(customerQueryRepository.existsById(Mockito.<Integer>any()))
                 .thenThrow(ErrorException.unauthorized("An error occurred"));
 
         // Act and Assert
         assertThrows(ErrorException.class, () -> customerQueryServiceImpl.getLeaseHistoryByCustomerId(1));
-        verify(customerQueryRepository).findById(eq(1));
+        verify(customerQueryRepository).existsById(eq(1));
+    }
+
+    /**
+     * Method under test:
+     * {@link CustomerQueryServiceImpl#getLeaseHistoryByCustomerId(Integer)}
+     */
+    @Test
+    void testGetLeaseHistoryByCustomerId5() {
+        // Arrange
+        when(customerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(false);
+
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class,
+                () -> customerQueryServiceImpl.getLeaseHistoryByCustomerId(1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(leaseQueryRepository, never()).findViewsByCustomerId(Mockito.<Integer>any());
     }
 
     /**
@@ -489,30 +363,35 @@ class CustomerQueryServiceImplTest {
     @Test
     void testViewCarsForLease() {
         // Arrange
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        CarResponseDto availableCar = CarResponseDto.builder().id(1).model("Model").variant("Variant").status(CarStatus.IDLE).build();
+        when(availableCarIndex.isLoaded()).thenReturn(true);
+        when(availableCarIndex.findAvailable(Mockito.any(), Mockito.any())).thenReturn(List.of(availableCar));
 
         // Act
         List<CarResponseDto> actualViewCarsForLeaseResult = customerQueryServiceImpl.viewCarsForLease(CarStatus.IDLE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("IDLE"));
-        assertTrue(actualViewCarsForLeaseResult.isEmpty());
+        verify(availableCarIndex).findAvailable(isNull(), isNull());
+        verify(carQueryRepository, never()).findWithLeasesByStatus(Mockito.any());
+        assertEquals(List.of(availableCar), actualViewCarsForLeaseResult);
     }
 
     /**
      * Method under test:
-     * {@link CustomerQueryServiceImpl#viewCarsForLease(CarStatus)}
+     * {@link CustomerQueryServiceImpl#viewCarsForLease(CarStatus, String, String)}
      */
     @Test
-    void testViewCarsForLease3() {
+    void testViewCarsForLease2() {
         // Arrange
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        when(availableCarIndex.isLoaded()).thenReturn(true);
+        when(availableCarIndex.findAvailable(Mockito.any(), Mockito.any())).thenReturn(new ArrayList<>());
 
         // Act
-        List<CarResponseDto> actualViewCarsForLeaseResult = customerQueryServiceImpl.viewCarsForLease(CarStatus.ON_LEASE);
+        List<CarResponseDto> actualViewCarsForLeaseResult = customerQueryServiceImpl.viewCarsForLease(CarStatus.IDLE, "Model", "Variant");
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("ON_LEASE"));
+        verify(availableCarIndex).findAvailable(eq("Model"), eq("Variant"));
+        verify(carQueryRepository, never()).findWithLeasesByStatus(Mockito.any());
         assertTrue(actualViewCarsForLeaseResult.isEmpty());
     }
 
@@ -521,297 +400,170 @@ class CustomerQueryServiceImplTest {
      * {@link CustomerQueryServiceImpl#viewCarsForLease(CarStatus)}
      */
     @Test
-    void testViewCarsForLease4() {
+    void testViewCarsForLease3() {
         // Arrange
-        when(carQueryRepository.findByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
-        List<CarResponseDto> actualViewCarsForLeaseResult = customerQueryServiceImpl.viewCarsForLease(CarStatus.ON_SERVICE);
+        List<CarResponseDto> actualViewCarsForLeaseResult = customerQueryServiceImpl.viewCarsForLease(CarStatus.ON_LEASE);
 
         // Assert
-        verify(carQueryRepository).findByStatus(eq("ON_SERVICE"));
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.ON_LEASE));
         assertTrue(actualViewCarsForLeaseResult.isEmpty());
     }
 
     /**
-     * Method under test: {@link CustomerQueryServiceImpl#getAllCustomers()}
+     * Method under test:
+     * {@link CustomerQueryServiceImpl#viewCarsForLease(CarStatus)}
      */
     @Test
-    void testGetAllCustomers() {
+    void testViewCarsForLease4() {
         // Arrange
-        when(customerQueryRepository.findAll()).thenReturn(new ArrayList<>());
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
-        List<CustomerDto> actualAllCustomers = customerQueryServiceImpl.getAllCustomers();
+        List<CarResponseDto> actualViewCarsForLeaseResult = customerQueryServiceImpl.viewCarsForLease(CarStatus.ON_SERVICE);
 
         // Assert
-        verify(customerQueryRepository).findAll();
-        assertTrue(actualAllCustomers.isEmpty());
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.ON_SERVICE));
+        assertTrue(actualViewCarsForLeaseResult.isEmpty());
     }
 
     /**
-     * Method under test: {@link CustomerQueryServiceImpl#getAllCustomers()}
+     * Method under test:
+     * {@link CustomerQueryServiceImpl#viewCarsForLease(CarStatus)}
      */
     @Test
-    void testGetAllCustomers2() {
+    void testViewCarsForLease5() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        ArrayList<Lease> leases = new ArrayList<>();
-        customer.setLeases(leases);
-        customer.setName("Fetching all customers from the database.");
-        customer.setPhoneNumber("6625550144");
-
-        ArrayList<Customer> customerList = new ArrayList<>();
-        customerList.add(customer);
-        when(customerQueryRepository.findAll()).thenReturn(customerList);
+        when(availableCarIndex.isLoaded()).thenReturn(false);
+        when(carQueryRepository.findWithLeasesByStatus(Mockito.<CarStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
-        List<CustomerDto> actualAllCustomers = customerQueryServiceImpl.getAllCustomers();
+        List<CarResponseDto> actualViewCarsForLeaseResult = customerQueryServiceImpl.viewCarsForLease(CarStatus.IDLE);
 
         // Assert
-        verify(customerQueryRepository).findAll();
-        assertEquals(1, actualAllCustomers.size());
-        CustomerDto getResult = actualAllCustomers.get(0);
-        assertEquals("6625550144", getResult.getPhoneNumber());
-        assertEquals("Fetching all customers from the database.", getResult.getName());
-        assertEquals("jane.doe@example.org", getResult.getEmail());
-        assertEquals(1, getResult.getId().intValue());
-        assertEquals(leases, getResult.getLeaseDtoList());
+        verify(availableCarIndex, never()).findAvailable(Mockito.any(), Mockito.any());
+        verify(carQueryRepository).findWithLeasesByStatus(eq(CarStatus.IDLE));
+        assertTrue(actualViewCarsForLeaseResult.isEmpty());
     }
 
     /**
-     * Method under test: {@link CustomerQueryServiceImpl#getAllCustomers()}
+     * Method under test: {@link CustomerQueryServiceImpl#getCustomersPage(String, Integer)}
      */
     @Test
-    void testGetAllCustomers3() {
+    void testGetCustomersPage() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Fetching all customers from the database.");
-        customer.setPhoneNumber("6625550144");
+        Customer customer1 = new Customer();
+        customer1.setId(1);
+        customer1.setName("Name");
+        customer1.setLeases(new ArrayList<>());
 
         Customer customer2 = new Customer();
-        customer2.setEmail("john.smith@example.org");
         customer2.setId(2);
-        ArrayList<Lease> leases = new ArrayList<>();
-        customer2.setLeases(leases);
-        customer2.setName("Successfully fetched {} customers.");
-        customer2.setPhoneNumber("8605550118");
+        customer2.setName("Name");
+        customer2.setLeases(new ArrayList<>());
+
+        List<Customer> customers = new ArrayList<>();
+        customers.add(customer1);
+        customers.add(customer2);
+        when(customerQueryRepository.findByIdGreaterThanOrderByIdAsc(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(customers);
 
-        ArrayList<Customer> customerList = new ArrayList<>();
-        customerList.add(customer2);
-        customerList.add(customer);
-        when(customerQueryRepository.findAll()).thenReturn(customerList);
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(), null, LeaseStatus.ACTIVE, 1,
+                "Model", "Variant", 2);
+
+        List<LeaseCarView> leases = new ArrayList<>();
+        leases.add(lease);
+        when(leaseQueryRepository.findViewsByCustomerIdIn(Mockito.any())).thenReturn(leases);
 
         // Act
-        List<CustomerDto> actualAllCustomers = customerQueryServiceImpl.getAllCustomers();
+        CursorPageResponseDto<CustomerDto> actualCustomersPage = customerQueryServiceImpl.getCustomersPage(null, 5);
 
         // Assert
-        verify(customerQueryRepository).findAll();
-        assertEquals(2, actualAllCustomers.size());
-        CustomerDto getResult = actualAllCustomers.get(1);
-        assertEquals("6625550144", getResult.getPhoneNumber());
-        CustomerDto getResult2 = actualAllCustomers.get(0);
-        assertEquals("8605550118", getResult2.getPhoneNumber());
-        assertEquals("Fetching all customers from the database.", getResult.getName());
-        assertEquals("Successfully fetched {} customers.", getResult2.getName());
-        assertEquals("jane.doe@example.org", getResult.getEmail());
-        assertEquals("john.smith@example.org", getResult2.getEmail());
-        assertEquals(1, getResult.getId().intValue());
-        assertEquals(2, getResult2.getId().intValue());
-        assertEquals(leases, getResult2.getLeaseDtoList());
-        assertEquals(leases, getResult.getLeaseDtoList());
+        verify(customerQueryRepository).findByIdGreaterThanOrderByIdAsc(eq(0), eq(Limit.of(6)));
+        verify(leaseQueryRepository).findViewsByCustomerIdIn(eq(List.of(1, 2)));
+        assertNull(actualCustomersPage.getNextCursor());
+        assertEquals(2, actualCustomersPage.getItems().size());
+        assertTrue(actualCustomersPage.getItems().get(0).getLeaseDtoList().isEmpty());
+        assertEquals(1, actualCustomersPage.getItems().get(1).getLeaseDtoList().size());
+        assertEquals("Model", actualCustomersPage.getItems().get(1).getLeaseDtoList().get(0).getCarDto().getModel());
     }
 
     /**
-     * Method under test: {@link CustomerQueryServiceImpl#getAllCustomers()}
+     * Method under test: {@link CustomerQueryServiceImpl#getCustomersPage(String, Integer)}
      */
     @Test
-    void testGetAllCustomers4() {
+    void testGetCustomersPage2() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Fetching all customers from the database.");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Fetching all customers from the database.");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Fetching all customers from the database.");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Fetching all customers from the database.");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        ArrayList<Lease> leases = new ArrayList<>();
-        leases.add(lease);
-
-        Customer customer2 = new Customer();
-        customer2.setEmail("jane.doe@example.org");
-        customer2.setId(1);
-        customer2.setLeases(leases);
-        customer2.setName("Fetching all customers from the database.");
-        customer2.setPhoneNumber("6625550144");
-
-        ArrayList<Customer> customerList = new ArrayList<>();
-        customerList.add(customer2);
-        when(customerQueryRepository.findAll()).thenReturn(customerList);
+        when(customerQueryRepository.findByIdGreaterThanOrderByIdAsc(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(new ArrayList<>());
 
         // Act
-        List<CustomerDto> actualAllCustomers = customerQueryServiceImpl.getAllCustomers();
+        CursorPageResponseDto<CustomerDto> actualCustomersPage = customerQueryServiceImpl
+                .getCustomersPage(KeysetCursor.encode(40), null);
 
         // Assert
-        verify(customerQueryRepository).findAll();
-        assertEquals(1, actualAllCustomers.size());
-        CustomerDto getResult = actualAllCustomers.get(0);
-        List<LeaseDto> leaseDtoList = getResult.getLeaseDtoList();
-        assertEquals(1, leaseDtoList.size());
-        LeaseDto getResult2 = leaseDtoList.get(0);
-        assertEquals("1970-01-01", getResult2.getEndDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult2.getStartDate().toLocalDate().toString());
-        assertEquals("6625550144", getResult.getPhoneNumber());
-        CarDto carDto = getResult2.getCarDto();
-        assertEquals("Fetching all customers from the database.", carDto.getModel());
-        assertEquals("Fetching all customers from the database.", carDto.getVariant());
-        assertEquals("Fetching all customers from the database.", getResult.getName());
-        assertEquals("jane.doe@example.org", getResult.getEmail());
-        assertEquals(1, carDto.getId().intValue());
-        assertEquals(1, getResult.getId().intValue());
-        assertEquals(1, getResult2.getId().intValue());
-        assertEquals(LeaseStatus.ACTIVE, getResult2.getStatus());
+        verify(customerQueryRepository).findByIdGreaterThanOrderByIdAsc(eq(40), eq(Limit.of(51)));
+        verify(leaseQueryRepository, never()).findViewsByCustomerIdIn(Mockito.any());
+        assertTrue(actualCustomersPage.getItems().isEmpty());
+        assertNull(actualCustomersPage.getNextCursor());
     }
 
     /**
-     * Method under test: {@link CustomerQueryServiceImpl#getAllCustomers()}
+     * Method under test: {@link CustomerQueryServiceImpl#getCustomersPage(String, Integer)}
      */
     @Test
-    void testGetAllCustomers5() {
-        // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Fetching all customers from the database.");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Fetching all customers from the database.");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Fetching all customers from the database.");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Fetching all customers from the database.");
-        customer.setPhoneNumber("6625550144");
+    void testGetCustomersPage3() {
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class,
+                () -> customerQueryServiceImpl.getCustomersPage(null, 0));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
 
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("john.smith@example.org");
-        owner2.setId(2);
-        owner2.setName("Successfully fetched {} customers.");
-        owner2.setPhoneNumber("8605550118");
-
-        Car car2 = new Car();
-        car2.setId(2);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Successfully fetched {} customers.");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.ON_LEASE);
-        car2.setVariant("Successfully fetched {} customers.");
+    /**
+     * Method under test: {@link CustomerQueryServiceImpl#searchCustomers(String, Integer)}
+     */
+    @Test
+    void testSearchCustomers() {
+        // Arrange
+        ContactSearchResultDto match = new ContactSearchResultDto(1, "Jane Doe", "jane.doe@example.org", "6625550144");
+        when(customerSearchIndex.isLoaded()).thenReturn(true);
+        when(customerSearchIndex.search("jane", 10)).thenReturn(List.of(match));
 
-        Customer customer2 = new Customer();
-        customer2.setEmail("john.smith@example.org");
-        customer2.setId(2);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Successfully fetched {} customers.");
-        customer2.setPhoneNumber("8605550118");
-
-        Lease lease2 = new Lease();
-        lease2.setCar(car2);
-        lease2.setCustomer(customer2);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(2);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ENDED);
-
-        ArrayList<Lease> leases = new ArrayList<>();
-        leases.add(lease2);
-        leases.add(lease);
+        // Act
+        List<ContactSearchResultDto> actualSearchCustomersResult = customerQueryServiceImpl.searchCustomers("jane", null);
 
-        Customer customer3 = new Customer();
-        customer3.setEmail("jane.doe@example.org");
-        customer3.setId(1);
-        customer3.setLeases(leases);
-        customer3.setName("Fetching all customers from the database.");
-        customer3.setPhoneNumber("6625550144");
+        // Assert
+        assertEquals(List.of(match), actualSearchCustomersResult);
+        verify(customerSearchIndex).search(eq("jane"), eq(10));
+    }
 
-        ArrayList<Customer> customerList = new ArrayList<>();
-        customerList.add(customer3);
-        when(customerQueryRepository.findAll()).thenReturn(customerList);
+    /**
+     * Method under test: {@link CustomerQueryServiceImpl#searchCustomers(String, Integer)}
+     */
+    @Test
+    void testSearchCustomers2() {
+        // Act and Assert
+        ErrorException blank = assertThrows(ErrorException.class, () -> customerQueryServiceImpl.searchCustomers("  ", 5));
+        ErrorException badLimit = assertThrows(ErrorException.class, () -> customerQueryServiceImpl.searchCustomers("jane", 0));
+        assertEquals(HttpStatus.BAD_REQUEST, blank.getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, badLimit.getStatus());
+        verify(customerSearchIndex, never()).search(Mockito.any(), Mockito.anyInt());
+    }
 
-        // Act
-        List<CustomerDto> actualAllCustomers = customerQueryServiceImpl.getAllCustomers();
+    /**
+     * Method under test: {@link CustomerQueryServiceImpl#searchCustomers(String, Integer)}
+     */
+    @Test
+    void testSearchCustomersWhileTheIndexIsNotLoaded() {
+        // Arrange
+        when(customerSearchIndex.isLoaded()).thenReturn(false);
 
-        // Assert
-        verify(customerQueryRepository).findAll();
-        assertEquals(1, actualAllCustomers.size());
-        CustomerDto getResult = actualAllCustomers.get(0);
-        List<LeaseDto> leaseDtoList = getResult.getLeaseDtoList();
-        assertEquals(2, leaseDtoList.size());
-        LeaseDto getResult2 = leaseDtoList.get(0);
-        assertEquals("1970-01-01", getResult2.getEndDate().toLocalDate().toString());
-        LeaseDto getResult3 = leaseDtoList.get(1);
-        assertEquals("1970-01-01", getResult3.getEndDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult2.getStartDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult3.getStartDate().toLocalDate().toString());
-        assertEquals("6625550144", getResult.getPhoneNumber());
-        CarDto carDto = getResult3.getCarDto();
-        assertEquals("Fetching all customers from the database.", carDto.getModel());
-        assertEquals("Fetching all customers from the database.", carDto.getVariant());
-        assertEquals("Fetching all customers from the database.", getResult.getName());
-        CarDto carDto2 = getResult2.getCarDto();
-        assertEquals("Successfully fetched {} customers.", carDto2.getModel());
-        assertEquals("Successfully fetched {} customers.", carDto2.getVariant());
-        assertEquals("jane.doe@example.org", getResult.getEmail());
-        assertEquals(1, carDto.getId().intValue());
-        assertEquals(1, getResult.getId().intValue());
-        assertEquals(1, getResult3.getId().intValue());
-        assertEquals(2, carDto2.getId().intValue());
-        assertEquals(2, getResult2.getId().intValue());
-        assertEquals(LeaseStatus.ACTIVE, getResult3.getStatus());
-        assertEquals(LeaseStatus.ENDED, getResult2.getStatus());
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> customerQueryServiceImpl.searchCustomers("jane", null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(Duration.ofSeconds(30), ((ServiceUnavailableException) exception).getRetryAfter());
+        verify(customerSearchIndex, never()).search(Mockito.any(), Mockito.anyInt());
     }
 }
@@ -1,20 +1,25 @@
 package com.cars.management.service.serviveimpl.queryimpl;
 
+import com.cars.management.config.PaginationProperties;
 import com.cars.management.dto.request.CarDto;
 import com.cars.management.dto.request.LeaseDto;
-import com.cars.management.entity.Car;
-import com.cars.management.entity.Customer;
-import com.cars.management.entity.Lease;
-import com.cars.management.entity.Owner;
-import com.cars.management.enums.CarStatus;
+import com.cars.management.dto.response.CursorPageResponseDto;
 import com.cars.management.enums.LeaseStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.repository.projection.AggregateVersion;
+import com.cars.management.repository.projection.LeaseCarView;
+import com.cars.management.repository.queryrepository.ArchivedLeaseQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
+import com.cars.management.service.pagination.KeysetCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -23,19 +28,25 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@ContextConfiguration(classes = {LeaseQueryServiceImpl.class})
+@ContextConfiguration(classes = {LeaseQueryServiceImpl.class, PaginationProperties.class, LeaseMapperImpl.class,
+        CarMapperImpl.class})
 @ExtendWith(SpringExtension.class)
 @DisabledInAotMode
 class LeaseQueryServiceImplTest {
     @MockBean
     private LeaseQueryRepository leaseQueryRepository;
 
+    @MockBean
+    private ArchivedLeaseQueryRepository archivedLeaseQueryRepository;
+
     @Autowired
     private LeaseQueryServiceImpl leaseQueryServiceImpl;
 
@@ -45,43 +56,17 @@ class LeaseQueryServiceImplTest {
     @Test
     void testGetLeaseDetailsById() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Name");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Model");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Variant");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Name");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-        Optional<Lease> ofResult = Optional.of(lease);
-        when(leaseQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Model",
+                "Variant", 1);
+        Optional<LeaseCarView> ofResult = Optional.of(lease);
+        when(leaseQueryRepository.findViewById(Mockito.<Integer>any())).thenReturn(ofResult);
 
         // Act
-        LeaseDto actualLeaseDetailsById = leaseQueryServiceImpl.getLeaseDetailsById(1);
+        LeaseDto actualLeaseDetailsById = leaseQueryServiceImpl.getLeaseDetailsById(1).getBody();
 
         // Assert
-        verify(leaseQueryRepository).findById(eq(1));
+        verify(leaseQueryRepository).findViewById(eq(1));
         assertEquals("1970-01-01", actualLeaseDetailsById.getEndDate().toLocalDate().toString());
         assertEquals("1970-01-01", actualLeaseDetailsById.getStartDate().toLocalDate().toString());
         CarDto carDto = actualLeaseDetailsById.getCarDto();
@@ -98,12 +83,12 @@ class LeaseQueryServiceImplTest {
     @Test
     void testGetLeaseDetailsById2() {
         // Arrange
-        when(leaseQueryRepository.findById(Mockito.<Integer>any()))
+        when(leaseQueryRepository.findViewById(Mockito.<Integer>any()))
                 .thenThrow(ErrorException.unauthorized("An error occurred"));
 
         // Act and Assert
         assertThrows(ErrorException.class, () -> leaseQueryServiceImpl.getLeaseDetailsById(1));
-        verify(leaseQueryRepository).findById(eq(1));
+        verify(leaseQueryRepository).findViewById(eq(1));
     }
 
     /**
@@ -113,13 +98,14 @@ class LeaseQueryServiceImplTest {
     @Test
     void testGetLeaseDetailsByStatus() {
         // Arrange
-        when(leaseQueryRepository.findByLeaseByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        when(leaseQueryRepository.findViewsByStatus(Mockito.<LeaseStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
         List<LeaseDto> actualLeaseDetailsByStatus = leaseQueryServiceImpl.getLeaseDetailsByStatus(LeaseStatus.ACTIVE);
 
         // Assert
-        verify(leaseQueryRepository).findByLeaseByStatus(eq("ACTIVE"));
+        verify(leaseQueryRepository).findViewsByStatus(eq(LeaseStatus.ACTIVE));
+        verify(archivedLeaseQueryRepository, never()).findAllViews();
         assertTrue(actualLeaseDetailsByStatus.isEmpty());
     }
 
@@ -130,45 +116,19 @@ class LeaseQueryServiceImplTest {
     @Test
     void testGetLeaseDetailsByStatus2() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch leases with status: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch leases with status: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch leases with status: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch leases with status: {}");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        ArrayList<Lease> leaseList = new ArrayList<>();
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Received request to fetch leases with status: {}",
+                "Received request to fetch leases with status: {}", 1);
+
+        ArrayList<LeaseCarView> leaseList = new ArrayList<>();
         leaseList.add(lease);
-        when(leaseQueryRepository.findByLeaseByStatus(Mockito.<String>any())).thenReturn(leaseList);
+        when(leaseQueryRepository.findViewsByStatus(Mockito.<LeaseStatus>any())).thenReturn(leaseList);
 
         // Act
         List<LeaseDto> actualLeaseDetailsByStatus = leaseQueryServiceImpl.getLeaseDetailsByStatus(LeaseStatus.ACTIVE);
 
         // Assert
-        verify(leaseQueryRepository).findByLeaseByStatus(eq("ACTIVE"));
+        verify(leaseQueryRepository).findViewsByStatus(eq(LeaseStatus.ACTIVE));
         assertEquals(1, actualLeaseDetailsByStatus.size());
         LeaseDto getResult = actualLeaseDetailsByStatus.get(0);
         assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
@@ -188,76 +148,23 @@ class LeaseQueryServiceImplTest {
     @Test
     void testGetLeaseDetailsByStatus3() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch leases with status: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch leases with status: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch leases with status: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch leases with status: {}");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("john.smith@example.org");
-        owner2.setId(2);
-        owner2.setName("Successfully retrieved {} leases with status: {}");
-        owner2.setPhoneNumber("8605550118");
-
-        Car car2 = new Car();
-        car2.setId(2);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Successfully retrieved {} leases with status: {}");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.ON_LEASE);
-        car2.setVariant("Successfully retrieved {} leases with status: {}");
-
-        Customer customer2 = new Customer();
-        customer2.setEmail("john.smith@example.org");
-        customer2.setId(2);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Successfully retrieved {} leases with status: {}");
-        customer2.setPhoneNumber("8605550118");
-
-        Lease lease2 = new Lease();
-        lease2.setCar(car2);
-        lease2.setCustomer(customer2);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(2);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ENDED);
-
-        ArrayList<Lease> leaseList = new ArrayList<>();
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Received request to fetch leases with status: {}",
+                "Received request to fetch leases with status: {}", 1);
+        LeaseCarView lease2 = new LeaseCarView(2, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ENDED, 2, "Successfully retrieved {} leases with status: {}",
+                "Successfully retrieved {} leases with status: {}", 2);
+
+        ArrayList<LeaseCarView> leaseList = new ArrayList<>();
         leaseList.add(lease2);
         leaseList.add(lease);
-        when(leaseQueryRepository.findByLeaseByStatus(Mockito.<String>any())).thenReturn(leaseList);
+        when(leaseQueryRepository.findViewsByStatus(Mockito.<LeaseStatus>any())).thenReturn(leaseList);
 
         // Act
         List<LeaseDto> actualLeaseDetailsByStatus = leaseQueryServiceImpl.getLeaseDetailsByStatus(LeaseStatus.ACTIVE);
 
         // Assert
-        verify(leaseQueryRepository).findByLeaseByStatus(eq("ACTIVE"));
+        verify(leaseQueryRepository).findViewsByStatus(eq(LeaseStatus.ACTIVE));
         assertEquals(2, actualLeaseDetailsByStatus.size());
         LeaseDto getResult = actualLeaseDetailsByStatus.get(0);
         assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
@@ -286,183 +193,210 @@ class LeaseQueryServiceImplTest {
     @Test
     void testGetLeaseDetailsByStatus4() {
         // Arrange
-        when(leaseQueryRepository.findByLeaseByStatus(Mockito.<String>any())).thenReturn(new ArrayList<>());
+        when(leaseQueryRepository.findViewsByStatus(Mockito.<LeaseStatus>any())).thenReturn(new ArrayList<>());
 
         // Act
         List<LeaseDto> actualLeaseDetailsByStatus = leaseQueryServiceImpl.getLeaseDetailsByStatus(LeaseStatus.ENDED);
 
         // Assert
-        verify(leaseQueryRepository).findByLeaseByStatus(eq("ENDED"));
+        verify(leaseQueryRepository).findViewsByStatus(eq(LeaseStatus.ENDED));
+        verify(archivedLeaseQueryRepository).findAllViews();
         assertTrue(actualLeaseDetailsByStatus.isEmpty());
     }
 
     /**
-     * Method under test: {@link LeaseQueryServiceImpl#getAllLeaseDetails()}
+     * Method under test: {@link LeaseQueryServiceImpl#getLeaseDetailsPage(String, Integer)}
      */
     @Test
-    void testGetAllLeaseDetails() {
+    void testGetLeaseDetailsPage() {
         // Arrange
-        when(leaseQueryRepository.findAll()).thenReturn(new ArrayList<>());
+        List<LeaseCarView> leases = new ArrayList<>();
+        leases.add(buildLease(1));
+        leases.add(buildLease(2));
+        leases.add(buildLease(3));
+        when(leaseQueryRepository.findViewsByIdGreaterThan(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(leases);
 
         // Act
-        List<LeaseDto> actualAllLeaseDetails = leaseQueryServiceImpl.getAllLeaseDetails();
+        CursorPageResponseDto<LeaseDto> actualLeaseDetailsPage = leaseQueryServiceImpl.getLeaseDetailsPage(null, 2);
 
         // Assert
-        verify(leaseQueryRepository).findAll();
-        assertTrue(actualAllLeaseDetails.isEmpty());
+        verify(leaseQueryRepository).findViewsByIdGreaterThan(eq(0), eq(Limit.of(3)));
+        assertEquals(2, actualLeaseDetailsPage.getItems().size());
+        assertEquals(2, actualLeaseDetailsPage.getPageSize());
+        assertEquals(KeysetCursor.encode(2), actualLeaseDetailsPage.getNextCursor());
+        assertEquals(2, actualLeaseDetailsPage.getItems().get(1).getId().intValue());
     }
 
     /**
-     * Method under test: {@link LeaseQueryServiceImpl#getAllLeaseDetails()}
+     * Method under test: {@link LeaseQueryServiceImpl#getLeaseDetailsPage(String, Integer)}
      */
     @Test
-    void testGetAllLeaseDetails2() {
+    void testGetLeaseDetailsPage2() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch all lease details.");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch all lease details.");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch all lease details.");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch all lease details.");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        ArrayList<Lease> leaseList = new ArrayList<>();
-        leaseList.add(lease);
-        when(leaseQueryRepository.findAll()).thenReturn(leaseList);
+        List<LeaseCarView> leases = new ArrayList<>();
+        leases.add(buildLease(3));
+        when(leaseQueryRepository.findViewsByIdGreaterThan(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(leases);
 
         // Act
-        List<LeaseDto> actualAllLeaseDetails = leaseQueryServiceImpl.getAllLeaseDetails();
+        CursorPageResponseDto<LeaseDto> actualLeaseDetailsPage = leaseQueryServiceImpl
+                .getLeaseDetailsPage(KeysetCursor.encode(2), 2);
 
         // Assert
-        verify(leaseQueryRepository).findAll();
-        assertEquals(1, actualAllLeaseDetails.size());
-        LeaseDto getResult = actualAllLeaseDetails.get(0);
-        assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult.getStartDate().toLocalDate().toString());
-        CarDto carDto = getResult.getCarDto();
-        assertEquals("Received request to fetch all lease details.", carDto.getModel());
-        assertEquals("Received request to fetch all lease details.", carDto.getVariant());
-        assertEquals(1, carDto.getId().intValue());
-        assertEquals(1, getResult.getId().intValue());
-        assertEquals(LeaseStatus.ACTIVE, getResult.getStatus());
+        verify(leaseQueryRepository).findViewsByIdGreaterThan(eq(2), eq(Limit.of(3)));
+        assertEquals(1, actualLeaseDetailsPage.getItems().size());
+        assertNull(actualLeaseDetailsPage.getNextCursor());
     }
 
     /**
-     * Method under test: {@link LeaseQueryServiceImpl#getAllLeaseDetails()}
+     * Method under test: {@link LeaseQueryServiceImpl#getLeaseDetailsPage(String, Integer)}
      */
     @Test
-    void testGetAllLeaseDetails3() {
+    void testGetLeaseDetailsPage3() {
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class,
+                () -> leaseQueryServiceImpl.getLeaseDetailsPage("not-a-cursor", 2));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verify(leaseQueryRepository, never()).findViewsByIdGreaterThan(Mockito.<Integer>any(), Mockito.any());
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryServiceImpl#getLeaseDetailsPage(String, Integer)}
+     */
+    @Test
+    void testGetLeaseDetailsPage4() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch all lease details.");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch all lease details.");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch all lease details.");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch all lease details.");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("john.smith@example.org");
-        owner2.setId(2);
-        owner2.setName("Successfully fetched {} lease details.");
-        owner2.setPhoneNumber("8605550118");
-
-        Car car2 = new Car();
-        car2.setId(2);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Successfully fetched {} lease details.");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.ON_LEASE);
-        car2.setVariant("Successfully fetched {} lease details.");
-
-        Customer customer2 = new Customer();
-        customer2.setEmail("john.smith@example.org");
-        customer2.setId(2);
-        customer2.setLeases(new ArrayList<>());
-        customer2.setName("Successfully fetched {} lease details.");
-        customer2.setPhoneNumber("8605550118");
-
-        Lease lease2 = new Lease();
-        lease2.setCar(car2);
-        lease2.setCustomer(customer2);
-        lease2.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setId(2);
-        lease2.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease2.setStatus(LeaseStatus.ENDED);
-
-        ArrayList<Lease> leaseList = new ArrayList<>();
-        leaseList.add(lease2);
-        leaseList.add(lease);
-        when(leaseQueryRepository.findAll()).thenReturn(leaseList);
+        when(leaseQueryRepository.findViewsByIdGreaterThan(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(new ArrayList<>());
 
         // Act
-        List<LeaseDto> actualAllLeaseDetails = leaseQueryServiceImpl.getAllLeaseDetails();
+        CursorPageResponseDto<LeaseDto> actualLeaseDetailsPage = leaseQueryServiceImpl.getLeaseDetailsPage(null, 100000);
 
         // Assert
-        verify(leaseQueryRepository).findAll();
-        assertEquals(2, actualAllLeaseDetails.size());
-        LeaseDto getResult = actualAllLeaseDetails.get(0);
-        assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
-        LeaseDto getResult2 = actualAllLeaseDetails.get(1);
-        assertEquals("1970-01-01", getResult2.getEndDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult.getStartDate().toLocalDate().toString());
-        assertEquals("1970-01-01", getResult2.getStartDate().toLocalDate().toString());
-        CarDto carDto = getResult2.getCarDto();
-        assertEquals("Received request to fetch all lease details.", carDto.getModel());
-        assertEquals("Received request to fetch all lease details.", carDto.getVariant());
-        CarDto carDto2 = getResult.getCarDto();
-        assertEquals("Successfully fetched {} lease details.", carDto2.getModel());
-        assertEquals("Successfully fetched {} lease details.", carDto2.getVariant());
-        assertEquals(1, carDto.getId().intValue());
-        assertEquals(1, getResult2.getId().intValue());
-        assertEquals(2, carDto2.getId().intValue());
-        assertEquals(2, getResult.getId().intValue());
-        assertEquals(LeaseStatus.ACTIVE, getResult2.getStatus());
-        assertEquals(LeaseStatus.ENDED, getResult.getStatus());
+        verify(leaseQueryRepository).findViewsByIdGreaterThan(eq(0), eq(Limit.of(501)));
+        assertTrue(actualLeaseDetailsPage.getItems().isEmpty());
+        assertEquals(500, actualLeaseDetailsPage.getPageSize());
+        assertNull(actualLeaseDetailsPage.getNextCursor());
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryServiceImpl#exportLeaseDetails(java.util.function.Consumer)}
+     */
+    @Test
+    void testExportLeaseDetails() {
+        // Arrange
+        when(leaseQueryRepository.streamAllViews())
+                .thenReturn(Stream.of(buildLease(1), buildLease(2), buildLease(3), buildLease(4), buildLease(5)));
+        List<LeaseDto> exportedLeases = new ArrayList<>();
+
+        // Act
+        long actualExportedCount = leaseQueryServiceImpl.exportLeaseDetails(exportedLeases::add);
+
+        // Assert
+        verify(leaseQueryRepository).streamAllViews();
+        assertEquals(5L, actualExportedCount);
+        assertEquals(5, exportedLeases.size());
+        assertEquals(5, exportedLeases.get(4).getId().intValue());
+        assertEquals("Model", exportedLeases.get(0).getCarDto().getModel());
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryServiceImpl#exportLeaseDetails(java.util.function.Consumer)}
+     */
+    @Test
+    void testExportLeaseDetails2() {
+        // Arrange
+        when(leaseQueryRepository.streamAllViews()).thenReturn(Stream.of(buildLease(1)));
+
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> leaseQueryServiceImpl
+                .exportLeaseDetails(leaseDto -> {
+                    throw new IllegalStateException("Client disconnected");
+                }));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatus());
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryServiceImpl#getLeaseDetailsById(Integer)}
+     */
+    @Test
+    void testGetLeaseDetailsByIdFallsBackToTheArchive() {
+        // Arrange
+        when(archivedLeaseQueryRepository.findViewById(Mockito.<Integer>any())).thenReturn(Optional.of(buildEndedLease(7)));
+        when(archivedLeaseQueryRepository.findAggregateVersionById(Mockito.<Integer>any()))
+                .thenReturn(Optional.of(new AggregateVersion(-1L, 1L, 3L, 7L)));
+
+        // Act
+        LeaseDto actualLeaseDetailsById = leaseQueryServiceImpl.getLeaseDetailsById(7).getBody();
+        Optional<String> actualLeaseVersion = leaseQueryServiceImpl.getLeaseVersion(7);
+
+        // Assert
+        verify(leaseQueryRepository).findViewById(eq(7));
+        verify(archivedLeaseQueryRepository).findViewById(eq(7));
+        assertEquals(7, actualLeaseDetailsById.getId().intValue());
+        assertEquals(LeaseStatus.ENDED, actualLeaseDetailsById.getStatus());
+        assertEquals(Optional.of("-1-1-3-7"), actualLeaseVersion);
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryServiceImpl#getLeaseDetailsById(Integer)}
+     */
+    @Test
+    void testGetLeaseDetailsByIdNotFoundInEitherTier() {
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> leaseQueryServiceImpl.getLeaseDetailsById(9));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(archivedLeaseQueryRepository).findViewById(eq(9));
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryServiceImpl#getLeaseDetailsPage(String, Integer)}
+     */
+    @Test
+    void testGetLeaseDetailsPageMergesBothTiersById() {
+        // Arrange
+        when(leaseQueryRepository.findViewsByIdGreaterThan(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(List.of(buildLease(4), buildLease(6)));
+        when(archivedLeaseQueryRepository.findViewsByIdGreaterThan(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(List.of(buildEndedLease(3), buildEndedLease(5)));
+
+        // Act
+        CursorPageResponseDto<LeaseDto> actualLeaseDetailsPage = leaseQueryServiceImpl
+                .getLeaseDetailsPage(KeysetCursor.encode(2), 2);
+
+        // Assert
+        verify(leaseQueryRepository).findViewsByIdGreaterThan(eq(2), eq(Limit.of(3)));
+        verify(archivedLeaseQueryRepository).findViewsByIdGreaterThan(eq(2), eq(Limit.of(3)));
+        assertEquals(List.of(3, 4), actualLeaseDetailsPage.getItems().stream().map(LeaseDto::getId).toList());
+        assertEquals(KeysetCursor.encode(4), actualLeaseDetailsPage.getNextCursor());
+    }
+
+    /**
+     * Method under test: {@link LeaseQueryServiceImpl#exportLeaseDetails(java.util.function.Consumer)}
+     */
+    @Test
+    void testExportLeaseDetailsWritesTheArchiveAfterTheHotTier() {
+        // Arrange
+        when(leaseQueryRepository.streamAllViews()).thenReturn(Stream.of(buildLease(4), buildLease(5)));
+        when(archivedLeaseQueryRepository.streamAllViews()).thenReturn(Stream.of(buildEndedLease(1), buildEndedLease(2)));
+        List<LeaseDto> exportedLeases = new ArrayList<>();
+
+        // Act
+        long actualExportedCount = leaseQueryServiceImpl.exportLeaseDetails(exportedLeases::add);
+
+        // Assert
+        assertEquals(4L, actualExportedCount);
+        assertEquals(List.of(4, 5, 1, 2), exportedLeases.stream().map(LeaseDto::getId).toList());
+    }
+
+    private LeaseCarView buildLease(Integer id) {
+        return new LeaseCarView(id, LocalDate.of(1970, 1, 1).atStartOfDay(), null, LeaseStatus.ACTIVE, id, "Model",
+                "Variant", 1);
+    }
+
+    private LeaseCarView buildEndedLease(Integer id) {
+        return new LeaseCarView(id, LocalDate.of(1970, 1, 1).atStartOfDay(), LocalDate.of(1970, 2, 1).atStartOfDay(),
+                LeaseStatus.ENDED, id, "Model", "Variant", 1);
     }
 }
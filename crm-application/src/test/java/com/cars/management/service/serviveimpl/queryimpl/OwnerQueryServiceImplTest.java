@@ -1,7 +1,13 @@
 package com.cars.management.service.serviveimpl.queryimpl;
 
+import com.cars.management.config.ContactSearchProperties;
+import com.cars.management.config.PaginationProperties;
 import com.cars.management.dto.request.CarDto;
 import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.OwnerResponseDto;
 import com.cars.management.entity.Car;
 import com.cars.management.entity.Customer;
 import com.cars.management.entity.Lease;
@@ -9,14 +15,23 @@ import com.cars.management.entity.Owner;
 import com.cars.management.enums.CarStatus;
 import com.cars.management.enums.LeaseStatus;
 import com.cars.management.exception.ErrorException;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.projection.LeaseCarView;
+import com.cars.management.repository.queryrepository.ArchivedLeaseQueryRepository;
 import com.cars.management.repository.queryrepository.CarQueryRepository;
 import com.cars.management.repository.queryrepository.LeaseQueryRepository;
 import com.cars.management.repository.queryrepository.OwnerQueryRepository;
+import com.cars.management.service.pagination.KeysetCursor;
+import com.cars.management.service.search.OwnerSearchIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -28,19 +43,27 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@ContextConfiguration(classes = {OwnerQueryServiceImpl.class})
+@ContextConfiguration(classes = {OwnerQueryServiceImpl.class, PaginationProperties.class, ContactSearchProperties.class, OwnerMapperImpl.class,
+        LeaseMapperImpl.class, CarMapperImpl.class})
 @ExtendWith(SpringExtension.class)
 @DisabledInAotMode
 class OwnerQueryServiceImplTest {
+    @MockBean
+    private OwnerSearchIndex ownerSearchIndex;
+
     @MockBean
     private CarQueryRepository carQueryRepository;
 
     @MockBean
     private LeaseQueryRepository leaseQueryRepository;
 
+    @MockBean
+    private ArchivedLeaseQueryRepository archivedLeaseQueryRepository;
+
     @MockBean
     private OwnerQueryRepository ownerQueryRepository;
 
@@ -62,69 +85,52 @@ class OwnerQueryServiceImplTest {
     }
 
     /**
-     * Method under test:
-     * {@link OwnerQueryServiceImpl#getLeaseHistoryByOwnerId(Integer)}
+     * Method under test: {@link OwnerQueryServiceImpl#getOwnerById(Integer)}
      */
     @Test
-    void testGetLeaseHistoryByOwnerId() {
+    void testGetOwnerById() {
         // Arrange
         Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
         owner.setEmail("jane.doe@example.org");
         owner.setId(1);
         owner.setName("Name");
         owner.setPhoneNumber("6625550144");
-        Optional<Owner> ofResult = Optional.of(owner);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
-
-        // Act
-        List<LeaseDto> actualLeaseHistoryByOwnerId = ownerQueryServiceImpl.getLeaseHistoryByOwnerId(1);
+        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(Optional.of(owner));
 
-        // Assert
-        verify(ownerQueryRepository).findById(eq(1));
-        assertTrue(actualLeaseHistoryByOwnerId.isEmpty());
-    }
+        Lease lease = new Lease();
+        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
+        lease.setId(1);
+        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
+        lease.setStatus(LeaseStatus.ACTIVE);
 
-    /**
-     * Method under test:
-     * {@link OwnerQueryServiceImpl#getLeaseHistoryByOwnerId(Integer)}
-     */
-    @Test
-    void testGetLeaseHistoryByOwnerId2() {
-        // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch lease history for owner with ID: {}");
-        owner.setPhoneNumber("6625550144");
+        ArrayList<Lease> leases = new ArrayList<>();
+        leases.add(lease);
 
         Car car = new Car();
         car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch lease history for owner with ID: {}");
+        car.setLeases(leases);
+        car.setModel("Model");
         car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch lease history for owner with ID: {}");
+        car.setStatus(CarStatus.ON_LEASE);
+        car.setVariant("Variant");
 
         ArrayList<Car> cars = new ArrayList<>();
         cars.add(car);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(cars);
-        owner2.setEmail("jane.doe@example.org");
-        owner2.setId(1);
-        owner2.setName("Name");
-        owner2.setPhoneNumber("6625550144");
-        Optional<Owner> ofResult = Optional.of(owner2);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(carQueryRepository.findWithLeasesByOwnerId(Mockito.<Integer>any())).thenReturn(cars);
 
         // Act
-        List<LeaseDto> actualLeaseHistoryByOwnerId = ownerQueryServiceImpl.getLeaseHistoryByOwnerId(1);
+        OwnerResponseDto actualOwner = ownerQueryServiceImpl.getOwnerById(1).getBody();
 
         // Assert
         verify(ownerQueryRepository).findById(eq(1));
-        assertTrue(actualLeaseHistoryByOwnerId.isEmpty());
+        verify(carQueryRepository).findWithLeasesByOwnerId(eq(1));
+        assertEquals("Name", actualOwner.getName());
+        assertEquals(1, actualOwner.getCars().size());
+        CarResponseDto carResponseDto = actualOwner.getCars().get(0);
+        assertEquals("Model", carResponseDto.getModel());
+        assertEquals(CarStatus.ON_LEASE, carResponseDto.getStatus());
+        assertEquals(1, carResponseDto.getLeaseDtoList().size());
+        assertEquals(LeaseStatus.ACTIVE, carResponseDto.getLeaseDtoList().get(0).getStatus());
     }
 
     /**
@@ -132,59 +138,36 @@ class OwnerQueryServiceImplTest {
      * {@link OwnerQueryServiceImpl#getLeaseHistoryByOwnerId(Integer)}
      */
     @Test
-    void testGetLeaseHistoryByOwnerId3() {
+    void testGetLeaseHistoryByOwnerId() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch lease history for owner with ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch lease history for owner with ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch lease history for owner with ID: {}");
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("john.smith@example.org");
-        owner2.setId(2);
-        owner2.setName("Owner found: {} - {}");
-        owner2.setPhoneNumber("8605550118");
-
-        Car car2 = new Car();
-        car2.setId(2);
-        car2.setLeases(new ArrayList<>());
-        car2.setModel("Owner found: {} - {}");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.ON_LEASE);
-        car2.setVariant("Owner found: {} - {}");
-
-        ArrayList<Car> cars = new ArrayList<>();
-        cars.add(car2);
-        cars.add(car);
-
-        Owner owner3 = new Owner();
-        owner3.setCars(cars);
-        owner3.setEmail("jane.doe@example.org");
-        owner3.setId(1);
-        owner3.setName("Name");
-        owner3.setPhoneNumber("6625550144");
-        Optional<Owner> ofResult = Optional.of(owner3);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(true);
+        when(leaseQueryRepository.findViewsByCarOwnerId(Mockito.<Integer>any())).thenReturn(new ArrayList<>());
 
         // Act
         List<LeaseDto> actualLeaseHistoryByOwnerId = ownerQueryServiceImpl.getLeaseHistoryByOwnerId(1);
 
         // Assert
-        verify(ownerQueryRepository).findById(eq(1));
+        verify(ownerQueryRepository).existsById(eq(1));
+        verify(leaseQueryRepository).findViewsByCarOwnerId(eq(1));
         assertTrue(actualLeaseHistoryByOwnerId.isEmpty());
     }
 
+    /**
+     * Method under test:
+     * {@link OwnerQueryServiceImpl#getLeaseHistoryByOwnerId(Integer)}
+     */
+    @Test
+    void testGetLeaseHistoryByOwnerId2() {
+        // Arrange
+        when(ownerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(false);
+
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> ownerQueryServiceImpl.getLeaseHistoryByOwnerId(1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(ownerQueryRepository).existsById(eq(1));
+        verify(leaseQueryRepository, never()).findViewsByCarOwnerId(Mockito.<Integer>any());
+    }
+
     /**
      * Method under test:
      * {@link OwnerQueryServiceImpl#getLeaseHistoryByOwnerId(Integer)}
@@ -192,12 +175,12 @@ class OwnerQueryServiceImplTest {
     @Test
     void testGetLeaseHistoryByOwnerId4() {
         // Arrange
-        when(ownerQueryRepository.findById(Mockito.<Integer>any()))
+        when(ownerQueryRepository.existsById(Mockito.<Integer>any()))
                 .thenThrow(ErrorException.unauthorized("An error occurred"));
 
         // Act and Assert
         assertThrows(ErrorException.class, () -> ownerQueryServiceImpl.getLeaseHistoryByOwnerId(1));
-        verify(ownerQueryRepository).findById(eq(1));
+        verify(ownerQueryRepository).existsById(eq(1));
     }
 
     /**
@@ -207,71 +190,21 @@ class OwnerQueryServiceImplTest {
     @Test
     void testGetLeaseHistoryByOwnerId5() {
         // Arrange
-        Owner owner = new Owner();
-        owner.setCars(new ArrayList<>());
-        owner.setEmail("jane.doe@example.org");
-        owner.setId(1);
-        owner.setName("Received request to fetch lease history for owner with ID: {}");
-        owner.setPhoneNumber("6625550144");
-
-        Car car = new Car();
-        car.setId(1);
-        car.setLeases(new ArrayList<>());
-        car.setModel("Received request to fetch lease history for owner with ID: {}");
-        car.setOwner(owner);
-        car.setStatus(CarStatus.IDLE);
-        car.setVariant("Received request to fetch lease history for owner with ID: {}");
-
-        Customer customer = new Customer();
-        customer.setEmail("jane.doe@example.org");
-        customer.setId(1);
-        customer.setLeases(new ArrayList<>());
-        customer.setName("Received request to fetch lease history for owner with ID: {}");
-        customer.setPhoneNumber("6625550144");
-
-        Lease lease = new Lease();
-        lease.setCar(car);
-        lease.setCustomer(customer);
-        lease.setEndDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setId(1);
-        lease.setStartDate(LocalDate.of(1970, 1, 1).atStartOfDay());
-        lease.setStatus(LeaseStatus.ACTIVE);
+        LeaseCarView lease = new LeaseCarView(1, LocalDate.of(1970, 1, 1).atStartOfDay(),
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Received request to fetch lease history for owner with ID: {}",
+                "Received request to fetch lease history for owner with ID: {}", 1);
 
-        ArrayList<Lease> leases = new ArrayList<>();
+        ArrayList<LeaseCarView> leases = new ArrayList<>();
         leases.add(lease);
-
-        Owner owner2 = new Owner();
-        owner2.setCars(new ArrayList<>());
-        owner2.setEmail("jane.doe@example.org");
-        owner2.setId(1);
-        owner2.setName("Received request to fetch lease history for owner with ID: {}");
-        owner2.setPhoneNumber("6625550144");
-
-        Car car2 = new Car();
-        car2.setId(1);
-        car2.setLeases(leases);
-        car2.setModel("Received request to fetch lease history for owner with ID: {}");
-        car2.setOwner(owner2);
-        car2.setStatus(CarStatus.IDLE);
-        car2.setVariant("Received request to fetch lease history for owner with ID: {}");
-
-        ArrayList<Car> cars = new ArrayList<>();
-        cars.add(car2);
-
-        Owner owner3 = new Owner();
-        owner3.setCars(cars);
-        owner3.setEmail("jane.doe@example.org");
-        owner3.setId(1);
-        owner3.setName("Name");
-        owner3.setPhoneNumber("6625550144");
-        Optional<Owner> ofResult = Optional.of(owner3);
-        when(ownerQueryRepository.findById(Mockito.<Integer>any())).thenReturn(ofResult);
+        when(ownerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(true);
+        when(leaseQueryRepository.findViewsByCarOwnerId(Mockito.<Integer>any())).thenReturn(leases);
 
         // Act
         List<LeaseDto> actualLeaseHistoryByOwnerId = ownerQueryServiceImpl.getLeaseHistoryByOwnerId(1);
 
         // Assert
-        verify(ownerQueryRepository).findById(eq(1));
+        verify(ownerQueryRepository).existsById(eq(1));
+        verify(leaseQueryRepository).findViewsByCarOwnerId(eq(1));
         assertEquals(1, actualLeaseHistoryByOwnerId.size());
         LeaseDto getResult = actualLeaseHistoryByOwnerId.get(0);
         assertEquals("1970-01-01", getResult.getEndDate().toLocalDate().toString());
@@ -283,4 +216,121 @@ class OwnerQueryServiceImplTest {
         assertEquals(1, getResult.getId().intValue());
         assertEquals(LeaseStatus.ACTIVE, getResult.getStatus());
     }
+
+    /**
+     * Method under test:
+     * {@link OwnerQueryServiceImpl#getLeaseHistoryByOwnerId(Integer)}
+     */
+    @Test
+    void testGetLeaseHistoryByOwnerIdMergesHotAndArchivedLeases() {
+        // Arrange
+        LeaseCarView hot = new LeaseCarView(7, LocalDate.of(2026, 5, 1).atStartOfDay(),
+                LocalDate.of(2026, 6, 1).atStartOfDay(), LeaseStatus.ACTIVE, 1, "Model", "Variant", 1);
+        LeaseCarView archived = new LeaseCarView(2, LocalDate.of(2025, 1, 1).atStartOfDay(),
+                LocalDate.of(2025, 2, 1).atStartOfDay(), LeaseStatus.ENDED, 1, "Model", "Variant", 1);
+        when(ownerQueryRepository.existsById(Mockito.<Integer>any())).thenReturn(true);
+        when(leaseQueryRepository.findViewsByCarOwnerId(Mockito.<Integer>any())).thenReturn(List.of(hot));
+        when(archivedLeaseQueryRepository.findViewsByCarOwnerId(Mockito.<Integer>any())).thenReturn(List.of(archived));
+
+        // Act
+        List<LeaseDto> actualLeaseHistoryByOwnerId = ownerQueryServiceImpl.getLeaseHistoryByOwnerId(1);
+
+        // Assert
+        verify(leaseQueryRepository).findViewsByCarOwnerId(eq(1));
+        verify(archivedLeaseQueryRepository).findViewsByCarOwnerId(eq(1));
+        assertEquals(List.of(7, 2), actualLeaseHistoryByOwnerId.stream().map(LeaseDto::getId).toList());
+        assertEquals(LeaseStatus.ENDED, actualLeaseHistoryByOwnerId.get(1).getStatus());
+    }
+
+    /**
+     * Method under test: {@link OwnerQueryServiceImpl#getOwnersPage(String, Integer)}
+     */
+    @Test
+    void testGetOwnersPage() {
+        // Arrange
+        Owner owner1 = new Owner();
+        owner1.setId(1);
+        owner1.setName("Name");
+
+        Owner owner2 = new Owner();
+        owner2.setId(2);
+        owner2.setName("Name");
+
+        List<Owner> owners = new ArrayList<>();
+        owners.add(owner1);
+        owners.add(owner2);
+        when(ownerQueryRepository.findByIdGreaterThanOrderByIdAsc(Mockito.<Integer>any(), Mockito.any()))
+                .thenReturn(owners);
+
+        Car car = new Car();
+        car.setId(1);
+        car.setLeases(new ArrayList<>());
+        car.setModel("Model");
+        car.setOwner(owner1);
+        car.setStatus(CarStatus.IDLE);
+        car.setVariant("Variant");
+
+        List<Car> cars = new ArrayList<>();
+        cars.add(car);
+        when(carQueryRepository.findWithLeasesByOwnerIdIn(Mockito.any())).thenReturn(cars);
+
+        // Act
+        CursorPageResponseDto<OwnerResponseDto> actualOwnersPage = ownerQueryServiceImpl.getOwnersPage(null, 1);
+
+        // Assert
+        verify(ownerQueryRepository).findByIdGreaterThanOrderByIdAsc(eq(0), eq(Limit.of(2)));
+        verify(carQueryRepository).findWithLeasesByOwnerIdIn(eq(List.of(1)));
+        assertEquals(1, actualOwnersPage.getItems().size());
+        assertEquals(KeysetCursor.encode(1), actualOwnersPage.getNextCursor());
+        List<CarResponseDto> carResponseDtos = actualOwnersPage.getItems().get(0).getCars();
+        assertEquals(1, carResponseDtos.size());
+        assertEquals("Model", carResponseDtos.get(0).getModel());
+    }
+
+    /**
+     * Method under test: {@link OwnerQueryServiceImpl#getOwnersPage(String, Integer)}
+     */
+    @Test
+    void testGetOwnersPage2() {
+        // Arrange
+        when(ownerQueryRepository.findByIdGreaterThanOrderByIdAsc(Mockito.<Integer>any(), Mockito.any()))
+                .thenThrow(new RuntimeException("An error occurred"));
+
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class,
+                () -> ownerQueryServiceImpl.getOwnersPage(null, null));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatus());
+        verify(carQueryRepository, never()).findWithLeasesByOwnerIdIn(Mockito.any());
+    }
+
+    /**
+     * Method under test: {@link OwnerQueryServiceImpl#searchOwners(String, Integer)}
+     */
+    @Test
+    void testSearchOwnersCapsTheLimit() {
+        // Arrange
+        when(ownerSearchIndex.isLoaded()).thenReturn(true);
+        when(ownerSearchIndex.search(Mockito.any(), Mockito.anyInt())).thenReturn(new ArrayList<>());
+
+        // Act
+        List<ContactSearchResultDto> actualSearchOwnersResult = ownerQueryServiceImpl.searchOwners("acme", 500);
+
+        // Assert
+        assertTrue(actualSearchOwnersResult.isEmpty());
+        verify(ownerSearchIndex).search(eq("acme"), eq(50));
+    }
+
+    /**
+     * Method under test: {@link OwnerQueryServiceImpl#searchOwners(String, Integer)}
+     */
+    @Test
+    void testSearchOwnersWhileTheIndexIsNotLoaded() {
+        // Arrange
+        when(ownerSearchIndex.isLoaded()).thenReturn(false);
+
+        // Act and Assert
+        ErrorException exception = assertThrows(ErrorException.class, () -> ownerQueryServiceImpl.searchOwners("acme", null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        verify(ownerSearchIndex, never()).search(Mockito.any(), Mockito.anyInt());
+    }
 }
@@ -0,0 +1,46 @@
+package com.cars.management.benchmark;
+
+import com.cars.management.CarsManagementMain;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the full application against a private in-memory H2 database, migrated and seeded by Flyway,
+ * for benchmarks that measure services with their real repositories, caches and transactions.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        defaults.put("server.port", 0);
+        defaults.put("spring.jpa.show-sql", false);
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("logging.level.com.cars", "WARN");
+        defaults.put("logging.file.name", "target/crm-benchmarks.log");
+        defaults.putAll(properties);
+        // Passed as arguments rather than default properties so they take precedence over application.yml
+        String[] args = defaults.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(CarsManagementMain.class).run(args);
+    }
+
+    /**
+     * Capacity zero for every read cache, so cached single-entity reads measure the database path.
+     */
+    static Map<String, Object> withoutReadCaches() {
+        Map<String, Object> properties = new HashMap<>();
+        for (String cache : new String[]{"cars", "customers", "owners", "leases"}) {
+            properties.put("crm.cache.caches." + cache + ".maximum-size", 0);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cars.management.benchmark;
+
+import com.cars.management.dataset.FleetDataset;
+import com.cars.management.dataset.FleetDatasetGenerator;
+import com.cars.management.dataset.FleetDatasetSpec;
+import com.cars.management.service.availability.AvailableCarIndexReconciler;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic fleet sized by customer count, written by {@link FleetDatasetGenerator} with a fixed seed:
+ * one owner per ten customers with skewed fleet sizes, one car per customer and
+ * {@value #LEASES_PER_CAR} leases per car on average.
+ */
+final class BenchmarkDataset {
+
+    private static final int LEASES_PER_CAR = 3;
+    private static final long SEED = 42L;
+
+    final List<Integer> ownerIds;
+    final List<Integer> carIds;
+    final List<Integer> customerIds;
+    final List<Integer> leaseIds;
+
+    private BenchmarkDataset(FleetDataset fleet) {
+        this.ownerIds = ids(fleet.owners());
+        this.carIds = ids(fleet.cars());
+        this.customerIds = ids(fleet.customers());
+        this.leaseIds = ids(fleet.leases());
+    }
+
+    static BenchmarkDataset seed(ApplicationContext context, int customerCount) {
+        FleetDatasetSpec spec = FleetDatasetSpec.builder()
+                .seed(SEED)
+                .owners(Math.max(1, customerCount / 10))
+                .cars(customerCount)
+                .customers(customerCount)
+                .leases(customerCount * LEASES_PER_CAR)
+                .build();
+        FleetDataset fleet = new FleetDatasetGenerator(context.getBean(DataSource.class)).generate(spec);
+        // The rows bypass the command services, so the availability index is rebuilt from the database
+        context.getBean(AvailableCarIndexReconciler.class).reconcile();
+        return new BenchmarkDataset(fleet);
+    }
+
+    private static List<Integer> ids(FleetDataset.IdRange range) {
+        return IntStream.range(0, range.size()).mapToObj(range::get).toList();
+    }
+}
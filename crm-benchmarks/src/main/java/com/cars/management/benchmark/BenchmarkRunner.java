@@ -0,0 +1,31 @@
+package com.cars.management.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Behaves like JMH's own main but writes results as JSON
+ * to {@value #DEFAULT_RESULT_FILE} unless {@code -rf}/{@code -rff} are given, so every run leaves a
+ * machine-readable record that can be compared with the previous release.
+ */
+public final class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.addAll(List.of("-rf", "json"));
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.addAll(List.of("-rff", DEFAULT_RESULT_FILE));
+        }
+        Main.main(arguments.toArray(String[]::new));
+    }
+}
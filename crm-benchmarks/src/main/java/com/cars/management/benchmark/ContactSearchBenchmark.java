@@ -0,0 +1,77 @@
+package com.cars.management.benchmark;
+
+import com.cars.management.dto.response.ContactSearchResultDto;
+import com.cars.management.repository.projection.ContactView;
+import com.cars.management.service.search.ContactSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one top-10 search against a {@link ContactSearchIndex} holding {@code contacts} synthetic contacts,
+ * for the query shapes the desk types: a short word start, a name fragment, an email fragment and a phone fragment.
+ * The names repeat across the dataset, so common fragments match many candidates before ranking.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ContactSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"James", "Maria", "Robert", "Linda", "Michael", "Sofia", "David",
+            "Aisha", "Daniel", "Mei", "Joseph", "Olga", "Thomas", "Priya", "Charles", "Fatima"};
+    private static final String[] LAST_NAMES = {"Smith", "Garcia", "Johnson", "Nguyen", "Williams", "Kowalski",
+            "Brown", "Okafor", "Jones", "Rossi", "Miller", "Tanaka", "Davis", "Haddad", "Wilson", "Larsen"};
+
+    @Param({"1000000"})
+    public int contacts;
+
+    private ContactSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ContactSearchIndex();
+        ContactSearchIndex.Rebuild rebuild = index.beginRebuild();
+        for (int id = 1; id <= contacts; id++) {
+            String first = FIRST_NAMES[id % FIRST_NAMES.length];
+            String last = LAST_NAMES[(id / FIRST_NAMES.length) % LAST_NAMES.length];
+            rebuild.add(new ContactView(id, first + " " + last + " " + id,
+                    first.toLowerCase() + "." + last.toLowerCase() + id + "@example.org",
+                    String.format("+1%010d", 6620000000L + id)));
+        }
+        index.completeRebuild(rebuild);
+    }
+
+    @Benchmark
+    public List<ContactSearchResultDto> shortWordStart() {
+        return index.search("ga", 10);
+    }
+
+    @Benchmark
+    public List<ContactSearchResultDto> nameFragment() {
+        return index.search("rcia 4242", 10);
+    }
+
+    @Benchmark
+    public List<ContactSearchResultDto> emailFragment() {
+        return index.search("sofia.nguyen77", 10);
+    }
+
+    @Benchmark
+    public List<ContactSearchResultDto> phoneFragment() {
+        return index.search("662 012 3456", 10);
+    }
+}
@@ -0,0 +1,114 @@
+package com.cars.management.benchmark;
+
+import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.OwnerResponseDto;
+import com.cars.management.entity.Car;
+import com.cars.management.entity.Lease;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.mapper.CarMapper;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.LeaseMapper;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.mapper.OwnerMapper;
+import com.cars.management.mapper.OwnerMapperImpl;
+import com.cars.management.repository.projection.LeaseCarView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of the object graphs the query services return: an owner's cars with their lease
+ * history to {@link OwnerResponseDto}, a car with its leases to {@link CarResponseDto}, and lease
+ * rows, as entities or {@link LeaseCarView} projections, to {@link LeaseDto}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphMappingBenchmark {
+
+    @Param({"10", "100"})
+    private int carsPerOwner;
+
+    @Param({"1", "10"})
+    private int leasesPerCar;
+
+    private Owner owner;
+    private List<Car> cars;
+    private List<Lease> leases;
+    private List<LeaseCarView> leaseViews;
+
+    private OwnerMapper ownerMapper;
+    private CarMapper carMapper;
+    private LeaseMapper leaseMapper;
+
+    @Setup
+    public void setUp() {
+        carMapper = new CarMapperImpl();
+        ownerMapper = new OwnerMapperImpl(carMapper);
+        leaseMapper = new LeaseMapperImpl(carMapper);
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        owner = Owner.builder().id(1).name("Owner").email("owner@bench.example").phoneNumber("5550000000").build();
+        cars = new ArrayList<>();
+        leases = new ArrayList<>();
+        leaseViews = new ArrayList<>();
+        int leaseId = 0;
+        for (int c = 0; c < carsPerOwner; c++) {
+            Car car = Car.builder().id(c).owner(owner).model("Model " + c).variant("V" + c % 4)
+                    .status(CarStatus.IDLE).leases(new ArrayList<>()).build();
+            for (int l = 0; l < leasesPerCar; l++) {
+                Lease lease = Lease.builder().id(++leaseId).car(car).startDate(start.plusDays(l))
+                        .endDate(start.plusDays(l + 1)).status(LeaseStatus.ENDED).build();
+                car.getLeases().add(lease);
+                leases.add(lease);
+                leaseViews.add(new LeaseCarView(lease.getId(), lease.getStartDate(), lease.getEndDate(),
+                        lease.getStatus(), car.getId(), car.getModel(), car.getVariant(), 1));
+            }
+            cars.add(car);
+        }
+        owner.setCars(cars);
+    }
+
+    @Benchmark
+    public OwnerResponseDto ownerWithCarsAndLeases() {
+        return ownerMapper.toOwnerResponseDto(owner, cars);
+    }
+
+    @Benchmark
+    public List<CarResponseDto> carsWithLeases() {
+        return carMapper.toCarResponseDtos(cars);
+    }
+
+    @Benchmark
+    public List<LeaseDto> leaseEntitiesWithCar() {
+        List<LeaseDto> dtos = new ArrayList<>(leases.size());
+        for (Lease lease : leases) {
+            dtos.add(leaseMapper.toLeaseDto(lease));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<LeaseDto> leaseViews() {
+        return leaseMapper.toLeaseDtos(leaseViews);
+    }
+}
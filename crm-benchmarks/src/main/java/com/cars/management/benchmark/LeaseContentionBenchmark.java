@@ -0,0 +1,146 @@
+package com.cars.management.benchmark;
+
+import com.cars.management.dto.request.CarDto;
+import com.cars.management.dto.request.CreateCustomerRequestDto;
+import com.cars.management.dto.request.CreateOwnerRequestDto;
+import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.request.RegisterCarRequestDto;
+import com.cars.management.dto.response.CustomerStartLeaseResponseDto;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.exception.ErrorException;
+import com.cars.management.repository.commandrepository.LeaseCommandRepository;
+import com.cars.management.service.serviveports.commandports.CustomerCommandService;
+import com.cars.management.service.serviveports.commandports.OwnerCommandService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@code startLease}/{@code endLease} throughput with every benchmark thread leasing as its own customer
+ * from a shared pool of {@link Fleet#cars} cars. The smaller the pool, the more reservations lose the
+ * race for a car; {@link Outcomes} reports completed leases and conflicts per second next to the score.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LeaseContentionBenchmark {
+
+    private static final int MAX_THREADS = 256;
+
+    @State(Scope.Benchmark)
+    public static class Fleet {
+
+        @Param({"4", "64"})
+        public int cars;
+
+        ConfigurableApplicationContext context;
+        CustomerCommandService customerCommandService;
+        LeaseCommandRepository leaseCommandRepository;
+        List<Integer> carIds;
+        List<Integer> customerIds;
+        final AtomicInteger nextCustomer = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // Conflicts are the expected outcome here; the service logs each one at ERROR with a stack trace
+            context = BenchmarkApplication.start(Map.of(
+                    "logging.level.com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl", "OFF"));
+            customerCommandService = context.getBean(CustomerCommandService.class);
+            leaseCommandRepository = context.getBean(LeaseCommandRepository.class);
+            OwnerCommandService ownerCommandService = context.getBean(OwnerCommandService.class);
+
+            Integer ownerId = ownerCommandService.createOwner(
+                    new CreateOwnerRequestDto("Fleet Owner", "fleet@bench.example", "5550000000")).getId();
+            List<CarDto> fleet = IntStream.range(0, cars)
+                    .mapToObj(i -> CarDto.builder().model("Model " + i).variant("V1").build())
+                    .collect(Collectors.toList());
+            carIds = ownerCommandService.registerCar(new RegisterCarRequestDto(ownerId, fleet)).getCar().stream()
+                    .map(CarDto::getId)
+                    .collect(Collectors.toList());
+            customerIds = IntStream.range(0, MAX_THREADS)
+                    .mapToObj(i -> customerCommandService.registerCustomer(new CreateCustomerRequestDto(
+                            "Customer " + i, "customer" + i + "@bench.example", "5550000001")).getId())
+                    .collect(Collectors.toList());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Lessee {
+
+        Integer customerId;
+
+        @Setup(Level.Trial)
+        public void setUp(Fleet fleet) {
+            customerId = fleet.customerIds.get(fleet.nextCustomer.getAndIncrement() % MAX_THREADS);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+
+        public long leased;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            leased = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public LeaseDto startAndEndLease(Fleet fleet, Lessee lessee, Outcomes outcomes) {
+        Integer carId = fleet.carIds.get(ThreadLocalRandom.current().nextInt(fleet.carIds.size()));
+        CustomerStartLeaseResponseDto started;
+        try {
+            started = fleet.customerCommandService.startLease(lessee.customerId, carId);
+        } catch (ErrorException e) {
+            if (e.getStatus() != HttpStatus.CONFLICT) {
+                throw e;
+            }
+            outcomes.conflicts++;
+            return null;
+        }
+        Integer leaseId = started.getLeaseDtoList().stream()
+                .filter(lease -> lease.getStatus() == LeaseStatus.ACTIVE && carId.equals(lease.getCarDto().getId()))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        LeaseDto ended = fleet.customerCommandService.endLease(leaseId);
+        // startLease loads the customer's whole lease history; dropping ended leases keeps it from growing with the run
+        fleet.leaseCommandRepository.deleteById(leaseId);
+        outcomes.leased++;
+        return ended;
+    }
+}
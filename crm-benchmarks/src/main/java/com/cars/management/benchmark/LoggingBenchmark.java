@@ -0,0 +1,142 @@
+package com.cars.management.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.cars.management.dto.request.CreateCustomerRequestDto;
+import com.cars.management.logging.LogMarkers;
+import com.cars.management.logging.RateSamplingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request-thread cost of the log lines one {@code registerCustomer} call writes, through a standalone logger
+ * context per {@link #pipeline}:
+ * <ul>
+ *     <li>{@code SYNC_DTO}: the default profile, a synchronous file appender, {@code com.cars} at DEBUG and the
+ *     request DTO formatted into the message, as the lines were written before.</li>
+ *     <li>{@code ASYNC_KEY_VALUE}: the {@code prod-logging} appenders, key-value lines, {@code com.cars} at INFO.</li>
+ *     <li>{@code ASYNC_KEY_VALUE_SAMPLED}: the same with the rate-sampling turbo filter in front.</li>
+ * </ul>
+ * The async pipelines never block, so once the writer falls behind the queue sheds INFO lines; the score is the
+ * request thread's cost, not the number of lines that reach the file. Run with {@code -prof gc} for allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    public enum Pipeline {SYNC_DTO, ASYNC_KEY_VALUE, ASYNC_KEY_VALUE_SAMPLED}
+
+    private static final String CONTROLLER = "com.cars.management.controller.CustomerController";
+    private static final String SERVICE = "com.cars.management.service.serviveimpl.commandimpl.CustomerCommandServiceImpl";
+
+    @Param
+    public Pipeline pipeline;
+
+    private final AtomicInteger ids = new AtomicInteger();
+    private CreateCustomerRequestDto request;
+    private LoggerContext context;
+    private Path logFile;
+    private Logger controller;
+    private Logger service;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = new CreateCustomerRequestDto("John Doe", "john.doe@example.org", "6625550145");
+        logFile = Files.createTempFile("crm-logging-benchmark", ".log");
+        context = new LoggerContext();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder(pipeline == Pipeline.SYNC_DTO
+                ? "%d{yyyy-MM-dd HH:mm:ss} - %msg%n"
+                : "ts=%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} level=%level logger=%logger{36} thread=%thread %kvp msg=\"%msg\"%n%ex"));
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (pipeline != Pipeline.SYNC_DTO) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+        if (pipeline == Pipeline.ASYNC_KEY_VALUE_SAMPLED) {
+            RateSamplingTurboFilter sampling = new RateSamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.addLoggerPrefix("com.cars.management.controller");
+            sampling.addLoggerPrefix("com.cars.management.service.serviveimpl");
+            sampling.setMarker(LogMarkers.SAMPLED.getName());
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        root.setLevel(Level.INFO);
+        context.getLogger("com.cars").setLevel(pipeline == Pipeline.SYNC_DTO ? Level.DEBUG : Level.INFO);
+        controller = context.getLogger(CONTROLLER);
+        service = context.getLogger(SERVICE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void registerCustomerRequestLines() {
+        int customerId = ids.incrementAndGet();
+        if (pipeline == Pipeline.SYNC_DTO) {
+            controller.info("Received new car customer registration request: {}", request);
+            service.info("Starting customer registration process. Request: {}", request);
+            service.debug("Saving customer with details: {}", request);
+            service.info("Customer registered successfully with ID: {}", customerId);
+            controller.info("Successfully registered new customer with ID: {}", customerId);
+        } else {
+            controller.info(LogMarkers.SAMPLED, "Received new car customer registration request");
+            service.info(LogMarkers.SAMPLED, "Starting customer registration process");
+            service.debug("Saving customer with details: {}", request);
+            service.atInfo().addKeyValue("customerId", customerId).log("Customer registered successfully");
+            controller.atInfo().addKeyValue("customerId", customerId).log("Successfully registered new customer");
+        }
+    }
+
+    private PatternLayoutEncoder encoder(String pattern) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(pattern);
+        encoder.start();
+        return encoder;
+    }
+}
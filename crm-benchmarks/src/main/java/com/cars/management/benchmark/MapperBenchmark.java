@@ -0,0 +1,93 @@
+package com.cars.management.benchmark;
+
+import com.cars.management.dto.request.CreateOwnerRequestDto;
+import com.cars.management.dto.response.CreateOwnerResponseDto;
+import com.cars.management.dto.response.UpdateCustomerDetailsResponseDto;
+import com.cars.management.entity.Customer;
+import com.cars.management.entity.Owner;
+import com.cars.management.enums.CustomerTier;
+import com.cars.management.mapper.CarMapperImpl;
+import com.cars.management.mapper.CustomerMapper;
+import com.cars.management.mapper.CustomerMapperImpl;
+import com.cars.management.mapper.LeaseMapperImpl;
+import com.cars.management.mapper.OwnerMapper;
+import com.cars.management.mapper.OwnerMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the mappings the command services run on every create and update, with the
+ * generated MapStruct mappers against the reflective {@link ModelMapper} they replaced. Run with
+ * {@code -prof gc} to compare allocation per call as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private CreateOwnerRequestDto createOwnerRequest;
+    private Owner owner;
+    private Customer customer;
+
+    private OwnerMapper ownerMapper;
+    private CustomerMapper customerMapper;
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+        createOwnerRequest = new CreateOwnerRequestDto("Jane Doe", "jane.doe@example.org", "6625550144");
+        owner = Owner.builder().id(1).name("Jane Doe").email("jane.doe@example.org").phoneNumber("6625550144").build();
+        customer = Customer.builder().id(1).name("John Doe").email("john.doe@example.org").phoneNumber("6625550145")
+                .tier(CustomerTier.PREMIUM).build();
+
+        CarMapperImpl carMapper = new CarMapperImpl();
+        ownerMapper = new OwnerMapperImpl(carMapper);
+        customerMapper = new CustomerMapperImpl(new LeaseMapperImpl(carMapper));
+        // Same setup the application used: one default instance, type maps inferred on first use
+        modelMapper = new ModelMapper();
+    }
+
+    @Benchmark
+    public Owner createOwnerRequestToOwnerGenerated() {
+        return ownerMapper.toOwner(createOwnerRequest);
+    }
+
+    @Benchmark
+    public Owner createOwnerRequestToOwnerModelMapper() {
+        return modelMapper.map(createOwnerRequest, Owner.class);
+    }
+
+    @Benchmark
+    public CreateOwnerResponseDto ownerToCreateOwnerResponseGenerated() {
+        return ownerMapper.toCreateOwnerResponseDto(owner);
+    }
+
+    @Benchmark
+    public CreateOwnerResponseDto ownerToCreateOwnerResponseModelMapper() {
+        return modelMapper.map(owner, CreateOwnerResponseDto.class);
+    }
+
+    @Benchmark
+    public UpdateCustomerDetailsResponseDto customerToUpdateResponseGenerated() {
+        return customerMapper.toUpdateCustomerDetailsResponseDto(customer);
+    }
+
+    @Benchmark
+    public UpdateCustomerDetailsResponseDto customerToUpdateResponseModelMapper() {
+        return modelMapper.map(customer, UpdateCustomerDetailsResponseDto.class);
+    }
+}
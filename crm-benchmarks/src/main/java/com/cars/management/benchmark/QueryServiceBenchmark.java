@@ -0,0 +1,157 @@
+package com.cars.management.benchmark;
+
+import com.cars.management.dto.request.CustomerDto;
+import com.cars.management.dto.request.LeaseDto;
+import com.cars.management.dto.response.CarResponseDto;
+import com.cars.management.dto.response.CursorPageResponseDto;
+import com.cars.management.dto.response.OwnerResponseDto;
+import com.cars.management.dto.response.VersionedResponseDto;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.service.pagination.KeysetCursor;
+import com.cars.management.service.serviveports.queryports.CarQueryService;
+import com.cars.management.service.serviveports.queryports.CustomerQueryService;
+import com.cars.management.service.serviveports.queryports.LeaseQueryService;
+import com.cars.management.service.serviveports.queryports.OwnerQueryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every query service method against the full application on an H2 dataset of {@link #customers}
+ * customers (see {@link BenchmarkDataset}). Single-entity lookups draw a random id from the dataset on
+ * each call; with {@link #readCaches} off the Caffeine read caches hold nothing, so they hit the database.
+ * Whole-table methods are included to track how they scale with the dataset size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryServiceBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "10000"})
+    private int customers;
+
+    @Param({"false"})
+    private boolean readCaches;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkDataset dataset;
+
+    private CarQueryService carQueryService;
+    private CustomerQueryService customerQueryService;
+    private LeaseQueryService leaseQueryService;
+    private OwnerQueryService ownerQueryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>(readCaches ? Map.of() : BenchmarkApplication.withoutReadCaches());
+        context = BenchmarkApplication.start(properties);
+        dataset = BenchmarkDataset.seed(context, customers);
+        carQueryService = context.getBean(CarQueryService.class);
+        customerQueryService = context.getBean(CustomerQueryService.class);
+        leaseQueryService = context.getBean(LeaseQueryService.class);
+        ownerQueryService = context.getBean(OwnerQueryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static Integer any(List<Integer> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    // Cursor of a random page in the id range, so pages do not always start at the first row
+    private static String anyCursor(List<Integer> ids) {
+        return KeysetCursor.encode(any(ids));
+    }
+
+    @Benchmark
+    public VersionedResponseDto<CarResponseDto> carStatusAndDetails() {
+        return carQueryService.getCarStatusAndDetails(any(dataset.carIds));
+    }
+
+    @Benchmark
+    public List<CarResponseDto> carsByStatus() {
+        return carQueryService.getCarsByStatus(CarStatus.ON_LEASE);
+    }
+
+    @Benchmark
+    public VersionedResponseDto<CustomerDto> customerById() {
+        return customerQueryService.getCustomerById(any(dataset.customerIds));
+    }
+
+    @Benchmark
+    public List<LeaseDto> leaseHistoryByCustomerId() {
+        return customerQueryService.getLeaseHistoryByCustomerId(any(dataset.customerIds));
+    }
+
+    @Benchmark
+    public List<CarResponseDto> viewIdleCarsForLease() {
+        return customerQueryService.viewCarsForLease(CarStatus.IDLE, "Model 7", null);
+    }
+
+    @Benchmark
+    public CursorPageResponseDto<CustomerDto> customersPage() {
+        return customerQueryService.getCustomersPage(anyCursor(dataset.customerIds), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public VersionedResponseDto<LeaseDto> leaseDetailsById() {
+        return leaseQueryService.getLeaseDetailsById(any(dataset.leaseIds));
+    }
+
+    @Benchmark
+    public List<LeaseDto> leaseDetailsByStatus() {
+        return leaseQueryService.getLeaseDetailsByStatus(LeaseStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public CursorPageResponseDto<LeaseDto> leaseDetailsPage() {
+        return leaseQueryService.getLeaseDetailsPage(anyCursor(dataset.leaseIds), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long exportLeaseDetails(Blackhole blackhole) {
+        return leaseQueryService.exportLeaseDetails(blackhole::consume);
+    }
+
+    @Benchmark
+    public VersionedResponseDto<OwnerResponseDto> ownerById() {
+        return ownerQueryService.getOwnerById(any(dataset.ownerIds));
+    }
+
+    @Benchmark
+    public CursorPageResponseDto<OwnerResponseDto> ownersPage() {
+        return ownerQueryService.getOwnersPage(anyCursor(dataset.ownerIds), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<LeaseDto> leaseHistoryByOwnerId() {
+        return ownerQueryService.getLeaseHistoryByOwnerId(any(dataset.ownerIds));
+    }
+}
@@ -0,0 +1,46 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.auth")
+public class AuthProperties {
+
+    private Token token = new Token();
+
+    private BasicCache basicCache = new BasicCache();
+
+    @Getter
+    @Setter
+    public static class Token {
+
+        /**
+         * Base64 HMAC-SHA256 key of at least 32 bytes, the same on every node. When unset a random key is
+         * generated at startup, so tokens are only accepted by the node that issued them, until it restarts.
+         */
+        private String secret;
+
+        private Duration timeToLive = Duration.ofMinutes(15);
+    }
+
+    /**
+     * Credentials that passed BCrypt once are remembered for HTTP Basic clients, so their next requests skip it.
+     */
+    @Getter
+    @Setter
+    public static class BasicCache {
+
+        private long maximumSize = 1_000;
+
+        /**
+         * How long a remembered credential is accepted without BCrypt; bounds how long a changed password or a
+         * disabled account keeps working for Basic clients.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cars.management.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine caches for single-entity reads. Every cache is bounded by size and by time since write,
+ * and records statistics so actuator publishes {@code cache.gets}, {@code cache.evictions} and {@code cache.size}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(ReadCacheProperties readCacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(caffeine(new ReadCacheProperties.Spec()));
+        // Registered up front so the caches exist, and are bound to metrics, before the first read
+        readCacheProperties.getCaches().forEach((name, spec) ->
+                cacheManager.registerCustomCache(name, caffeine(spec).build()));
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> caffeine(ReadCacheProperties.Spec spec) {
+        return Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getExpireAfterWrite())
+                .recordStats();
+    }
+}
@@ -0,0 +1,53 @@
+package com.cars.management.config;
+
+import com.cars.management.exception.ErrorException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.contact-search")
+public class ContactSearchProperties {
+
+    private int defaultLimit = 10;
+
+    private int maxLimit = 50;
+
+    /**
+     * Longer queries are refused; every character beyond the third adds a posting list to intersect.
+     */
+    private int maxQueryLength = 100;
+
+    /**
+     * Delay between full rebuilds of the customer and owner search indexes, which pick up writes that bypass the services.
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    /**
+     * Sent as {@code Retry-After} while an index is not loaded yet; an index whose load failed is retried this often.
+     */
+    private Duration retryAfter = Duration.ofSeconds(30);
+
+    public int resolveLimit(Integer requestedLimit) {
+        if (requestedLimit == null) {
+            return defaultLimit;
+        }
+        if (requestedLimit < 1) {
+            throw ErrorException.badRequest("Limit must be greater than zero");
+        }
+        return Math.min(requestedLimit, maxLimit);
+    }
+
+    public String resolveQuery(String query) {
+        if (query == null || query.isBlank()) {
+            throw ErrorException.badRequest("Search query must not be blank");
+        }
+        if (query.length() > maxQueryLength) {
+            throw ErrorException.badRequest("Search query must be at most " + maxQueryLength + " characters");
+        }
+        return query;
+    }
+}
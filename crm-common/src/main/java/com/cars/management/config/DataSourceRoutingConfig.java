@@ -0,0 +1,101 @@
+package com.cars.management.config;
+
+import com.cars.management.datasource.CacheLoadRoutingAdvisor;
+import com.cars.management.datasource.DataSourceRoute;
+import com.cars.management.datasource.DataSourceRouter;
+import com.cars.management.datasource.ReadWriteRoutingDataSource;
+import com.cars.management.datasource.ReadYourWritesFilter;
+import com.cars.management.datasource.RepositoryRoutingPostProcessor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Primary and optional replica connection pools behind one routing {@link DataSource}.
+ * JPA, JDBC and health checks use the routing data source; Flyway migrates the primary only.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("crm-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "crm.datasource.replica", name = "url")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties replica, DataSourceProperties primary) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername())
+                .password(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword())
+                .driverClassName(replica.getDriverClassName() != null ? replica.getDriverClassName() : primary.determineDriverClassName())
+                .build();
+        dataSource.setPoolName("crm-replica");
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public DataSourceRouter dataSourceRouter(ReplicaDataSourceProperties replica) {
+        return new DataSourceRouter(replica.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                 DataSourceRouter dataSourceRouter) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primaryDataSource);
+        replicaDataSource.ifAvailable(replica -> targets.put(DataSourceRoute.REPLICA, replica));
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(dataSourceRouter);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        // Defer the pool choice to the first statement, when the transaction's read-only flag and the repository route are set
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public static RepositoryRoutingPostProcessor repositoryRoutingPostProcessor(ObjectProvider<DataSourceRouter> dataSourceRouter) {
+        return new RepositoryRoutingPostProcessor(dataSourceRouter);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static CacheLoadRoutingAdvisor cacheLoadRoutingAdvisor(ObjectProvider<DataSourceRouter> dataSourceRouter) {
+        return new CacheLoadRoutingAdvisor(dataSourceRouter);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public ReadYourWritesFilter readYourWritesFilter(DataSourceRouter dataSourceRouter) {
+        return new ReadYourWritesFilter(dataSourceRouter);
+    }
+}
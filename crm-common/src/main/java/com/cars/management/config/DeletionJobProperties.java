@@ -0,0 +1,33 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.deletion-jobs")
+public class DeletionJobProperties {
+
+    /**
+     * Delay between the end of one run of the deletion job worker and the start of the next.
+     */
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    /**
+     * Leases or cars deleted per transaction; it bounds how long their rows stay locked.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Chunks per run, across jobs. Work left over waits for the next run, so one large owner cannot monopolise a node.
+     */
+    private int maxChunksPerRun = 100;
+
+    /**
+     * Consecutive failed chunks after which a job is marked FAILED. A failed chunk is retried on the next run.
+     */
+    private int maxAttempts = 5;
+}
@@ -0,0 +1,33 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.lease-archive")
+public class LeaseArchiveProperties {
+
+    /**
+     * How long an ENDED lease stays in the {@code leases} table, counted from its end date, before it is archived.
+     */
+    private Duration archiveAfter = Duration.ofDays(90);
+
+    /**
+     * Delay between the end of one archive run and the start of the next.
+     */
+    private Duration sweepInterval = Duration.ofHours(1);
+
+    /**
+     * Leases moved per transaction; it bounds how long their rows stay locked.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Chunks per run. Leases left over are archived by the next run.
+     */
+    private int maxChunksPerRun = 100;
+}
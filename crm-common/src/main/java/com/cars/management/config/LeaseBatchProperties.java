@@ -0,0 +1,28 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.lease-batch")
+public class LeaseBatchProperties {
+
+    /**
+     * Most items one batch start or end request may carry; every row it touches stays locked until it commits.
+     */
+    private int maxSize = 200;
+
+    /**
+     * Mode used when a batch request does not name one.
+     */
+    private Mode defaultMode = Mode.ALL_OR_NOTHING;
+
+    public enum Mode {
+        /** Applies the batch only if every item can be applied; otherwise nothing changes. */
+        ALL_OR_NOTHING,
+        /** Applies the items that can be applied and reports the others as failed. */
+        BEST_EFFORT
+    }
+}
@@ -0,0 +1,28 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.lease-expiry")
+public class LeaseExpiryProperties {
+
+    /**
+     * Delay between the end of one sweep and the start of the next.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * Leases claimed and ended per transaction; it bounds how long their rows stay locked.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Chunks per sweep. Leases left over wait for the next sweep, so one run cannot monopolise a node.
+     */
+    private int maxChunksPerRun = 100;
+}
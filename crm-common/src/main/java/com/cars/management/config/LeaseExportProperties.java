@@ -0,0 +1,19 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.lease-export")
+public class LeaseExportProperties {
+
+    /**
+     * How long one NDJSON lease export may keep writing. Applies to the export only; other async requests keep
+     * Spring MVC's default timeout.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,28 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.lease-limits")
+public class LeaseLimitProperties {
+
+    /**
+     * Maximum number of ACTIVE leases for a customer whose tier has no entry in {@link #tiers}.
+     */
+    private int defaultLimit = 2;
+
+    /**
+     * Maximum number of ACTIVE leases keyed by customer tier name, e.g. {@code PREMIUM: 4}.
+     */
+    private Map<String, Integer> tiers = new HashMap<>();
+
+    public int limitFor(String tier) {
+        return tiers.getOrDefault(tier, defaultLimit);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cars.management.config;
+
+import com.cars.management.metrics.EntityLoadCountingIntegrator;
+import com.cars.management.metrics.MethodMetricsInterceptor;
+import com.cars.management.metrics.RepositoryMetricsPostProcessor;
+import com.cars.management.metrics.RequestQueryMetricsFilter;
+import com.cars.management.metrics.ServicePortAdvisor;
+import com.cars.management.metrics.StatementCountingSessionListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import java.util.List;
+
+/**
+ * Latency and error metrics for every service port and repository call, and SQL statement and entity
+ * load counts per HTTP request. Actuator publishes them with the rest of the metrics, including on
+ * {@code /actuator/prometheus}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    private static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static ServicePortAdvisor servicePortMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServicePortAdvisor(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingHibernateCustomizer() {
+        return properties -> {
+            properties.merge(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, StatementCountingSessionListener.class.getName(),
+                    (configured, counting) -> configured + "," + counting);
+            properties.put(INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public RequestQueryMetricsFilter requestQueryMetricsFilter(MeterRegistry meterRegistry) {
+        return new RequestQueryMetricsFilter(meterRegistry);
+    }
+}
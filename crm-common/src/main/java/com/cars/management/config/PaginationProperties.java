@@ -0,0 +1,26 @@
+package com.cars.management.config;
+
+import com.cars.management.exception.ErrorException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.pagination")
+public class PaginationProperties {
+
+    private int defaultPageSize = 50;
+
+    private int maxPageSize = 500;
+
+    public int resolvePageSize(Integer requestedPageSize) {
+        if (requestedPageSize == null) {
+            return defaultPageSize;
+        }
+        if (requestedPageSize < 1) {
+            throw ErrorException.badRequest("Page size must be greater than zero");
+        }
+        return Math.min(requestedPageSize, maxPageSize);
+    }
+}
@@ -0,0 +1,30 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.cache")
+public class ReadCacheProperties {
+
+    /**
+     * Bounds of each read cache keyed by cache name. A cache that is used but not listed here
+     * gets the defaults of {@link Spec}.
+     */
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        private long maximumSize = 10_000;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
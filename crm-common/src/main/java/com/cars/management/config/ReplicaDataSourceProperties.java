@@ -0,0 +1,33 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * JDBC URL of the read replica. When unset every connection comes from the primary pool.
+     */
+    private String url;
+
+    /**
+     * Credentials and driver of the replica; each defaults to the primary's {@code spring.datasource} value.
+     */
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    private int maximumPoolSize = 10;
+
+    /**
+     * How far the replica may trail the primary. A principal that wrote reads from the primary
+     * for this long afterwards; zero turns that off and keeps only the same-request fallback.
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+}
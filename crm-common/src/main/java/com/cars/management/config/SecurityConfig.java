@@ -1,10 +1,15 @@
 package com.cars.management.config;
 
 
+import com.cars.management.security.AccessTokenService;
+import com.cars.management.security.BearerTokenAuthenticationFilter;
+import com.cars.management.security.CachingAuthenticationProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
@@ -14,14 +19,20 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
 @Configuration
 public class SecurityConfig {
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authenticationManager,
+                                                   AccessTokenService accessTokenService) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.POST, "/api/auth/token").permitAll() // Exchange credentials for an access token
                         .requestMatchers("/api/admin/**").hasRole("ADMIN") // Restrict admin endpoints
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll() // Open Swagger UI
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // Metrics and cache statistics
                         .anyRequest().permitAll() // Open all other requests
                 )
                 .formLogin(form -> form
@@ -30,6 +41,9 @@ public class SecurityConfig {
                 )
                 .httpBasic(httpBasic -> {
                 }) // Enable HTTP Basic authentication
+                .authenticationManager(authenticationManager)
+                // A valid bearer token authenticates the request without a password check
+                .addFilterBefore(new BearerTokenAuthenticationFilter(accessTokenService), BasicAuthenticationFilter.class)
                 .csrf(AbstractHttpConfigurer::disable) // Disable CSRF for simplicity (consider enabling it in production)
                 .headers(httpSecurityHeadersConfigurer ->
                         httpSecurityHeadersConfigurer
@@ -53,10 +67,16 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Form login, HTTP Basic and the token endpoint authenticate through BCrypt once per credential; repeats
+     * within {@code crm.auth.basic-cache.expire-after-write} are matched against the remembered credential.
+     */
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
-        AuthenticationManagerBuilder authenticationManagerBuilder = http.getSharedObject(AuthenticationManagerBuilder.class);
-        authenticationManagerBuilder.userDetailsService(userDetailsService()).passwordEncoder(passwordEncoder());
-        return authenticationManagerBuilder.build();
+    public AuthenticationManager authenticationManager(AuthProperties authProperties) {
+        DaoAuthenticationProvider passwordCheck = new DaoAuthenticationProvider(passwordEncoder());
+        passwordCheck.setUserDetailsService(userDetailsService());
+        AuthProperties.BasicCache basicCache = authProperties.getBasicCache();
+        return new ProviderManager(new CachingAuthenticationProvider(passwordCheck,
+                basicCache.getMaximumSize(), basicCache.getExpireAfterWrite()));
     }
 }
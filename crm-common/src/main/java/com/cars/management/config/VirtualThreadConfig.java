@@ -0,0 +1,26 @@
+package com.cars.management.config;
+
+import com.cars.management.metrics.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Extra wiring for the virtual-thread mode ({@code spring.threads.virtual.enabled=true}, or the
+ * {@code virtual-threads} profile, which also resizes the connection pool). Tomcat, {@code @Async} and
+ * {@code @Scheduled} work then run on virtual threads, and pinning is reported as it happens.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                                                   VirtualThreadProperties virtualThreadProperties) {
+        return new VirtualThreadPinningMonitor(meterRegistry, virtualThreadProperties.getPinnedThreshold());
+    }
+}
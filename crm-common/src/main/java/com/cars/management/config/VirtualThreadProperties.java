@@ -0,0 +1,18 @@
+package com.cars.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crm.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Shortest pin of a virtual thread to its carrier that is recorded and logged. Zero records every pin.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
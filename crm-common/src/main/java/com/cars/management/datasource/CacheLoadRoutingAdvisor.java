@@ -0,0 +1,31 @@
+package com.cars.management.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.Cacheable;
+
+/**
+ * Pins {@link Cacheable} methods to the primary. Writers evict the read cache when the primary commits,
+ * so a miss filled from a replica that has not caught up would cache the old row again and serve it
+ * until the entry expires. A cache hit takes no connection, so only misses read from the primary.
+ */
+public class CacheLoadRoutingAdvisor extends DefaultPointcutAdvisor {
+
+    public CacheLoadRoutingAdvisor(ObjectProvider<DataSourceRouter> router) {
+        super(AnnotationMatchingPointcut.forMethodAnnotation(Cacheable.class), pinningInterceptor(router));
+    }
+
+    private static MethodInterceptor pinningInterceptor(ObjectProvider<DataSourceRouter> router) {
+        return invocation -> {
+            DataSourceRouter dataSourceRouter = router.getObject();
+            boolean previous = dataSourceRouter.pinPrimary();
+            try {
+                return invocation.proceed();
+            } finally {
+                dataSourceRouter.restorePrimaryPin(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.cars.management.datasource;
+
+/**
+ * Connection pool a unit of work runs against.
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,129 @@
+package com.cars.management.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Decides which pool the current unit of work reads from.
+ * <ul>
+ *     <li>After a write, the rest of the request and every request of the same principal for
+ *     {@code maxLag} go to the primary, so a client always reads its own writes.</li>
+ *     <li>While the thread is pinned, every read goes to the primary; see {@link CacheLoadRoutingAdvisor}.</li>
+ *     <li>A call on a command or query repository that starts its own transaction goes to the
+ *     primary or the replica respectively.</li>
+ *     <li>Inside a surrounding transaction the whole transaction uses one connection:
+ *     read-only transactions go to the replica, all others to the primary.</li>
+ * </ul>
+ */
+public class DataSourceRouter {
+
+    private final ThreadLocal<DataSourceRoute> repositoryRoute = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> primaryPinned = new ThreadLocal<>();
+    // Holds whether the current request has written; absent outside a request
+    private final ThreadLocal<Boolean> requestWrote = new ThreadLocal<>();
+    private final Cache<String, Boolean> recentWriters;
+
+    public DataSourceRouter(Duration maxLag) {
+        this.recentWriters = maxLag.isZero() ? null : Caffeine.newBuilder().expireAfterWrite(maxLag).build();
+    }
+
+    public DataSourceRoute currentRoute() {
+        if (wroteRecently() || Boolean.TRUE.equals(primaryPinned.get())) {
+            return DataSourceRoute.PRIMARY;
+        }
+        DataSourceRoute route = repositoryRoute.get();
+        if (route != null) {
+            return route;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceRoute.REPLICA;
+        }
+        return DataSourceRoute.PRIMARY;
+    }
+
+    /**
+     * Sets the route for a repository call that is not part of a surrounding transaction and returns
+     * the previous one, to be handed back to {@link #restoreRepositoryRoute(DataSourceRoute)}.
+     */
+    public DataSourceRoute enterRepositoryRoute(DataSourceRoute route) {
+        DataSourceRoute previous = repositoryRoute.get();
+        repositoryRoute.set(route);
+        return previous;
+    }
+
+    public void restoreRepositoryRoute(DataSourceRoute previous) {
+        if (previous == null) {
+            repositoryRoute.remove();
+        } else {
+            repositoryRoute.set(previous);
+        }
+    }
+
+    /**
+     * Sends every read of the current thread to the primary and returns whether it already was pinned,
+     * to be handed back to {@link #restorePrimaryPin(boolean)}.
+     */
+    public boolean pinPrimary() {
+        boolean previous = Boolean.TRUE.equals(primaryPinned.get());
+        primaryPinned.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public void restorePrimaryPin(boolean previous) {
+        if (!previous) {
+            primaryPinned.remove();
+        }
+    }
+
+    public void writeRecorded() {
+        if (requestWrote.get() != null) {
+            requestWrote.set(Boolean.TRUE);
+        }
+        String principal = currentPrincipal();
+        if (recentWriters == null || principal == null) {
+            return;
+        }
+        recentWriters.put(principal, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The replica can only start catching up once the write is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recentWriters.put(principal, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    public void beginRequest() {
+        requestWrote.set(Boolean.FALSE);
+    }
+
+    public void endRequest() {
+        requestWrote.remove();
+    }
+
+    private boolean wroteRecently() {
+        if (Boolean.TRUE.equals(requestWrote.get())) {
+            return true;
+        }
+        String principal = currentPrincipal();
+        return recentWriters != null && principal != null && recentWriters.getIfPresent(principal) != null;
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,21 @@
+package com.cars.management.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out primary or replica connections as decided by {@link DataSourceRouter}.
+ * Without a replica target every lookup falls back to the primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSourceRouter router;
+
+    public ReadWriteRoutingDataSource(DataSourceRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.currentRoute();
+    }
+}
@@ -0,0 +1,32 @@
+package com.cars.management.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes {@link DataSourceRouter}'s "this request has written" flag to one HTTP request.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final DataSourceRouter router;
+
+    public ReadYourWritesFilter(DataSourceRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        router.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            router.endRequest();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cars.management.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Puts every repository in {@code repository.commandrepository} on the primary and every repository
+ * in {@code repository.queryrepository} on the replica. The interceptor is added in front of the
+ * repository's transaction interceptor so the route is known before the connection is taken.
+ * A command repository call also counts as a write for read-your-writes.
+ */
+public class RepositoryRoutingPostProcessor implements BeanPostProcessor {
+
+    private static final String COMMAND_REPOSITORY_PACKAGE = ".commandrepository";
+    private static final String QUERY_REPOSITORY_PACKAGE = ".queryrepository";
+
+    private final ObjectProvider<DataSourceRouter> router;
+
+    public RepositoryRoutingPostProcessor(ObjectProvider<DataSourceRouter> router) {
+        this.router = router;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                DataSourceRoute route = routeOf(repositoryInformation.getRepositoryInterface());
+                if (route != null) {
+                    proxyFactory.addAdvice(0, routingInterceptor(route));
+                }
+            }));
+        }
+        return bean;
+    }
+
+    private MethodInterceptor routingInterceptor(DataSourceRoute route) {
+        return invocation -> {
+            DataSourceRouter dataSourceRouter = router.getObject();
+            if (route == DataSourceRoute.PRIMARY) {
+                dataSourceRouter.writeRecorded();
+            }
+            // A surrounding transaction already decided the connection for everything it runs
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                return invocation.proceed();
+            }
+            DataSourceRoute previous = dataSourceRouter.enterRepositoryRoute(route);
+            try {
+                return invocation.proceed();
+            } finally {
+                dataSourceRouter.restoreRepositoryRoute(previous);
+            }
+        };
+    }
+
+    private static DataSourceRoute routeOf(Class<?> repositoryInterface) {
+        String packageName = repositoryInterface.getPackageName();
+        if (packageName.endsWith(COMMAND_REPOSITORY_PACKAGE)) {
+            return DataSourceRoute.PRIMARY;
+        }
+        if (packageName.endsWith(QUERY_REPOSITORY_PACKAGE)) {
+            return DataSourceRoute.REPLICA;
+        }
+        return null;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+
 @Getter
 @AllArgsConstructor
 public class ErrorException extends RuntimeException {
@@ -40,6 +42,10 @@ public class ErrorException extends RuntimeException {
         return new ErrorException(message, HttpStatus.CONFLICT);
     }
 
+    public static ErrorException serviceUnavailable(String message, Duration retryAfter) {
+        return new ServiceUnavailableException(message, retryAfter);
+    }
+
 
 
 }
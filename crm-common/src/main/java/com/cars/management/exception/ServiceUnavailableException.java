@@ -0,0 +1,20 @@
+package com.cars.management.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * A 503 whose response tells the client when to try again in a {@code Retry-After} header.
+ */
+@Getter
+public class ServiceUnavailableException extends ErrorException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cars.management.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers the {@code prod-logging} configuration in {@code logback-spring.xml} matches on.
+ */
+public final class LogMarkers {
+
+    /**
+     * High-volume success lines that {@link RateSamplingTurboFilter} may drop once a logger exceeds its budget.
+     * Only plain logging calls carry it to the filter; audit events must not use it.
+     */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogMarkers() {
+    }
+}
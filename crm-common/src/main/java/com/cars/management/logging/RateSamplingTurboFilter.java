@@ -0,0 +1,128 @@
+package com.cars.management.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets at most {@code maxPerSecond} events at {@code level} or below through per logger and second, for loggers
+ * under one of the configured prefixes; the rest are denied before a message is formatted or an event is built.
+ * Events above the level, and loggers outside the prefixes, are not sampled. When a {@code marker} is set, only
+ * events carrying it are sampled, so high-volume lines opt in with {@link LogMarkers#SAMPLED} and everything else,
+ * audit events included, is always written.
+ * <p>
+ * Logback consults turbo filters once per plain logging call, and for the fluent API ({@code log.atInfo()...})
+ * only on the level check that returns the event builder, before any marker is added. Fluent events therefore
+ * never match a marker; without one each event takes one slot either way. An explicit {@code isInfoEnabled()}
+ * guard in front of a plain call takes a second one. Configured in {@code logback-spring.xml}:
+ * <pre>
+ * &lt;turboFilter class="com.cars.management.logging.RateSamplingTurboFilter"&gt;
+ *     &lt;loggerPrefix&gt;com.cars.management.controller&lt;/loggerPrefix&gt;
+ *     &lt;marker&gt;SAMPLED&lt;/marker&gt;
+ *     &lt;maxPerSecond&gt;20&lt;/maxPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class RateSamplingTurboFilter extends TurboFilter {
+
+    private static final Window NOT_SAMPLED = new Window();
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private Marker marker;
+    private Level level = Level.INFO;
+    private int maxPerSecond = 20;
+
+    public void addLoggerPrefix(String loggerPrefix) {
+        loggerPrefixes.add(loggerPrefix);
+    }
+
+    public void setMarker(String marker) {
+        this.marker = MarkerFactory.getMarker(marker);
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * Events denied since the filter started, across all loggers.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void start() {
+        if (loggerPrefixes.isEmpty()) {
+            addError("No loggerPrefix set for the turbo filter named [" + getName() + "]");
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Turbo filters run before the level check, so disabled debug lines must not use up the budget
+        if (!isStarted() || !this.level.isGreaterOrEqual(level) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (this.marker != null && (marker == null || !marker.contains(this.marker))) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), this::windowFor);
+        if (window == NOT_SAMPLED || window.tryAcquire(System.currentTimeMillis() / 1000, maxPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.increment();
+        return FilterReply.DENY;
+    }
+
+    private Window windowFor(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return new Window();
+            }
+        }
+        return NOT_SAMPLED;
+    }
+
+    /**
+     * The current second in the high 32 bits and the events let through in it in the low 32, so a slot is
+     * taken with one compare-and-set and without a lock a virtual thread could pin on.
+     */
+    private static final class Window {
+
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(long second, int limit) {
+            while (true) {
+                long current = state.get();
+                if (current >>> 32 != second) {
+                    if (state.compareAndSet(current, second << 32 | 1)) {
+                        return true;
+                    }
+                } else if ((int) current >= limit) {
+                    return false;
+                } else if (state.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
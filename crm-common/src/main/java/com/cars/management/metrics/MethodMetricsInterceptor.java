@@ -0,0 +1,69 @@
+package com.cars.management.metrics;
+
+import com.cars.management.exception.ErrorException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Times every call into a service port or repository as {@code crm.method.calls{layer, component, method, outcome}}
+ * and counts failures as {@code crm.method.errors{layer, component, method, status}}, where {@code status} is the
+ * HTTP status of an {@link ErrorException} or the simple name of any other exception.
+ */
+public class MethodMetricsInterceptor implements MethodInterceptor {
+
+    public static final String CALLS = "crm.method.calls";
+    public static final String ERRORS = "crm.method.errors";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final String layer;
+    private final Function<MethodInvocation, Class<?>> component;
+    private final Map<Method, Tags> tags = new ConcurrentHashMap<>();
+
+    /**
+     * @param component the interface a call is reported under, usually the port or repository interface
+     */
+    public MethodMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String layer,
+                                    Function<MethodInvocation, Class<?>> component) {
+        this.meterRegistry = meterRegistry;
+        this.layer = layer;
+        this.component = component;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return invocation.proceed();
+        }
+        Tags methodTags = tags.computeIfAbsent(invocation.getMethod(), method -> Tags.of(
+                "layer", layer,
+                "component", component.apply(invocation).getSimpleName(),
+                "method", method.getName()));
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Object result = invocation.proceed();
+            sample.stop(registry.timer(CALLS, methodTags.and("outcome", "success")));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(registry.timer(CALLS, methodTags.and("outcome", "error")));
+            registry.counter(ERRORS, methodTags.and("status", statusOf(e))).increment();
+            throw e;
+        }
+    }
+
+    private static String statusOf(Throwable e) {
+        if (e instanceof ErrorException errorException && errorException.getStatus() != null) {
+            return String.valueOf(errorException.getStatus().value());
+        }
+        return e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,33 @@
+package com.cars.management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds a {@link MethodMetricsInterceptor} to every Spring Data repository, reporting calls under the
+ * repository interface. Like the routing interceptor it sits in front of the repository's transaction
+ * interceptor, so the time includes acquiring the connection and committing.
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    static final String LAYER = "repository";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                Class<?> repositoryInterface = repositoryInformation.getRepositoryInterface();
+                proxyFactory.addAdvice(0, new MethodMetricsInterceptor(meterRegistry, LAYER, invocation -> repositoryInterface));
+            }));
+        }
+        return bean;
+    }
+}
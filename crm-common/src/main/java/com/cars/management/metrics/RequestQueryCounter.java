@@ -0,0 +1,52 @@
+package com.cars.management.metrics;
+
+/**
+ * Counts the SQL statements executed and the entities Hibernate loads on the current thread between
+ * {@link #start()} and {@link #stop()}. Hibernate instantiates the listeners that feed it, so the counter
+ * is reached through a thread local rather than injected; outside a counted scope the updates are dropped.
+ */
+public final class RequestQueryCounter {
+
+    private static final ThreadLocal<RequestQueryCounter> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entitiesLoaded;
+
+    private RequestQueryCounter() {
+    }
+
+    public static RequestQueryCounter start() {
+        RequestQueryCounter counter = new RequestQueryCounter();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted() {
+        RequestQueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestQueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.entitiesLoaded++;
+        }
+    }
+
+    /**
+     * JDBC executions, counting a batch once however many rows it carries.
+     */
+    public long statements() {
+        return statements;
+    }
+
+    public long entitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cars.management.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements and loaded entities each HTTP request cost, as
+ * {@code crm.request.statements} and {@code crm.request.entities} tagged with the request method and the
+ * matched route. A route whose statement count grows with the size of its result is an N+1 query.
+ * Work handed to another thread, such as the asynchronous exports, is not counted.
+ */
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS = "crm.request.statements";
+    public static final String ENTITIES = "crm.request.entities";
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryCounter counter = RequestQueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryCounter.stop();
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", route != null ? route.toString() : UNKNOWN_ROUTE);
+            DistributionSummary.builder(STATEMENTS).baseUnit("statements").tags(tags).register(meterRegistry)
+                    .record(counter.statements());
+            DistributionSummary.builder(ENTITIES).baseUnit("entities").tags(tags).register(meterRegistry)
+                    .record(counter.entitiesLoaded());
+        }
+    }
+}
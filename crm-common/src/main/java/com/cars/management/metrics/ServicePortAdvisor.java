@@ -0,0 +1,23 @@
+package com.cars.management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+
+/**
+ * Applies a {@link MethodMetricsInterceptor} to the service port implementations, reporting calls under
+ * the port interface. It runs outside the transaction and cache advice, so a call's time includes the
+ * commit and a cache hit shows up as a fast call.
+ */
+public class ServicePortAdvisor extends DefaultPointcutAdvisor {
+
+    static final String LAYER = "service";
+
+    public ServicePortAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        super(new ServicePortPointcut(), new MethodMetricsInterceptor(meterRegistry, LAYER,
+                invocation -> ServicePortPointcut.portOf(AopUtils.getTargetClass(invocation.getThis()))));
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,36 @@
+package com.cars.management.metrics;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Matches the methods a bean implements from an interface in a {@code serviveports} package.
+ */
+class ServicePortPointcut extends StaticMethodMatcherPointcut {
+
+    private static final String PORTS_PACKAGE = ".serviveports";
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return targetClass -> portOf(targetClass) != null;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        Class<?> port = portOf(targetClass);
+        return port != null && ReflectionUtils.findMethod(port, method.getName(), method.getParameterTypes()) != null;
+    }
+
+    static Class<?> portOf(Class<?> targetClass) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (candidate.getPackageName().contains(PORTS_PACKAGE)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cars.management.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered through {@code hibernate.session.events.auto}, so Hibernate creates one per session.
+ */
+public class StatementCountingSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestQueryCounter.statementExecuted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        RequestQueryCounter.statementExecuted();
+    }
+}
@@ -0,0 +1,89 @@
+package com.cars.management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JDK's {@code jdk.VirtualThreadPinned} events, raised when a virtual thread blocks while it cannot
+ * leave its carrier thread, typically inside a {@code synchronized} block or a native frame. Each pin longer than
+ * the threshold is timed as {@code crm.virtual-threads.pinned{frame}}, where {@code frame} is the first frame
+ * outside the JDK, and the first pin at each frame is logged with its stack.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    public static final String PINNED = "crm.virtual-threads.pinned";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+    private static final String UNKNOWN_FRAME = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        recordingStream = stream;
+        log.info("Watching for virtual threads pinned longer than {} ms.", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = recordingStream;
+        recordingStream = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String frame = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::describe)
+                .filter(description -> !description.startsWith("java.") && !description.startsWith("jdk."))
+                .findFirst()
+                .orElse(UNKNOWN_FRAME);
+        Timer.builder(PINNED).tag("frame", frame).register(meterRegistry).record(event.getDuration());
+        if (reportedFrames.add(frame)) {
+            log.warn("Virtual thread pinned to its carrier for {} ms at {}:\n\t{}", event.getDuration().toMillis(), frame,
+                    frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::describeWithLine)
+                            .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String describeWithLine(RecordedFrame frame) {
+        return describe(frame) + ":" + frame.getLineNumber();
+    }
+}
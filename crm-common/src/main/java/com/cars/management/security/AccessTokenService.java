@@ -0,0 +1,109 @@
+package com.cars.management.security;
+
+import com.cars.management.config.AuthProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Issues and verifies stateless access tokens: compact JWTs signed with HMAC-SHA256 ({@code HS256}) carrying the
+ * user name, the granted authorities and an expiry. Verifying one is a hash and a small JSON read, so requests that
+ * present a token never reach the password encoder.
+ */
+@Slf4j
+@Component
+public class AccessTokenService {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = BASE64_URL.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final Hmac hmac;
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    @Autowired
+    public AccessTokenService(AuthProperties authProperties) {
+        this(authProperties, Clock.systemUTC());
+    }
+
+    AccessTokenService(AuthProperties authProperties, Clock clock) {
+        String secret = authProperties.getToken().getSecret();
+        if (StringUtils.hasText(secret)) {
+            hmac = new Hmac(Base64.getDecoder().decode(secret));
+        } else {
+            log.warn("crm.auth.token.secret is not set; access tokens are signed with a random key and are only valid on this node until it restarts");
+            hmac = Hmac.withRandomKey();
+        }
+        this.timeToLive = authProperties.getToken().getTimeToLive();
+        this.clock = clock;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public String issue(Authentication authentication) {
+        long issuedAt = clock.instant().getEpochSecond();
+        List<String> roles = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        Claims claims = new Claims(authentication.getName(), roles, issuedAt, issuedAt + timeToLive.toSeconds());
+        try {
+            String signingInput = HEADER + "." + BASE64_URL.encodeToString(JSON.writeValueAsBytes(claims));
+            return signingInput + "." + BASE64_URL.encodeToString(hmac.sign(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write access token claims", e);
+        }
+    }
+
+    /**
+     * @return an authenticated token for the user and authorities the access token was issued for
+     * @throws BadCredentialsException if the token is malformed or its signature does not match
+     * @throws CredentialsExpiredException if the token has expired
+     */
+    public Authentication verify(String token) {
+        int payloadStart = token.indexOf('.');
+        int signatureStart = token.lastIndexOf('.');
+        if (payloadStart < 0 || signatureStart == payloadStart || !token.startsWith(HEADER + ".")) {
+            throw new BadCredentialsException("Malformed access token");
+        }
+        Claims claims;
+        try {
+            byte[] signature = BASE64_URL_DECODER.decode(token.substring(signatureStart + 1));
+            byte[] expected = hmac.sign(token.substring(0, signatureStart).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, signature)) {
+                throw new BadCredentialsException("Invalid access token signature");
+            }
+            claims = JSON.readValue(BASE64_URL_DECODER.decode(token.substring(payloadStart + 1, signatureStart)), Claims.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadCredentialsException("Malformed access token", e);
+        }
+        if (clock.instant().getEpochSecond() >= claims.exp()) {
+            throw new CredentialsExpiredException("Access token has expired");
+        }
+        List<GrantedAuthority> authorities = claims.roles().stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return UsernamePasswordAuthenticationToken.authenticated(claims.sub(), null, authorities);
+    }
+
+    private record Claims(String sub, List<String> roles, long iat, long exp) {
+    }
+}
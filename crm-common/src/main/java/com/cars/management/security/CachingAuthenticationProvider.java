@@ -0,0 +1,74 @@
+package com.cars.management.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Remembers user name and password pairs that {@code delegate} (BCrypt) accepted, so an HTTP Basic client
+ * sending the same credentials again is authenticated by comparing an HMAC instead of running BCrypt.
+ * <p>
+ * The cache holds an HMAC of the password under a key generated at startup, never the password, and is bounded
+ * by size and by time since the credential was verified. A wrong password never matches the remembered HMAC
+ * and always goes to the delegate.
+ * <p>
+ * Only what belongs to the user is kept: the fingerprint, the principal and the authorities. A hit builds a new
+ * token carrying the details of the request being authenticated, never those of the request that was verified.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Verified> verified;
+    private final Hmac fingerprints = Hmac.withRandomKey();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken)
+                || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        byte[] fingerprint = fingerprints.sign(password.getBytes(StandardCharsets.UTF_8));
+        Verified remembered = verified.getIfPresent(username);
+        if (remembered != null && MessageDigest.isEqual(remembered.fingerprint(), fingerprint)) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    remembered.principal(), null, remembered.authorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            verified.put(username, new Verified(fingerprint, result.getPrincipal(), List.copyOf(result.getAuthorities())));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    long size() {
+        return verified.estimatedSize();
+    }
+
+    private record Verified(byte[] fingerprint, Object principal, List<GrantedAuthority> authorities) {
+    }
+}
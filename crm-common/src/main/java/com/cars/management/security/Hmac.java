@@ -0,0 +1,46 @@
+package com.cars.management.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * HMAC-SHA256 under one key. {@link Mac} is not thread safe, so each call clones an initialised prototype,
+ * which is cheaper than {@code Mac.getInstance} and does not tie an instance to a (possibly virtual) thread.
+ */
+final class Hmac {
+
+    static final int MIN_KEY_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Mac prototype;
+
+    Hmac(byte[] key) {
+        if (key.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("HMAC key must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    static Hmac withRandomKey() {
+        byte[] key = new byte[MIN_KEY_BYTES];
+        new SecureRandom().nextBytes(key);
+        return new Hmac(key);
+    }
+
+    byte[] sign(byte[] data) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(data);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support clone", e);
+        }
+    }
+}
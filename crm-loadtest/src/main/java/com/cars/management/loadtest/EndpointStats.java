@@ -0,0 +1,81 @@
+package com.cars.management.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one operation. Latency runs from the arrival's intended start, not from when the
+ * request was actually sent, so time spent waiting behind a stalled generator or a full connection pool counts.
+ */
+final class EndpointStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS); // microseconds, auto-resizing
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    void recordResponse(long intendedStartNanos, int statusCode) {
+        recordLatency(intendedStartNanos);
+        switch (statusCode / 100) {
+            case 2 -> successes.increment();
+            case 4 -> clientErrors.increment();
+            default -> serverErrors.increment();
+        }
+    }
+
+    /**
+     * A connection error or timeout; still recorded, or the worst latencies would go missing.
+     */
+    void recordFailure(long intendedStartNanos) {
+        recordLatency(intendedStartNanos);
+        failures.increment();
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long successes() {
+        return successes.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    long skipped() {
+        return skipped.sum();
+    }
+
+    private void recordLatency(long intendedStartNanos) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos));
+    }
+}
@@ -0,0 +1,56 @@
+package com.cars.management.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Prints one row per operation with latency percentiles in milliseconds, and writes each operation's full
+ * percentile distribution as an {@code .hgrm} file that HdrHistogram's plotter reads.
+ */
+final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+    private static final String ROW = "%-16s %-45s %9s %8s %8s %7s %7s %7s %8s %8s %9s %9s %9s %9s %9s%n";
+
+    private LoadReport() {
+    }
+
+    static void print(Map<Operation, EndpointStats> stats, Duration duration, PrintStream out) {
+        out.printf(ROW, "operation", "endpoint", "requests", "req/s", "2xx", "4xx", "5xx", "failed", "rejected",
+                "skipped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            Histogram latencies = endpoint.latencies();
+            long requests = latencies.getTotalCount();
+            total += requests;
+            out.printf(ROW, entry.getKey().optionName(), entry.getKey().endpoint(), requests,
+                    String.format("%.1f", requests / (double) duration.toSeconds()),
+                    endpoint.successes(), endpoint.clientErrors(), endpoint.serverErrors(), endpoint.failures(),
+                    endpoint.rejected(), endpoint.skipped(),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+        }
+        out.printf("%d requests completed in %d s (%.1f req/s).%n", total, duration.toSeconds(), total / (double) duration.toSeconds());
+    }
+
+    static void writeHistograms(Map<Operation, EndpointStats> stats, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().optionName() + ".hgrm")))) {
+                entry.getValue().latencies().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / MICROS_PER_MILLI);
+    }
+}
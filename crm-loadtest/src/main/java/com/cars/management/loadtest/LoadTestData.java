@@ -0,0 +1,67 @@
+package com.cars.management.loadtest;
+
+import com.cars.management.dataset.FleetDataset;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.net.URI;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ids the operations draw from. Idle cars and active leases move between the two queues as the load test
+ * starts and ends leases, so lease operations mostly target rows in the right state.
+ */
+@Getter
+final class LoadTestData {
+
+    private final URI baseUri;
+    private final String adminAuthorization;
+    private final ObjectMapper objectMapper;
+    private final FleetDataset fleet;
+    private final List<String> models;
+    private final Queue<Integer> idleCars = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> activeLeases = new ConcurrentLinkedQueue<>();
+
+    LoadTestData(URI baseUri, String adminCredentials, ObjectMapper objectMapper, FleetDataset fleet,
+                 List<String> models, List<Integer> idleCars, List<Integer> activeLeases) {
+        this.baseUri = baseUri;
+        this.adminAuthorization = "Basic " + Base64.getEncoder().encodeToString(adminCredentials.getBytes());
+        this.objectMapper = objectMapper;
+        this.fleet = fleet;
+        this.models = models;
+        this.idleCars.addAll(idleCars);
+        this.activeLeases.addAll(activeLeases);
+    }
+
+    URI uri(String pathAndQuery) {
+        return baseUri.resolve(pathAndQuery);
+    }
+
+    int anyCar(RandomGenerator random) {
+        return any(fleet.cars(), random);
+    }
+
+    int anyCustomer(RandomGenerator random) {
+        return any(fleet.customers(), random);
+    }
+
+    int anyOwner(RandomGenerator random) {
+        return any(fleet.owners(), random);
+    }
+
+    int anyLease(RandomGenerator random) {
+        return any(fleet.leases(), random);
+    }
+
+    String anyModel(RandomGenerator random) {
+        return models.get(random.nextInt(models.size()));
+    }
+
+    private static int any(FleetDataset.IdRange range, RandomGenerator random) {
+        return range.get(random.nextInt(range.size()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.cars.management.loadtest;
+
+import com.cars.management.CarsManagementMain;
+import com.cars.management.dataset.FleetDataset;
+import com.cars.management.dataset.FleetDatasetGenerator;
+import com.cars.management.dataset.FleetDatasetSpec;
+import com.cars.management.service.availability.AvailableCarIndexReconciler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Boots the application on a random port against a private in-memory H2 database, fills it with a synthetic
+ * fleet, then drives the configured operation mix at a fixed arrival rate (see {@link OpenLoopDriver}) through a
+ * warmup and a measured run, and reports latency percentiles per endpoint. Options are listed in {@link LoadTestOptions}.
+ */
+public final class LoadTestMain {
+
+    private static final int LEASES_PER_CAR = 3;
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (ConfigurableApplicationContext context = startApplication(options)) {
+            LoadTestData data = prepareData(context, options);
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            OpenLoopDriver driver = new OpenLoopDriver(httpClient, data, options);
+
+            System.out.printf("Warming up for %d s at %.0f req/s (%s arrivals, %s threads)...%n",
+                    options.getWarmup().toSeconds(), options.getRate(), options.getArrivals(), options.getThreads());
+            driver.run(options.getWarmup(), options.getSeed());
+            System.out.printf("Measuring for %d s...%n", options.getDuration().toSeconds());
+            Map<Operation, EndpointStats> stats = driver.run(options.getDuration(), options.getSeed() + 1);
+
+            LoadReport.print(stats, options.getDuration(), System.out);
+            LoadReport.writeHistograms(stats, options.getOutputDirectory());
+            System.out.println("Percentile distributions written to " + options.getOutputDirectory().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options) {
+        // Arguments rather than default properties, so they take precedence over application.yml
+        return new SpringApplicationBuilder(CarsManagementMain.class).run(
+                "--spring.profiles.active=" + (options.getThreads() == LoadTestOptions.Threads.VIRTUAL ? "virtual-threads" : "local"),
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.cars=WARN",
+                "--logging.file.name=target/crm-loadtest.log",
+                "--logging.pattern.console=");
+    }
+
+    private static LoadTestData prepareData(ConfigurableApplicationContext context, LoadTestOptions options) {
+        int customers = options.getCustomers();
+        FleetDatasetSpec spec = FleetDatasetSpec.builder()
+                .seed(options.getSeed())
+                .owners(Math.max(1, customers / 10))
+                .cars(customers)
+                .customers(customers)
+                .leases(customers * LEASES_PER_CAR)
+                .build();
+        FleetDataset fleet = new FleetDatasetGenerator(context.getBean(DataSource.class)).generate(spec);
+        // The rows bypass the command services, so the availability index is rebuilt from the database
+        context.getBean(AvailableCarIndexReconciler.class).reconcile();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Integer> idleCars = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT car_id FROM cars WHERE status = 'IDLE' AND car_id >= ?", Integer.class, fleet.cars().first()));
+        Collections.shuffle(idleCars, new Random(options.getSeed()));
+        List<Integer> activeLeases = jdbcTemplate.queryForList(
+                "SELECT lease_id FROM leases WHERE status = 'ACTIVE' AND lease_id >= ?", Integer.class, fleet.leases().first());
+        List<String> models = jdbcTemplate.queryForList("SELECT DISTINCT model FROM cars ORDER BY model", String.class);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        return new LoadTestData(URI.create("http://localhost:" + port), options.getAdminCredentials(),
+                context.getBean(ObjectMapper.class), fleet, models, idleCars, activeLeases);
+    }
+}
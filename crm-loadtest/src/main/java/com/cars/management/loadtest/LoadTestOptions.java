@@ -0,0 +1,144 @@
+package com.cars.management.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code --name=value} arguments. Durations use ISO-8601 or plain seconds.
+ */
+@Getter
+@Builder
+final class LoadTestOptions {
+
+    /**
+     * Target arrival rate in requests per second, across all operations.
+     */
+    @Builder.Default
+    private final double rate = 200;
+
+    @Builder.Default
+    private final Duration warmup = Duration.ofSeconds(10);
+
+    @Builder.Default
+    private final Duration duration = Duration.ofSeconds(60);
+
+    @Builder.Default
+    private final Arrivals arrivals = Arrivals.POISSON;
+
+    /**
+     * Relative weight of each operation, e.g. {@code --mix=browseCars:40,startLease:10,endLease:10}.
+     */
+    @Builder.Default
+    private final Map<Operation, Double> mix = defaultMix();
+
+    /**
+     * Customers in the generated dataset, with one owner per ten customers, as many cars and three leases per car.
+     */
+    @Builder.Default
+    private final int customers = 10_000;
+
+    @Builder.Default
+    private final long seed = 42L;
+
+    /**
+     * Requests allowed in flight before new arrivals are counted as rejected instead of sent.
+     */
+    @Builder.Default
+    private final int maxInFlight = 10_000;
+
+    @Builder.Default
+    private final Duration requestTimeout = Duration.ofSeconds(30);
+
+    @Builder.Default
+    private final String adminCredentials = "CarsAdmin:admin";
+
+    /**
+     * Whether the application under test serves requests on platform threads or, through the
+     * {@code virtual-threads} profile, on virtual threads.
+     */
+    @Builder.Default
+    private final Threads threads = Threads.PLATFORM;
+
+    /**
+     * Directory receiving one HdrHistogram percentile distribution ({@code .hgrm}) per operation.
+     */
+    @Builder.Default
+    private final Path outputDirectory = Path.of("target", "loadtest");
+
+    enum Arrivals {
+        /**
+         * Exponential gaps between arrivals, as from many independent clients.
+         */
+        POISSON,
+        /**
+         * Evenly spaced arrivals.
+         */
+        UNIFORM
+    }
+
+    enum Threads {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptionsBuilder options = builder();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "rate" -> options.rate(Double.parseDouble(value));
+                case "warmup" -> options.warmup(parseDuration(value));
+                case "duration" -> options.duration(parseDuration(value));
+                case "arrivals" -> options.arrivals(Arrivals.valueOf(value.toUpperCase()));
+                case "mix" -> options.mix(parseMix(value));
+                case "customers" -> options.customers(Integer.parseInt(value));
+                case "seed" -> options.seed(Long.parseLong(value));
+                case "max-in-flight" -> options.maxInFlight(Integer.parseInt(value));
+                case "request-timeout" -> options.requestTimeout(parseDuration(value));
+                case "admin-credentials" -> options.adminCredentials(value);
+                case "threads" -> options.threads(Threads.valueOf(value.toUpperCase()));
+                case "output" -> options.outputDirectory(Path.of(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options.build();
+    }
+
+    private static Duration parseDuration(String value) {
+        return value.startsWith("P") || value.startsWith("p") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Operation, Double> parseMix(String value) {
+        Map<Operation, Double> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got: " + entry);
+            }
+            mix.put(Operation.byName(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<Operation, Double> defaultMix() {
+        Map<Operation, Double> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.BROWSE_CARS, 30.0);
+        mix.put(Operation.CAR_DETAILS, 15.0);
+        mix.put(Operation.CUSTOMER_HISTORY, 15.0);
+        mix.put(Operation.OWNER_HISTORY, 8.0);
+        mix.put(Operation.LEASE_DETAILS, 10.0);
+        mix.put(Operation.START_LEASE, 10.0);
+        mix.put(Operation.END_LEASE, 10.0);
+        mix.put(Operation.ADMIN_CUSTOMER, 2.0);
+        return mix;
+    }
+}
@@ -0,0 +1,142 @@
+package com.cars.management.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sends requests on a schedule fixed in advance, whatever the responses do. Arrival {@code n} is due at
+ * {@code start + gap_1 + ... + gap_n}; if the loop falls behind it sends the overdue arrivals at once and their
+ * latency still counts from the due time, so a slow server cannot slow the load down and hide its own stalls.
+ * Requests go out asynchronously, so one slow response never holds back the next arrival.
+ */
+@Slf4j
+final class OpenLoopDriver {
+
+    private final HttpClient httpClient;
+    private final LoadTestData data;
+    private final LoadTestOptions options;
+    private final List<Operation> operations;
+    private final double[] cumulativeWeights;
+    private final Semaphore inFlight;
+
+    OpenLoopDriver(HttpClient httpClient, LoadTestData data, LoadTestOptions options) {
+        this.httpClient = httpClient;
+        this.data = data;
+        this.options = options;
+        this.operations = options.getMix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        this.cumulativeWeights = new double[operations.size()];
+        double total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += options.getMix().get(operations.get(i));
+            cumulativeWeights[i] = total;
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight");
+        }
+        this.inFlight = new Semaphore(options.getMaxInFlight());
+    }
+
+    /**
+     * Drives load for {@code duration} and waits for the requests still in flight.
+     *
+     * @return statistics per operation for this run only
+     */
+    Map<Operation, EndpointStats> run(Duration duration, long seed) throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        operations.forEach(operation -> stats.put(operation, new EndpointStats()));
+        RandomGenerator random = new SplittableRandom(seed);
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long due = start;
+        long maxLagNanos = 0;
+        while (due < end) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                maxLagNanos = Math.max(maxLagNanos, -wait);
+            }
+            Operation operation = nextOperation(random);
+            dispatch(operation, due, stats.get(operation), random);
+            due += nextGapNanos(meanGapNanos, random);
+        }
+        if (maxLagNanos > TimeUnit.MILLISECONDS.toNanos(10)) {
+            log.warn("The generator fell up to {} ms behind schedule; those arrivals were sent late and timed from their due time.",
+                    TimeUnit.NANOSECONDS.toMillis(maxLagNanos));
+        }
+        awaitInFlight();
+        return stats;
+    }
+
+    private void dispatch(Operation operation, long dueNanos, EndpointStats stats, RandomGenerator random) {
+        if (!inFlight.tryAcquire()) {
+            stats.recordRejected();
+            return;
+        }
+        Operation.Call call = operation.prepare(data, random);
+        if (call == null) {
+            inFlight.release();
+            stats.recordSkipped();
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(call.request(), (name, value) -> true)
+                .timeout(options.getRequestTimeout())
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    try {
+                        if (error != null) {
+                            stats.recordFailure(dueNanos);
+                        } else {
+                            stats.recordResponse(dueNanos, response.statusCode());
+                        }
+                        call.completion().complete(response);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private Operation nextOperation(RandomGenerator random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private long nextGapNanos(double meanGapNanos, RandomGenerator random) {
+        if (options.getArrivals() == LoadTestOptions.Arrivals.UNIFORM) {
+            return Math.round(meanGapNanos);
+        }
+        return Math.round(-Math.log(1 - random.nextDouble()) * meanGapNanos);
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        int permits = options.getMaxInFlight();
+        if (!inFlight.tryAcquire(permits, options.getRequestTimeout().toMillis() + 1_000, TimeUnit.MILLISECONDS)) {
+            log.warn("{} requests were still in flight after the request timeout.", permits - inFlight.availablePermits());
+            return;
+        }
+        inFlight.release(permits);
+    }
+}
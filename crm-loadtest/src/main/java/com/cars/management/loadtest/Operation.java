@@ -0,0 +1,167 @@
+package com.cars.management.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * One kind of request in the scenario mix. Each arrival calls {@link #prepare} for a request and an optional
+ * completion that updates the shared {@link LoadTestData} once the response is in.
+ */
+enum Operation {
+
+    BROWSE_CARS("browseCars", "GET /api/customer/viewCarsForLease") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            // One browse in four lists every idle car, the others filter by model
+            String filter = random.nextInt(4) == 0 ? "" : "?model=" + URLEncoder.encode(data.anyModel(random), StandardCharsets.UTF_8);
+            return Call.of(get(data, "/api/customer/viewCarsForLease" + filter));
+        }
+    },
+    CAR_DETAILS("carDetails", "GET /api/car/getCarDetailsByCarId") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            return Call.of(get(data, "/api/car/getCarDetailsByCarId?carId=" + data.anyCar(random)));
+        }
+    },
+    CUSTOMER_HISTORY("customerHistory", "GET /api/customer/getLeaseHistoryByCustomerId") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            return Call.of(get(data, "/api/customer/getLeaseHistoryByCustomerId?customerId=" + data.anyCustomer(random)));
+        }
+    },
+    OWNER_HISTORY("ownerHistory", "GET /api/owner/getLeaseHistoryByOwnerId") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            return Call.of(get(data, "/api/owner/getLeaseHistoryByOwnerId?ownerId=" + data.anyOwner(random)));
+        }
+    },
+    LEASE_DETAILS("leaseDetails", "GET /api/lease/getLeaseDetailsById") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            return Call.of(get(data, "/api/lease/getLeaseDetailsById?leaseId=" + data.anyLease(random)));
+        }
+    },
+    START_LEASE("startLease", "POST /api/customer/startLease") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            Integer carId = data.getIdleCars().poll();
+            if (carId == null) {
+                return null;
+            }
+            HttpRequest request = post(data, "/api/customer/startLease?customerId=" + data.anyCustomer(random) + "&carId=" + carId);
+            return new Call(request, response -> {
+                Integer leaseId = isSuccess(response) ? startedLeaseId(data, response.body(), carId) : null;
+                if (leaseId != null) {
+                    data.getActiveLeases().add(leaseId);
+                } else {
+                    data.getIdleCars().add(carId); // typically the customer is at their lease limit
+                }
+            });
+        }
+    },
+    END_LEASE("endLease", "POST /api/customer/endLease") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            Integer leaseId = data.getActiveLeases().poll();
+            if (leaseId == null) {
+                return null;
+            }
+            return new Call(post(data, "/api/customer/endLease?leaseId=" + leaseId), response -> {
+                JsonNode carId = isSuccess(response) ? readTree(data, response.body()).path("carDto").path("id") : null;
+                if (carId != null && carId.isInt()) {
+                    data.getIdleCars().add(carId.intValue());
+                }
+            });
+        }
+    },
+    ADMIN_CUSTOMER("adminCustomer", "GET /api/admin/getCustomerById") {
+        @Override
+        Call prepare(LoadTestData data, RandomGenerator random) {
+            HttpRequest request = HttpRequest.newBuilder(data.uri("/api/admin/getCustomerById?customerId=" + data.anyCustomer(random)))
+                    .header("Authorization", data.getAdminAuthorization())
+                    .GET()
+                    .build();
+            return Call.of(request);
+        }
+    };
+
+    private final String optionName;
+    private final String endpoint;
+
+    Operation(String optionName, String endpoint) {
+        this.optionName = optionName;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Builds the next request, or returns {@code null} when there is nothing to act on, such as no active lease to end.
+     */
+    abstract Call prepare(LoadTestData data, RandomGenerator random);
+
+    String optionName() {
+        return optionName;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation byName(String optionName) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.optionName.equals(optionName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + optionName));
+    }
+
+    static boolean isSuccess(HttpResponse<String> response) {
+        return response != null && response.statusCode() / 100 == 2;
+    }
+
+    private static HttpRequest get(LoadTestData data, String pathAndQuery) {
+        return HttpRequest.newBuilder(data.uri(pathAndQuery)).GET().build();
+    }
+
+    private static HttpRequest post(LoadTestData data, String pathAndQuery) {
+        return HttpRequest.newBuilder(data.uri(pathAndQuery)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private static Integer startedLeaseId(LoadTestData data, String body, int carId) {
+        for (JsonNode lease : readTree(data, body).path("leaseDtoList")) {
+            if (lease.path("carDto").path("id").asInt() == carId && "ACTIVE".equals(lease.path("status").asText())) {
+                return lease.path("lease_id").asInt();
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode readTree(LoadTestData data, String body) {
+        try {
+            return data.getObjectMapper().readTree(body);
+        } catch (IOException e) {
+            return data.getObjectMapper().missingNode();
+        }
+    }
+
+    /**
+     * A request and what to do with its response; the response is {@code null} when the request failed or timed out.
+     */
+    record Call(HttpRequest request, Completion completion) {
+
+        static Call of(HttpRequest request) {
+            return new Call(request, response -> {
+            });
+        }
+    }
+
+    @FunctionalInterface
+    interface Completion {
+        void complete(HttpResponse<String> response);
+    }
+}
@@ -0,0 +1,21 @@
+package com.cars.management.dataset;
+
+/**
+ * Ids of the rows written by one {@link FleetDatasetGenerator} run. Each table's ids are contiguous.
+ */
+public record FleetDataset(IdRange owners, IdRange cars, IdRange customers, IdRange leases, int activeLeases) {
+
+    /**
+     * The {@code size} ids starting at {@code first}.
+     */
+    public record IdRange(int first, int size) {
+
+        public int get(int index) {
+            return first + index;
+        }
+
+        public int last() {
+            return first + size - 1;
+        }
+    }
+}
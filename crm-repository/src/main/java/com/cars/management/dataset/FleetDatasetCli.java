@@ -0,0 +1,83 @@
+package com.cars.management.dataset;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Command line entry point of {@link FleetDatasetGenerator}. Options are {@code --name=value}:
+ * <pre>
+ *   --url=jdbc:h2:file:./target/fleet   JDBC URL (required); --username and --password default to sa / empty
+ *   --owners --cars --customers --leases --seed --batch-size --writer-threads --reference-time=2025-01-01T00:00
+ *   --migrate[=location]   run the Flyway migrations first, by default from crm-api/src/main/resources/db/migration
+ * </pre>
+ */
+public final class FleetDatasetCli {
+
+    private static final Set<String> OPTIONS = Set.of("url", "username", "password", "owners", "cars", "customers",
+            "leases", "seed", "batch-size", "writer-threads", "reference-time", "migrate");
+    private static final String DEFAULT_MIGRATIONS = "filesystem:crm-api/src/main/resources/db/migration";
+
+    private FleetDatasetCli() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        String url = options.get("url");
+        if (url == null) {
+            throw new IllegalArgumentException("--url is required");
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                options.getOrDefault("username", "sa"), options.getOrDefault("password", ""));
+        if (options.containsKey("migrate")) {
+            Flyway.configure().dataSource(dataSource).locations(options.get("migrate")).load().migrate();
+        }
+
+        FleetDatasetSpec.FleetDatasetSpecBuilder spec = FleetDatasetSpec.builder();
+        ifPresent(options, "owners", value -> spec.owners(Integer.parseInt(value)));
+        ifPresent(options, "cars", value -> spec.cars(Integer.parseInt(value)));
+        ifPresent(options, "customers", value -> spec.customers(Integer.parseInt(value)));
+        ifPresent(options, "leases", value -> spec.leases(Integer.parseInt(value)));
+        ifPresent(options, "seed", value -> spec.seed(Long.parseLong(value)));
+        ifPresent(options, "batch-size", value -> spec.batchSize(Integer.parseInt(value)));
+        ifPresent(options, "writer-threads", value -> spec.writerThreads(Integer.parseInt(value)));
+        ifPresent(options, "reference-time", value -> spec.referenceTime(LocalDateTime.parse(value)));
+
+        long started = System.nanoTime();
+        FleetDataset dataset = new FleetDatasetGenerator(dataSource).generate(spec.build());
+        System.out.printf("Generated %d owners, %d cars, %d customers and %d leases (%d active) in %d s.%n",
+                dataset.owners().size(), dataset.cars().size(), dataset.customers().size(), dataset.leases().size(),
+                dataset.activeLeases(), (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            if (separator < 0 && !name.equals("migrate")) {
+                throw new IllegalArgumentException("--" + name + " needs a value");
+            }
+            options.put(name, separator < 0 ? DEFAULT_MIGRATIONS : arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static void ifPresent(Map<String, String> options, String name, Consumer<String> apply) {
+        String value = options.get(name);
+        if (value != null) {
+            apply.accept(value);
+        }
+    }
+}
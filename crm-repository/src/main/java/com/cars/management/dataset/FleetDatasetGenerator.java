@@ -0,0 +1,467 @@
+package com.cars.management.dataset;
+
+import com.cars.management.dataset.FleetDataset.IdRange;
+import com.cars.management.dataset.FleetDatasetSpec.DurationBucket;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.enums.CustomerTier;
+import com.cars.management.enums.LeaseStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Fills the {@code owners}, {@code cars}, {@code customers} and {@code leases} tables of a migrated schema with a
+ * synthetic fleet described by a {@link FleetDatasetSpec}, using JDBC batch inserts committed batch by batch.
+ *
+ * <p>The plan (car owners, statuses, lease counts, customer tiers and the customers of active leases) is drawn
+ * first from one seeded {@link Random} and kept in primitive arrays. Rows are then written table by table in
+ * segments of {@value #SEGMENT_SIZE} rows (cars, for leases), each with its own seeded generator, so that writer
+ * threads can take segments in any order and still produce the same data.
+ *
+ * <p>New rows take the ids following the current maximum of each table, and the id sequences are moved past them
+ * afterwards, so the generator can run against a database that already has data. It should not run while the
+ * application is writing to the same database.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FleetDatasetGenerator {
+
+    private static final int SEGMENT_SIZE = 1_000;
+    private static final int SEQUENCE_INCREMENT = 50; // allocationSize of the entity id generators
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final String[] FIRST_NAMES = {"Ava", "Liam", "Maya", "Noah", "Zara", "Ethan", "Isla", "Arjun",
+            "Priya", "Lucas", "Mia", "Omar", "Elena", "Kenji", "Sofia", "Ravi", "Chloe", "Mateo", "Aisha", "Leo"};
+    private static final String[] LAST_NAMES = {"Smith", "Kumar", "Garcia", "Chen", "Muller", "Okafor", "Rossi",
+            "Silva", "Nguyen", "Patel", "Brown", "Kowalski", "Haddad", "Tanaka", "Jensen", "Dubois", "Reyes", "Khan"};
+    private static final String[][] MODELS = {
+            {"Corolla", "LE", "SE", "Hybrid"}, {"Civic", "LX", "Sport", "Touring"}, {"Model 3", "RWD", "Long Range"},
+            {"Golf", "Life", "GTI"}, {"Swift", "LXi", "VXi", "ZXi"}, {"Creta", "E", "SX", "SX(O)"},
+            {"Octavia", "Ambition", "Style"}, {"Qashqai", "Visia", "Tekna"}, {"3 Series", "320i", "330e"},
+            {"Camry", "LE", "XSE"}, {"Clio", "Evolution", "Techno"}, {"Tucson", "Select", "Limited"}};
+
+    private final DataSource dataSource;
+
+    public FleetDataset generate(FleetDatasetSpec spec) {
+        validate(spec);
+        try {
+            return write(spec, plan(spec));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to generate the fleet dataset: " + e.getMessage(), e);
+        }
+    }
+
+    private Plan plan(FleetDatasetSpec spec) throws SQLException {
+        Plan plan = new Plan(spec);
+        try (Connection connection = dataSource.getConnection()) {
+            plan.owners = new IdRange(nextId(connection, "owners", "owner_id"), spec.getOwners());
+            plan.cars = new IdRange(nextId(connection, "cars", "car_id"), spec.getCars());
+            plan.customers = new IdRange(nextId(connection, "customers", "customer_id"), spec.getCustomers());
+            plan.leases = new IdRange(nextId(connection, "leases", "lease_id"), spec.getLeases());
+        }
+
+        // Everything a row depends on across tables is drawn here, in a fixed order, from the one seeded Random
+        Random random = new Random(spec.getSeed());
+        if (spec.getCars() > 0) {
+            WeightedSampler carPopularity = WeightedSampler.zipf(spec.getCars(), spec.getCarPopularitySkew(), random);
+            int[] leaseCounts = new int[spec.getCars()];
+            for (int i = 0; i < spec.getLeases(); i++) {
+                leaseCounts[carPopularity.next(random)]++;
+            }
+            for (int car = 0; car < spec.getCars(); car++) {
+                plan.firstLeaseOfCar[car + 1] = plan.firstLeaseOfCar[car] + leaseCounts[car];
+            }
+            WeightedSampler fleetSizes = WeightedSampler.zipf(spec.getOwners(), spec.getFleetSizeSkew(), random);
+            for (int car = 0; car < spec.getCars(); car++) {
+                plan.carOwners[car] = fleetSizes.next(random);
+            }
+        }
+        WeightedSampler tierMix = WeightedSampler.of(List.of(CustomerTier.values()),
+                tier -> spec.getTierMix().getOrDefault(tier, 0.0));
+        long freeActiveSlots = 0;
+        for (int customer = 0; customer < spec.getCustomers(); customer++) {
+            plan.customerTiers[customer] = (byte) tierMix.next(random);
+            freeActiveSlots += activeLeaseLimit(spec, plan.customerTiers[customer]);
+        }
+        if (spec.getCustomers() > 0) {
+            plan.customerActivity = WeightedSampler.zipf(spec.getCustomers(), spec.getCustomerActivitySkew(), random);
+        }
+
+        for (int car = 0; car < spec.getCars(); car++) {
+            CarStatus status = drawCarStatus(spec, plan.leaseCount(car) > 0, random);
+            plan.activeCustomers[car] = -1;
+            if (status == CarStatus.ON_LEASE) {
+                if (freeActiveSlots == 0) {
+                    status = CarStatus.IDLE; // every customer is at their active lease limit
+                } else {
+                    int customer = pickActiveCustomer(spec, plan, random);
+                    plan.activeCustomers[car] = customer;
+                    plan.activeCounts[customer]++;
+                    plan.activeLeases++;
+                    freeActiveSlots--;
+                }
+            }
+            plan.carStatuses[car] = (byte) status.ordinal();
+        }
+        return plan;
+    }
+
+    private FleetDataset write(FleetDatasetSpec spec, Plan plan) throws SQLException {
+        load(spec, "owners", 1, plan.owners.size(), segments(plan.owners.size()),
+                "INSERT INTO owners (owner_id, name, email, phone_number) VALUES (?, ?, ?, ?)",
+                (batch, segment, random) -> {
+                    for (int owner = segmentStart(segment); owner < segmentEnd(segment, plan.owners.size()); owner++) {
+                        int id = plan.owners.get(owner);
+                        String name = randomName(random);
+                        batch.statement().setInt(1, id);
+                        batch.statement().setString(2, name);
+                        batch.statement().setString(3, email(name, id, "fleet.example"));
+                        batch.statement().setString(4, randomPhoneNumber(random));
+                        batch.add();
+                    }
+                });
+        load(spec, "customers", 2, plan.customers.size(), segments(plan.customers.size()),
+                "INSERT INTO customers (customer_id, name, email, phone_number, tier, active_lease_count) VALUES (?, ?, ?, ?, ?, ?)",
+                (batch, segment, random) -> {
+                    for (int customer = segmentStart(segment); customer < segmentEnd(segment, plan.customers.size()); customer++) {
+                        int id = plan.customers.get(customer);
+                        String name = randomName(random);
+                        batch.statement().setInt(1, id);
+                        batch.statement().setString(2, name);
+                        batch.statement().setString(3, email(name, id, "customers.example"));
+                        batch.statement().setString(4, randomPhoneNumber(random));
+                        batch.statement().setString(5, CustomerTier.values()[plan.customerTiers[customer]].name());
+                        batch.statement().setInt(6, plan.activeCounts[customer]);
+                        batch.add();
+                    }
+                });
+        load(spec, "cars", 3, plan.cars.size(), segments(plan.cars.size()),
+                "INSERT INTO cars (car_id, model, variant, status, owner_id) VALUES (?, ?, ?, ?, ?)",
+                (batch, segment, random) -> {
+                    for (int car = segmentStart(segment); car < segmentEnd(segment, plan.cars.size()); car++) {
+                        String[] model = MODELS[random.nextInt(MODELS.length)];
+                        batch.statement().setInt(1, plan.cars.get(car));
+                        batch.statement().setString(2, model[0]);
+                        batch.statement().setString(3, model[1 + random.nextInt(model.length - 1)]);
+                        batch.statement().setString(4, CarStatus.values()[plan.carStatuses[car]].name());
+                        batch.statement().setInt(5, plan.owners.get(plan.carOwners[car]));
+                        batch.add();
+                    }
+                });
+        WeightedSampler durations = WeightedSampler.of(spec.getLeaseDurations(), DurationBucket::weight);
+        load(spec, "leases", 4, plan.leases.size(), segments(plan.cars.size()),
+                "INSERT INTO leases (lease_id, start_date, end_date, status, car_id, customer_id) VALUES (?, ?, ?, ?, ?, ?)",
+                (batch, segment, random) -> {
+                    LeaseTimeline timeline = new LeaseTimeline();
+                    for (int car = segmentStart(segment); car < segmentEnd(segment, plan.cars.size()); car++) {
+                        writeLeases(batch, spec, plan, durations, timeline, car, random);
+                    }
+                });
+
+        try (Connection connection = dataSource.getConnection()) {
+            restartSequence(connection, "owners_seq", plan.owners);
+            restartSequence(connection, "cars_seq", plan.cars);
+            restartSequence(connection, "customers_seq", plan.customers);
+            restartSequence(connection, "leases_seq", plan.leases);
+        }
+        return new FleetDataset(plan.owners, plan.cars, plan.customers, plan.leases, plan.activeLeases);
+    }
+
+    /**
+     * Writes a car's history oldest first. It is drawn walking back from the reference time: an ACTIVE lease that
+     * started before it when the car is on lease, then ENDED leases separated by idle gaps. Offsets are in minutes.
+     */
+    private static void writeLeases(BatchInserter batch, FleetDatasetSpec spec, Plan plan, WeightedSampler durations,
+                                    LeaseTimeline timeline, int car, RandomGenerator random) throws SQLException {
+        int count = plan.leaseCount(car);
+        if (count == 0) {
+            return;
+        }
+        timeline.ensureCapacity(count);
+        boolean active = plan.carStatuses[car] == CarStatus.ON_LEASE.ordinal();
+        long cursor = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            long duration = drawDurationMinutes(spec, durations, random);
+            if (active && i == count - 1) {
+                timeline.endOffsets[i] = -1;
+                timeline.startOffsets[i] = 1 + random.nextLong(duration);
+                timeline.lessees[i] = plan.activeCustomers[car];
+            } else {
+                timeline.endOffsets[i] = cursor + 1 + random.nextLong((long) spec.getMaxGapDays() * MINUTES_PER_DAY + 1);
+                timeline.startOffsets[i] = timeline.endOffsets[i] + duration;
+                timeline.lessees[i] = plan.customerActivity.next(random);
+            }
+            cursor = timeline.startOffsets[i];
+        }
+
+        LocalDateTime reference = spec.getReferenceTime();
+        for (int i = 0; i < count; i++) {
+            boolean ongoing = timeline.endOffsets[i] < 0;
+            batch.statement().setInt(1, plan.leases.get(plan.firstLeaseOfCar[car] + i));
+            batch.statement().setObject(2, reference.minusMinutes(timeline.startOffsets[i]));
+            if (ongoing) {
+                batch.statement().setNull(3, Types.TIMESTAMP);
+            } else {
+                batch.statement().setObject(3, reference.minusMinutes(timeline.endOffsets[i]));
+            }
+            batch.statement().setString(4, (ongoing ? LeaseStatus.ACTIVE : LeaseStatus.ENDED).name());
+            batch.statement().setInt(5, plan.cars.get(car));
+            batch.statement().setInt(6, plan.customers.get(timeline.lessees[i]));
+            batch.add();
+        }
+    }
+
+    /**
+     * Runs {@code writer} over every segment on {@code writerThreads} threads, each with its own connection and batch.
+     * A segment's generator depends only on the seed, the table and the segment number.
+     */
+    private void load(FleetDatasetSpec spec, String table, int tableSalt, int rows, int segments, String sql,
+                      SegmentWriter writer) throws SQLException {
+        long started = System.nanoTime();
+        AtomicInteger nextSegment = new AtomicInteger();
+        int threads = Math.max(1, Math.min(spec.getWriterThreads(), segments));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> writers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                writers.add(executor.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.setAutoCommit(false);
+                        try (BatchInserter batch = new BatchInserter(connection, spec.getBatchSize(), sql)) {
+                            for (int segment = nextSegment.getAndIncrement(); segment < segments;
+                                 segment = nextSegment.getAndIncrement()) {
+                                writer.write(batch, segment, segmentRandom(spec.getSeed(), tableSalt, segment));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : writers) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new IllegalStateException("Failed to write " + table + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing " + table, e);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Inserted {} rows into {} in {} ms with {} writer thread(s).", rows, table,
+                (System.nanoTime() - started) / 1_000_000, threads);
+    }
+
+    private static RandomGenerator segmentRandom(long seed, int tableSalt, int segment) {
+        return new SplittableRandom(seed ^ (tableSalt * 0x9E3779B97F4A7C15L) ^ (segment * 0xC2B2AE3D27D4EB4FL));
+    }
+
+    private static int segments(int rows) {
+        return (rows + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+    }
+
+    private static int segmentStart(int segment) {
+        return segment * SEGMENT_SIZE;
+    }
+
+    private static int segmentEnd(int segment, int rows) {
+        return Math.min(rows, (segment + 1) * SEGMENT_SIZE);
+    }
+
+    private static void validate(FleetDatasetSpec spec) {
+        if (spec.getOwners() < 0 || spec.getCars() < 0 || spec.getCustomers() < 0 || spec.getLeases() < 0) {
+            throw new IllegalArgumentException("Row counts must not be negative");
+        }
+        if (spec.getCars() > 0 && spec.getOwners() == 0) {
+            throw new IllegalArgumentException("Cars need at least one owner");
+        }
+        if (spec.getLeases() > 0 && (spec.getCars() == 0 || spec.getCustomers() == 0)) {
+            throw new IllegalArgumentException("Leases need at least one car and one customer");
+        }
+        if (spec.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+    }
+
+    private static CarStatus drawCarStatus(FleetDatasetSpec spec, boolean hasLeases, RandomGenerator random) {
+        double draw = random.nextDouble();
+        if (draw < spec.getOnServiceShare()) {
+            return CarStatus.ON_SERVICE;
+        }
+        return hasLeases && draw < spec.getOnServiceShare() + spec.getOnLeaseShare() ? CarStatus.ON_LEASE : CarStatus.IDLE;
+    }
+
+    /**
+     * Draws a customer by activity and probes forward to the next one still under their tier's limit.
+     * Only called while at least one free slot remains, so the probe terminates.
+     */
+    private static int pickActiveCustomer(FleetDatasetSpec spec, Plan plan, RandomGenerator random) {
+        int customer = plan.customerActivity.next(random);
+        while (plan.activeCounts[customer] >= activeLeaseLimit(spec, plan.customerTiers[customer])) {
+            customer = (customer + 1) % plan.activeCounts.length;
+        }
+        return customer;
+    }
+
+    private static int activeLeaseLimit(FleetDatasetSpec spec, byte tier) {
+        return spec.getActiveLeaseLimits().getOrDefault(CustomerTier.values()[tier], 0);
+    }
+
+    private static long drawDurationMinutes(FleetDatasetSpec spec, WeightedSampler durations, RandomGenerator random) {
+        DurationBucket bucket = spec.getLeaseDurations().get(durations.next(random));
+        long minMinutes = (long) bucket.minDays() * MINUTES_PER_DAY;
+        long maxMinutes = (long) bucket.maxDays() * MINUTES_PER_DAY;
+        return minMinutes + random.nextLong(maxMinutes - minMinutes + 1);
+    }
+
+    private static String randomName(RandomGenerator random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String email(String name, int id, String domain) {
+        return name.toLowerCase().replace(' ', '.') + "." + id + "@" + domain;
+    }
+
+    private static String randomPhoneNumber(RandomGenerator random) {
+        return "555" + (1_000_000 + random.nextInt(9_000_000));
+    }
+
+    private static int nextId(Connection connection, String table, String idColumn) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table)) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    // Same rule as V3__create_id_sequences: the next pooled block starts right after the last generated id
+    private static void restartSequence(Connection connection, String sequence, IdRange ids) throws SQLException {
+        if (ids.size() == 0) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (ids.last() + SEQUENCE_INCREMENT));
+        }
+    }
+
+    /**
+     * Per-table rows drawn up front. Indexes into these arrays are positions within each table's {@link IdRange}.
+     */
+    private static final class Plan {
+
+        IdRange owners;
+        IdRange cars;
+        IdRange customers;
+        IdRange leases;
+        final int[] carOwners;
+        final byte[] carStatuses;
+        final int[] firstLeaseOfCar;
+        final int[] activeCustomers;
+        final byte[] customerTiers;
+        final int[] activeCounts;
+        WeightedSampler customerActivity;
+        int activeLeases;
+
+        Plan(FleetDatasetSpec spec) {
+            carOwners = new int[spec.getCars()];
+            carStatuses = new byte[spec.getCars()];
+            firstLeaseOfCar = new int[spec.getCars() + 1];
+            activeCustomers = new int[spec.getCars()];
+            customerTiers = new byte[spec.getCustomers()];
+            activeCounts = new int[spec.getCustomers()];
+        }
+
+        int leaseCount(int car) {
+            return firstLeaseOfCar[car + 1] - firstLeaseOfCar[car];
+        }
+    }
+
+    /**
+     * Reusable per-writer buffers for one car's leases.
+     */
+    private static final class LeaseTimeline {
+
+        long[] startOffsets = new long[0];
+        long[] endOffsets = new long[0];
+        int[] lessees = new int[0];
+
+        void ensureCapacity(int count) {
+            if (startOffsets.length < count) {
+                startOffsets = new long[count];
+                endOffsets = new long[count];
+                lessees = new int[count];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentWriter {
+        void write(BatchInserter batch, int segment, RandomGenerator random) throws SQLException;
+    }
+
+    /**
+     * A prepared insert that executes and commits every {@code batchSize} rows, and the remainder on close.
+     */
+    private static final class BatchInserter implements AutoCloseable {
+
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final int batchSize;
+        private int pending;
+
+        BatchInserter(Connection connection, int batchSize, String sql) throws SQLException {
+            this.connection = connection;
+            this.statement = connection.prepareStatement(sql);
+            this.batchSize = batchSize;
+        }
+
+        PreparedStatement statement() {
+            return statement;
+        }
+
+        void add() throws SQLException {
+            statement.addBatch();
+            if (++pending == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                connection.commit();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cars.management.dataset;
+
+import com.cars.management.enums.CustomerTier;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size and shape of a generated fleet. Two runs with the same spec against databases holding the same rows
+ * produce identical data; {@link #referenceTime} is part of the spec for that reason.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class FleetDatasetSpec {
+
+    @Builder.Default
+    private final long seed = 42L;
+
+    @Builder.Default
+    private final int owners = 10_000;
+
+    @Builder.Default
+    private final int cars = 200_000;
+
+    @Builder.Default
+    private final int customers = 1_000_000;
+
+    @Builder.Default
+    private final int leases = 10_000_000;
+
+    /**
+     * Zipf exponent of cars per owner. Around 1 a few owners run large fleets and most own a handful of cars.
+     */
+    @Builder.Default
+    private final double fleetSizeSkew = 1.1;
+
+    /**
+     * Zipf exponent of leases per car; popular cars accumulate a longer history. Kept low because every
+     * lease of a car is laid end to end on its timeline.
+     */
+    @Builder.Default
+    private final double carPopularitySkew = 0.2;
+
+    /**
+     * Zipf exponent of leases per customer, giving a core of repeat customers.
+     */
+    @Builder.Default
+    private final double customerActivitySkew = 0.8;
+
+    /**
+     * Share of cars with a lease history that are currently leased; their latest lease is ACTIVE.
+     */
+    @Builder.Default
+    private final double onLeaseShare = 0.30;
+
+    @Builder.Default
+    private final double onServiceShare = 0.05;
+
+    @Builder.Default
+    private final Map<CustomerTier, Double> tierMix = Map.of(
+            CustomerTier.STANDARD, 0.80,
+            CustomerTier.PREMIUM, 0.15,
+            CustomerTier.CORPORATE, 0.05);
+
+    /**
+     * Maximum ACTIVE leases per customer tier, matching {@code crm.lease-limits}.
+     */
+    @Builder.Default
+    private final Map<CustomerTier, Integer> activeLeaseLimits = Map.of(
+            CustomerTier.STANDARD, 2,
+            CustomerTier.PREMIUM, 4,
+            CustomerTier.CORPORATE, 10);
+
+    /**
+     * Histogram of lease durations; a duration is drawn uniformly within a bucket picked by weight.
+     */
+    @Builder.Default
+    private final List<DurationBucket> leaseDurations = List.of(
+            new DurationBucket(1, 3, 0.35),
+            new DurationBucket(4, 7, 0.25),
+            new DurationBucket(8, 30, 0.25),
+            new DurationBucket(31, 90, 0.10),
+            new DurationBucket(91, 365, 0.05));
+
+    /**
+     * Longest idle gap in days between two consecutive leases of a car.
+     */
+    @Builder.Default
+    private final int maxGapDays = 14;
+
+    /**
+     * Instant the generated history ends at: active leases started before it and every other lease ended before it.
+     */
+    @Builder.Default
+    private final LocalDateTime referenceTime = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+    /**
+     * Rows per JDBC batch; each batch is committed on its own.
+     */
+    @Builder.Default
+    private final int batchSize = 5_000;
+
+    /**
+     * Connections writing a table concurrently. The rows written do not depend on it.
+     */
+    @Builder.Default
+    private final int writerThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    public record DurationBucket(int minDays, int maxDays, double weight) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.cars.management.dataset;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws indexes {@code 0..n-1} with probability proportional to fixed weights, by binary search over the cumulative weights.
+ */
+final class WeightedSampler {
+
+    private final double[] cumulative;
+    private final int[] indexes;
+
+    private WeightedSampler(double[] weights, int[] indexes) {
+        this.cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        this.indexes = indexes;
+    }
+
+    static <T> WeightedSampler of(List<T> items, ToDoubleFunction<T> weight) {
+        double[] weights = items.stream().mapToDouble(weight).toArray();
+        return new WeightedSampler(weights, null);
+    }
+
+    /**
+     * Zipf distribution over {@code n} items: the item of rank {@code r} has weight {@code 1 / r^exponent}.
+     * Ranks are shuffled across indexes so the heaviest items are not simply the lowest ids.
+     */
+    static WeightedSampler zipf(int n, double exponent, RandomGenerator random) {
+        double[] weights = new double[n];
+        for (int rank = 0; rank < n; rank++) {
+            weights[rank] = 1.0 / Math.pow(rank + 1, exponent);
+        }
+        int[] indexes = new int[n];
+        Arrays.setAll(indexes, i -> i);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return new WeightedSampler(weights, indexes);
+    }
+
+    int next(RandomGenerator random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int position = Arrays.binarySearch(cumulative, target);
+        int rank = position >= 0 ? position : Math.min(-position - 1, cumulative.length - 1);
+        return indexes != null ? indexes[rank] : rank;
+    }
+}
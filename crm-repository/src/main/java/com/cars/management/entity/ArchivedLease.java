@@ -0,0 +1,55 @@
+package com.cars.management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An ENDED lease moved to the archive tier by the lease archiver. Rows are written by a set-based
+ * {@code INSERT ... SELECT} from {@code leases} and never change afterwards; they are read only as
+ * {@link com.cars.management.repository.projection.LeaseCarView}s by the lease history endpoints.
+ */
+@Data
+@Entity
+@Immutable
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "lease_history")
+public class ArchivedLease {
+
+    @Id
+    @Column(name = "lease_id")
+    private Integer id; // The id the lease had in the leases table
+
+    @Column(name = "partition_month", nullable = false)
+    private LocalDate partitionMonth; // First day of the month the lease ended in
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime endDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "car_id", nullable = false)
+    private Car car;
+
+    @Column(name = "customer_id", nullable = false)
+    private Integer customerId;
+
+    @Column(name = "archived_on", nullable = false)
+    private LocalDateTime archivedOn;
+}
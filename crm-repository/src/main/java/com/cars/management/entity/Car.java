@@ -7,24 +7,30 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
 
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Entity
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "cars")
-public class Car{
+@NamedEntityGraph(name = Car.GRAPH_LEASES, attributeNodes = @NamedAttributeNode("leases"))
+public class Car extends BaseEntity {
+
+    public static final String GRAPH_LEASES = "Car.leases"; // Car together with its lease history
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carIdGenerator")
+    @SequenceGenerator(name = "carIdGenerator", sequenceName = "cars_seq", allocationSize = 50)
     @Column(name = "car_id")
     private Integer id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @JsonBackReference
     private Owner owner; // Car is owned by one owner
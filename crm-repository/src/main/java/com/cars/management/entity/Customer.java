@@ -1,20 +1,30 @@
 package com.cars.management.entity;
 
+import com.cars.management.enums.CustomerTier;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.util.List;
 
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Entity
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "customers")
-public class Customer{
+@SQLRestriction("pending_deletion = FALSE") // Hidden from every read once a deletion job is accepted for it
+@NamedEntityGraph(name = Customer.GRAPH_LEASES_WITH_CAR,
+        attributeNodes = @NamedAttributeNode(value = "leases", subgraph = "leases.car"),
+        subgraphs = @NamedSubgraph(name = "leases.car", attributeNodes = @NamedAttributeNode("car")))
+public class Customer extends BaseEntity {
+
+    public static final String GRAPH_LEASES_WITH_CAR = "Customer.leasesWithCar"; // Customer, its leases and the leased cars
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customerIdGenerator")
+    @SequenceGenerator(name = "customerIdGenerator", sequenceName = "customers_seq", allocationSize = 50)
     @Column(name = "customer_id")
     private Integer id;
 
@@ -27,6 +37,15 @@ public class Customer{
     @Column(name = "phone_number", nullable = false)
     private String phoneNumber;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tier", nullable = false)
+    @Builder.Default
+    private CustomerTier tier = CustomerTier.STANDARD;
+
+    // Owned by the guarded updates in CustomerCommandRepository; entity saves never write it
+    @Column(name = "active_lease_count", insertable = false, updatable = false)
+    private Integer activeLeaseCount;
+
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
 //    @JsonManagedReference
     private List<Lease> leases; // List of cars leased by the customer
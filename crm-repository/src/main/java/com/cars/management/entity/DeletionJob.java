@@ -0,0 +1,72 @@
+package com.cars.management.entity;
+
+import com.cars.management.enums.DeletionJobPhase;
+import com.cars.management.enums.DeletionJobStatus;
+import com.cars.management.enums.DeletionTargetType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An accepted delete of an owner or customer, worked off in chunks by the deletion job runner. The target row is
+ * marked {@code pending_deletion} when the job is created and deleted last, after its leases and cars.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "deletion_jobs")
+public class DeletionJob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false)
+    private DeletionTargetType targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Integer targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private DeletionJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false)
+    private DeletionJobPhase phase;
+
+    @Column(name = "leases_deleted", nullable = false)
+    @Builder.Default
+    private Integer leasesDeleted = 0;
+
+    @Column(name = "cars_deleted", nullable = false)
+    @Builder.Default
+    private Integer carsDeleted = 0;
+
+    @Column(name = "failed_attempts", nullable = false)
+    @Builder.Default
+    private Integer failedAttempts = 0; // Consecutive failed chunks; reset by a chunk that succeeds
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "finished_on")
+    private LocalDateTime finishedOn;
+}
@@ -6,28 +6,34 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Entity
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "leases")
-public class Lease {
+@NamedEntityGraph(name = Lease.GRAPH_CAR, attributeNodes = @NamedAttributeNode("car"))
+public class Lease extends BaseEntity {
+
+    public static final String GRAPH_CAR = "Lease.car"; // Lease together with the leased car
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leaseIdGenerator")
+    @SequenceGenerator(name = "leaseIdGenerator", sequenceName = "leases_seq", allocationSize = 50)
     @Column(name = "lease_id")
     private Integer id; // Primary Key (auto-incremented)
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id", nullable = false)
     private Car car; // Each lease is associated with one car
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     @JsonBackReference
     private Customer customer; // Each lease is associated with one customer
@@ -0,0 +1,7 @@
+package com.cars.management.enums;
+
+public enum CustomerTier{
+    STANDARD,
+    PREMIUM,
+    CORPORATE
+}
@@ -0,0 +1,8 @@
+package com.cars.management.enums;
+
+// Dependency order of a deletion job: rows are deleted before the rows they reference
+public enum DeletionJobPhase {
+    LEASES,
+    CARS,
+    TARGET
+}
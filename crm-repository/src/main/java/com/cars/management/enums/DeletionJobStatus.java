@@ -0,0 +1,8 @@
+package com.cars.management.enums;
+
+public enum DeletionJobStatus {
+    ACCEPTED,   // The target is hidden from reads; no chunk has run yet
+    RUNNING,
+    COMPLETED,
+    FAILED      // Gave up after crm.deletion-jobs.max-attempts consecutive failed chunks; the target stays hidden
+}
@@ -0,0 +1,6 @@
+package com.cars.management.enums;
+
+public enum DeletionTargetType {
+    OWNER,
+    CUSTOMER
+}
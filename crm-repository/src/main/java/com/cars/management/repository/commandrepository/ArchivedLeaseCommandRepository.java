@@ -0,0 +1,46 @@
+package com.cars.management.repository.commandrepository;
+
+import com.cars.management.entity.ArchivedLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedLeaseCommandRepository extends JpaRepository<ArchivedLease, Integer> {
+
+    /**
+     * Copies the leases among {@code leaseIds} into the archive tier in one statement, keeping their ids and filing
+     * each under the month it ended in. The caller deletes them from {@code leases} in the same transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO lease_history (lease_id, partition_month, start_date, end_date, car_id, customer_id, archived_on) " +
+            "SELECT lease_id, CAST(DATE_TRUNC('MONTH', end_date) AS DATE), start_date, end_date, car_id, customer_id, :archivedOn " +
+            "FROM leases WHERE lease_id IN :leaseIds", nativeQuery = true)
+    int archiveAll(@Param("leaseIds") Collection<Integer> leaseIds, @Param("archivedOn") LocalDateTime archivedOn);
+
+    /**
+     * Locks up to {@code limit} archived leases of the owner's cars, in id order, for a deletion job to delete.
+     */
+    @Query(value = "SELECT lease_id FROM lease_history WHERE car_id IN (SELECT car_id FROM cars WHERE owner_id = :ownerId) " +
+            "ORDER BY lease_id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Integer> lockChunkIdsByOwnerId(@Param("ownerId") Integer ownerId, @Param("limit") int limit);
+
+    /**
+     * Locks up to {@code limit} archived leases of the customer, in id order, for a deletion job to delete.
+     */
+    @Query(value = "SELECT lease_id FROM lease_history WHERE customer_id = :customerId ORDER BY lease_id LIMIT :limit FOR UPDATE",
+            nativeQuery = true)
+    List<Integer> lockChunkIdsByCustomerId(@Param("customerId") Integer customerId, @Param("limit") int limit);
+
+    // The archived leases that render these cars, whose cached entries a car update makes stale
+    @Query("SELECT h.id FROM ArchivedLease h WHERE h.car.id IN :carIds")
+    List<Integer> findIdsByCarIdIn(@Param("carIds") Collection<Integer> carIds);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedLease h WHERE h.id IN :leaseIds")
+    int deleteAllByIdIn(@Param("leaseIds") Collection<Integer> leaseIds);
+}
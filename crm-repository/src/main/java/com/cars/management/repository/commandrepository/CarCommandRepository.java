@@ -1,15 +1,66 @@
 package com.cars.management.repository.commandrepository;
 
 import com.cars.management.entity.Car;
+import com.cars.management.enums.CarStatus;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CarCommandRepository extends JpaRepository<Car, Integer> {
     @Modifying
     @Transactional
     @Query("DELETE FROM Car c WHERE c.id = :carId")
     void deleteCarByCarId(@Param("carId") Integer carId);
+
+    /**
+     * Moves the car to {@code newStatus} only if it is currently in {@code expectedStatus} and its owner is not
+     * pending deletion: {@link com.cars.management.entity.Owner}'s restriction leaves those owners out of the subquery,
+     * so their cars never return to circulation. Bulk updates bypass {@code @Version}, so the version is incremented
+     * here, which also changes the car's ETag.
+     * Returns the number of rows changed, so 0 means the car is missing, out of circulation or another request won.
+     */
+    @Modifying
+    @Query("UPDATE Car c SET c.status = :newStatus, c.version = c.version + 1 WHERE c.id = :carId AND c.status = :expectedStatus " +
+            "AND c.owner.id IN (SELECT o.id FROM Owner o)")
+    int compareAndSetStatus(@Param("carId") Integer carId,
+                            @Param("expectedStatus") CarStatus expectedStatus,
+                            @Param("newStatus") CarStatus newStatus);
+
+    /**
+     * Moves each car of {@code carIds} that is in {@code expectedStatus} to {@code newStatus}; the others are left alone.
+     * Like {@link #compareAndSetStatus}, cars of an owner pending deletion are left alone too.
+     */
+    @Modifying
+    @Query("UPDATE Car c SET c.status = :newStatus, c.version = c.version + 1 WHERE c.id IN :carIds AND c.status = :expectedStatus " +
+            "AND c.owner.id IN (SELECT o.id FROM Owner o)")
+    int compareAndSetStatuses(@Param("carIds") Collection<Integer> carIds,
+                              @Param("expectedStatus") CarStatus expectedStatus,
+                              @Param("newStatus") CarStatus newStatus);
+
+    @Query("SELECT c.id FROM Car c WHERE c.owner.id = :ownerId AND c.status = :status ORDER BY c.id")
+    List<Integer> findIdsByOwnerIdAndStatus(@Param("ownerId") Integer ownerId, @Param("status") CarStatus status);
+
+    /**
+     * Loads and locks the existing cars among {@code carIds} in id order; their statuses cannot change until commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Car c WHERE c.id IN :carIds ORDER BY c.id")
+    List<Car> lockAllById(@Param("carIds") Collection<Integer> carIds);
+
+    /**
+     * Locks up to {@code limit} cars of the owner, in id order, for a deletion job to delete.
+     */
+    @Query(value = "SELECT car_id FROM cars WHERE owner_id = :ownerId ORDER BY car_id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Integer> lockChunkIdsByOwnerId(@Param("ownerId") Integer ownerId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Car c WHERE c.id IN :carIds")
+    int deleteAllByIdIn(@Param("carIds") Collection<Integer> carIds);
 }
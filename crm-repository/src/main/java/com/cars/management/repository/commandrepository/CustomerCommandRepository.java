@@ -1,7 +1,95 @@
 package com.cars.management.repository.commandrepository;
 
 import com.cars.management.entity.Customer;
+import com.cars.management.repository.projection.ContactView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// The lease counter is not rendered by any endpoint, so these updates leave the customer's version alone and
+// never make a concurrent details update fail its optimistic lock check
 public interface CustomerCommandRepository extends JpaRepository<Customer, Integer> {
+
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Takes one lease slot if the customer is still below {@code leaseLimit}.
+     * Returns the number of rows changed, so 0 means the customer is missing or already at the limit.
+     */
+    @Modifying
+    @Query("UPDATE Customer c SET c.activeLeaseCount = c.activeLeaseCount + 1 WHERE c.id = :customerId AND c.activeLeaseCount < :leaseLimit")
+    int incrementActiveLeaseCount(@Param("customerId") Integer customerId, @Param("leaseLimit") int leaseLimit);
+
+    /**
+     * Releases one lease slot, never going below zero.
+     */
+    @Modifying
+    @Query("UPDATE Customer c SET c.activeLeaseCount = c.activeLeaseCount - 1 WHERE c.id = :customerId AND c.activeLeaseCount > 0")
+    int decrementActiveLeaseCount(@Param("customerId") Integer customerId);
+
+    /**
+     * Releases one lease slot per lease in {@code leaseIds} held by each of {@code customerIds}, in one
+     * statement, never going below zero.
+     */
+    @Modifying
+    @Query("UPDATE Customer c SET c.activeLeaseCount = greatest(c.activeLeaseCount - " +
+            "(SELECT COUNT(l) FROM Lease l WHERE l.customer = c AND l.id IN :leaseIds), 0) WHERE c.id IN :customerIds")
+    int releaseActiveLeases(@Param("customerIds") Collection<Integer> customerIds, @Param("leaseIds") Collection<Integer> leaseIds);
+
+    /**
+     * Takes one lease slot per lease in {@code leaseIds} held by each of {@code customerIds}, in one statement.
+     * The caller checks the limits first, holding the customers locked through {@link #lockAllById(Collection)}.
+     */
+    @Modifying
+    @Query("UPDATE Customer c SET c.activeLeaseCount = c.activeLeaseCount + " +
+            "(SELECT COUNT(l) FROM Lease l WHERE l.customer = c AND l.id IN :leaseIds) WHERE c.id IN :customerIds")
+    int takeActiveLeases(@Param("customerIds") Collection<Integer> customerIds, @Param("leaseIds") Collection<Integer> leaseIds);
+
+    /**
+     * Loads and locks the existing customers among {@code customerIds} in id order, so their lease counters
+     * cannot change until commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Customer c WHERE c.id IN :customerIds ORDER BY c.id")
+    List<Customer> lockAllById(@Param("customerIds") Collection<Integer> customerIds);
+
+    /**
+     * Hides the customer from every read until its deletion job removes it. Native, because
+     * {@code pending_deletion} is not mapped by Customer, whose reads filter on it. Returns the number of rows
+     * changed, so 0 means the customer is missing or already pending deletion.
+     */
+    @Modifying
+    @Query(value = "UPDATE customers SET pending_deletion = TRUE, version = version + 1 " +
+            "WHERE customer_id = :customerId AND pending_deletion = FALSE", nativeQuery = true)
+    int markPendingDeletion(@Param("customerId") Integer customerId);
+
+    /**
+     * Deletes the customer once their leases are gone, only if it is pending deletion.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM customers WHERE customer_id = :customerId AND pending_deletion = TRUE", nativeQuery = true)
+    int deletePendingById(@Param("customerId") Integer customerId);
+
+    /**
+     * Scrolls over the name, email and phone number of every visible customer in id order, for the contact search
+     * index. Read through the command repository so the snapshot comes from the primary. Must be consumed inside a
+     * transaction and closed by the caller; rows are fetched from the driver in batches of {@link #STREAM_FETCH_SIZE}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.cars.management.repository.projection.ContactView(c.id, c.name, c.email, c.phoneNumber) " +
+            "FROM Customer c ORDER BY c.id")
+    Stream<ContactView> streamAllContactViews();
 }
@@ -0,0 +1,24 @@
+package com.cars.management.repository.commandrepository;
+
+import com.cars.management.entity.DeletionJob;
+import com.cars.management.enums.DeletionTargetType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface DeletionJobCommandRepository extends JpaRepository<DeletionJob, Long> {
+
+    /**
+     * Locks the oldest unfinished job, skipping jobs another worker holds, so each job runs on one node at a time
+     * and the others move on to the next job. Served by {@code idx_deletion_jobs_status}.
+     */
+    @Query(value = "SELECT job_id FROM deletion_jobs WHERE status IN ('ACCEPTED', 'RUNNING') " +
+            "ORDER BY job_id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Long> claimNextUnfinished();
+
+    /**
+     * The latest job of the target, if any. Served by {@code idx_deletion_jobs_target}.
+     */
+    Optional<DeletionJob> findFirstByTargetTypeAndTargetIdOrderByIdDesc(DeletionTargetType targetType, Integer targetId);
+}
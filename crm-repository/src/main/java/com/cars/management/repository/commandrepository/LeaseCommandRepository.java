@@ -1,7 +1,93 @@
 package com.cars.management.repository.commandrepository;
 
 import com.cars.management.entity.Lease;
+import com.cars.management.repository.projection.DependentLeaseView;
+import com.cars.management.repository.projection.ExpiredLeaseView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface LeaseCommandRepository extends JpaRepository<Lease, Integer> {
+
+    /**
+     * Ends the lease only if it is still ACTIVE. Returns the number of rows changed,
+     * so 0 means the lease is missing or was already ended by another request. Like every bulk update here
+     * it increments the version itself, which {@code @Version} does not do for bulk updates.
+     */
+    @Modifying
+    @Query("UPDATE Lease l SET l.status = com.cars.management.enums.LeaseStatus.ENDED, l.version = l.version + 1, l.endDate = :endDate " +
+            "WHERE l.id = :leaseId AND l.status = com.cars.management.enums.LeaseStatus.ACTIVE")
+    int endIfActive(@Param("leaseId") Integer leaseId, @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Locks up to {@code limit} ACTIVE leases whose end date has passed, oldest first, skipping rows another
+     * transaction has locked, so concurrent sweepers never claim the same lease. Leases without an end date
+     * are open-ended and never match. Served by {@code idx_leases_status_end_date}.
+     */
+    @Query(value = "SELECT lease_id AS leaseId, car_id AS carId, customer_id AS customerId FROM leases " +
+            "WHERE status = 'ACTIVE' AND end_date < :now ORDER BY end_date LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<ExpiredLeaseView> claimExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Locks up to {@code limit} ENDED leases that ended before {@code endedBefore}, oldest first, skipping rows another
+     * transaction has locked, for the lease archiver to move to the archive tier. Served by {@code idx_leases_status_end_date}.
+     */
+    @Query(value = "SELECT lease_id AS leaseId, car_id AS carId, customer_id AS customerId FROM leases " +
+            "WHERE status = 'ENDED' AND end_date < :endedBefore ORDER BY end_date LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<ExpiredLeaseView> claimEndedBefore(@Param("endedBefore") LocalDateTime endedBefore, @Param("limit") int limit);
+
+    /**
+     * Ends the still ACTIVE leases among {@code leaseIds}, keeping their scheduled end date.
+     */
+    @Modifying
+    @Query("UPDATE Lease l SET l.status = com.cars.management.enums.LeaseStatus.ENDED, l.version = l.version + 1 " +
+            "WHERE l.id IN :leaseIds AND l.status = com.cars.management.enums.LeaseStatus.ACTIVE")
+    int endAllIfActive(@Param("leaseIds") Collection<Integer> leaseIds);
+
+    /**
+     * Ends the still ACTIVE leases among {@code leaseIds} as of {@code endDate}.
+     */
+    @Modifying
+    @Query("UPDATE Lease l SET l.status = com.cars.management.enums.LeaseStatus.ENDED, l.version = l.version + 1, l.endDate = :endDate " +
+            "WHERE l.id IN :leaseIds AND l.status = com.cars.management.enums.LeaseStatus.ACTIVE")
+    int endAllIfActive(@Param("leaseIds") Collection<Integer> leaseIds, @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Loads and locks the existing leases among {@code leaseIds} in id order, so two batches over the same
+     * leases queue instead of deadlocking. Car and customer stay unloaded proxies.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Lease l WHERE l.id IN :leaseIds ORDER BY l.id")
+    List<Lease> lockAllById(@Param("leaseIds") Collection<Integer> leaseIds);
+
+    /**
+     * Locks up to {@code limit} leases of the owner's cars, in id order, for a deletion job to delete. Served by
+     * {@code idx_cars_owner_id} and {@code idx_leases_car_id_status}.
+     */
+    @Query(value = "SELECT lease_id AS leaseId, car_id AS carId, customer_id AS customerId, status FROM leases " +
+            "WHERE car_id IN (SELECT car_id FROM cars WHERE owner_id = :ownerId) ORDER BY lease_id LIMIT :limit FOR UPDATE",
+            nativeQuery = true)
+    List<DependentLeaseView> lockChunkByOwnerId(@Param("ownerId") Integer ownerId, @Param("limit") int limit);
+
+    /**
+     * Locks up to {@code limit} leases of the customer, in id order, for a deletion job to delete. Served by
+     * {@code idx_leases_customer_id_status}.
+     */
+    @Query(value = "SELECT lease_id AS leaseId, car_id AS carId, customer_id AS customerId, status FROM leases " +
+            "WHERE customer_id = :customerId ORDER BY lease_id LIMIT :limit FOR UPDATE",
+            nativeQuery = true)
+    List<DependentLeaseView> lockChunkByCustomerId(@Param("customerId") Integer customerId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Lease l WHERE l.id IN :leaseIds")
+    int deleteAllByIdIn(@Param("leaseIds") Collection<Integer> leaseIds);
 }
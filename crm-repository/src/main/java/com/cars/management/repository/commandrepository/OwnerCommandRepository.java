@@ -1,8 +1,48 @@
 package com.cars.management.repository.commandrepository;
 
 import com.cars.management.entity.Owner;
+import com.cars.management.repository.projection.ContactView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.stream.Stream;
+
+// pending_deletion is not mapped by Owner, whose reads filter on it, so the deletion statements are native
 public interface OwnerCommandRepository extends JpaRepository<Owner, Integer> {
 
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Hides the owner from every read until its deletion job removes it. Returns the number of rows changed,
+     * so 0 means the owner is missing or already pending deletion.
+     */
+    @Modifying
+    @Query(value = "UPDATE owners SET pending_deletion = TRUE, version = version + 1 " +
+            "WHERE owner_id = :ownerId AND pending_deletion = FALSE", nativeQuery = true)
+    int markPendingDeletion(@Param("ownerId") Integer ownerId);
+
+    /**
+     * Deletes the owner once its cars are gone, only if it is pending deletion.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM owners WHERE owner_id = :ownerId AND pending_deletion = TRUE", nativeQuery = true)
+    int deletePendingById(@Param("ownerId") Integer ownerId);
+
+    /**
+     * Scrolls over the name, email and phone number of every visible owner in id order, for the contact search
+     * index. Read through the command repository so the snapshot comes from the primary. Must be consumed inside a
+     * transaction and closed by the caller; rows are fetched from the driver in batches of {@link #STREAM_FETCH_SIZE}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.cars.management.repository.projection.ContactView(o.id, o.name, o.email, o.phoneNumber) " +
+            "FROM Owner o ORDER BY o.id")
+    Stream<ContactView> streamAllContactViews();
 }
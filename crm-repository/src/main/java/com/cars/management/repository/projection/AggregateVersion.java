@@ -0,0 +1,20 @@
+package com.cars.management.repository.projection;
+
+/**
+ * Version of an entity together with the members its GET endpoint renders (a car's leases, a customer's leases
+ * and their cars, an owner's cars and their leases), read by one aggregate query without loading either.
+ * <p>
+ * Any change to the rendered data changes the signature: an update increments a version, and an insert or delete
+ * changes the member count, or the id sum with an equal count, because new ids are always higher than the ids of
+ * removed members.
+ */
+public record AggregateVersion(
+        Long version,
+        Long members,
+        Long memberVersions,
+        Long memberIds) {
+
+    public String signature() {
+        return version + "-" + members + "-" + memberVersions + "-" + memberIds;
+    }
+}
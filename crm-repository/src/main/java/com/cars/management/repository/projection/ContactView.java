@@ -0,0 +1,12 @@
+package com.cars.management.repository.projection;
+
+/**
+ * Name, email and phone number of a customer or owner, the fields the contact search index matches on.
+ * Built by a JPQL constructor expression, so streaming every row adds nothing to the persistence context.
+ */
+public record ContactView(
+        Integer id,
+        String name,
+        String email,
+        String phoneNumber) {
+}
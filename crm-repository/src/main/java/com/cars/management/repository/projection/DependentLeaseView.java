@@ -0,0 +1,18 @@
+package com.cars.management.repository.projection;
+
+import com.cars.management.enums.LeaseStatus;
+
+/**
+ * A lease of an owner's car or of a customer, as locked by a deletion job before it is deleted. Read by a native
+ * locking query into an interface projection, so nothing is added to the persistence context.
+ */
+public interface DependentLeaseView {
+
+    Integer getLeaseId();
+
+    Integer getCarId();
+
+    Integer getCustomerId();
+
+    LeaseStatus getStatus();
+}
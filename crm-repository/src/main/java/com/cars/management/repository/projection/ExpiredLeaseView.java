@@ -0,0 +1,15 @@
+package com.cars.management.repository.projection;
+
+/**
+ * A lease claimed by a sweeper: an ACTIVE lease past its end date for the expiry sweeper, or an old ENDED lease for
+ * the lease archiver. Read by a native locking query into an interface projection, so nothing is added to the
+ * persistence context.
+ */
+public interface ExpiredLeaseView {
+
+    Integer getLeaseId();
+
+    Integer getCarId();
+
+    Integer getCustomerId();
+}
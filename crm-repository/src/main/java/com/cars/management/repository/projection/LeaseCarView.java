@@ -0,0 +1,20 @@
+package com.cars.management.repository.projection;
+
+import com.cars.management.enums.LeaseStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a lease joined with its car, built by a JPQL constructor expression.
+ * It is not an entity, so loading it adds nothing to the persistence context and takes no dirty-checking snapshot.
+ */
+public record LeaseCarView(
+        Integer leaseId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        LeaseStatus status,
+        Integer carId,
+        String model,
+        String variant,
+        Integer customerId) {
+}
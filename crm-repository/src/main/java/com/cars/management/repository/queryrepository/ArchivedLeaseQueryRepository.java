@@ -0,0 +1,61 @@
+package com.cars.management.repository.queryrepository;
+
+import com.cars.management.entity.ArchivedLease;
+import com.cars.management.repository.projection.AggregateVersion;
+import com.cars.management.repository.projection.LeaseCarView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchivedLeaseQueryRepository extends JpaRepository<ArchivedLease, Integer> {
+
+    // Same shape as LeaseQueryRepository.SELECT_LEASE_CAR_VIEW, so both tiers map to the same LeaseDto; archived leases are all ENDED
+    String STREAM_FETCH_SIZE = "500";
+
+    String SELECT_LEASE_CAR_VIEW = "SELECT new com.cars.management.repository.projection.LeaseCarView("
+            + "h.id, h.startDate, h.endDate, com.cars.management.enums.LeaseStatus.ENDED, c.id, c.model, c.variant, h.customerId) "
+            + "FROM ArchivedLease h JOIN h.car c ";
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE h.customerId = :customerId ORDER BY h.id")
+    List<LeaseCarView> findViewsByCustomerId(@Param("customerId") Integer customerId);
+
+    // Inner join so the plan can start from the owner's cars instead of scanning the archive
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE c.owner.id = :ownerId ORDER BY h.id")
+    List<LeaseCarView> findViewsByCarOwnerId(@Param("ownerId") Integer ownerId);
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE h.id = :leaseId")
+    Optional<LeaseCarView> findViewById(@Param("leaseId") Integer leaseId);
+
+    @Query(SELECT_LEASE_CAR_VIEW + "ORDER BY h.id")
+    List<LeaseCarView> findAllViews();
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE h.id > :afterId ORDER BY h.id")
+    List<LeaseCarView> findViewsByIdGreaterThan(@Param("afterId") Integer afterId, Limit limit);
+
+    /**
+     * Scrolls over every archived lease with its car in id order. Must be consumed inside a transaction
+     * and closed by the caller; rows are fetched from the driver in batches of {@link #STREAM_FETCH_SIZE}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_LEASE_CAR_VIEW + "ORDER BY h.id")
+    Stream<LeaseCarView> streamAllViews();
+
+    /**
+     * Signature of an archived lease and its car. Archived rows have no version and never change, so the lease part
+     * is fixed at -1, which no lease in the hot tier has; only an update of the car changes it.
+     */
+    @Query("SELECT new com.cars.management.repository.projection.AggregateVersion(-1L, COUNT(c), SUM(c.version), SUM(c.id)) " +
+            "FROM ArchivedLease h JOIN h.car c WHERE h.id = :leaseId GROUP BY h.id")
+    Optional<AggregateVersion> findAggregateVersionById(@Param("leaseId") Integer leaseId);
+}
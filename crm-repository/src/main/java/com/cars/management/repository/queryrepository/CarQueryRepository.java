@@ -1,13 +1,35 @@
 package com.cars.management.repository.queryrepository;
 
 import com.cars.management.entity.Car;
+import com.cars.management.enums.CarStatus;
+import com.cars.management.repository.projection.AggregateVersion;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CarQueryRepository extends JpaRepository<Car, Integer> {
-    @Query(value = "SELECT * FROM cars WHERE status = :status", nativeQuery = true)
-    List<Car> findByStatus(@Param("status") String status);
+
+    @EntityGraph(Car.GRAPH_LEASES)
+    Optional<Car> findWithLeasesById(Integer carId);
+
+    @EntityGraph(Car.GRAPH_LEASES)
+    List<Car> findWithLeasesByStatus(CarStatus status);
+
+    @EntityGraph(Car.GRAPH_LEASES)
+    List<Car> findWithLeasesByOwnerId(Integer ownerId);
+
+    @EntityGraph(Car.GRAPH_LEASES)
+    List<Car> findWithLeasesByOwnerIdIn(Collection<Integer> ownerIds);
+
+    /**
+     * Signature of the car and its leases, as rendered by {@code getCarStatusAndDetails}; empty if the car does not exist.
+     */
+    @Query("SELECT new com.cars.management.repository.projection.AggregateVersion(c.version, COUNT(l), COALESCE(SUM(l.version), 0L), COALESCE(SUM(l.id), 0L)) " +
+            "FROM Car c LEFT JOIN c.leases l WHERE c.id = :carId GROUP BY c.id, c.version")
+    Optional<AggregateVersion> findAggregateVersionById(@Param("carId") Integer carId);
 }
@@ -1,7 +1,28 @@
 package com.cars.management.repository.queryrepository;
 
 import com.cars.management.entity.Customer;
+import com.cars.management.repository.projection.AggregateVersion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CustomerQueryRepository extends JpaRepository<Customer, Integer> {
+
+    @EntityGraph(Customer.GRAPH_LEASES_WITH_CAR)
+    Optional<Customer> findWithLeasesById(Integer customerId);
+
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    /**
+     * Signature of the customer, their leases and the leased cars, as rendered by {@code getCustomerById};
+     * empty if the customer does not exist.
+     */
+    @Query("SELECT new com.cars.management.repository.projection.AggregateVersion(c.version, COUNT(l), COALESCE(SUM(l.version + car.version), 0L), COALESCE(SUM(l.id), 0L)) " +
+            "FROM Customer c LEFT JOIN c.leases l LEFT JOIN l.car car WHERE c.id = :customerId GROUP BY c.id, c.version")
+    Optional<AggregateVersion> findAggregateVersionById(@Param("customerId") Integer customerId);
 }
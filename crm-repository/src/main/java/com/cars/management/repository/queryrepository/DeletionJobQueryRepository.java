@@ -0,0 +1,8 @@
+package com.cars.management.repository.queryrepository;
+
+import com.cars.management.entity.DeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DeletionJobQueryRepository extends JpaRepository<DeletionJob, Long> {
+
+}
@@ -1,16 +1,69 @@
 package com.cars.management.repository.queryrepository;
 
 import com.cars.management.entity.Lease;
+import com.cars.management.enums.LeaseStatus;
+import com.cars.management.repository.projection.AggregateVersion;
+import com.cars.management.repository.projection.LeaseCarView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LeaseQueryRepository extends JpaRepository<Lease, Integer> {
 
-    @Query(value = "SELECT * FROM leases WHERE status = :status", nativeQuery = true)
-    List<Lease> findByLeaseByStatus(@Param("status") String status);
-    @Query(value = "SELECT * FROM leases WHERE status = :status AND customer_id = :customerId", nativeQuery = true)
-    List<Lease> findByCustomerIdAndStatus(@Param("customerId") Integer customerId, @Param("status") String status);
+    String STREAM_FETCH_SIZE = "500";
+
+    // Selects only the columns of LeaseCarView; l.customer.id is the lease's own foreign key and needs no join
+    String SELECT_LEASE_CAR_VIEW = "SELECT new com.cars.management.repository.projection.LeaseCarView("
+            + "l.id, l.startDate, l.endDate, l.status, c.id, c.model, c.variant, l.customer.id) "
+            + "FROM Lease l JOIN l.car c ";
+
+    @EntityGraph(Lease.GRAPH_CAR)
+    Optional<Lease> findWithCarById(Integer leaseId);
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE l.id = :leaseId")
+    Optional<LeaseCarView> findViewById(@Param("leaseId") Integer leaseId);
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE l.status = :status")
+    List<LeaseCarView> findViewsByStatus(@Param("status") LeaseStatus status);
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE l.customer.id = :customerId")
+    List<LeaseCarView> findViewsByCustomerId(@Param("customerId") Integer customerId);
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE l.customer.id IN :customerIds")
+    List<LeaseCarView> findViewsByCustomerIdIn(@Param("customerIds") Collection<Integer> customerIds);
+
+    // Inner join so the plan can start from the owner's cars instead of scanning leases
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE c.owner.id = :ownerId")
+    List<LeaseCarView> findViewsByCarOwnerId(@Param("ownerId") Integer ownerId);
+
+    @Query(SELECT_LEASE_CAR_VIEW + "WHERE l.id > :afterId ORDER BY l.id")
+    List<LeaseCarView> findViewsByIdGreaterThan(@Param("afterId") Integer afterId, Limit limit);
+
+    /**
+     * Scrolls over every lease with its car in id order. Must be consumed inside a transaction
+     * and closed by the caller; rows are fetched from the driver in batches of {@link #STREAM_FETCH_SIZE}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_LEASE_CAR_VIEW + "ORDER BY l.id")
+    Stream<LeaseCarView> streamAllViews();
+
+    /**
+     * Signature of the lease and its car, as rendered by {@code getLeaseDetailsById}; empty if the lease does not exist.
+     */
+    @Query("SELECT new com.cars.management.repository.projection.AggregateVersion(l.version, COUNT(c), SUM(c.version), SUM(c.id)) " +
+            "FROM Lease l JOIN l.car c WHERE l.id = :leaseId GROUP BY l.id, l.version")
+    Optional<AggregateVersion> findAggregateVersionById(@Param("leaseId") Integer leaseId);
 }
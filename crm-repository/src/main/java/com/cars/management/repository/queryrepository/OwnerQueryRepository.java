@@ -2,9 +2,30 @@ package com.cars.management.repository.queryrepository;
 
 
 import com.cars.management.entity.Owner;
+import com.cars.management.repository.projection.AggregateVersion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface OwnerQueryRepository extends JpaRepository<Owner, Integer> {
+
+    List<Owner> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    /**
+     * Signature of the owner, their cars and the cars' leases, as rendered by {@code getOwnerById}; empty if the
+     * owner does not exist. A car appears once per lease in the join, so its id is summed once with DISTINCT and
+     * its version once per row, which still grows whenever the car changes.
+     */
+    @Query("SELECT new com.cars.management.repository.projection.AggregateVersion(o.version, COUNT(DISTINCT c.id) + COUNT(l), " +
+            "COALESCE(SUM(c.version), 0L) + COALESCE(SUM(l.version), 0L), " +
+            "COALESCE(SUM(DISTINCT c.id), 0L) + COALESCE(SUM(l.id), 0L)) " +
+            "FROM Owner o LEFT JOIN o.cars c LEFT JOIN c.leases l WHERE o.id = :ownerId GROUP BY o.id, o.version")
+    Optional<AggregateVersion> findAggregateVersionById(@Param("ownerId") Integer ownerId);
+
 //    @Query(value = "SELECT \n" +
 //            "    o.owner_id AS ownerId, \n" +
 //            "    c.car_id AS carId,\n" +